@@ -1,8 +1,11 @@
 package com.muscledia.Gamification_service.config;
 
+import com.muscledia.Gamification_service.service.scheduled.SchedulerLockPostProcessor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -77,6 +80,15 @@ public class AsyncConfig {
         return scheduler;
     }
 
+    /**
+     * Mongo lease around @SchedulerLock jobs, so each run happens on one replica
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static SchedulerLockPostProcessor schedulerLockPostProcessor() {
+        return new SchedulerLockPostProcessor();
+    }
+
     /**
      * Dedicated executor for heavy background processing
      */
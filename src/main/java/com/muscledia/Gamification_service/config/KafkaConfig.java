@@ -1,5 +1,7 @@
 package com.muscledia.Gamification_service.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -32,9 +34,12 @@ import java.util.Map;
  */
 @Configuration
 @EnableKafka
+@RequiredArgsConstructor
 @ConditionalOnProperty(value = "gamification.events.processing.enabled", havingValue = "true")
 public class KafkaConfig {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
@@ -169,7 +174,9 @@ public class KafkaConfig {
         props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, true);
         props.put(JsonSerializer.TYPE_MAPPINGS, getTypeMapping());
 
-        return new DefaultKafkaProducerFactory<>(props);
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(props);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -221,7 +228,10 @@ public class KafkaConfig {
         props.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, 10000);
         props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 300000); // 5 minutes
 
-        return new DefaultKafkaConsumerFactory<>(props);
+        // Client metrics (per-partition records lag, fetch latency) are bound to the meter registry
+        DefaultKafkaConsumerFactory<String, Object> factory = new DefaultKafkaConsumerFactory<>(props);
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     // UPDATED: Support WorkoutCompletedEvent by using Object as the value type
@@ -241,6 +251,24 @@ public class KafkaConfig {
         return factory;
     }
 
+    /**
+     * Same consumers, but each listener call receives a whole poll, so work buffered
+     * per record can be flushed once before the poll's offsets are acknowledged
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(3);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(errorHandler());
+        factory.setBatchListener(true);
+
+        return factory;
+    }
+
     // ===============================
     // ERROR HANDLING
     // ===============================
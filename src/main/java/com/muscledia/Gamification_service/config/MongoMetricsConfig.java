@@ -0,0 +1,51 @@
+package com.muscledia.Gamification_service.config;
+
+import com.muscledia.Gamification_service.service.monitoring.MongoCommandMetrics;
+import com.muscledia.Gamification_service.service.monitoring.RepositoryMethodTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Database latency instrumentation: registers the command listener on the Mongo client
+ * and adds the repository method tracker to every repository proxy.
+ */
+@Configuration
+@ConditionalOnProperty(value = "gamification.mongo-metrics.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class MongoMetricsConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer commandMetricsCustomizer(MongoCommandMetrics commandMetrics) {
+        log.info("Registering Mongo command latency listener");
+        return settings -> settings.addCommandListener(commandMetrics);
+    }
+
+    /**
+     * Static so it is registered before the repository factory beans it customizes; the
+     * tracker is resolved on first call, after the meter registry exists
+     */
+    @Bean
+    public static BeanPostProcessor repositoryMethodTracking(ObjectProvider<RepositoryMethodTracker> tracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                                String repository = repositoryInformation.getRepositoryInterface().getSimpleName();
+                                proxyFactory.addAdvice((MethodInterceptor) invocation ->
+                                        tracker.getObject().invoke(repository, invocation));
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+}
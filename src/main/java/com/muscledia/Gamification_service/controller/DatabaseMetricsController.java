@@ -0,0 +1,63 @@
+package com.muscledia.Gamification_service.controller;
+
+import com.muscledia.Gamification_service.dto.response.ApiResponse;
+import com.muscledia.Gamification_service.service.monitoring.MongoCommandMetrics;
+import com.muscledia.Gamification_service.service.monitoring.SlowQuerySampler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Database time dashboard: which repository methods dominate Mongo time, and the most
+ * recent slow commands with their query shapes. The underlying meters
+ * (gamification.mongo.*, gamification.repository.invocations) are also available via
+ * /actuator/metrics.
+ */
+@RestController
+@RequestMapping("/api/v1/database")
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseMetricsController {
+
+    private final MongoCommandMetrics commandMetrics;
+    private final SlowQuerySampler slowQuerySampler;
+
+    /**
+     * Database time per repository method plus recent slow commands
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getDatabaseMetrics(
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("repositoryMethods", commandMetrics.topRepositoryMethods(Math.max(1, Math.min(limit, 200))));
+            metrics.put("slowThresholdMs", slowQuerySampler.getThresholdMs());
+            metrics.put("slowCommands", slowQuerySampler.recent());
+
+            return ResponseEntity.ok(ApiResponse.success("Database metrics retrieved", metrics));
+
+        } catch (Exception e) {
+            log.error("Error retrieving database metrics", e);
+            return ResponseEntity.status(500)
+                    .body(ApiResponse.error("Failed to retrieve database metrics: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Most recent commands slower than the threshold, newest first
+     */
+    @GetMapping("/slow-queries")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSlowQueries() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("thresholdMs", slowQuerySampler.getThresholdMs());
+        response.put("commands", slowQuerySampler.recent());
+        return ResponseEntity.ok(ApiResponse.success("Slow queries retrieved", response));
+    }
+}
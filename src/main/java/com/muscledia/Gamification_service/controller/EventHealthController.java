@@ -5,6 +5,7 @@ import com.muscledia.Gamification_service.event.handler.EventProcessingService;
 import com.muscledia.Gamification_service.event.publisher.TransactionalEventPublisher;
 import com.muscledia.Gamification_service.service.EventOutboxService;
 import com.muscledia.Gamification_service.service.OutboxEventProcessor;
+import com.muscledia.Gamification_service.service.monitoring.EventPipelineMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -25,6 +26,7 @@ import java.util.Map;
  * - Outbox processing status
  * - Event processing statistics
  * - Cache performance metrics
+ * - Pipeline latency (stage timings, event age, outbox depth, consumer lag)
  * 
  * No Redis dependency - uses MongoDB and in-memory monitoring
  */
@@ -39,6 +41,7 @@ public class EventHealthController {
     private final EventOutboxService eventOutboxService;
     private final OutboxEventProcessor outboxProcessor;
     private final EventProcessingService eventProcessingService;
+    private final EventPipelineMetrics pipelineMetrics;
 
     /**
      * Overall health check for all EDA components
@@ -137,6 +140,9 @@ public class EventHealthController {
             dashboard.put("processing", Map.of(
                     "processedEventCount", eventProcessingService.getProcessedEventCount()));
 
+            // Pipeline latency: per-stage timings, event age, outbox depth, consumer lag
+            dashboard.put("pipeline", pipelineMetrics.snapshot());
+
             // Health indicators
             dashboard.put("health", Map.of(
                     "publisher", eventPublisher.isHealthy(),
@@ -192,6 +198,9 @@ public class EventHealthController {
             metrics.put("cache_size", cacheStats.size());
             metrics.put("publisher_healthy", eventPublisher.isHealthy() ? 1 : 0);
             metrics.put("processor_healthy", outboxProcessor.isHealthy() ? 1 : 0);
+            metrics.put("outbox_depth", pipelineMetrics.getOutboxPending());
+            metrics.put("consumer_lag_max", pipelineMetrics.consumerLag().values().stream()
+                    .mapToLong(Long::longValue).max().orElse(0L));
 
             return ResponseEntity.ok(ApiResponse.success("Event metrics retrieved", metrics));
 
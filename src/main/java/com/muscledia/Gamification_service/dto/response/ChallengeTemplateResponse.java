@@ -0,0 +1,55 @@
+package com.muscledia.Gamification_service.dto.response;
+
+import com.muscledia.Gamification_service.model.enums.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Challenge template as offered to a user who has not started it yet
+ * Targets and rewards are resolved for the user's preferred difficulty
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChallengeTemplateResponse {
+
+    // ========== IDENTITY ==========
+    private String id;
+    private String name;
+    private String description;
+
+    // ========== CLASSIFICATION ==========
+    private ChallengeType type;              // DAILY, WEEKLY, MONTHLY
+    private ObjectiveType objectiveType;     // REPS, DURATION, EXERCISES
+    private DifficultyLevel difficultyLevel; // Difficulty the target and reward are resolved for
+
+    // ========== TARGETS & REWARDS ==========
+    private Integer targetValue;
+    private Integer rewardPoints;
+    private Integer rewardCoins;
+    private Integer experiencePoints;
+    private String progressUnit;             // "reps", "minutes", "kg"
+
+    // ========== JOURNEY & PREREQUISITES ==========
+    private String journeyPhase;             // "foundation", "building", "mastery"
+    private Set<String> journeyTags;
+    private List<ChallengeResponse.PrerequisiteInfo> prerequisites;
+    private List<ChallengeResponse.UnlockInfo> unlocks;
+    private Boolean isEligible;
+    private String ineligibilityReason;
+
+    // ========== UI FLAGS ==========
+    private Boolean isMilestone;
+    private Boolean isLegendary;
+
+    // ========== METADATA ==========
+    private String completionMessage;
+    private List<String> exerciseFocus;
+    private String safetyNote;
+}
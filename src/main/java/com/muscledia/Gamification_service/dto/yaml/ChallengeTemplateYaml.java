@@ -51,6 +51,9 @@ public class ChallengeTemplateYaml {
         private Boolean milestone;
         private Boolean legendary;
 
+        // Relative selection weight for scheduled generation (default 1.0)
+        private Double weight;
+
         @JsonProperty("measurement_unit")
         private String measurementUnit;
 
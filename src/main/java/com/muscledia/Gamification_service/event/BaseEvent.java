@@ -37,6 +37,8 @@ import java.util.UUID;
         @JsonSubTypes.Type(value = ChallengeStartedEvent.class, name = "CHALLENGE_STARTED"),
         @JsonSubTypes.Type(value = ChallengeProgressEvent.class, name = "CHALLENGE_PROGRESS"),
         @JsonSubTypes.Type(value = ChallengeCompletedEvent.class, name = "CHALLENGE_COMPLETED"),
+        @JsonSubTypes.Type(value = ChallengeExpiredEvent.class, name = "CHALLENGE_EXPIRED"),
+        @JsonSubTypes.Type(value = QuestExpiredEvent.class, name = "QUEST_EXPIRED"),
 
         // ========== GAMIFICATION-SERVICE CONSUMES (inbound from workout-service) ==========
         @JsonSubTypes.Type(value = WorkoutCompletedEvent.class, name = "WORKOUT_COMPLETED"),
@@ -0,0 +1,55 @@
+package com.muscledia.Gamification_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+/**
+ * PURPOSE: Event data for a user challenge that ran out of time before completion
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@SuperBuilder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChallengeExpiredEvent extends BaseEvent {
+    private String userChallengeId;
+    private String challengeId;
+    private String challengeName;
+    private String challengeType;
+    private Integer finalProgress;
+    private Integer targetValue;
+    private Instant expiredAt;
+    private String expiryRunId;
+
+    @Override
+    public String getEventType() {
+        return "CHALLENGE_EXPIRED";
+    }
+
+    @Override
+    public boolean isValid() {
+        return isBaseValid() && challengeId != null;
+    }
+
+    @Override
+    public BaseEvent withNewTimestamp() {
+        return this.toBuilder()
+                .timestamp(Instant.now())
+                .build();
+    }
+
+    @Override
+    public double getIntensityScore() {
+        return 0;
+    }
+
+    @Override
+    public boolean isStreakEligible() {
+        return false;
+    }
+}
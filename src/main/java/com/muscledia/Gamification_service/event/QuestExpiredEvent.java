@@ -0,0 +1,52 @@
+package com.muscledia.Gamification_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.Instant;
+
+/**
+ * PURPOSE: Event data for quest progress failed because the quest ended
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@SuperBuilder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestExpiredEvent extends BaseEvent {
+    private String questProgressId;
+    private String questId;
+    private Integer finalProgress;
+    private Instant expiredAt;
+    private String expiryRunId;
+
+    @Override
+    public String getEventType() {
+        return "QUEST_EXPIRED";
+    }
+
+    @Override
+    public boolean isValid() {
+        return isBaseValid() && questId != null;
+    }
+
+    @Override
+    public BaseEvent withNewTimestamp() {
+        return this.toBuilder()
+                .timestamp(Instant.now())
+                .build();
+    }
+
+    @Override
+    public double getIntensityScore() {
+        return 0;
+    }
+
+    @Override
+    public boolean isStreakEligible() {
+        return false;
+    }
+}
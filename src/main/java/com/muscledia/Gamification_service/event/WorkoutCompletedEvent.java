@@ -61,6 +61,9 @@ public class WorkoutCompletedEvent extends BaseEvent {
     @JsonProperty("metadata")
     private Map<String, Object> metadata;
 
+    @JsonProperty("timeZone")
+    private String timeZone;  // IANA zone id of the user's device (optional)
+
     public WorkoutCompletedEvent() {
         super();
     }
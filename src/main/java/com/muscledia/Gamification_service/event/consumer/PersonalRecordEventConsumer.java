@@ -3,6 +3,7 @@ package com.muscledia.Gamification_service.event.consumer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.muscledia.Gamification_service.event.PersonalRecordEvent;
 import com.muscledia.Gamification_service.event.handler.PersonalRecordEventHandler;
+import com.muscledia.Gamification_service.service.ActiveUserEstimationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -24,6 +25,7 @@ public class PersonalRecordEventConsumer {
 
     private final PersonalRecordEventHandler personalRecordEventHandler;
     private final ObjectMapper objectMapper;
+    private final ActiveUserEstimationService activeUserEstimation;
 
     @KafkaListener(
             topics = "personal-record-events",
@@ -63,6 +65,8 @@ public class PersonalRecordEventConsumer {
                 return;
             }
 
+            activeUserEstimation.recordActivity(event.getUserId(), event.getTimestamp());
+
             log.info("🎯 Processing PersonalRecord: user={}, exercise={}, type={}, value={}",
                     event.getUserId(), event.getExerciseName(), event.getRecordType(), event.getNewValue());
 
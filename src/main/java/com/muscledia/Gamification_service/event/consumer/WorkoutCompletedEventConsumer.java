@@ -3,6 +3,9 @@ package com.muscledia.Gamification_service.event.consumer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.muscledia.Gamification_service.event.WorkoutCompletedEvent;
 import com.muscledia.Gamification_service.event.handler.WorkoutEventHandler;
+import com.muscledia.Gamification_service.service.ActiveUserEstimationService;
+import com.muscledia.Gamification_service.service.monitoring.EventPipelineMetrics;
+import com.muscledia.Gamification_service.service.profile.ProfileCounterBuffer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +14,8 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,33 +29,76 @@ import java.util.Map;
 public class WorkoutCompletedEventConsumer {
     private final WorkoutEventHandler workoutEventHandler;
     private final ObjectMapper objectMapper;
+    private final ActiveUserEstimationService activeUserEstimation;
+    private final ProfileCounterBuffer profileCounters;
+    private final EventPipelineMetrics pipelineMetrics;
 
+    /**
+     * One call per poll: records are handled one by one, buffered profile counters are
+     * written once for the whole poll, and then the poll is acknowledged
+     */
     @KafkaListener(
             topics = "${kafka.topics.workout-events:workout-events}",
             groupId = "${kafka.consumer.group-id:gamification-service-group}",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "batchKafkaListenerContainerFactory"
     )
-    public void handleWorkoutCompleted(
-            ConsumerRecord<String, Object> record,
+    public void handleWorkoutsCompleted(
+            List<ConsumerRecord<String, Object>> records,
             Acknowledgment acknowledgment) {
 
+        List<WorkoutCompletedEvent> applied = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Object> record : records) {
+            WorkoutCompletedEvent event = handleWorkoutCompleted(record);
+            if (event != null) {
+                applied.add(event);
+            }
+        }
+        if (!acknowledge(acknowledgment)) {
+            return;
+        }
+        for (WorkoutCompletedEvent event : applied) {
+            pipelineMetrics.recordAge(EventPipelineMetrics.AGE_APPLIED, event.getEventType(), event.getTimestamp());
+        }
+    }
+
+    /**
+     * RETURNS: the handled event, or null when the record was skipped or failed
+     */
+    private WorkoutCompletedEvent handleWorkoutCompleted(ConsumerRecord<String, Object> record) {
         try {
             WorkoutCompletedEvent event = deserializeEvent(record.value());
 
             if (event == null || !event.isValid()) {
                 log.warn("Invalid workout event, skipping");
-                acknowledgment.acknowledge();
-                return;
+                return null;
             }
 
+            String eventType = event.getEventType();
+            pipelineMetrics.recordAge(EventPipelineMetrics.AGE_CONSUMED, eventType, event.getTimestamp());
+            activeUserEstimation.recordActivity(event.getUserId(), event.getTimestamp());
+
             // Process - handler will log meaningful events
-            workoutEventHandler.handleWorkoutCompleted(event);
-            acknowledgment.acknowledge();
+            pipelineMetrics.time("handler", eventType, () -> workoutEventHandler.handleWorkoutCompleted(event));
+            return event;
 
         } catch (Exception e) {
             log.error("Failed to process workout event: {}", e.getMessage());
-            acknowledgment.acknowledge();
+            return null;
+        }
+    }
+
+    /**
+     * Buffered profile counters of the poll are written before its offsets are committed.
+     * If they could not be written the poll is left unacknowledged: the deltas stay
+     * buffered, and the offsets are committed with the next poll whose flush succeeds.
+     */
+    private boolean acknowledge(Acknowledgment acknowledgment) {
+        if (!profileCounters.flushBeforeCommit()) {
+            log.warn("Buffered profile counters not written, leaving offsets uncommitted");
+            return false;
         }
+        acknowledgment.acknowledge();
+        return true;
     }
 
     /**
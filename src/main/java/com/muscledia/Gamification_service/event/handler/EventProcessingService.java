@@ -1,5 +1,6 @@
 package com.muscledia.Gamification_service.event.handler;
 
+import com.muscledia.Gamification_service.service.scheduled.SchedulerLock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -154,6 +155,7 @@ public class EventProcessingService {
      * Clean up old processed events (runs daily at 3 AM)
      */
     @Scheduled(cron = "0 0 3 * * ?")
+    @SchedulerLock(name = "processed-events-cleanup", lockAtLeastFor = "PT5M")
     public void cleanupOldProcessedEvents() {
         try {
             Instant cutoffTime = Instant.now().minus(EVENT_TRACKING_TTL);
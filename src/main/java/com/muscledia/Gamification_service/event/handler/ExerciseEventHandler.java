@@ -4,6 +4,7 @@ import com.muscledia.Gamification_service.event.ExerciseCompletedEvent;
 import com.muscledia.Gamification_service.model.Badge;
 import com.muscledia.Gamification_service.service.BadgeService;
 import com.muscledia.Gamification_service.service.UserGamificationService;
+import com.muscledia.Gamification_service.service.profile.ProfileCounterBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -29,6 +30,7 @@ public class ExerciseEventHandler {
 
     private final BadgeService badgeService;
     private final UserGamificationService userGamificationService;
+    private final ProfileCounterBuffer profileCounters;
 
     @Transactional
     public void handleExerciseCompleted(ExerciseCompletedEvent event) {
@@ -60,7 +62,12 @@ public class ExerciseEventHandler {
 
             int totalPoints = basePoints + volumeBonus + intensityBonus;
 
-            userGamificationService.updateUserPoints(event.getUserId(), totalPoints);
+            // A workout emits one event per exercise; coalesce them into a single write when buffered
+            if (profileCounters.isEnabled()) {
+                profileCounters.addPoints(event.getUserId(), totalPoints);
+            } else {
+                userGamificationService.updateUserPoints(event.getUserId(), totalPoints);
+            }
 
             log.debug("Awarded {} points to user {} for exercise {}",
                     totalPoints, event.getUserId(), event.getExerciseName());
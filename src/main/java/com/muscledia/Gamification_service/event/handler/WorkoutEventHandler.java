@@ -1,7 +1,10 @@
 package com.muscledia.Gamification_service.event.handler;
 
 import com.muscledia.Gamification_service.event.WorkoutCompletedEvent;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
 import com.muscledia.Gamification_service.service.*;
+import com.muscledia.Gamification_service.service.monitoring.EventPipelineMetrics;
+import com.muscledia.Gamification_service.service.profile.ProfileCounterBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -22,47 +25,46 @@ public class WorkoutEventHandler {
     private final StreakService streakService;
     private final FitnessCoinsService fitnessCoinsService;
     private final ChallengeProgressService challengeProgressService;
+    private final ProfileCounterBuffer profileCounters;
+    private final EventPipelineMetrics pipelineMetrics;
 
     @Transactional
     public void handleWorkoutCompleted(WorkoutCompletedEvent event) {
         Long userId = event.getUserId();
 
         try {
-            // 1. Update streaks
-            StreakService.StreakUpdateResult streakResult = streakService.updateStreaks(userId, event.getTimestamp());
-
-            // 2. Increment workout count & duration
-            var profile = userGamificationService.createOrGetUserProfile(userId);
-            profile.incrementWorkoutCount();
+            String eventType = event.getEventType();
 
-            // Track total workout time
-            if (event.getDurationMinutes() != null) {
-                int currentMinutes = profile.getTotalWorkoutMinutes() != null ?
-                        profile.getTotalWorkoutMinutes() : 0;
-                profile.setTotalWorkoutMinutes(currentMinutes + event.getDurationMinutes());
-            }
-
-            userGamificationService.saveUserProfile(profile);
+            // 1. Update streaks
+            StreakService.StreakUpdateResult streakResult = pipelineMetrics.time("handler.streaks", eventType,
+                    () -> streakService.updateStreaks(userId, event.getTimestamp(), event.getTimeZone()));
 
-            // 3. Award XP points (for leveling)
+            // 2-3. Increment workout count & duration, award XP points (for leveling)
             int xpPoints = calculateXPPoints(event);
-            var levelUpResult = userGamificationService.updateUserPoints(userId, xpPoints);
+            int durationMinutes = event.getDurationMinutes() != null ? event.getDurationMinutes() : 0;
+            UserGamificationProfile levelUpResult = pipelineMetrics.time("handler.counters", eventType,
+                    () -> applyCounters(event, xpPoints, durationMinutes));
 
             // 4. Award Fitness Coins (spendable currency) - NOW BLOCKING
-            fitnessCoinsService.awardWorkoutCoins(
+            pipelineMetrics.time("handler.coins", eventType, () -> fitnessCoinsService.awardWorkoutCoins(
                     userId,
-                    event.getDurationMinutes() != null ? event.getDurationMinutes() : 0,
+                    durationMinutes,
                     0,  // PRs handled separately
                     streakResult.getWeeklyStreak() != null ? streakResult.getWeeklyStreak() : 0
-            );
+            ));
 
             // 5. Update workout streak
             boolean streakEligible = event.getDurationMinutes() != null &&
                     event.getDurationMinutes() >= 15;
-            userGamificationService.updateUserStreak(userId, "workout", streakEligible);
+            pipelineMetrics.time("handler.workoutStreak", eventType,
+                    () -> userGamificationService.updateUserStreak(userId, "workout", streakEligible));
 
             // 6. Process achievements
-            achievementService.processWorkoutAchievements(event);
+            pipelineMetrics.time("handler.achievements", eventType,
+                    () -> achievementService.processWorkoutAchievements(event));
+
+            // 7. Advance active challenges (failures are logged, not rethrown)
+            pipelineMetrics.time("handler.challenges", eventType, () -> updateActiveChallenges(userId, event));
 
             // SIGNAL: Log only meaningful events
             logUserFacingEvents(userId, xpPoints, levelUpResult != null, streakResult);
@@ -73,6 +75,35 @@ public class WorkoutEventHandler {
         }
     }
 
+    /**
+     * Workout count, minutes and XP; returns the updated profile when written through,
+     * null when the counters went to the write-behind buffer
+     */
+    private UserGamificationProfile applyCounters(WorkoutCompletedEvent event, int xpPoints, int durationMinutes) {
+        Long userId = event.getUserId();
+
+        if (profileCounters.isEnabled()) {
+            // Counters are coalesced and written by the buffer; level-ups are detected on flush
+            userGamificationService.createOrGetUserProfile(userId);
+            profileCounters.addWorkout(userId, durationMinutes, event.getTimestamp());
+            profileCounters.addPoints(userId, xpPoints);
+            return null;
+        }
+
+        var profile = userGamificationService.createOrGetUserProfile(userId);
+        profile.incrementWorkoutCount();
+
+        // Track total workout time
+        if (event.getDurationMinutes() != null) {
+            int currentMinutes = profile.getTotalWorkoutMinutes() != null ?
+                    profile.getTotalWorkoutMinutes() : 0;
+            profile.setTotalWorkoutMinutes(currentMinutes + event.getDurationMinutes());
+        }
+
+        userGamificationService.saveUserProfile(profile);
+        return userGamificationService.updateUserPoints(userId, xpPoints);
+    }
+
     /**
      * SIMPLIFIED: Clear point formula
      */
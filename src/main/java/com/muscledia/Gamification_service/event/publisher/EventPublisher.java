@@ -2,6 +2,8 @@ package com.muscledia.Gamification_service.event.publisher;
 
 import com.muscledia.Gamification_service.event.*;
 
+import java.util.List;
+
 /**
  * PURPOSE: Abstract event publishing without knowing the implementation
  * RESPONSIBILITY: Define event publishing operations
@@ -13,6 +15,10 @@ public interface EventPublisher {
     void publishChallengeProgress(ChallengeProgressEvent event);
     void publishChallengeCompleted(ChallengeCompletedEvent event);
 
+    // Expiry sweeps publish in batches
+    void publishChallengesExpired(List<ChallengeExpiredEvent> events);
+    void publishQuestsExpired(List<QuestExpiredEvent> events);
+
     // Gamification Events
     void publishBadgeEarned(BadgeEarnedEvent event);
     void publishLevelUp(LevelUpEvent event);
@@ -6,6 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * PURPOSE: Simple event publisher implementation (no Kafka/Outbox dependency)
  * RESPONSIBILITY: Log events when full event processing is disabled
@@ -35,6 +37,16 @@ public class SimpleEventPublisher implements EventPublisher {
                 event.getUserId(), event.getChallengeName(), event.getPointsAwarded());
     }
 
+    @Override
+    public void publishChallengesExpired(List<ChallengeExpiredEvent> events) {
+        log.info("CHALLENGE_EXPIRED: {} user challenges expired", events.size());
+    }
+
+    @Override
+    public void publishQuestsExpired(List<QuestExpiredEvent> events) {
+        log.info("QUEST_EXPIRED: {} quest progresses failed", events.size());
+    }
+
     @Override
     public void publishBadgeEarned(BadgeEarnedEvent event) {
         log.info("🎖️ BADGE_EARNED: User {} earned badge '{}' ({})",
@@ -8,6 +8,8 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 /**
  * Transactional Event Publisher using the Outbox Pattern.
  * 
@@ -166,4 +168,20 @@ public class TransactionalEventPublisher implements EventPublisher {
         log.info("Stored challenge completed event {} for user {} in outbox",
                 event.getEventId(), event.getUserId());
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public void publishChallengesExpired(List<ChallengeExpiredEvent> events) {
+        events.forEach(this::validateEvent);
+        eventOutboxService.storeAllForPublishing(events);
+        log.info("Stored {} challenge expired events in outbox", events.size());
+    }
+
+    @Override
+    @Transactional
+    public void publishQuestsExpired(List<QuestExpiredEvent> events) {
+        events.forEach(this::validateEvent);
+        eventOutboxService.storeAllForPublishing(events);
+        log.info("Stored {} quest expired events in outbox", events.size());
+    }
+}
@@ -1,12 +1,16 @@
 package com.muscledia.Gamification_service.mapper;
 
 import com.muscledia.Gamification_service.dto.request.ChallengeDto;
+import com.muscledia.Gamification_service.dto.response.ChallengeResponse;
+import com.muscledia.Gamification_service.dto.response.ChallengeTemplateResponse;
 import com.muscledia.Gamification_service.model.Challenge;
 import com.muscledia.Gamification_service.model.ChallengeTemplate;
 import com.muscledia.Gamification_service.model.UserChallenge;
+import com.muscledia.Gamification_service.model.enums.DifficultyLevel;
 import com.muscledia.Gamification_service.model.enums.ObjectiveType;
 import com.muscledia.Gamification_service.repository.ChallengeRepository;
 import com.muscledia.Gamification_service.repository.ChallengeTemplateRepository;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraph;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -105,6 +109,157 @@ public class ChallengeMapper {
         return toDto(challenge, null);
     }
 
+    // ========== CATALOG RESPONSES ==========
+
+    /**
+     * Full response for a user challenge; a deleted challenge falls back to the values
+     * denormalized onto the user challenge. Template names come from the compiled graph.
+     */
+    public ChallengeResponse toResponse(Challenge challenge, UserChallenge userChallenge,
+                                        ChallengeTemplateGraph graph, long[] completed) {
+        Challenge source = challenge != null ? challenge : Challenge.builder()
+                .id(userChallenge.getChallengeId())
+                .name(userChallenge.getChallengeName())
+                .type(userChallenge.getChallengeType())
+                .objectiveType(userChallenge.getObjectiveType())
+                .targetValue(userChallenge.getTargetValue())
+                .build();
+
+        return ChallengeResponse.builder()
+                // Identity
+                .id(source.getId())
+                .templateId(source.getTemplateId())
+                .name(source.getName())
+                .description(source.getDescription())
+
+                // Classification
+                .type(source.getType())
+                .category(source.getCategory())
+                .objectiveType(source.getObjectiveType())
+                .difficultyLevel(source.getDifficultyLevel())
+
+                // Targets & rewards
+                .targetValue(userChallenge.getTargetValue() != null
+                        ? userChallenge.getTargetValue() : source.getTargetValue())
+                .rewardPoints(source.getRewardPoints())
+                .rewardCoins(calculateFitnessCoins(source.getRewardPoints()))
+                .experiencePoints(calculateExperiencePoints(source.getRewardPoints()))
+                .progressUnit(getProgressUnit(source.getObjectiveType()))
+
+                // Progress
+                .currentProgress(userChallenge.getCurrentProgress())
+                .completionPercentage(userChallenge.getProgressPercentage())
+                .status(userChallenge.getStatus() != null ? userChallenge.getStatus().name() : null)
+                .startedAt(userChallenge.getStartedAt())
+                .expiresAt(userChallenge.getExpiresAt())
+                .daysRemaining(calculateDaysRemaining(userChallenge.getExpiresAt()))
+
+                // Journey & prerequisites
+                .journeyPhase(source.getJourneyPhase())
+                .journeyTags(source.getUserJourneyTags())
+                .prerequisites(prerequisiteInfo(source.getPrerequisiteChallengeIds(), graph, completed))
+                .unlocks(unlockInfo(source.getUnlocksChallengeIds(), graph))
+                .isEligible(true)
+
+                // UI flags
+                .isMilestone(isMilestone(source))
+                .isLegendary(isLegendary(source))
+                .autoEnroll(source.isAutoEnroll())
+
+                // Metadata & guidance
+                .completionMessage(extractCompletionMessage(source))
+                .tips(source.getType() != null ? generateTips(source) : Collections.emptyList())
+                .metadata(source.getPersonalizationData())
+                .exerciseFocus(extractExerciseFocus(source))
+                .safetyNote(extractSafetyNote(source))
+                .attemptCount(source.getAttemptCount())
+                .build();
+    }
+
+    /**
+     * Template offered to a user, with target and reward resolved for the given difficulty
+     */
+    public ChallengeTemplateResponse toTemplateResponse(ChallengeTemplate template, DifficultyLevel difficulty,
+                                                        ChallengeTemplateGraph graph, long[] completed) {
+        Map<String, Object> metadata = template.getMetadata() != null ? template.getMetadata() : Map.of();
+        List<String> missing = graph.missingPrerequisites(template.getId(), completed);
+        Integer rewardPoints = template.getRewardPoints(difficulty);
+
+        return ChallengeTemplateResponse.builder()
+                .id(template.getId())
+                .name(template.getName())
+                .description(template.getDescription())
+                .type(template.getType())
+                .objectiveType(template.getObjective())
+                .difficultyLevel(difficulty)
+                .targetValue(template.getTargetValue(difficulty))
+                .rewardPoints(rewardPoints)
+                .rewardCoins(calculateFitnessCoins(rewardPoints))
+                .experiencePoints(calculateExperiencePoints(rewardPoints))
+                .progressUnit(getProgressUnit(template.getObjective()))
+                .journeyPhase(template.getJourneyPhase())
+                .journeyTags(template.getUserJourneyTags())
+                .prerequisites(prerequisiteInfo(template.getPrerequisiteTemplates(), graph, completed))
+                .unlocks(unlockInfo(template.getUnlocksTemplates(), graph))
+                .isEligible(missing.isEmpty())
+                .ineligibilityReason(missing.isEmpty() ? null : "Complete first: " + missing.stream()
+                        .map(templateId -> templateName(graph, templateId))
+                        .collect(Collectors.joining(", ")))
+                .isMilestone(Boolean.TRUE.equals(metadata.get("milestone")))
+                .isLegendary(Boolean.TRUE.equals(metadata.get("legendary")))
+                .completionMessage(metadata.get("completionMessage") != null
+                        ? metadata.get("completionMessage").toString() : null)
+                .exerciseFocus(metadata.get("exerciseFocus") instanceof List<?> focus
+                        ? focus.stream().map(String::valueOf).toList() : Collections.emptyList())
+                .safetyNote(metadata.get("safetyNote") != null ? metadata.get("safetyNote").toString() : null)
+                .build();
+    }
+
+    private List<ChallengeResponse.PrerequisiteInfo> prerequisiteInfo(List<String> templateIds,
+                                                                      ChallengeTemplateGraph graph, long[] completed) {
+        if (templateIds == null || templateIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return templateIds.stream()
+                .map(templateId -> ChallengeResponse.PrerequisiteInfo.builder()
+                        .challengeId(templateId)
+                        .challengeName(templateName(graph, templateId))
+                        .isCompleted(graph.isCompleted(templateId, completed))
+                        .build())
+                .toList();
+    }
+
+    private List<ChallengeResponse.UnlockInfo> unlockInfo(List<String> templateIds, ChallengeTemplateGraph graph) {
+        if (templateIds == null || templateIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return templateIds.stream()
+                .map(templateId -> {
+                    ChallengeTemplate template = graph.template(templateId);
+                    return ChallengeResponse.UnlockInfo.builder()
+                            .type("CHALLENGE")
+                            .id(templateId)
+                            .name(template != null ? template.getName() : templateId)
+                            .description(template != null ? template.getDescription() : null)
+                            .build();
+                })
+                .toList();
+    }
+
+    private static String templateName(ChallengeTemplateGraph graph, String templateId) {
+        ChallengeTemplate template = graph.template(templateId);
+        return template != null && template.getName() != null ? template.getName() : templateId;
+    }
+
+    private Integer calculateDaysRemaining(Instant expiresAt) {
+        if (expiresAt == null) {
+            return null;
+        }
+        return (int) Math.max(0, Duration.between(Instant.now(), expiresAt).toDays());
+    }
+
     // ========== SIGNAL GENERATION HELPERS ==========
 
     /**
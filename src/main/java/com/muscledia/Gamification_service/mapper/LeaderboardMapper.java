@@ -1,6 +1,7 @@
 package com.muscledia.Gamification_service.mapper;
 
 import com.muscledia.Gamification_service.dto.response.LeaderboardResponse;
+import com.muscledia.Gamification_service.model.StreakLeaderboard;
 import com.muscledia.Gamification_service.model.UserGamificationProfile;
 import com.muscledia.Gamification_service.service.NameGeneratorService;
 import lombok.RequiredArgsConstructor;
@@ -71,6 +72,42 @@ public class LeaderboardMapper {
         return response;
     }
 
+    /**
+     * Map a materialized streak leaderboard entry to LeaderboardResponse
+     */
+    public LeaderboardResponse toStreakLeaderboardResponse(StreakLeaderboard.Entry entry, boolean longest) {
+        UserGamificationProfile profile = UserGamificationProfile.builder()
+                .userId(entry.getUserId())
+                .username(entry.getUsername())
+                .points(entry.getPoints())
+                .level(entry.getLevel())
+                .totalWorkoutsCompleted(entry.getTotalWorkouts())
+                .build();
+
+        LeaderboardResponse response = toLeaderboardResponse(profile, entry.getRank());
+        response.setTotalBadges(entry.getTotalBadges() != null ? entry.getTotalBadges().longValue() : 0L);
+        if (longest) {
+            response.setLongestStreak(entry.getValue());
+        } else {
+            response.setCurrentStreak(entry.getValue());
+        }
+        return response;
+    }
+
+    /**
+     * Map a profile to a streak leaderboard response with an externally computed rank
+     */
+    public LeaderboardResponse toStreakLeaderboardResponse(UserGamificationProfile profile, int rank,
+                                                           int value, boolean longest) {
+        LeaderboardResponse response = toLeaderboardResponse(profile, rank);
+        if (longest) {
+            response.setLongestStreak(value);
+        } else {
+            response.setCurrentStreak(value);
+        }
+        return response;
+    }
+
     /**
      * Map list of profiles to list of responses with automatic ranking
      */
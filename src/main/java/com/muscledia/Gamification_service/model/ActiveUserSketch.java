@@ -0,0 +1,47 @@
+package com.muscledia.Gamification_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Serialized HyperLogLog registers of the users active in one period, as seen by one node.
+ * Estimates for a period merge every node's sketch for that periodKey.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "active_user_sketches")
+public class ActiveUserSketch {
+
+    /**
+     * periodKey + ":" + nodeId
+     */
+    @Id
+    private String id;
+
+    /**
+     * DAY:2025-01-31, WEEK:2025-W05 or MONTH:2025-01 (UTC)
+     */
+    @Indexed
+    private String periodKey;
+
+    private String nodeId;
+
+    private byte[] registers;
+
+    private Instant updatedAt;
+
+    /**
+     * Sketches are dropped by a TTL index once their period is well past
+     */
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
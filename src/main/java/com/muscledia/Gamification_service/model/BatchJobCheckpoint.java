@@ -0,0 +1,71 @@
+package com.muscledia.Gamification_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress of one userId range of a partitioned batch job run.
+ *
+ * A run is identified by jobName + runKey (e.g. daily-streaks / 2025-01-31). Each range
+ * records the last userId whose changes were written, so a restarted run continues
+ * after it instead of rescanning the whole collection.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "batch_job_checkpoints")
+@CompoundIndex(name = "job_run_idx", def = "{'jobName': 1, 'runKey': 1}")
+public class BatchJobCheckpoint {
+
+    /**
+     * jobName + ":" + runKey + ":" + rangeIndex
+     */
+    @Id
+    private String id;
+
+    private String jobName;
+
+    private String runKey;
+
+    private Integer rangeIndex;
+
+    /**
+     * Inclusive lower userId bound of the range
+     */
+    private Long lowerBound;
+
+    /**
+     * Exclusive upper userId bound of the range
+     */
+    private Long upperBound;
+
+    /**
+     * Last userId fully processed in this range (null = not started)
+     */
+    private Long lastUserId;
+
+    @Builder.Default
+    private Long processed = 0L;
+
+    @Builder.Default
+    private Long updated = 0L;
+
+    @Builder.Default
+    private Boolean completed = false;
+
+    private Instant startedAt;
+
+    private Instant updatedAt;
+
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
@@ -16,10 +16,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +34,9 @@ import java.util.Set;
  * COUPLING: None - pure domain object
  */
 @Document(collection = "challenges")
+// One challenge per template and generation slot; generators rely on the duplicate key across nodes
+@CompoundIndex(name = "template_period_uidx", def = "{'templateId': 1, 'periodKey': 1}", unique = true,
+        partialFilter = "{'periodKey': {$exists: true}}")
 @Data
 @Builder
 @NoArgsConstructor
@@ -91,6 +96,7 @@ public class Challenge {
 
     // ADD PERSONALIZATION FIELDS
     private String templateId; // Reference to template used
+    private String periodKey; // Generation slot, e.g. "DAILY/2025-01-31"; unique with templateId
     private Double personalizedDifficultyMultiplier = 1.0;
     private Map<String, Object> personalizationData; // User-specific adjustments
 
@@ -110,6 +116,17 @@ public class Challenge {
         updatedAt = Instant.now();
     }
 
+    /**
+     * Generation slot of a period, e.g. DAILY/2025-01-31 or WEEKLY/2025-01-27/BEGINNER
+     */
+    public static String periodKey(ChallengeType type, LocalDate periodStart, Object... qualifiers) {
+        StringBuilder key = new StringBuilder(type.name()).append('/').append(periodStart);
+        for (Object qualifier : qualifiers) {
+            key.append('/').append(qualifier);
+        }
+        return key.toString();
+    }
+
     // Business methods - no external dependencies
     public boolean isExpired() {
         return Instant.now().isAfter(endDate);
@@ -0,0 +1,44 @@
+package com.muscledia.Gamification_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Lease on a scheduled job (or one range of a partitioned job) shared by all replicas.
+ *
+ * Free once lockedUntil has passed. Every acquisition increments the token, so a holder
+ * whose lease expired and was taken over can no longer extend or release it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "scheduler_leases")
+public class SchedulerLease {
+
+    /**
+     * Job name, e.g. challenge-daily-generation or streak-deadline-backfill:initial:2
+     */
+    @Id
+    private String name;
+
+    /**
+     * Instance that holds (or last held) the lease
+     */
+    private String owner;
+
+    /**
+     * Fencing token, incremented on every acquisition
+     */
+    private Long token;
+
+    private Instant lockedAt;
+
+    private Instant lockedUntil;
+}
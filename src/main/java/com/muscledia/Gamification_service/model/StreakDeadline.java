@@ -0,0 +1,43 @@
+package com.muscledia.Gamification_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * The instant at which one active streak of a user breaks unless it is extended.
+ * Only active streaks have an entry, so the daily expiry job reads the due entries
+ * instead of scanning every profile.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "streak_deadlines")
+public class StreakDeadline {
+
+    /**
+     * userId + ":" + streakType
+     */
+    @Id
+    private String id;
+
+    @Indexed
+    private Long userId;
+
+    private String streakType;
+
+    /**
+     * lastUpdate of the streak + 1 day
+     */
+    @Indexed
+    private Instant deadline;
+
+    private Instant updatedAt;
+}
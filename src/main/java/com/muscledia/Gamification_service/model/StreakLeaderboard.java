@@ -0,0 +1,74 @@
+package com.muscledia.Gamification_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed leaderboard of one streak type and metric (current or longest).
+ *
+ * Holds the sorted top-N entries and a rank table: the distinct streak values in
+ * descending order with the number of users above each, so the rank of any value
+ * is 1 + usersAbove at its position.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "streak_leaderboards")
+public class StreakLeaderboard {
+
+    /**
+     * streakType + ":" + metric
+     */
+    @Id
+    private String id;
+
+    private String streakType;
+
+    /**
+     * "current" or "longest"
+     */
+    private String metric;
+
+    @Builder.Default
+    private List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Distinct streak values, highest first
+     */
+    @Builder.Default
+    private List<Integer> rankValues = new ArrayList<>();
+
+    /**
+     * Users with a strictly higher value than rankValues at the same index
+     */
+    @Builder.Default
+    private List<Long> usersAbove = new ArrayList<>();
+
+    private Long totalUsers;
+
+    private Instant computedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private Integer rank;
+        private Long userId;
+        private String username;
+        private Integer value;
+        private Integer points;
+        private Integer level;
+        private Integer totalWorkouts;
+        private Integer totalBadges;
+    }
+}
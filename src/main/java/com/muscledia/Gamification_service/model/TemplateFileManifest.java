@@ -0,0 +1,42 @@
+package com.muscledia.Gamification_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Last loaded state of one challenge template YAML file.
+ *
+ * The loader compares a file's content hash with the stored one and only parses and
+ * upserts files that changed; templateIds lets it delete templates dropped from a file.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "challenge_template_manifests")
+public class TemplateFileManifest {
+
+    /**
+     * Path relative to challenge-progressions/, e.g. beginner/first-steps.yml
+     */
+    @Id
+    private String path;
+
+    /**
+     * SHA-256 of the file content, hex encoded
+     */
+    private String contentHash;
+
+    @Builder.Default
+    private List<String> templateIds = new ArrayList<>();
+
+    private Instant loadedAt;
+}
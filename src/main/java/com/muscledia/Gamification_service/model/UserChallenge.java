@@ -2,6 +2,7 @@ package com.muscledia.Gamification_service.model;
 
 import com.muscledia.Gamification_service.model.enums.ChallengeStatus;
 import com.muscledia.Gamification_service.model.enums.ChallengeType;
+import com.muscledia.Gamification_service.model.enums.ObjectiveType;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.validation.constraints.NotNull;
@@ -37,6 +38,7 @@ public class UserChallenge {
 
     private String challengeName;
     private ChallengeType challengeType;
+    private ObjectiveType objectiveType;  // Denormalized from the challenge at start time
     private String progressUnit;  // "reps", "minutes", "exercises", "workouts"
 
     // Progress tracking
@@ -49,6 +51,9 @@ public class UserChallenge {
     private Instant expiresAt;
     private Instant lastUpdatedAt;  // ⬅️ ADD THIS FIELD
     private Instant createdAt;
+    private String completionToken;  // Set by the conditional update that completed it
+    private String expiryRunId;  // Set by the expiry sweep that expired it
+    private Boolean expiryEventPending;  // Set until the expiry event is published
 
     // Reward tracking
     private boolean rewardClaimed = false;
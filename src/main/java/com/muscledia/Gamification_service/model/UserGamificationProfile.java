@@ -5,6 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -20,6 +23,12 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "user_gamification_profiles")
+@CompoundIndexes({
+        @CompoundIndex(name = "weekly_reset_idx", def = "{'lastWeeklyStreakReset.at': 1}", sparse = true),
+        @CompoundIndex(name = "monthly_reset_idx", def = "{'lastMonthlyStreakReset.at': 1}", sparse = true),
+        @CompoundIndex(name = "weekly_lapse_idx", def = "{'timeZone': 1, 'currentWeekStartDate': 1}"),
+        @CompoundIndex(name = "monthly_lapse_idx", def = "{'timeZone': 1, 'currentMonthStartDate': 1}")
+})
 public class UserGamificationProfile {
     @Id
     private String id;
@@ -27,6 +36,10 @@ public class UserGamificationProfile {
     @Indexed(unique = true)
     private Long userId;
 
+    // Optimistic locking: save() fails when another writer saved since this copy was read
+    @Version
+    private Long version;
+
     // === XP SYSTEM (Cannot be spent) ===
     @Builder.Default
     private Integer points = 0;  // XP for leveling
@@ -46,14 +59,21 @@ public class UserGamificationProfile {
     // === EXISTING FIELDS ===
     private String username;
 
+    // IANA zone id reported by the user's device; streak weeks/months follow it (null = default zone)
+    private String timeZone;
+
     @Builder.Default
     private Map<String, StreakData> streaks = new HashMap<>();
 
     @Builder.Default
     private List<UserBadge> earnedBadges = new ArrayList<>();
 
+    // Quest progress lives in user_quest_progress; the profile keeps a counter and the last few completions
     @Builder.Default
-    private List<UserQuestProgress> quests = new ArrayList<>();
+    private Integer completedQuestCount = 0;
+
+    @Builder.Default
+    private List<String> recentCompletedQuestIds = new ArrayList<>();
 
     @Builder.Default
     private Integer totalWorkoutsCompleted = 0;
@@ -78,6 +98,10 @@ public class UserGamificationProfile {
 
     private Instant currentMonthStartDate;
 
+    // Last reset of the weekly / monthly streak by the scheduled job (which run, and the value it replaced)
+    private StreakReset lastWeeklyStreakReset;
+    private StreakReset lastMonthlyStreakReset;
+
     @Builder.Default
     private Integer restDaysSinceLastWorkout = 0;
 
@@ -91,13 +115,7 @@ public class UserGamificationProfile {
     @Builder.Default
     private Integer totalWorkoutMinutes = 0;
 
-    // Store inventory
-    @Builder.Default
-    private List<OwnedItem> inventory = new ArrayList<>();
-
-    // Active challenges
-    @Builder.Default
-    private List<ActiveChallenge> activeChallenges = new ArrayList<>();
+    // Store inventory lives in user_inventory, challenges in user_challenges (see ProfileDetailsService)
 
     // Leaderboard stats cache (updated periodically)
     private LeaderboardStats leaderboardStats;
@@ -109,29 +127,6 @@ public class UserGamificationProfile {
 
     // === NEW NESTED CLASSES === ⬅️ ADD THESE
 
-    @Data
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class OwnedItem {
-        private String itemId;
-        private LocalDateTime purchasedAt;
-        private Boolean isActive;  // For equipped items (avatars, themes)
-    }
-
-    @Data
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class ActiveChallenge {
-        private String challengeId;
-        private Integer progress;
-        private Integer target;
-        private LocalDateTime startedAt;
-        private LocalDateTime expiresAt;
-        private String status;  // IN_PROGRESS, COMPLETED, FAILED, CLAIMED
-    }
-
     @Data
     @Builder
     @NoArgsConstructor
@@ -144,6 +139,15 @@ public class UserGamificationProfile {
         private LocalDateTime lastUpdated;
     }
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StreakReset {
+        private Instant at;
+        private Integer previous;
+    }
+
     // === EXISTING NESTED CLASS ===
     @Data
     @NoArgsConstructor
@@ -172,6 +176,13 @@ public class UserGamificationProfile {
         updateLevel();
     }
 
+    /**
+     * Level reached with the given points (see {@link #updateLevel()})
+     */
+    public static int levelForPoints(int points) {
+        return (int) Math.floor(Math.sqrt(points / 100.0)) + 1;
+    }
+
     /**
      * Calculate and update level based on points
      * Level formula: level = floor(sqrt(points / 100)) + 1
@@ -185,7 +196,7 @@ public class UserGamificationProfile {
             this.points = 0;
         }
 
-        int newLevel = (int) Math.floor(Math.sqrt(this.points / 100.0)) + 1;
+        int newLevel = levelForPoints(this.points);
 
         if (newLevel > this.level) {
             this.level = newLevel;
@@ -259,8 +270,11 @@ public class UserGamificationProfile {
         if (this.streaks == null) {
             this.streaks = new HashMap<>();
         }
-        if (this.quests == null) {
-            this.quests = new ArrayList<>();
+        if (this.completedQuestCount == null) {
+            this.completedQuestCount = 0;
+        }
+        if (this.recentCompletedQuestIds == null) {
+            this.recentCompletedQuestIds = new ArrayList<>();
         }
         if (this.points == null) {
             this.points = 0;
@@ -300,11 +314,5 @@ public class UserGamificationProfile {
         if (this.totalWorkoutMinutes == null) {
             this.totalWorkoutMinutes = 0;
         }
-        if (this.inventory == null) {
-            this.inventory = new ArrayList<>();
-        }
-        if (this.activeChallenges == null) {
-            this.activeChallenges = new ArrayList<>();
-        }
     }
 }
\ No newline at end of file
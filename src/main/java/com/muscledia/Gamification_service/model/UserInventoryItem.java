@@ -0,0 +1,34 @@
+package com.muscledia.Gamification_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A store item owned by a user (formerly embedded in the profile as inventory)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_inventory")
+public class UserInventoryItem {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private Long userId;
+
+    private String itemId;
+
+    private LocalDateTime purchasedAt;
+
+    private Boolean isActive;  // For equipped items (avatars, themes)
+}
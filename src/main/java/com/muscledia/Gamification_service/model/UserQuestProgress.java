@@ -3,11 +3,33 @@ package com.muscledia.Gamification_service.model;
 
 import com.muscledia.Gamification_service.model.enums.QuestStatus;
 import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
+/**
+ * Progress of one user on one quest. Stored in its own collection rather than embedded
+ * in the profile, so a user's quest history does not grow the profile document.
+ */
 @Data
+@Document(collection = "user_quest_progress")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_quest_idx", def = "{'userId': 1, 'questId': 1, 'startDate': -1}"),
+        @CompoundIndex(name = "user_status_idx", def = "{'userId': 1, 'status': 1}"),
+        @CompoundIndex(name = "quest_status_idx", def = "{'questId': 1, 'status': 1}"),
+        @CompoundIndex(name = "expiry_run_idx", def = "{'expiryRunId': 1}"),
+        @CompoundIndex(name = "expiry_pending_idx", def = "{'expiryEventPending': 1}",
+                partialFilter = "{'expiryEventPending': true}")
+})
 public class UserQuestProgress {
+    @Id
+    private String id;
+
+    private Long userId;
+
     private String questId;
 
     private int objectiveProgress;
@@ -20,4 +42,10 @@ public class UserQuestProgress {
 
     private Instant createdAt;
 
+    private String expiryRunId;  // Set by the expiry sweep that failed it
+
+    private Instant expiredAt;  // When the expiry sweep failed it
+
+    private Boolean expiryEventPending;  // Set until the expiry event is published
+
 }
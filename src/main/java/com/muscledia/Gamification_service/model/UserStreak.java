@@ -0,0 +1,46 @@
+package com.muscledia.Gamification_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One streak of one user, dual-written alongside UserGamificationProfile.streaks.
+ * Streak types are values here rather than map keys, so per-type filters and sorts
+ * are served by ordinary compound indexes (and are covered when only userId is read).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_streaks")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_type_idx", def = "{'userId': 1, 'type': 1}", unique = true),
+        @CompoundIndex(name = "type_current_idx", def = "{'type': 1, 'current': -1, 'userId': 1}"),
+        @CompoundIndex(name = "type_longest_idx", def = "{'type': 1, 'longest': -1, 'userId': 1}")
+})
+public class UserStreak {
+
+    /**
+     * userId + ":" + type
+     */
+    @Id
+    private String id;
+
+    private Long userId;
+
+    private String type;
+
+    private Integer current;
+
+    private Integer longest;
+
+    private Instant lastUpdate;
+}
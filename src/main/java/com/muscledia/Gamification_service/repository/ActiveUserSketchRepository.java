@@ -0,0 +1,16 @@
+package com.muscledia.Gamification_service.repository;
+
+import com.muscledia.Gamification_service.model.ActiveUserSketch;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ActiveUserSketchRepository extends MongoRepository<ActiveUserSketch, String> {
+
+    /**
+     * All node sketches recorded for a period
+     */
+    List<ActiveUserSketch> findByPeriodKey(String periodKey);
+}
@@ -3,6 +3,8 @@ package com.muscledia.Gamification_service.repository;
 import com.muscledia.Gamification_service.model.Badge;
 import com.muscledia.Gamification_service.model.enums.BadgeType;
 import com.muscledia.Gamification_service.model.enums.BadgeCriteriaType;
+import com.muscledia.Gamification_service.repository.projection.BadgeStatisticsFacet;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -88,4 +90,16 @@ public interface BadgeRepository extends MongoRepository<Badge, String> {
      */
     @Query(value = "{}", fields = "{ 'criteriaType' : 1 }")
     List<Badge> findAllCriteriaTypes();
+
+    /**
+     * Total, per-type and per-criteria counts in one server-side pass
+     */
+    @Aggregation(pipeline = {
+            "{ $facet: { "
+                    + "'total': [ { $count: 'count' } ], "
+                    + "'byBadgeType': [ { $group: { _id: '$badgeType', count: { $sum: 1 } } } ], "
+                    + "'byCriteriaType': [ { $group: { _id: '$criteriaType', count: { $sum: 1 } } } ] "
+                    + "} }"
+    })
+    BadgeStatisticsFacet aggregateStatistics();
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.muscledia.Gamification_service.repository;
+
+import com.muscledia.Gamification_service.model.BatchJobCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BatchJobCheckpointRepository extends MongoRepository<BatchJobCheckpoint, String> {
+
+    /**
+     * All range checkpoints of one job run
+     */
+    List<BatchJobCheckpoint> findByJobNameAndRunKeyOrderByRangeIndex(String jobName, String runKey);
+}
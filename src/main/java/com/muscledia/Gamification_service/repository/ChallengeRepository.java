@@ -10,6 +10,7 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,9 @@ public interface ChallengeRepository extends MongoRepository<Challenge, String>
     @Query("{'templateId': ?0, 'startDate': {$gte: ?1}, 'endDate': {$lte: ?2}}")
     Optional<Challenge> findByTemplateIdAndDateRange(String templateId, Instant startDate, Instant endDate);
 
+    @Query("{'templateId': {$in: ?0}, 'startDate': {$gte: ?1}, 'endDate': {$lte: ?2}}")
+    List<Challenge> findByTemplateIdInAndDateRange(Collection<String> templateIds, Instant startDate, Instant endDate);
+
     @Query("{'endDate': {$lt: ?0}}")
     List<Challenge> findExpiredChallenges(Instant cutoffDate);
 
@@ -2,6 +2,8 @@ package com.muscledia.Gamification_service.repository;
 
 import com.muscledia.Gamification_service.model.Champion;
 import com.muscledia.Gamification_service.model.enums.ChampionCriteriaType;
+import com.muscledia.Gamification_service.repository.projection.ChampionStatisticsFacet;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -130,4 +132,18 @@ public interface ChampionRepository extends MongoRepository<Champion, String> {
      */
     @Query(value = "{}", fields = "{ 'criteriaType' : 1 }")
     List<Champion> findAllCriteriaTypes();
+
+    /**
+     * Total, per-difficulty, per-criteria and general/exercise-specific counts in one server-side pass
+     */
+    @Aggregation(pipeline = {
+            "{ $facet: { "
+                    + "'total': [ { $count: 'count' } ], "
+                    + "'byDifficulty': [ { $group: { _id: { $toString: '$baseDifficulty' }, count: { $sum: 1 } } } ], "
+                    + "'byCriteriaType': [ { $group: { _id: '$criteriaType', count: { $sum: 1 } } } ], "
+                    + "'general': [ { $match: { 'requiredExerciseId': { $exists: false } } }, { $count: 'count' } ], "
+                    + "'exerciseSpecific': [ { $match: { 'requiredExerciseId': { $exists: true, $ne: null } } }, { $count: 'count' } ] "
+                    + "} }"
+    })
+    ChampionStatisticsFacet aggregateStatistics();
 }
\ No newline at end of file
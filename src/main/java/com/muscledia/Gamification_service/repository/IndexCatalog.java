@@ -0,0 +1,190 @@
+package com.muscledia.Gamification_service.repository;
+
+import org.bson.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Indexes backing the repository queries that the entity annotations do not declare,
+ * and one probe per query shape the repositories issue. The index advisor creates the
+ * indexes and explains each probe at startup, so a query added without a supporting
+ * index shows up as a collection scan.
+ *
+ * Probe values are placeholders; only the shape (fields, operators, sort) matters for
+ * plan selection.
+ */
+public final class IndexCatalog {
+
+    private IndexCatalog() {} // Catalog only
+
+    public static final String PROFILES = "user_gamification_profiles";
+    public static final String OUTBOX = "event_outbox";
+    public static final String USER_CHALLENGES = "user_challenges";
+    public static final String CHALLENGES = "challenges";
+    public static final String QUESTS = "quests";
+    public static final String PROCESSED_EVENTS = "processed_events";
+    public static final String QUEST_PROGRESS = "user_quest_progress";
+    public static final String USER_STREAKS = "user_streaks";
+
+    public record IndexSpec(String collection, String name, Document keys, boolean unique, Document partialFilter) {
+        static IndexSpec of(String collection, String name, Document keys) {
+            return new IndexSpec(collection, name, keys, false, null);
+        }
+
+        static IndexSpec unique(String collection, String name, Document keys) {
+            return new IndexSpec(collection, name, keys, true, null);
+        }
+
+        /**
+         * Covers only documents matching the filter
+         */
+        static IndexSpec where(String collection, String name, Document keys, Document partialFilter) {
+            return new IndexSpec(collection, name, keys, false, partialFilter);
+        }
+
+        /**
+         * Unique only among documents matching the filter
+         */
+        static IndexSpec uniqueWhere(String collection, String name, Document keys, Document partialFilter) {
+            return new IndexSpec(collection, name, keys, true, partialFilter);
+        }
+    }
+
+    public record QueryProbe(String name, String collection, Document filter, Document sort) {
+        static QueryProbe find(String name, String collection, Document filter) {
+            return new QueryProbe(name, collection, filter, new Document());
+        }
+
+        static QueryProbe sorted(String name, String collection, Document filter, Document sort) {
+            return new QueryProbe(name, collection, filter, sort);
+        }
+    }
+
+    // ===========================================
+    // INDEXES
+    // ===========================================
+
+    public static List<IndexSpec> indexes() {
+        return List.of(
+                // EventOutboxRepository: pending / retry / cleanup scans by status
+                IndexSpec.of(OUTBOX, "status_created_idx", new Document("status", 1).append("createdAt", 1)),
+                IndexSpec.of(OUTBOX, "status_retry_idx", new Document("status", 1).append("nextRetryAt", 1)),
+                IndexSpec.of(OUTBOX, "status_published_idx", new Document("status", 1).append("publishedAt", 1)),
+                IndexSpec.of(OUTBOX, "user_status_idx", new Document("userId", 1).append("status", 1)),
+
+                // UserChallengeRepository
+                IndexSpec.of(USER_CHALLENGES, "user_status_idx", new Document("userId", 1).append("status", 1)),
+                IndexSpec.of(USER_CHALLENGES, "status_expires_idx", new Document("status", 1).append("expiresAt", 1)),
+                IndexSpec.of(USER_CHALLENGES, "user_challenge_idx", new Document("userId", 1).append("challengeId", 1)),
+                IndexSpec.of(USER_CHALLENGES, "challenge_idx", new Document("challengeId", 1)),
+                IndexSpec.of(USER_CHALLENGES, "user_started_idx", new Document("userId", 1).append("startedAt", 1)),
+                IndexSpec.of(USER_CHALLENGES, "expiry_run_idx", new Document("expiryRunId", 1)),
+                IndexSpec.where(USER_CHALLENGES, "expiry_pending_idx", new Document("expiryEventPending", 1),
+                        new Document("expiryEventPending", true)),
+
+                // ChallengeRepository
+                IndexSpec.of(CHALLENGES, "template_start_idx", new Document("templateId", 1).append("startDate", 1)),
+                IndexSpec.of(CHALLENGES, "active_window_idx",
+                        new Document("active", 1).append("startDate", 1).append("endDate", 1)),
+                IndexSpec.of(CHALLENGES, "end_date_idx", new Document("endDate", 1)),
+                IndexSpec.of(CHALLENGES, "start_date_idx", new Document("startDate", 1)),
+                // Declared on Challenge so it always exists; listed so the advisor verifies it
+                IndexSpec.uniqueWhere(CHALLENGES, "template_period_uidx",
+                        new Document("templateId", 1).append("periodKey", 1),
+                        new Document("periodKey", new Document("$exists", true))),
+
+                // QuestRepository
+                IndexSpec.of(QUESTS, "window_level_idx",
+                        new Document("startDate", 1).append("endDate", 1).append("requiredLevel", 1)),
+                IndexSpec.of(QUESTS, "end_date_idx", new Document("endDate", 1)),
+                IndexSpec.of(QUESTS, "required_level_idx", new Document("requiredLevel", 1)),
+                IndexSpec.of(QUESTS, "quest_type_level_idx", new Document("questType", 1).append("requiredLevel", 1)),
+
+                // EventProcessingService: duplicate check by eventId, cleanup by age
+                IndexSpec.unique(PROCESSED_EVENTS, "event_id_idx", new Document("eventId", 1)),
+                IndexSpec.of(PROCESSED_EVENTS, "processed_at_idx", new Document("processedAt", 1)),
+
+                // UserGamificationProfileRepository: leaderboard sorts and rank counts
+                IndexSpec.of(PROFILES, "points_idx", new Document("points", -1)),
+                IndexSpec.of(PROFILES, "level_idx", new Document("level", -1)),
+                IndexSpec.of(PROFILES, "weekly_streak_idx", new Document("weeklyStreak", -1)),
+                IndexSpec.of(PROFILES, "monthly_streak_idx", new Document("monthlyStreak", -1)),
+                IndexSpec.of(PROFILES, "last_level_up_idx", new Document("lastLevelUpDate", -1)),
+                IndexSpec.of(PROFILES, "earned_badge_idx", new Document("earnedBadges.badgeId", 1))
+        );
+    }
+
+    // ===========================================
+    // PROBES
+    // ===========================================
+
+    public static List<QueryProbe> probes() {
+        Instant now = Instant.now();
+        return List.of(
+                QueryProbe.find("outbox.pending", OUTBOX, new Document("status", "PENDING")),
+                QueryProbe.find("outbox.retryableFailed", OUTBOX, new Document("status", "FAILED")
+                        .append("attemptCount", new Document("$lt", 3))
+                        .append("$or", List.of(
+                                new Document("nextRetryAt", new Document("$exists", false)),
+                                new Document("nextRetryAt", new Document("$lt", now))))),
+                QueryProbe.find("outbox.oldPublished", OUTBOX, new Document("status", "PUBLISHED")
+                        .append("publishedAt", new Document("$lt", now))),
+                QueryProbe.find("outbox.byEventId", OUTBOX, new Document("eventId", "probe")),
+                QueryProbe.find("outbox.byUserAndStatus", OUTBOX, new Document("userId", 1L).append("status", "PENDING")),
+
+                QueryProbe.find("userChallenges.byUserAndStatus", USER_CHALLENGES,
+                        new Document("userId", 1L).append("status", "ACTIVE")),
+                QueryProbe.find("userChallenges.expiredActive", USER_CHALLENGES,
+                        new Document("status", "ACTIVE").append("expiresAt", new Document("$lt", now))),
+                QueryProbe.find("userChallenges.byUserAndChallenge", USER_CHALLENGES,
+                        new Document("userId", 1L).append("challengeId", "probe")),
+                QueryProbe.find("userChallenges.byChallenge", USER_CHALLENGES, new Document("challengeId", "probe")),
+                QueryProbe.find("userChallenges.startedAfter", USER_CHALLENGES,
+                        new Document("userId", 1L).append("startedAt", new Document("$gte", now))),
+                QueryProbe.find("userChallenges.byExpiryRun", USER_CHALLENGES, new Document("expiryRunId", "probe")),
+                QueryProbe.find("userChallenges.expiryEventPending", USER_CHALLENGES, new Document("expiryEventPending", true)
+                        .append("expiryRunId", new Document("$ne", "probe"))),
+
+                QueryProbe.find("challenges.byTemplateAndRange", CHALLENGES, new Document("templateId", "probe")
+                        .append("startDate", new Document("$gte", now))
+                        .append("endDate", new Document("$lte", now))),
+                QueryProbe.find("challenges.activeAt", CHALLENGES, new Document("active", true)
+                        .append("startDate", new Document("$lte", now))
+                        .append("endDate", new Document("$gte", now))),
+                QueryProbe.find("challenges.expired", CHALLENGES, new Document("endDate", new Document("$lt", now))),
+                QueryProbe.find("challenges.upcoming", CHALLENGES, new Document("startDate", new Document("$gt", now))),
+
+                QueryProbe.find("quests.activeForLevel", QUESTS, new Document("startDate", new Document("$lte", now))
+                        .append("endDate", new Document("$gte", now))
+                        .append("requiredLevel", new Document("$lte", 5))),
+                QueryProbe.find("quests.forLevel", QUESTS, new Document("requiredLevel", new Document("$lte", 5))),
+                QueryProbe.find("quests.expired", QUESTS, new Document("endDate", new Document("$lt", now))),
+                QueryProbe.find("quests.notEnded", QUESTS, new Document("endDate", new Document("$gte", now))),
+
+                QueryProbe.find("processedEvents.byEventId", PROCESSED_EVENTS, new Document("eventId", "probe")),
+                QueryProbe.find("processedEvents.olderThan", PROCESSED_EVENTS,
+                        new Document("processedAt", new Document("$lt", now))),
+
+                QueryProbe.sorted("profiles.topByPoints", PROFILES, new Document(), new Document("points", -1)),
+                QueryProbe.sorted("profiles.topByLevel", PROFILES, new Document(), new Document("level", -1)),
+                QueryProbe.sorted("profiles.topByWeeklyStreak", PROFILES, new Document(), new Document("weeklyStreak", -1)),
+                QueryProbe.sorted("profiles.topByMonthlyStreak", PROFILES, new Document(), new Document("monthlyStreak", -1)),
+                QueryProbe.find("profiles.higherPoints", PROFILES, new Document("points", new Document("$gt", 100))),
+                QueryProbe.find("profiles.higherLevel", PROFILES, new Document("level", new Document("$gt", 3))),
+                QueryProbe.find("profiles.recentLevelUp", PROFILES,
+                        new Document("lastLevelUpDate", new Document("$gte", now))),
+                QueryProbe.find("profiles.withBadge", PROFILES, new Document("earnedBadges.badgeId", "probe")),
+
+                QueryProbe.find("questProgress.byUserAndStatus", QUEST_PROGRESS,
+                        new Document("userId", 1L).append("status", "ACTIVE")),
+                QueryProbe.find("questProgress.byQuestAndStatus", QUEST_PROGRESS,
+                        new Document("questId", new Document("$in", List.of("probe"))).append("status", "IN_PROGRESS")),
+                QueryProbe.find("questProgress.byExpiryRun", QUEST_PROGRESS, new Document("expiryRunId", "probe")),
+                QueryProbe.find("questProgress.expiryEventPending", QUEST_PROGRESS, new Document("expiryEventPending", true)
+                        .append("expiryRunId", new Document("$ne", "probe"))),
+                QueryProbe.sorted("userStreaks.topByCurrent", USER_STREAKS, new Document("type", "workout"),
+                        new Document("current", -1))
+        );
+    }
+}
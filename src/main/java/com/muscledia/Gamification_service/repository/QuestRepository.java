@@ -3,6 +3,8 @@ package com.muscledia.Gamification_service.repository;
 import com.muscledia.Gamification_service.model.Quest;
 import com.muscledia.Gamification_service.model.enums.ObjectiveType;
 import com.muscledia.Gamification_service.model.enums.QuestType;
+import com.muscledia.Gamification_service.repository.projection.QuestStatisticsFacet;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -72,6 +74,12 @@ public interface QuestRepository extends MongoRepository<Quest, String> {
     @Query("{ 'startDate' : { $gt: ?0 } }")
     List<Quest> findUpcomingQuests(Instant currentTime);
 
+    /**
+     * Find quests that have not ended yet (active and upcoming)
+     */
+    @Query("{ 'endDate' : { $gte: ?0 } }")
+    List<Quest> findCurrentAndUpcomingQuests(Instant currentTime);
+
     /**
      * Find expired quests (end date in the past)
      */
@@ -100,4 +108,22 @@ public interface QuestRepository extends MongoRepository<Quest, String> {
      */
     @Query("{ 'questType' : { $in: ['DAILY', 'WEEKLY'] } }")
     List<Quest> findScheduledQuests();
+
+    /**
+     * Total, lifecycle, per-type and per-objective counts in one server-side pass,
+     * plus the next start/end boundary after the given time
+     */
+    @Aggregation(pipeline = {
+            "{ $facet: { "
+                    + "'total': [ { $count: 'count' } ], "
+                    + "'active': [ { $match: { 'startDate': { $lte: ?0 }, 'endDate': { $gte: ?0 } } }, { $count: 'count' } ], "
+                    + "'upcoming': [ { $match: { 'startDate': { $gt: ?0 } } }, { $count: 'count' } ], "
+                    + "'expired': [ { $match: { 'endDate': { $lt: ?0 } } }, { $count: 'count' } ], "
+                    + "'byQuestType': [ { $group: { _id: '$questType', count: { $sum: 1 } } } ], "
+                    + "'byObjectiveType': [ { $group: { _id: '$objectiveType', count: { $sum: 1 } } } ], "
+                    + "'nextStart': [ { $match: { 'startDate': { $gt: ?0 } } }, { $group: { _id: null, at: { $min: '$startDate' } } } ], "
+                    + "'nextEnd': [ { $match: { 'endDate': { $gte: ?0 } } }, { $group: { _id: null, at: { $min: '$endDate' } } } ] "
+                    + "} }"
+    })
+    QuestStatisticsFacet aggregateStatistics(Instant currentTime);
 }
\ No newline at end of file
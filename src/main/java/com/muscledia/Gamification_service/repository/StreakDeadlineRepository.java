@@ -0,0 +1,20 @@
+package com.muscledia.Gamification_service.repository;
+
+import com.muscledia.Gamification_service.model.StreakDeadline;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StreakDeadlineRepository extends MongoRepository<StreakDeadline, String> {
+
+    /**
+     * Streaks whose deadline has passed, earliest first
+     */
+    List<StreakDeadline> findByDeadlineLessThanEqualOrderByDeadline(Instant now, Pageable pageable);
+
+    void deleteByUserId(Long userId);
+}
@@ -0,0 +1,9 @@
+package com.muscledia.Gamification_service.repository;
+
+import com.muscledia.Gamification_service.model.TemplateFileManifest;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TemplateFileManifestRepository extends MongoRepository<TemplateFileManifest, String> {
+}
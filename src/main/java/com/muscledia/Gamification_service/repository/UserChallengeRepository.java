@@ -2,12 +2,16 @@ package com.muscledia.Gamification_service.repository;
 
 import com.muscledia.Gamification_service.model.UserChallenge;
 import com.muscledia.Gamification_service.model.enums.ChallengeStatus;
+import com.muscledia.Gamification_service.repository.projection.UserChallengeCatalogFacet;
+import com.muscledia.Gamification_service.repository.projection.UserChallengePerformanceFacet;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,11 +22,23 @@ import java.util.Optional;
 @Repository
 @ConditionalOnProperty(value = "gamification.mongodb.enabled", havingValue = "true")
 public interface UserChallengeRepository extends MongoRepository<UserChallenge, String> {
+
+    // challengeId is stored as the hex string of the challenge's ObjectId
+    String CHALLENGE_JOIN = "{ $set: { challengeOid: { $convert: { input: '$challengeId', to: 'objectId', "
+            + "onError: '$challengeId', onNull: null } } } }, "
+            + "{ $lookup: { from: 'challenges', localField: 'challengeOid', foreignField: '_id', as: 'challengeDocs' } }, "
+            + "{ $project: { _id: 0, userChallenge: '$$ROOT', challenge: { $arrayElemAt: [ '$challengeDocs', 0 ] } } }, "
+            + "{ $unset: [ 'userChallenge.challengeDocs', 'userChallenge.challengeOid' ] }";
+
     List<UserChallenge> findByUserId(Long userId);
     List<UserChallenge> findByUserIdAndStatus(Long userId, ChallengeStatus status);
 
     Optional<UserChallenge> findByUserIdAndChallengeId(Long userId, String challengeId);
 
+    // Only challengeId is loaded; used to filter already-started challenges in one query
+    @Query(value = "{'userId': ?0, 'challengeId': {$in: ?1}}", fields = "{'challengeId': 1}")
+    List<UserChallenge> findStartedAmong(Long userId, Collection<String> challengeIds);
+
     @Query("{'userId': ?0, 'status': 'ACTIVE'}")
     List<UserChallenge> findActiveByUserId(Long userId);
 
@@ -52,4 +68,43 @@ public interface UserChallengeRepository extends MongoRepository<UserChallenge,
 
     @Query("{'userId': ?0, 'startedAt': {'$gte': ?1}}")
     List<UserChallenge> findByUserIdAndStartedAtAfter(Long userId, Instant after);
+
+    /**
+     * Completion counts, completion time, per-objective progress, per-type completions and
+     * the status sequence of a user's challenges started since the given instant, in one pass
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { 'userId': ?0, 'startedAt': { $gte: ?1 } } }",
+            "{ $facet: { "
+                    + "'totals': [ { $group: { _id: null, attempted: { $sum: 1 }, "
+                    + "completed: { $sum: { $cond: [ { $eq: [ '$status', 'COMPLETED' ] }, 1, 0 ] } }, "
+                    + "completionHours: { $sum: { $cond: [ { $and: [ { $eq: [ '$status', 'COMPLETED' ] }, "
+                    + "{ $eq: [ { $type: '$completedAt' }, 'date' ] }, { $eq: [ { $type: '$startedAt' }, 'date' ] } ] }, "
+                    + "{ $trunc: { $divide: [ { $subtract: [ '$completedAt', '$startedAt' ] }, 3600000 ] } }, 0 ] } } } } ], "
+                    + "'byObjective': [ { $match: { 'status': 'COMPLETED' } }, "
+                    + "{ $group: { _id: '$objectiveType', averageProgressRatio: { $avg: { $cond: [ { $gt: [ '$targetValue', 0 ] }, "
+                    + "{ $divide: [ '$currentProgress', '$targetValue' ] }, null ] } } } } ], "
+                    + "'completedByType': [ { $match: { 'status': 'COMPLETED' } }, "
+                    + "{ $group: { _id: '$challengeType', count: { $sum: 1 } } } ], "
+                    + "'outcomes': [ { $sort: { 'startedAt': 1 } }, { $group: { _id: null, statuses: { $push: '$status' } } } ] "
+                    + "} }"
+    })
+    UserChallengePerformanceFacet aggregatePerformance(Long userId, Instant startedSince);
+
+    /**
+     * Active challenges (newest first) and the last 10 completed, each joined to its
+     * challenge, plus total and completed counts, in one round-trip
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { 'userId': ?0 } }",
+            "{ $facet: { "
+                    + "'active': [ { $match: { 'status': 'ACTIVE' } }, { $sort: { 'startedAt': -1 } }, "
+                    + CHALLENGE_JOIN + " ], "
+                    + "'completed': [ { $match: { 'status': 'COMPLETED' } }, { $sort: { 'completedAt': -1 } }, "
+                    + "{ $limit: 10 }, " + CHALLENGE_JOIN + " ], "
+                    + "'totals': [ { $group: { _id: null, total: { $sum: 1 }, "
+                    + "completed: { $sum: { $cond: [ { $eq: [ '$status', 'COMPLETED' ] }, 1, 0 ] } } } } ] "
+                    + "} }"
+    })
+    UserChallengeCatalogFacet aggregateCatalog(Long userId);
 }
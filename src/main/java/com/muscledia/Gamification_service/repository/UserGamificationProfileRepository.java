@@ -1,12 +1,15 @@
 package com.muscledia.Gamification_service.repository;
 
 import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.repository.projection.PlatformStatisticsFacet;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +21,11 @@ public interface UserGamificationProfileRepository extends MongoRepository<UserG
      */
     Optional<UserGamificationProfile> findByUserId(Long userId);
 
+    /**
+     * Find user profiles by user IDs
+     */
+    List<UserGamificationProfile> findByUserIdIn(Collection<Long> userIds);
+
     /**
      * Find users by level
      */
@@ -78,24 +86,28 @@ public interface UserGamificationProfileRepository extends MongoRepository<UserG
 
     /**
      * Find users with active streak (streak current > 0)
+     * (scans the streaks map; UserStreakService answers this from the user_streaks indexes)
      */
     @Query("{ 'streaks.?0.current' : { $gt: 0 } }")
     List<UserGamificationProfile> findUsersWithActiveStreak(String streakType);
 
     /**
      * Find users with streak length greater than specified amount
+     * (scans the streaks map; UserStreakService answers this from the user_streaks indexes)
      */
     @Query("{ 'streaks.?0.current' : { $gte: ?1 } }")
     List<UserGamificationProfile> findUsersWithStreakLength(String streakType, int minLength);
 
     /**
      * Find top users by streak length for a specific streak type
+     * (scans the streaks map; UserStreakService answers this from the user_streaks indexes)
      */
     @Query(value = "{ 'streaks.?0' : { $exists: true } }", sort = "{ 'streaks.?0.current' : -1 }")
     List<UserGamificationProfile> findTopUsersByStreak(String streakType, Pageable pageable);
 
     /**
      * Find users with longest streak record for a specific streak type
+     * (scans the streaks map; UserStreakService answers this from the user_streaks indexes)
      */
     @Query(value = "{ 'streaks.?0' : { $exists: true } }", sort = "{ 'streaks.?0.longest' : -1 }")
     List<UserGamificationProfile> findTopUsersByLongestStreak(String streakType, Pageable pageable);
@@ -191,4 +203,25 @@ public interface UserGamificationProfileRepository extends MongoRepository<UserG
      * Get ALL users sorted by monthly streak (for accurate rank calculation)
      */
     List<UserGamificationProfile> findAllByOrderByMonthlyStreakDesc();
+
+    /**
+     * Platform-wide counters (total, level histogram, points ranges, hourly level-ups
+     * since the given instant, active workout streaks) in one server-side pass
+     */
+    @Aggregation(pipeline = {
+            "{ $facet: { "
+                    + "'total': [ { $count: 'count' } ], "
+                    + "'byLevel': [ { $group: { _id: { $toString: '$level' }, count: { $sum: 1 } } } ], "
+                    + "'byPointsRange': [ { $group: { _id: { $switch: { branches: [ "
+                    + "{ case: { $lt: [ { $ifNull: [ '$points', 0 ] }, 100 ] }, then: '0-100' }, "
+                    + "{ case: { $lt: [ '$points', 300 ] }, then: '100-300' }, "
+                    + "{ case: { $lt: [ '$points', 600 ] }, then: '300-600' }, "
+                    + "{ case: { $lt: [ '$points', 1000 ] }, then: '600-1000' } "
+                    + "], default: '1000+' } }, count: { $sum: 1 } } } ], "
+                    + "'levelUpsByHour': [ { $match: { 'lastLevelUpDate': { $gte: ?0 } } }, "
+                    + "{ $group: { _id: { $dateToString: { format: '%Y-%m-%dT%H:00:00Z', date: '$lastLevelUpDate' } }, count: { $sum: 1 } } } ], "
+                    + "'activeWorkoutStreaks': [ { $match: { 'streaks.workout.current': { $gt: 0 } } }, { $count: 'count' } ] "
+                    + "} }"
+    })
+    PlatformStatisticsFacet aggregatePlatformStatistics(Instant levelUpsSince);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.muscledia.Gamification_service.repository;
+
+import com.muscledia.Gamification_service.model.UserInventoryItem;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserInventoryRepository extends MongoRepository<UserInventoryItem, String> {
+
+    List<UserInventoryItem> findByUserId(Long userId);
+}
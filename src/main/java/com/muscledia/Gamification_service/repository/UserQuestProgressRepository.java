@@ -0,0 +1,31 @@
+package com.muscledia.Gamification_service.repository;
+
+import com.muscledia.Gamification_service.model.UserQuestProgress;
+import com.muscledia.Gamification_service.model.enums.QuestStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserQuestProgressRepository extends MongoRepository<UserQuestProgress, String> {
+
+    List<UserQuestProgress> findByUserId(Long userId);
+
+    List<UserQuestProgress> findByUserIdAndStatus(Long userId, QuestStatus status);
+
+    /**
+     * Quest ids only, of the user's quests in the given status
+     */
+    @Query(value = "{ 'userId' : ?0, 'status' : ?1 }", fields = "{ '_id' : 0, 'questId' : 1 }")
+    List<UserQuestProgress> findQuestIdsByUserIdAndStatus(Long userId, QuestStatus status);
+
+    /**
+     * Most recently started progress of a user on a quest
+     */
+    Optional<UserQuestProgress> findFirstByUserIdAndQuestIdOrderByStartDateDesc(Long userId, String questId);
+
+    boolean existsByUserIdAndQuestIdAndStatus(Long userId, String questId, QuestStatus status);
+}
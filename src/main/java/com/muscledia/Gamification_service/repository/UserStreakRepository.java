@@ -0,0 +1,39 @@
+package com.muscledia.Gamification_service.repository;
+
+import com.muscledia.Gamification_service.model.UserStreak;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Streak lookups by type. Every query projects only indexed fields, so each one is
+ * answered from type_current_idx / type_longest_idx without fetching documents.
+ */
+@Repository
+public interface UserStreakRepository extends MongoRepository<UserStreak, String> {
+
+    /**
+     * Users whose streak of the given type is at least minLength (userId and current only)
+     */
+    @Query(value = "{ 'type' : ?0, 'current' : { $gte: ?1 } }", fields = "{ '_id' : 0, 'userId' : 1, 'current' : 1 }")
+    List<UserStreak> findUserIdsWithCurrentAtLeast(String type, int minLength);
+
+    /**
+     * Top users by current streak of the given type (userId and current only)
+     */
+    @Query(value = "{ 'type' : ?0, 'current' : { $gt: 0 } }", fields = "{ '_id' : 0, 'userId' : 1, 'current' : 1 }",
+            sort = "{ 'current' : -1, 'userId' : 1 }")
+    List<UserStreak> findTopByCurrent(String type, Pageable pageable);
+
+    /**
+     * Top users by longest streak of the given type (userId and longest only)
+     */
+    @Query(value = "{ 'type' : ?0, 'longest' : { $gt: 0 } }", fields = "{ '_id' : 0, 'userId' : 1, 'longest' : 1 }",
+            sort = "{ 'longest' : -1, 'userId' : 1 }")
+    List<UserStreak> findTopByLongest(String type, Pageable pageable);
+
+    void deleteByUserId(Long userId);
+}
@@ -0,0 +1,12 @@
+package com.muscledia.Gamification_service.repository.projection;
+
+import java.util.List;
+
+/**
+ * Result of the single-pass {@code $facet} over the badges collection.
+ */
+public record BadgeStatisticsFacet(
+        List<GroupCount> total,
+        List<GroupCount> byBadgeType,
+        List<GroupCount> byCriteriaType) {
+}
@@ -0,0 +1,14 @@
+package com.muscledia.Gamification_service.repository.projection;
+
+import java.util.List;
+
+/**
+ * Result of the single-pass {@code $facet} over the champions collection.
+ */
+public record ChampionStatisticsFacet(
+        List<GroupCount> total,
+        List<GroupCount> byDifficulty,
+        List<GroupCount> byCriteriaType,
+        List<GroupCount> general,
+        List<GroupCount> exerciseSpecific) {
+}
@@ -0,0 +1,42 @@
+package com.muscledia.Gamification_service.repository.projection;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One bucket of a {@code $group} / {@code $count} stage: the grouping key and
+ * how many documents fell into it.
+ */
+public record GroupCount(String id, long count) {
+
+    /**
+     * Count of a facet that ends in {@code $count} (empty when nothing matched)
+     */
+    public static long single(List<GroupCount> buckets) {
+        return buckets == null || buckets.isEmpty() ? 0L : buckets.get(0).count();
+    }
+
+    /**
+     * Spread grouped counts over every enum constant, filling missing ones with zero
+     */
+    public static <E extends Enum<E>> Map<E, Long> byEnum(Class<E> type, List<GroupCount> buckets) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            counts.put(constant, 0L);
+        }
+        if (buckets != null) {
+            for (GroupCount bucket : buckets) {
+                if (bucket.id() == null) {
+                    continue;
+                }
+                try {
+                    counts.put(Enum.valueOf(type, bucket.id()), bucket.count());
+                } catch (IllegalArgumentException ignored) {
+                    // Stale value no longer present in the enum
+                }
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,16 @@
+package com.muscledia.Gamification_service.repository.projection;
+
+import java.util.List;
+
+/**
+ * Result of the single-pass {@code $facet} over user profiles used to reconcile
+ * the in-memory platform statistics counters.
+ * levelUpsByHour ids are UTC hour stamps formatted as yyyy-MM-ddTHH:00:00Z.
+ */
+public record PlatformStatisticsFacet(
+        List<GroupCount> total,
+        List<GroupCount> byLevel,
+        List<GroupCount> byPointsRange,
+        List<GroupCount> levelUpsByHour,
+        List<GroupCount> activeWorkoutStreaks) {
+}
@@ -0,0 +1,23 @@
+package com.muscledia.Gamification_service.repository.projection;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of the single-pass {@code $facet} over the quests collection.
+ * nextStart / nextEnd hold the earliest upcoming start and end dates, which is
+ * when the active/upcoming/expired split next changes.
+ */
+public record QuestStatisticsFacet(
+        List<GroupCount> total,
+        List<GroupCount> active,
+        List<GroupCount> upcoming,
+        List<GroupCount> expired,
+        List<GroupCount> byQuestType,
+        List<GroupCount> byObjectiveType,
+        List<Boundary> nextStart,
+        List<Boundary> nextEnd) {
+
+    public record Boundary(Instant at) {
+    }
+}
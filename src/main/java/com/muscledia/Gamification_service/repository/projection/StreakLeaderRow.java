@@ -0,0 +1,8 @@
+package com.muscledia.Gamification_service.repository.projection;
+
+/**
+ * Display fields of one streak leaderboard user.
+ */
+public record StreakLeaderRow(Long userId, String username, Integer points, Integer level,
+                              Integer totalWorkoutsCompleted, Integer badgeCount) {
+}
@@ -0,0 +1,7 @@
+package com.muscledia.Gamification_service.repository.projection;
+
+/**
+ * Number of users holding one streak value ({@code $group} on the streak field).
+ */
+public record StreakValueCount(Integer id, long count) {
+}
@@ -0,0 +1,26 @@
+package com.muscledia.Gamification_service.repository.projection;
+
+import com.muscledia.Gamification_service.model.Challenge;
+import com.muscledia.Gamification_service.model.UserChallenge;
+
+import java.util.List;
+
+/**
+ * Result of the single {@code $facet} over one user's challenges that backs the challenge
+ * catalog: active and recently completed user challenges joined to their challenge, plus
+ * counts over all of them.
+ */
+public record UserChallengeCatalogFacet(
+        List<Entry> active,
+        List<Entry> completed,
+        List<Totals> totals) {
+
+    /**
+     * A user challenge and its challenge document (null if the challenge was deleted)
+     */
+    public record Entry(UserChallenge userChallenge, Challenge challenge) {
+    }
+
+    public record Totals(long total, long completed) {
+    }
+}
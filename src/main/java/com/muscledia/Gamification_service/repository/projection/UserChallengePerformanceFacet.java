@@ -0,0 +1,33 @@
+package com.muscledia.Gamification_service.repository.projection;
+
+import java.util.List;
+
+/**
+ * Result of the single-pass {@code $facet} over one user's recent challenges used to build
+ * {@code UserPerformanceMetrics}. Objective and type ids come from the attributes
+ * denormalized onto each user challenge (null for documents not yet backfilled).
+ */
+public record UserChallengePerformanceFacet(
+        List<Totals> totals,
+        List<ObjectiveRatio> byObjective,
+        List<GroupCount> completedByType,
+        List<Outcomes> outcomes) {
+
+    /**
+     * Attempted / completed counts and summed whole hours from start to completion
+     */
+    public record Totals(long attempted, long completed, long completionHours) {
+    }
+
+    /**
+     * Average progress / target of completed challenges with one objective
+     */
+    public record ObjectiveRatio(String id, Double averageProgressRatio) {
+    }
+
+    /**
+     * Challenge statuses in start order
+     */
+    public record Outcomes(List<String> statuses) {
+    }
+}
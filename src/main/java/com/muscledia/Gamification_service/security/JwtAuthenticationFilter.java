@@ -2,6 +2,7 @@ package com.muscledia.Gamification_service.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.muscledia.Gamification_service.dto.response.ApiResponse;
+import com.muscledia.Gamification_service.service.ActiveUserEstimationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,6 +30,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final ObjectMapper objectMapper;
+    private final ActiveUserEstimationService activeUserEstimation;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -54,6 +56,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                activeUserEstimation.recordActivity(userId, null);
 
                 log.debug("Set Authentication for user: {} with ID: {}", username, userId);
             }
@@ -6,6 +6,10 @@ import com.muscledia.Gamification_service.model.UserBadge;
 import com.muscledia.Gamification_service.model.UserGamificationProfile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +26,7 @@ public class AchievementService {
 
     private final UserGamificationService userGamificationService;
     private final RewardProcessor rewardProcessor;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Process workout completion and award achievements
@@ -46,9 +51,6 @@ public class AchievementService {
             checkDurationAchievements(userProfile, event);
             checkVolumeAchievements(userProfile, event);
 
-            // Save updated profile
-            userGamificationService.saveUserProfile(userProfile);
-
             log.info("Achievement processing completed for user {}", event.getUserId());
 
         } catch (Exception e) {
@@ -185,6 +187,9 @@ public class AchievementService {
 
                 // Add badge to profile (for tracking)
                 userProfile.addBadge(newBadge);
+                if (!pushBadge(userProfile.getUserId(), newBadge)) {
+                    return;
+                }
 
                 // REFACTORED: Use RewardProcessor for points instead of direct manipulation
                 rewardProcessor.awardPoints(userProfile.getUserId(), bonusPoints);
@@ -197,4 +202,18 @@ public class AchievementService {
                     badgeId, userProfile.getUserId(), e.getMessage());
         }
     }
+
+    /**
+     * Append the badge unless the stored profile already holds it (a targeted update, so
+     * concurrent profile writers are not overwritten); false when it was already there
+     */
+    private boolean pushBadge(Long userId, UserBadge badge) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("userId").is(userId).and("earnedBadges.badgeId").ne(badge.getBadgeId())),
+                new Update()
+                        .push("earnedBadges", badge)
+                        .set("lastUpdated", Instant.now())
+                        .inc("version", 1),
+                UserGamificationProfile.class).getModifiedCount() > 0;
+    }
 }
@@ -0,0 +1,234 @@
+package com.muscledia.Gamification_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muscledia.Gamification_service.model.ActiveUserSketch;
+import com.muscledia.Gamification_service.repository.ActiveUserSketchRepository;
+import com.muscledia.Gamification_service.service.analytics.HyperLogLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily / weekly / monthly distinct active user estimation.
+ *
+ * Each node records user ids into per-period HyperLogLog sketches (8 KB each),
+ * flushes its own sketch per period to Mongo every minute, and answers DAU/WAU/MAU
+ * by merging every node's sketch for the current period. Periods are UTC.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveUserEstimationService {
+
+    private static final String METRIC_NAME = "gamification.active.users";
+
+    private final ActiveUserSketchRepository sketchRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, LocalSketch> localSketches = new ConcurrentHashMap<>();
+    private volatile CurrentPeriods currentPeriods = CurrentPeriods.of(LocalDate.now(ZoneOffset.UTC));
+
+    // Merged cluster-wide estimates are re-read from Mongo at most once a minute
+    private final Cache<String, Long> estimateCache = Caffeine.newBuilder()
+            .maximumSize(16)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
+    public enum Period {
+        DAY, WEEK, MONTH
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        for (Period period : Period.values()) {
+            Gauge.builder(METRIC_NAME, this, service -> service.estimateActiveUsers(period))
+                    .description("Estimated distinct active users in the current period (HyperLogLog)")
+                    .tag("period", period.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Record that a user was active at the given instant (null = now)
+     */
+    public void recordActivity(Long userId, Instant at) {
+        if (userId == null) {
+            return;
+        }
+
+        try {
+            LocalDate day = LocalDate.ofInstant(at != null ? at : Instant.now(), ZoneOffset.UTC);
+            CurrentPeriods periods = currentPeriods;
+            if (!periods.day().equals(day)) {
+                periods = CurrentPeriods.of(day);
+                if (day.isAfter(currentPeriods.day())) {
+                    currentPeriods = periods;
+                }
+            }
+
+            record(periods.dayKey(), periods.dayExpiry(), userId);
+            record(periods.weekKey(), periods.weekExpiry(), userId);
+            record(periods.monthKey(), periods.monthExpiry(), userId);
+
+        } catch (Exception e) {
+            log.debug("Failed to record activity for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Estimated distinct users active in the current period across all nodes
+     */
+    public long estimateActiveUsers(Period period) {
+        String periodKey = currentPeriods.refresh().keyFor(period);
+        return estimateCache.get(periodKey, this::mergeEstimate);
+    }
+
+    /**
+     * DAU / WAU / MAU estimates
+     */
+    public Map<String, Long> getActiveUserEstimates() {
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        estimates.put("daily", estimateActiveUsers(Period.DAY));
+        estimates.put("weekly", estimateActiveUsers(Period.WEEK));
+        estimates.put("monthly", estimateActiveUsers(Period.MONTH));
+        return estimates;
+    }
+
+    /**
+     * Persist this node's changed sketches and drop local sketches of finished periods
+     */
+    @Scheduled(fixedDelayString = "${gamification.active-users.flush-interval-ms:60000}")
+    public void flush() {
+        Instant now = Instant.now();
+
+        localSketches.forEach((periodKey, local) -> {
+            try {
+                if (local.dirty) {
+                    local.dirty = false;
+                    sketchRepository.save(ActiveUserSketch.builder()
+                            .id(periodKey + ":" + nodeId)
+                            .periodKey(periodKey)
+                            .nodeId(nodeId)
+                            .registers(local.sketch.toBytes())
+                            .updatedAt(now)
+                            .expiresAt(local.expiresAt)
+                            .build());
+                } else if (!currentPeriods.refresh().contains(periodKey)) {
+                    localSketches.remove(periodKey);
+                }
+            } catch (Exception e) {
+                local.dirty = true;
+                log.warn("Failed to flush active user sketch {}: {}", periodKey, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ===========================================
+    // PRIVATE HELPERS
+    // ===========================================
+
+    private void record(String periodKey, Instant expiresAt, Long userId) {
+        LocalSketch local = localSketches.computeIfAbsent(periodKey, key -> new LocalSketch(expiresAt));
+        if (local.sketch.add(userId)) {
+            local.dirty = true;
+        }
+    }
+
+    private long mergeEstimate(String periodKey) {
+        HyperLogLog merged = new HyperLogLog();
+
+        LocalSketch local = localSketches.get(periodKey);
+        if (local != null) {
+            merged.merge(local.sketch);
+        }
+
+        try {
+            for (ActiveUserSketch stored : sketchRepository.findByPeriodKey(periodKey)) {
+                if (!nodeId.equals(stored.getNodeId()) && stored.getRegisters() != null) {
+                    merged.merge(HyperLogLog.fromBytes(stored.getRegisters()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Using local-only active user estimate for {}: {}", periodKey, e.getMessage());
+        }
+
+        return merged.estimate();
+    }
+
+    private static class LocalSketch {
+        private final HyperLogLog sketch = new HyperLogLog();
+        private final Instant expiresAt;
+        private volatile boolean dirty;
+
+        private LocalSketch(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Period keys of one UTC day, cached so the per-request path does no formatting
+     */
+    private record CurrentPeriods(LocalDate day, String dayKey, String weekKey, String monthKey,
+                                  Instant dayExpiry, Instant weekExpiry, Instant monthExpiry) {
+
+        static CurrentPeriods of(LocalDate day) {
+            LocalDate weekEnd = day.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            YearMonth month = YearMonth.from(day);
+            return new CurrentPeriods(
+                    day,
+                    "DAY:" + day,
+                    String.format("WEEK:%d-W%02d", day.get(IsoFields.WEEK_BASED_YEAR), day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR)),
+                    "MONTH:" + month,
+                    endOf(day).plus(Duration.ofDays(35)),
+                    endOf(weekEnd).plus(Duration.ofDays(90)),
+                    endOf(month.atEndOfMonth()).plus(Duration.ofDays(400)));
+        }
+
+        private static Instant endOf(LocalDate day) {
+            return day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        CurrentPeriods refresh() {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            return today.equals(day) ? this : CurrentPeriods.of(today);
+        }
+
+        String keyFor(Period period) {
+            return switch (period) {
+                case DAY -> dayKey;
+                case WEEK -> weekKey;
+                case MONTH -> monthKey;
+            };
+        }
+
+        boolean contains(String periodKey) {
+            return dayKey.equals(periodKey) || weekKey.equals(periodKey) || monthKey.equals(periodKey);
+        }
+    }
+}
@@ -21,6 +21,9 @@ import java.util.List;
 @Slf4j
 public class AnalyticsService {
     private final UserGamificationProfileRepository profileRepository;
+    private final PlatformStatisticsService platformStatistics;
+    private final ActiveUserEstimationService activeUserEstimation;
+    private final UserStreakService userStreaks;
 
     public int getCurrentStreak(Long userId, String streakType) {
         try {
@@ -99,45 +102,32 @@ public class AnalyticsService {
         }
     }
 
+    /**
+     * Platform statistics served from the in-memory counters (no per-call queries)
+     */
     public Map<String, Object> getPlatformStatistics() {
         log.info("Getting platform statistics");
 
-        Map<String, Object> stats = new HashMap<>();
-
         try {
-            // Total users
-            long totalUsers = profileRepository.count();
-            stats.put("totalUsers", totalUsers);
-
-            // Level distribution
-            Map<String, Long> levelDistribution = new HashMap<>();
-            for (int level = 1; level <= 10; level++) {
-                levelDistribution.put("level" + level, profileRepository.countByLevel(level));
-            }
-            stats.put("levelDistribution", levelDistribution);
-
-            // Points distribution
-            Map<String, Long> pointsDistribution = new HashMap<>();
-            pointsDistribution.put("0-100", profileRepository.countByLevel(1));
-            pointsDistribution.put("100-300", profileRepository.countByLevel(2));
-            pointsDistribution.put("300-600", profileRepository.countByLevel(3));
-            pointsDistribution.put("600-1000", profileRepository.countByLevel(4));
-            pointsDistribution.put("1000+", profileRepository.countByPointsGreaterThanEqual(1000));
-            stats.put("pointsDistribution", pointsDistribution);
-
-            // Recent activity
-            List<UserGamificationProfile> recentLevelUps = getRecentLevelUps(24);
-            stats.put("recentLevelUps", recentLevelUps.size());
-
-            // Active users (users with recent activity)
-            List<UserGamificationProfile> activeUsers = getUsersWithActiveStreak("workout");
-            stats.put("activeUsers", activeUsers.size());
-
+            Map<String, Object> stats = platformStatistics.getPlatformStatistics();
+            stats.put("activeUserEstimates", getActiveUserEstimates());
+            return stats;
         } catch (Exception e) {
             log.error("Error getting platform statistics: {}", e.getMessage());
+            return new HashMap<>();
         }
+    }
 
-        return stats;
+    /**
+     * Approximate DAU / WAU / MAU from the HyperLogLog activity sketches
+     */
+    public Map<String, Long> getActiveUserEstimates() {
+        try {
+            return activeUserEstimation.getActiveUserEstimates();
+        } catch (Exception e) {
+            log.error("Error estimating active users: {}", e.getMessage());
+            return new HashMap<>();
+        }
     }
 
     public List<UserGamificationProfile> getRecentLevelUps(int hoursBack) {
@@ -146,10 +136,10 @@ public class AnalyticsService {
     }
 
     public List<UserGamificationProfile> getUsersWithActiveStreak(String streakType) {
-        return profileRepository.findUsersWithActiveStreak(streakType);
+        return userStreaks.findUsersWithActiveStreak(streakType);
     }
 
     public List<UserGamificationProfile> getUsersWithMinimumStreak(String streakType, int minLength) {
-        return profileRepository.findUsersWithStreakLength(streakType, minLength);
+        return userStreaks.findUsersWithStreakLength(streakType, minLength);
     }
 }
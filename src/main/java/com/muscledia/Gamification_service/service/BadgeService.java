@@ -9,6 +9,9 @@ import com.muscledia.Gamification_service.model.enums.BadgeType;
 import com.muscledia.Gamification_service.model.enums.BadgeCriteriaType;
 import com.muscledia.Gamification_service.repository.BadgeRepository;
 import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.repository.projection.BadgeStatisticsFacet;
+import com.muscledia.Gamification_service.repository.projection.GroupCount;
+import com.muscledia.Gamification_service.service.profile.ProfileUpdateExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -25,9 +28,13 @@ import java.util.stream.Collectors;
 @ConditionalOnProperty(value = "gamification.mongodb.enabled", havingValue = "true")
 public class BadgeService {
 
+    private static final String BADGES_COLLECTION = "badges";
+
     private final BadgeRepository badgeRepository;
     private final UserGamificationProfileRepository userProfileRepository;
     private final EventPublisher eventPublisher;
+    private final CatalogStatisticsCache statisticsCache;
+    private final ProfileUpdateExecutor profileUpdates;
 
     /**
      * Create a new badge
@@ -79,9 +86,22 @@ public class BadgeService {
     public UserGamificationProfile awardBadge(Long userId, String badgeId) {
         log.info("Awarding badge {} to user {}", badgeId, userId);
 
-        UserGamificationProfile userProfile = userProfileRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId));
+        // Re-applied to a fresh read if another writer saved the profile concurrently
+        BadgeAward award = profileUpdates.execute(
+                () -> userProfileRepository.findByUserId(userId)
+                        .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId)),
+                userProfile -> applyBadge(userProfile, userId, badgeId));
+
+        if (award.badge() != null) {
+            // ✅ PUBLISH EVENT WITH UUID
+            publishBadgeEarnedEvent(userId, award.badge());
 
+            log.info("Badge {} awarded successfully to user {}", badgeId, userId);
+        }
+        return award.profile();
+    }
+
+    private BadgeAward applyBadge(UserGamificationProfile userProfile, Long userId, String badgeId) {
         Badge badge = badgeRepository.findById(badgeId)
                 .orElseThrow(() -> new IllegalArgumentException("Badge not found: " + badgeId));
 
@@ -90,7 +110,7 @@ public class BadgeService {
 
         if (alreadyHasBadge) {
             log.warn("User {} already has badge {}", userId, badgeId);
-            return userProfile;
+            return new BadgeAward(userProfile, null);
         }
 
         // Create user badge WITH full details
@@ -118,13 +138,13 @@ public class BadgeService {
             log.info("User {} leveled up to level {}", userId, newLevel);
         }
 
-        UserGamificationProfile savedProfile = userProfileRepository.save(userProfile);
-
-        // ✅ PUBLISH EVENT WITH UUID
-        publishBadgeEarnedEvent(userId, badge);
+        return new BadgeAward(userProfileRepository.save(userProfile), badge);
+    }
 
-        log.info("Badge {} awarded successfully to user {}", badgeId, userId);
-        return savedProfile;
+    /**
+     * Saved profile and the badge it gained (null when the user already held it)
+     */
+    private record BadgeAward(UserGamificationProfile profile, Badge badge) {
     }
 
     /**
@@ -239,29 +259,19 @@ public class BadgeService {
     }
 
     /**
-     * Get badge statistics
+     * Get badge statistics - one $facet aggregation, cached until the badge catalog changes
      */
     public Map<String, Object> getBadgeStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-
-        long totalBadges = badgeRepository.count();
-        stats.put("totalBadges", totalBadges);
+        return statisticsCache.get(BADGES_COLLECTION, () -> {
+            BadgeStatisticsFacet facet = badgeRepository.aggregateStatistics();
 
-        // Count by badge type
-        Map<BadgeType, Long> badgeTypeCount = new HashMap<>();
-        for (BadgeType type : BadgeType.values()) {
-            badgeTypeCount.put(type, (long) badgeRepository.findByBadgeType(type).size());
-        }
-        stats.put("badgesByType", badgeTypeCount);
-
-        // Count by criteria type
-        Map<BadgeCriteriaType, Long> criteriaTypeCount = new HashMap<>();
-        for (BadgeCriteriaType type : BadgeCriteriaType.values()) {
-            criteriaTypeCount.put(type, (long) badgeRepository.findByCriteriaType(type).size());
-        }
-        stats.put("badgesByCriteriaType", criteriaTypeCount);
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalBadges", GroupCount.single(facet.total()));
+            stats.put("badgesByType", GroupCount.byEnum(BadgeType.class, facet.byBadgeType()));
+            stats.put("badgesByCriteriaType", GroupCount.byEnum(BadgeCriteriaType.class, facet.byCriteriaType()));
 
-        return stats;
+            return CatalogStatisticsCache.Snapshot.untilChanged(stats);
+        });
     }
 
     /**
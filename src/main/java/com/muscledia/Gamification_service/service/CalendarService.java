@@ -0,0 +1,191 @@
+package com.muscledia.Gamification_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Per-user-zone calendar arithmetic for streaks.
+ *
+ * For each zone in use, a table of local-midnight instants (2020-2039) is computed once,
+ * so mapping an instant to its local epoch day is an array lookup. Weeks (ISO, Monday
+ * start) and months are then plain integer ordinals that streak checks compare directly.
+ * Instants outside the table fall back to java.time.
+ */
+@Service
+@Slf4j
+public class CalendarService {
+
+    private static final LocalDate TABLE_START = LocalDate.of(2020, 1, 1);
+    private static final long TABLE_START_DAY = TABLE_START.toEpochDay();
+    private static final int TABLE_DAYS = (int) (LocalDate.of(2040, 1, 1).toEpochDay() - TABLE_START_DAY);
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final ZoneId defaultZone;
+
+    // ~88 KB per zone; bounded so arbitrary zone ids cannot grow it without limit
+    private final Cache<ZoneId, ZoneCalendar> calendars = Caffeine.newBuilder()
+            .maximumSize(128)
+            .build();
+
+    public CalendarService(@Value("${gamification.calendar.default-zone:UTC}") String defaultZone) {
+        this.defaultZone = ZoneId.of(defaultZone);
+    }
+
+    /**
+     * Zone used for users who have not reported one
+     */
+    public ZoneId defaultZone() {
+        return defaultZone;
+    }
+
+    /**
+     * Parse a reported zone id; null when missing or unknown
+     */
+    public ZoneId parseZone(String zoneId) {
+        if (zoneId == null || zoneId.isBlank()) {
+            return null;
+        }
+        try {
+            return ZoneId.of(zoneId.trim());
+        } catch (DateTimeException e) {
+            log.debug("Ignoring unknown time zone '{}'", zoneId);
+            return null;
+        }
+    }
+
+    /**
+     * A user's zone, falling back to the default zone
+     */
+    public ZoneId resolveZone(String zoneId) {
+        ZoneId zone = parseZone(zoneId);
+        return zone != null ? zone : defaultZone;
+    }
+
+    // ===== ORDINALS =====
+
+    /**
+     * Local calendar day of an instant, as days since 1970-01-01
+     */
+    public long epochDay(Instant at, ZoneId zone) {
+        return calendar(zone).epochDay(at);
+    }
+
+    /**
+     * ISO week (Monday start) of an instant, as weeks since the week of 1970-01-01
+     */
+    public long weekOrdinal(Instant at, ZoneId zone) {
+        return weekOfEpochDay(epochDay(at, zone));
+    }
+
+    /**
+     * Calendar month of an instant, as year * 12 + (month - 1)
+     */
+    public long monthOrdinal(Instant at, ZoneId zone) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay(at, zone));
+        return date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Week / month holding a stored period start, whichever zone it was computed in: local
+     * midnight of a date read at UTC+18 always falls on that date or the next
+     */
+    public long weekOrdinalOfStart(Instant weekStart) {
+        return weekOrdinal(weekStart, ZoneOffset.MAX);
+    }
+
+    public long monthOrdinalOfStart(Instant monthStart) {
+        return monthOrdinal(monthStart, ZoneOffset.MAX);
+    }
+
+    // ===== BOUNDARIES =====
+
+    /**
+     * Local midnight starting the given epoch day
+     */
+    public Instant startOfDay(long epochDay, ZoneId zone) {
+        return calendar(zone).startOfDay(epochDay);
+    }
+
+    public Instant weekStart(long weekOrdinal, ZoneId zone) {
+        return startOfDay(weekOrdinal * 7 - 3, zone);
+    }
+
+    public Instant monthStart(long monthOrdinal, ZoneId zone) {
+        LocalDate first = LocalDate.of((int) Math.floorDiv(monthOrdinal, 12), (int) Math.floorMod(monthOrdinal, 12) + 1, 1);
+        return startOfDay(first.toEpochDay(), zone);
+    }
+
+    /**
+     * Whether the local day of an instant is the first day of its week / month
+     */
+    public boolean isFirstDayOfWeek(Instant at, ZoneId zone) {
+        long day = epochDay(at, zone);
+        return weekOfEpochDay(day) * 7 - 3 == day;
+    }
+
+    public boolean isFirstDayOfMonth(Instant at, ZoneId zone) {
+        return LocalDate.ofEpochDay(epochDay(at, zone)).getDayOfMonth() == 1;
+    }
+
+    // ===== PRIVATE HELPERS =====
+
+    private ZoneCalendar calendar(ZoneId zone) {
+        return calendars.get(zone != null ? zone : defaultZone, ZoneCalendar::new);
+    }
+
+    // 1970-01-01 was a Thursday, so the Monday-start week holding it began on epoch day -3
+    private static long weekOfEpochDay(long epochDay) {
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+
+    /**
+     * Epoch seconds of each local midnight in the table range for one zone
+     */
+    private static final class ZoneCalendar {
+        private final ZoneId zone;
+        private final long[] dayStarts = new long[TABLE_DAYS + 1];
+
+        private ZoneCalendar(ZoneId zone) {
+            this.zone = zone;
+            LocalDate date = TABLE_START;
+            for (int i = 0; i <= TABLE_DAYS; i++) {
+                dayStarts[i] = date.atStartOfDay(zone).toEpochSecond();
+                date = date.plusDays(1);
+            }
+        }
+
+        long epochDay(Instant at) {
+            long seconds = at.getEpochSecond();
+            if (seconds < dayStarts[0] || seconds >= dayStarts[TABLE_DAYS]) {
+                return LocalDate.ofInstant(at, zone).toEpochDay();
+            }
+
+            // UTC day is within one day of the local day; step to the containing slot
+            int index = (int) Math.min(TABLE_DAYS - 1, Math.max(0, Math.floorDiv(seconds, SECONDS_PER_DAY) - TABLE_START_DAY));
+            while (dayStarts[index] > seconds) {
+                index--;
+            }
+            while (dayStarts[index + 1] <= seconds) {
+                index++;
+            }
+            return TABLE_START_DAY + index;
+        }
+
+        Instant startOfDay(long epochDay) {
+            long index = epochDay - TABLE_START_DAY;
+            if (index < 0 || index > TABLE_DAYS) {
+                return LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant();
+            }
+            return Instant.ofEpochSecond(dayStarts[(int) index]);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.muscledia.Gamification_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches the /statistics snapshots of the catalog collections (badges, quests, champions).
+ *
+ * A snapshot is computed once by the owning service's aggregation and served until
+ * the collection is written through a repository (save/delete lifecycle events), or
+ * until its optional validUntil instant passes for time-dependent counts.
+ */
+@Component
+@Slf4j
+public class CatalogStatisticsCache {
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Return the cached statistics for a collection, computing them on a miss
+     */
+    public Map<String, Object> get(String collection, Supplier<Snapshot> loader) {
+        Snapshot cached = snapshots.get(collection);
+        if (cached != null && cached.isValidAt(Instant.now())) {
+            return cached.statistics();
+        }
+
+        // compute() makes concurrent misses share one aggregation, and an invalidation
+        // arriving mid-load waits for it and then drops the possibly stale result
+        return snapshots.compute(collection, (key, current) -> {
+            if (current != null && current.isValidAt(Instant.now())) {
+                return current;
+            }
+            log.debug("Recomputing statistics snapshot for {}", key);
+            return loader.get();
+        }).statistics();
+    }
+
+    /**
+     * Drop the snapshot of a collection
+     */
+    public void invalidate(String collection) {
+        if (snapshots.remove(collection) != null) {
+            log.debug("Invalidated statistics snapshot for {}", collection);
+        }
+    }
+
+    @EventListener({AfterSaveEvent.class, AfterDeleteEvent.class})
+    public void onCatalogChange(MongoMappingEvent<?> event) {
+        String collection = event.getCollectionName();
+        if (collection != null) {
+            invalidate(collection);
+        }
+    }
+
+    /**
+     * Computed statistics and the instant after which they must be recomputed (null = until changed)
+     */
+    public record Snapshot(Map<String, Object> statistics, Instant validUntil) {
+
+        public static Snapshot untilChanged(Map<String, Object> statistics) {
+            return new Snapshot(statistics, null);
+        }
+
+        boolean isValidAt(Instant now) {
+            return validUntil == null || now.isBefore(validUntil);
+        }
+    }
+}
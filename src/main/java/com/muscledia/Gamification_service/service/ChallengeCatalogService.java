@@ -0,0 +1,205 @@
+package com.muscledia.Gamification_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muscledia.Gamification_service.dto.response.ChallengeCatalogResponse;
+import com.muscledia.Gamification_service.dto.response.ChallengeResponse;
+import com.muscledia.Gamification_service.dto.response.ChallengeTemplateResponse;
+import com.muscledia.Gamification_service.mapper.ChallengeMapper;
+import com.muscledia.Gamification_service.model.ChallengeTemplate;
+import com.muscledia.Gamification_service.model.UserJourneyProfile;
+import com.muscledia.Gamification_service.model.enums.DifficultyLevel;
+import com.muscledia.Gamification_service.repository.UserChallengeRepository;
+import com.muscledia.Gamification_service.repository.projection.UserChallengeCatalogFacet;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraph;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraphService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Read model behind the challenge catalog (the app's home screen).
+ *
+ * Active and recently completed challenges come from one $facet aggregation over the
+ * user's challenges joined to their challenge documents; templates come from the compiled
+ * template graph, so a cold build is that aggregation plus the journey read. Responses are
+ * cached per user until the user's next challenge event (start, progress, completion,
+ * expiry) or until a template reload replaces the graph.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChallengeCatalogService {
+
+    private static final int RECOMMENDATION_LIMIT = 5;
+    private static final String UNPHASED = "general";
+
+    private final UserChallengeRepository userChallengeRepository;
+    private final UserJourneyProfileService userJourneyService;
+    private final ChallengeTemplateGraphService templateGraphService;
+    private final ChallengeMapper challengeMapper;
+
+    @Value("${gamification.challenge-catalog.cache-ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Value("${gamification.challenge-catalog.cache-max-size:10000}")
+    private long cacheMaxSize;
+
+    private Cache<Long, CachedCatalog> catalogs;
+
+    /**
+     * A response with the graph it was built from; a newer graph makes it stale
+     */
+    private record CachedCatalog(ChallengeTemplateGraph graph, ChallengeCatalogResponse response) {
+    }
+
+    @PostConstruct
+    public void initialize() {
+        catalogs = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    public ChallengeCatalogResponse getCatalog(Long userId) {
+        ChallengeTemplateGraph graph = templateGraphService.current();
+        CachedCatalog cached = catalogs.getIfPresent(userId);
+        if (cached != null && cached.graph() == graph) {
+            return cached.response();
+        }
+
+        // compute() serializes with invalidate(): an invalidation during a build removes its result
+        return catalogs.asMap().compute(userId, (id, existing) -> existing != null && existing.graph() == graph
+                ? existing
+                : new CachedCatalog(graph, buildCatalog(id, graph))).response();
+    }
+
+    /**
+     * Drop the cached catalog of a user whose challenges or journey changed
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            catalogs.invalidate(userId);
+        }
+    }
+
+    /**
+     * Drop every cached catalog, e.g. after a sweep that touched many users
+     */
+    public void invalidateAll() {
+        catalogs.invalidateAll();
+    }
+
+    private ChallengeCatalogResponse buildCatalog(Long userId, ChallengeTemplateGraph graph) {
+        UserJourneyProfile journey = userJourneyService.getUserJourney(userId);
+        UserChallengeCatalogFacet facet = userChallengeRepository.aggregateCatalog(userId);
+        long[] completed = graph.completionBits(journey.getCompletedChallengeTemplates());
+
+        List<UserChallengeCatalogFacet.Entry> activeEntries = facet != null && facet.active() != null
+                ? facet.active() : List.of();
+        List<UserChallengeCatalogFacet.Entry> completedEntries = facet != null && facet.completed() != null
+                ? facet.completed() : List.of();
+        UserChallengeCatalogFacet.Totals totals = facet == null || facet.totals() == null || facet.totals().isEmpty()
+                ? new UserChallengeCatalogFacet.Totals(0, 0)
+                : facet.totals().get(0);
+
+        // Templates already running for the user are not offered again
+        Set<String> activeTemplateIds = new HashSet<>();
+        for (UserChallengeCatalogFacet.Entry entry : activeEntries) {
+            if (entry.challenge() != null && entry.challenge().getTemplateId() != null) {
+                activeTemplateIds.add(entry.challenge().getTemplateId());
+            }
+        }
+
+        DifficultyLevel difficulty = journey.getPreferredDifficulty() != null
+                ? journey.getPreferredDifficulty() : DifficultyLevel.BEGINNER;
+        List<ChallengeTemplate> offered = new ArrayList<>();
+        Map<String, ChallengeTemplateResponse> available = new LinkedHashMap<>();
+        for (ChallengeTemplate template : graph.availableNow(completed)) {
+            if (template.isActive() && !activeTemplateIds.contains(template.getId())) {
+                offered.add(template);
+                available.put(template.getId(), challengeMapper.toTemplateResponse(template, difficulty, graph, completed));
+            }
+        }
+
+        ChallengeCatalogResponse catalog = ChallengeCatalogResponse.builder()
+                .activeChallenges(toResponses(activeEntries, graph, completed))
+                .availableChallenges(groupByPhase(offered, available))
+                .recommendedChallenges(recommend(offered, available, journey))
+                .completedChallenges(toResponses(completedEntries, graph, completed))
+                .journeyInfo(ChallengeCatalogResponse.UserJourneyInfo.builder()
+                        .currentPhase(journey.getCurrentPhase())
+                        .currentLevel(journey.getCurrentLevel())
+                        .activeJourneyTags(journey.getActiveJourneyTags() != null
+                                ? journey.getActiveJourneyTags().stream().sorted().toList() : List.of())
+                        .completedChallenges((int) totals.completed())
+                        .totalChallenges((int) totals.total())
+                        .build())
+                .build();
+
+        log.debug("Built challenge catalog for user {}: {} active, {} available, {} completed",
+                userId, activeEntries.size(), available.size(), completedEntries.size());
+        return catalog;
+    }
+
+    private List<ChallengeResponse> toResponses(List<UserChallengeCatalogFacet.Entry> entries,
+                                                ChallengeTemplateGraph graph, long[] completed) {
+        List<ChallengeResponse> responses = new ArrayList<>(entries.size());
+        for (UserChallengeCatalogFacet.Entry entry : entries) {
+            if (entry.userChallenge() != null) {
+                responses.add(challengeMapper.toResponse(entry.challenge(), entry.userChallenge(), graph, completed));
+            }
+        }
+        return responses;
+    }
+
+    private Map<String, List<ChallengeTemplateResponse>> groupByPhase(List<ChallengeTemplate> offered,
+                                                                      Map<String, ChallengeTemplateResponse> available) {
+        Map<String, List<ChallengeTemplateResponse>> byPhase = new TreeMap<>();
+        for (ChallengeTemplate template : offered) {
+            byPhase.computeIfAbsent(template.getJourneyPhase() != null ? template.getJourneyPhase() : UNPHASED,
+                            ignored -> new ArrayList<>())
+                    .add(available.get(template.getId()));
+        }
+        return byPhase;
+    }
+
+    /**
+     * Available templates of the user's phase, most shared journey tags first, then by weight
+     */
+    private List<ChallengeTemplateResponse> recommend(List<ChallengeTemplate> offered,
+                                                      Map<String, ChallengeTemplateResponse> available,
+                                                      UserJourneyProfile journey) {
+        Set<String> userTags = journey.getActiveJourneyTags() != null ? journey.getActiveJourneyTags() : Set.of();
+        Comparator<ChallengeTemplate> byRelevance = Comparator
+                .comparingLong((ChallengeTemplate template) -> sharedTags(template, userTags)).reversed()
+                .thenComparing(Comparator.comparingDouble(ChallengeTemplate::getWeight).reversed())
+                .thenComparing(ChallengeTemplate::getId);
+
+        return offered.stream()
+                .filter(template -> template.getJourneyPhase() == null
+                        || Objects.equals(template.getJourneyPhase(), journey.getCurrentPhase()))
+                .sorted(byRelevance)
+                .limit(RECOMMENDATION_LIMIT)
+                .map(template -> available.get(template.getId()))
+                .toList();
+    }
+
+    private static long sharedTags(ChallengeTemplate template, Set<String> userTags) {
+        return template.getUserJourneyTags() == null ? 0
+                : template.getUserJourneyTags().stream().filter(userTags::contains).count();
+    }
+}
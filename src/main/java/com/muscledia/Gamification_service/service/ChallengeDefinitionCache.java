@@ -0,0 +1,83 @@
+package com.muscledia.Gamification_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muscledia.Gamification_service.model.Challenge;
+import com.muscledia.Gamification_service.repository.ChallengeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resident copy of challenge definitions for the workout hot path.
+ *
+ * A challenge's objective, target and reward do not change once it is generated, so
+ * definitions are loaded on first use (misses in one $in query) and kept until they
+ * expire or are evicted by size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChallengeDefinitionCache {
+
+    // Cached for unknown ids so a dangling user challenge does not hit Mongo on every workout
+    private static final Challenge MISSING = new Challenge();
+
+    private final ChallengeRepository challengeRepository;
+
+    @Value("${gamification.challenge-definitions.cache-ttl-seconds:3600}")
+    private long cacheTtlSeconds;
+
+    @Value("${gamification.challenge-definitions.cache-max-size:10000}")
+    private long cacheMaxSize;
+
+    private Cache<String, Challenge> definitions;
+
+    @PostConstruct
+    public void initialize() {
+        definitions = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
+
+    public Optional<Challenge> get(String challengeId) {
+        return Optional.ofNullable(getAll(List.of(challengeId)).get(challengeId));
+    }
+
+    /**
+     * Definitions by id; ids with no challenge document are absent from the result
+     */
+    public Map<String, Challenge> getAll(Collection<String> challengeIds) {
+        Map<String, Challenge> found = new HashMap<>(definitions.getAll(challengeIds, this::load));
+        found.values().removeIf(challenge -> challenge == MISSING);
+        return found;
+    }
+
+    public void invalidate(String challengeId) {
+        definitions.invalidate(challengeId);
+    }
+
+    private Map<String, Challenge> load(Set<? extends String> challengeIds) {
+        Map<String, Challenge> loaded = new HashMap<>();
+        challengeRepository.findAllById(List.copyOf(challengeIds)).forEach(challenge -> loaded.put(challenge.getId(), challenge));
+        for (String challengeId : challengeIds) {
+            if (!loaded.containsKey(challengeId)) {
+                log.debug("Challenge {} not found", challengeId);
+                loaded.put(challengeId, MISSING);
+            }
+        }
+        log.debug("Loaded {} challenge definitions", loaded.size());
+        return loaded;
+    }
+}
@@ -8,15 +8,28 @@ import com.muscledia.Gamification_service.model.Challenge;
 import com.muscledia.Gamification_service.model.UserChallenge;
 import com.muscledia.Gamification_service.model.enums.ChallengeStatus;
 import com.muscledia.Gamification_service.model.enums.ObjectiveType;
-import com.muscledia.Gamification_service.repository.ChallengeRepository;
 import com.muscledia.Gamification_service.repository.UserChallengeRepository;
+import com.muscledia.Gamification_service.service.profile.ProfileCounterBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * PURPOSE: Update challenge progress during workouts
@@ -29,13 +42,24 @@ import java.util.List;
 public class ChallengeProgressService {
 
     private final UserChallengeRepository userChallengeRepository;
-    private final ChallengeRepository challengeRepository;
+    private final ChallengeDefinitionCache challengeDefinitions;
+    private final MongoTemplate mongoTemplate;
+    private final ProfileCounterBuffer profileCounters;
+    private final ExpirySweepService expirySweepService;
     private final EventPublisher eventPublisher;
     private final UserGamificationService gamificationService;
     private final UserJourneyProfileService journeyService;
+    private final UserPerformanceAnalyzer performanceAnalyzer;
+    private final ChallengeProgressionService progressionService;
+    private final ChallengeCatalogService challengeCatalog;
 
     /**
-     * Update challenge progress based on workout completion
+     * Update challenge progress based on workout completion.
+     *
+     * One read of the user's active challenges, one bulk $inc, and one conditional update
+     * that flips challenges whose progress reached the target to COMPLETED. The conditional
+     * update stamps a token so only the crossed documents are read back, and a challenge can
+     * only be flipped once, so concurrent workouts never reward it twice.
      */
     @Transactional
     public void updateChallengeProgress(Long userId, WorkoutCompletedEvent event) {
@@ -48,52 +72,117 @@ public class ChallengeProgressService {
             return;
         }
 
+        Map<String, Challenge> definitions = challengeDefinitions.getAll(activeChallenges.stream()
+                .map(UserChallenge::getChallengeId)
+                .collect(Collectors.toSet()));
+
+        Instant now = Instant.now();
+        BulkOperations increments = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserChallenge.class);
+        Map<String, Integer> incrementById = new LinkedHashMap<>();
+
         for (UserChallenge userChallenge : activeChallenges) {
-            try {
-                updateSingleChallenge(userId, userChallenge, event);
-            } catch (Exception e) {
-                log.error("Failed to update challenge {} for user {}: {}",
-                        userChallenge.getChallengeId(), userId, e.getMessage());
+            Challenge challenge = definitions.get(userChallenge.getChallengeId());
+            if (challenge == null) {
+                log.warn("Challenge {} not found", userChallenge.getChallengeId());
+                continue;
             }
+
+            int progressIncrement = calculateProgressIncrement(challenge, event);
+            if (progressIncrement == 0) {
+                log.debug("No progress for challenge {} (objective: {})",
+                        challenge.getId(), challenge.getObjectiveType());
+                continue;
+            }
+
+            increments.updateOne(
+                    new Query(Criteria.where("_id").is(userChallenge.getId()).and("status").is(ChallengeStatus.ACTIVE)),
+                    new Update().inc("currentProgress", progressIncrement).set("lastUpdatedAt", now));
+            incrementById.put(userChallenge.getId(), progressIncrement);
         }
+
+        if (incrementById.isEmpty()) {
+            return;
+        }
+        increments.execute();
+
+        List<UserChallenge> completed = completeCrossedChallenges(incrementById.keySet(), now);
+        Set<String> completedIds = completed.stream().map(UserChallenge::getId).collect(Collectors.toSet());
+
+        for (UserChallenge userChallenge : activeChallenges) {
+            Integer increment = incrementById.get(userChallenge.getId());
+            if (increment != null && !completedIds.contains(userChallenge.getId())) {
+                int oldProgress = userChallenge.getCurrentProgress() != null ? userChallenge.getCurrentProgress() : 0;
+                publishProgressEvent(userChallenge, definitions.get(userChallenge.getChallengeId()),
+                        oldProgress, oldProgress + increment);
+            }
+        }
+
+        if (!completed.isEmpty()) {
+            rewardCompletions(userId, completed, definitions);
+        }
+
+        challengeCatalog.invalidate(userId);
+
+        log.info("Updated {} challenges for user {} ({} completed)",
+                incrementById.size(), userId, completed.size());
     }
 
     /**
-     * Update a single challenge based on workout data
+     * Flip progressed challenges at or past their target to COMPLETED and return only those
      */
-    private void updateSingleChallenge(Long userId, UserChallenge userChallenge,
-                                       WorkoutCompletedEvent event) {
-        Challenge challenge = challengeRepository.findById(userChallenge.getChallengeId())
-                .orElse(null);
+    private List<UserChallenge> completeCrossedChallenges(Collection<String> progressedIds, Instant now) {
+        String token = UUID.randomUUID().toString();
+        Query crossed = new Query(Criteria.where("_id").in(progressedIds)
+                .and("status").is(ChallengeStatus.ACTIVE)
+                .and("targetValue").gt(0)
+                .andOperator(Criteria.expr(ComparisonOperators.valueOf("currentProgress")
+                        .greaterThanEqualTo("targetValue"))));
+        Update complete = new Update()
+                .set("status", ChallengeStatus.COMPLETED)
+                .set("completedAt", now)
+                .set("completionToken", token);
 
-        if (challenge == null) {
-            log.warn("Challenge {} not found", userChallenge.getChallengeId());
-            return;
+        if (mongoTemplate.updateMulti(crossed, complete, UserChallenge.class).getModifiedCount() == 0) {
+            return List.of();
         }
+        return mongoTemplate.find(new Query(Criteria.where("_id").in(progressedIds)
+                .and("completionToken").is(token)), UserChallenge.class);
+    }
 
-        int progressIncrement = calculateProgressIncrement(challenge, event);
-
-        if (progressIncrement == 0) {
-            log.debug("No progress for challenge {} (objective: {})",
-                    challenge.getId(), challenge.getObjectiveType());
-            return;
+    /**
+     * Rewards, journey and caches for a workout's completions: one points update and one
+     * journey save however many challenges were completed
+     */
+    private void rewardCompletions(Long userId, List<UserChallenge> completed, Map<String, Challenge> definitions) {
+        List<Challenge> challenges = new ArrayList<>();
+        int rewardPoints = 0;
+        for (UserChallenge userChallenge : completed) {
+            Challenge challenge = definitions.get(userChallenge.getChallengeId());
+            challenges.add(challenge);
+            if (challenge.getRewardPoints() != null && challenge.getRewardPoints() > 0) {
+                rewardPoints += challenge.getRewardPoints();
+            }
         }
 
-        int oldProgress = userChallenge.getCurrentProgress();
-        int newProgress = oldProgress + progressIncrement;
-        userChallenge.setCurrentProgress(newProgress);
-        userChallenge.setLastUpdatedAt(Instant.now());
-
-        if (newProgress >= userChallenge.getTargetValue()) {
-            completeChallenge(userId, userChallenge, challenge);
-        } else {
-            publishProgressEvent(userChallenge, challenge, oldProgress, newProgress);
+        if (rewardPoints > 0) {
+            if (profileCounters.isEnabled()) {
+                profileCounters.addPoints(userId, rewardPoints);
+            } else {
+                gamificationService.updateUserPoints(userId, rewardPoints);
+            }
         }
 
-        userChallengeRepository.save(userChallenge);
+        journeyService.recordChallengeCompletions(userId, challenges);
+
+        // Cached metrics and generated lists would lag the new completions until they expire
+        performanceAnalyzer.invalidate(userId);
+        progressionService.invalidate(userId);
 
-        log.info("Updated challenge {} for user {}: {}/{}",
-                challenge.getName(), userId, newProgress, userChallenge.getTargetValue());
+        for (int i = 0; i < completed.size(); i++) {
+            publishCompletionEvent(completed.get(i), challenges.get(i));
+            log.info("🎉 User {} completed challenge: {} ({})",
+                    userId, challenges.get(i).getName(), challenges.get(i).getId());
+        }
     }
 
     /**
@@ -101,6 +190,9 @@ public class ChallengeProgressService {
      */
     private int calculateProgressIncrement(Challenge challenge, WorkoutCompletedEvent event) {
         ObjectiveType objective = challenge.getObjectiveType();
+        if (objective == null) {
+            return 0;
+        }
 
         return switch (objective) {
             case EXERCISES -> event.getExercisesCompleted() != null ? event.getExercisesCompleted() : 0;
@@ -118,24 +210,6 @@ public class ChallengeProgressService {
         };
     }
 
-    /**
-     * Complete a challenge
-     */
-    private void completeChallenge(Long userId, UserChallenge userChallenge, Challenge challenge) {
-        userChallenge.setStatus(ChallengeStatus.COMPLETED);
-        userChallenge.setCompletedAt(Instant.now());
-
-        if (challenge.getRewardPoints() != null && challenge.getRewardPoints() > 0) {
-            gamificationService.updateUserPoints(userId, challenge.getRewardPoints());
-        }
-
-        journeyService.recordChallengeCompletion(userId, challenge);
-        publishCompletionEvent(userChallenge, challenge);
-
-        log.info("🎉 User {} completed challenge: {} ({})",
-                userId, challenge.getName(), challenge.getId());
-    }
-
     /**
      * Publish challenge progress event
      */
@@ -191,23 +265,7 @@ public class ChallengeProgressService {
     /**
      * Expire old active challenges
      */
-    @Transactional
     public void expireOldChallenges() {
-        Instant now = Instant.now();
-        List<UserChallenge> expiredChallenges = userChallengeRepository
-                .findExpiredActiveChallenges(now);
-
-        for (UserChallenge challenge : expiredChallenges) {
-            challenge.setStatus(ChallengeStatus.EXPIRED);
-            challenge.setLastUpdatedAt(now);
-            userChallengeRepository.save(challenge);
-
-            log.info("Expired challenge {} for user {}",
-                    challenge.getChallengeId(), challenge.getUserId());
-        }
-
-        if (!expiredChallenges.isEmpty()) {
-            log.info("Expired {} challenges", expiredChallenges.size());
-        }
+        expirySweepService.expireChallenges(Instant.now());
     }
-}
\ No newline at end of file
+}
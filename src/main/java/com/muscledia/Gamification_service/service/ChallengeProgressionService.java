@@ -1,5 +1,7 @@
 package com.muscledia.Gamification_service.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.muscledia.Gamification_service.model.Challenge;
 import com.muscledia.Gamification_service.model.ChallengeTemplate;
 import com.muscledia.Gamification_service.model.UserJourneyProfile;
@@ -8,12 +10,19 @@ import com.muscledia.Gamification_service.model.enums.ChallengeType;
 import com.muscledia.Gamification_service.model.enums.DifficultyLevel;
 import com.muscledia.Gamification_service.repository.ChallengeRepository;
 import com.muscledia.Gamification_service.repository.ChallengeTemplateRepository;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraph;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraphService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
@@ -21,6 +30,12 @@ import java.util.*;
  * PURPOSE: Generate personalized challenges based on user progression
  * RESPONSIBILITY: Challenge generation and unlock logic
  * COUPLING: Low - focused on challenge creation only
+ *
+ * Generated lists are memoized per (user, type, period start, journey phase). Both that
+ * cache and the find-or-create of a template's challenge for a period load single-flight,
+ * so concurrent requests wait for one generation instead of racing to create duplicates.
+ * Prerequisite checks run against the compiled template graph with the user's completed
+ * templates as a bitset.
  */
 @Service
 @RequiredArgsConstructor
@@ -31,12 +46,53 @@ public class ChallengeProgressionService {
     private final ChallengeRepository challengeRepository;
     private final UserPerformanceAnalyzer performanceAnalyzer;
     private final UserJourneyProfileService userJourneyProfileService;
+    private final ChallengeTemplateGraphService templateGraphService;
+
+    @Value("${gamification.challenge-generation.cache-ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    @Value("${gamification.challenge-generation.cache-max-size:10000}")
+    private long cacheMaxSize;
+
+    private Cache<GenerationKey, List<Challenge>> generatedChallenges;
+    private Cache<PeriodKey, Challenge> periodChallenges;
+
+    private record GenerationKey(Long userId, ChallengeType type, Instant periodStart, String phase) {
+    }
+
+    private record PeriodKey(String templateId, Instant periodStart) {
+    }
+
+    @PostConstruct
+    public void initialize() {
+        generatedChallenges = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+        periodChallenges = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
 
     /**
      * Generate personalized challenges for user based on their journey and performance
      */
     public List<Challenge> generatePersonalizedChallenges(Long userId, ChallengeType type,
                                                           UserJourneyProfile userJourney) {
+        GenerationKey key = new GenerationKey(userId, type,
+                calculatePeriodStart(Instant.now(), type), userJourney.getCurrentPhase());
+        return generatedChallenges.get(key, ignored -> generate(userId, type, userJourney));
+    }
+
+    /**
+     * Drop memoized lists of a user whose journey changed (e.g. completed prerequisites)
+     */
+    public void invalidate(Long userId) {
+        generatedChallenges.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    private List<Challenge> generate(Long userId, ChallengeType type, UserJourneyProfile userJourney) {
         log.debug("Generating {} challenges for user {} in phase {}",
                 type, userId, userJourney.getCurrentPhase());
 
@@ -49,31 +105,38 @@ public class ChallengeProgressionService {
             return Collections.emptyList();
         }
 
+        ChallengeTemplateGraph graph = templateGraphService.current();
+        long[] completed = graph.completionBits(userJourney.getCompletedChallengeTemplates());
+        List<ChallengeTemplate> templates = eligibleTemplates.stream()
+                .filter(template -> isEligibleForUser(template, userJourney, graph, completed))
+                .toList();
+        if (templates.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Instant now = Instant.now();
+        Instant periodStart = calculatePeriodStart(now, type);
+        Map<String, Challenge> existing = findExistingChallenges(templates, periodStart, calculatePeriodEnd(now, type));
+
         UserPerformanceMetrics performance = performanceAnalyzer.analyzeUser(userId);
-        List<Challenge> generatedChallenges = new ArrayList<>();
-
-        for (ChallengeTemplate template : eligibleTemplates) {
-            if (isEligibleForUser(template, userJourney)) {
-                Challenge existingChallenge = findExistingChallenge(template, type);
-
-                if (existingChallenge != null) {
-                    generatedChallenges.add(existingChallenge);
-                    log.debug("Reusing existing challenge: {}", existingChallenge.getName());
-                } else {
-                    Challenge newChallenge = createPersonalizedChallenge(template, userJourney, performance);
-                    Challenge savedChallenge = challengeRepository.save(newChallenge);
-                    generatedChallenges.add(savedChallenge);
-
-                    log.info("Generated new challenge: {} ({}) for user {}",
-                            savedChallenge.getName(), savedChallenge.getId(), userId);
-                }
+        List<Challenge> generated = new ArrayList<>();
+
+        for (ChallengeTemplate template : templates) {
+            Challenge existingChallenge = existing.get(template.getId());
+
+            if (existingChallenge != null) {
+                generated.add(existingChallenge);
+                log.debug("Reusing existing challenge: {}", existingChallenge.getName());
+            } else {
+                generated.add(periodChallenges.get(new PeriodKey(template.getId(), periodStart),
+                        key -> findOrCreateChallenge(template, type, userJourney, performance, userId)));
             }
         }
 
         log.info("Generated {} {} challenges for user {}",
-                generatedChallenges.size(), type, userId);
+                generated.size(), type, userId);
 
-        return generatedChallenges;
+        return generated;
     }
 
     /**
@@ -87,12 +150,12 @@ public class ChallengeProgressionService {
 
         UserJourneyProfile journey = userJourneyProfileService.getUserJourney(userId);
         UserPerformanceMetrics performance = performanceAnalyzer.analyzeUser(userId);
+        ChallengeTemplateGraph graph = templateGraphService.current();
+        long[] completed = graph.completionBits(journey.getCompletedChallengeTemplates());
         List<Challenge> unlockedChallenges = new ArrayList<>();
 
-        for (String templateId : completedChallenge.getUnlocksChallengeIds()) {
-            ChallengeTemplate template = templateRepository.findById(templateId).orElse(null);
-
-            if (template != null && isEligibleForUser(template, journey)) {
+        for (ChallengeTemplate template : resolveTemplates(graph, completedChallenge.getUnlocksChallengeIds())) {
+            if (isEligibleForUser(template, journey, graph, completed)) {
                 Challenge newChallenge = createPersonalizedChallenge(template, journey, performance);
                 Challenge saved = challengeRepository.save(newChallenge);
                 unlockedChallenges.add(saved);
@@ -104,14 +167,68 @@ public class ChallengeProgressionService {
         return unlockedChallenges;
     }
 
-    private Challenge findExistingChallenge(ChallengeTemplate template, ChallengeType type) {
+    /**
+     * Templates from the compiled graph; ids it does not know are fetched in one query
+     */
+    private List<ChallengeTemplate> resolveTemplates(ChallengeTemplateGraph graph, List<String> templateIds) {
+        List<ChallengeTemplate> resolved = new ArrayList<>();
+        List<String> unknown = new ArrayList<>();
+        for (String templateId : templateIds) {
+            ChallengeTemplate template = graph.template(templateId);
+            if (template != null) {
+                resolved.add(template);
+            } else {
+                unknown.add(templateId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            templateRepository.findAllById(unknown).forEach(resolved::add);
+        }
+        return resolved;
+    }
+
+    /**
+     * This period's challenge of each template, in one $in query
+     */
+    private Map<String, Challenge> findExistingChallenges(List<ChallengeTemplate> templates,
+                                                          Instant periodStart, Instant periodEnd) {
+        List<String> templateIds = templates.stream().map(ChallengeTemplate::getId).toList();
+        Map<String, Challenge> existing = new HashMap<>();
+        for (Challenge challenge : challengeRepository.findByTemplateIdInAndDateRange(templateIds, periodStart, periodEnd)) {
+            existing.putIfAbsent(challenge.getTemplateId(), challenge);
+        }
+        return existing;
+    }
+
+    /**
+     * Runs once per template and period at a time; re-checks so a challenge created by a
+     * caller that finished first is reused
+     */
+    private Challenge findOrCreateChallenge(ChallengeTemplate template, ChallengeType type,
+                                            UserJourneyProfile userJourney,
+                                            UserPerformanceMetrics performance, Long userId) {
         Instant now = Instant.now();
         Instant periodStart = calculatePeriodStart(now, type);
         Instant periodEnd = calculatePeriodEnd(now, type);
+        Optional<Challenge> existing = challengeRepository.findByTemplateIdAndDateRange(
+                template.getId(), periodStart, periodEnd);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
 
-        return challengeRepository.findByTemplateIdAndDateRange(
-                        template.getId(), periodStart, periodEnd)
-                .orElse(null);
+        Challenge challenge = createPersonalizedChallenge(template, userJourney, performance);
+        challenge.setPeriodKey(Challenge.periodKey(type, LocalDate.ofInstant(periodStart, ZoneOffset.UTC)));
+        Challenge saved;
+        try {
+            saved = challengeRepository.save(challenge);
+        } catch (DuplicateKeyException e) {
+            // Another node created this period's challenge first
+            return challengeRepository.findByTemplateIdAndDateRange(template.getId(), periodStart, periodEnd)
+                    .orElseThrow(() -> e);
+        }
+        log.info("Generated new challenge: {} ({}) for user {}",
+                saved.getName(), saved.getId(), userId);
+        return saved;
     }
 
     private Instant calculatePeriodStart(Instant now, ChallengeType type) {
@@ -198,12 +315,14 @@ public class ChallengeProgressionService {
         return Math.max(0.5, Math.min(2.0, baseMultiplier));
     }
 
-    private boolean isEligibleForUser(ChallengeTemplate template, UserJourneyProfile userJourney) {
-        if (template.getPrerequisiteTemplates() != null &&
-                !template.getPrerequisiteTemplates().isEmpty()) {
+    private boolean isEligibleForUser(ChallengeTemplate template, UserJourneyProfile userJourney,
+                                      ChallengeTemplateGraph graph, long[] completed) {
+        if (!template.getPrerequisiteTemplates().isEmpty()) {
 
-            boolean hasPrerequisites = template.getPrerequisiteTemplates().stream()
-                    .allMatch(userJourney::hasCompletedChallenge);
+            // Templates added since the graph was compiled fall back to the set check
+            boolean hasPrerequisites = graph.contains(template.getId())
+                    ? graph.prerequisitesMet(template.getId(), completed)
+                    : template.getPrerequisiteTemplates().stream().allMatch(userJourney::hasCompletedChallenge);
 
             if (!hasPrerequisites) {
                 log.debug("User {} missing prerequisites for template {}",
@@ -1,5 +1,6 @@
 package com.muscledia.Gamification_service.service;
 
+import com.muscledia.Gamification_service.dto.response.ChallengeCatalogResponse;
 import com.muscledia.Gamification_service.event.ChallengeStartedEvent;
 import com.muscledia.Gamification_service.event.publisher.EventPublisher;
 import com.muscledia.Gamification_service.exception.ChallengeAlreadyStartedException;
@@ -20,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +39,8 @@ public class ChallengeService {
     private final EventPublisher eventPublisher;
     private final UserJourneyProfileService userJourneyService;
     private final ChallengeProgressionService challengeProgressionService;
+    private final UserPerformanceAnalyzer performanceAnalyzer;
+    private final ChallengeCatalogService challengeCatalogService;
 
     /**
      * Get challenges based on user progression
@@ -49,8 +53,9 @@ public class ChallengeService {
             List<Challenge> personalizedChallenges = challengeProgressionService
                     .generatePersonalizedChallenges(userId, type, userJourney);
 
+            Set<String> started = findStartedChallengeIds(userId, personalizedChallenges);
             List<Challenge> availableChallenges = personalizedChallenges.stream()
-                    .filter(challenge -> !userAlreadyStarted(userId, challenge.getId()))
+                    .filter(challenge -> !started.contains(challenge.getId()))
                     .limit(5)
                     .collect(Collectors.toList());
 
@@ -64,6 +69,14 @@ public class ChallengeService {
         }
     }
 
+    /**
+     * Active, available, recommended and completed challenges of a user (cached read model)
+     */
+    public ChallengeCatalogResponse getChallengeCatalog(Long userId) {
+        log.debug("Getting challenge catalog for user {}", userId);
+        return challengeCatalogService.getCatalog(userId);
+    }
+
     /**
      * Start a challenge for user
      */
@@ -79,9 +92,12 @@ public class ChallengeService {
             UserChallenge userChallenge = createUserChallenge(userId, challenge);
             userChallenge.setChallengeName(challenge.getName());
             userChallenge.setChallengeType(challenge.getType());
+            userChallenge.setObjectiveType(challenge.getObjectiveType());
             userChallenge.setProgressUnit(ChallengeMapper.getProgressUnit(challenge.getObjectiveType()));
 
             UserChallenge saved = userChallengeRepository.save(userChallenge);
+            performanceAnalyzer.invalidate(userId);
+            challengeCatalogService.invalidate(userId);
             publishChallengeStartedEvent(saved, challenge);
 
             log.info("Successfully started challenge {} for user {}", challengeId, userId);
@@ -112,6 +128,16 @@ public class ChallengeService {
         }
     }
 
+    private Set<String> findStartedChallengeIds(Long userId, List<Challenge> challenges) {
+        if (challenges.isEmpty()) {
+            return Set.of();
+        }
+        List<String> challengeIds = challenges.stream().map(Challenge::getId).toList();
+        return userChallengeRepository.findStartedAmong(userId, challengeIds).stream()
+                .map(UserChallenge::getChallengeId)
+                .collect(Collectors.toSet());
+    }
+
     private boolean userAlreadyStarted(Long userId, String challengeId) {
         return userChallengeRepository.findByUserIdAndChallengeId(userId, challengeId).isPresent();
     }
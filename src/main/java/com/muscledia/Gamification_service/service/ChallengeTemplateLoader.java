@@ -4,19 +4,32 @@ package com.muscledia.Gamification_service.service;
 import com.muscledia.Gamification_service.dto.yaml.ChallengeTemplateYaml;
 import com.muscledia.Gamification_service.dto.yaml.UserJourneyYaml;
 import com.muscledia.Gamification_service.model.ChallengeTemplate;
+import com.muscledia.Gamification_service.model.TemplateFileManifest;
 import com.muscledia.Gamification_service.model.enums.ChallengeType;
 import com.muscledia.Gamification_service.model.enums.DifficultyLevel;
 import com.muscledia.Gamification_service.model.enums.ObjectiveType;
 import com.muscledia.Gamification_service.repository.ChallengeTemplateRepository;
+import com.muscledia.Gamification_service.repository.TemplateFileManifestRepository;
+import com.muscledia.Gamification_service.service.monitoring.ChallengeTemplatesHealthIndicator;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraph;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraphService;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -24,13 +37,24 @@ import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * PURPOSE: Load challenge templates from YAML files and convert to entities
  * RESPONSIBILITY: Parse YAML files and create ChallengeTemplate entities
  * COUPLING: Low - depends only on repository and file system
+ *
+ * Loading runs asynchronously once the application is ready, behind the challengeTemplates
+ * readiness indicator. Each file's SHA-256 is compared with a stored manifest; only changed
+ * files are parsed (in parallel) and their templates upserted in one unordered bulk write,
+ * so an unchanged deploy costs a classpath scan and one manifest read. A change set whose
+ * prerequisites would form a cycle is rejected before anything is written.
  */
 @Service
 @RequiredArgsConstructor
@@ -38,12 +62,50 @@ import java.util.*;
 @ConditionalOnProperty(value = "gamification.challenge-templates.auto-load", havingValue = "true", matchIfMissing = true)
 public class ChallengeTemplateLoader {
 
+    private static final String[] DIFFICULTY_FOLDERS = {"beginner", "intermediate", "advanced"};
+
     private final ChallengeTemplateRepository templateRepository;
+    private final TemplateFileManifestRepository manifestRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ChallengeTemplateGraphService templateGraphService;
+    private final ChallengeTemplatesHealthIndicator templatesReadiness;
     private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
 
     // FIXED: Use proper Jackson configuration
     private final ObjectMapper yamlMapper = createYamlMapper();
 
+    @Value("${gamification.challenge-templates.reload-on-startup:false}")
+    private boolean reloadOnStartup;
+
+    @Value("${gamification.challenge-templates.parse-parallelism:4}")
+    private int parseParallelism;
+
+    private volatile LoadResult lastLoad;
+
+    public record LoadResult(int filesScanned, int filesChanged, int filesFailed, int templatesUpserted,
+                             int templatesRemoved, long durationMs) {
+
+        Map<String, Object> toDetails() {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("filesScanned", filesScanned);
+            details.put("filesChanged", filesChanged);
+            details.put("filesFailed", filesFailed);
+            details.put("templatesUpserted", templatesUpserted);
+            details.put("templatesRemoved", templatesRemoved);
+            details.put("durationMs", durationMs);
+            return details;
+        }
+    }
+
+    private record TemplateFile(String path, String folder, Resource resource, byte[] content, String contentHash) {
+    }
+
+    /**
+     * Templates of one changed file; null when the file could not be parsed
+     */
+    private record ParsedFile(TemplateFile file, List<ChallengeTemplate> templates) {
+    }
+
     private ObjectMapper createYamlMapper() {
         ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
 
@@ -56,54 +118,142 @@ public class ChallengeTemplateLoader {
     }
 
     @PostConstruct
-    @Transactional
-    public void loadAllTemplates() {
+    public void holdReadiness() {
+        templatesReadiness.loading();
+    }
+
+    /**
+     * Load after startup so the web server does not wait on template parsing
+     */
+    @Async("backgroundProcessingExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
         log.info("🎯 Starting challenge template loading from YAML files");
 
         try {
-            // Clear existing templates if reload is enabled
-            if (shouldReload()) {
-                log.info("Clearing existing templates for reload");
-                templateRepository.deleteAll();
-            }
-
-            // Load challenge templates from all difficulty folders
-            loadChallengeTemplates();
+            LoadResult result = loadAllTemplates(reloadOnStartup);
 
             // Load user journey configurations (optional - for reference)
             loadUserJourneyConfigurations();
 
-            log.info("✅ Successfully loaded all challenge templates");
+            templatesReadiness.ready(result.toDetails());
+            log.info("✅ Challenge templates up to date: {}", result);
+
+        } catch (IllegalStateException e) {
+            log.error("❌ Rejected challenge templates: {}", e.getMessage());
+            templatesReadiness.failed(e.getMessage());
 
         } catch (Exception e) {
             log.error("❌ Failed to load challenge templates: {}", e.getMessage(), e);
 
-            // DON'T throw exception to prevent startup failure
-            log.warn("🔄 Continuing without challenge templates loaded");
+            // DON'T block readiness - stored templates (if any) keep serving
+            log.warn("🔄 Continuing with previously stored challenge templates");
+            templatesReadiness.ready(Map.of("error", String.valueOf(e.getMessage())));
         }
     }
 
-    private void loadChallengeTemplates() throws IOException {
-        log.info("Loading challenge templates from difficulty folders");
+    /**
+     * Sync changed template files into Mongo
+     *
+     * @param force reparse every file and drop stored templates no file defines
+     * @throws IllegalStateException if the resulting templates would form a cycle
+     */
+    public LoadResult loadAllTemplates(boolean force) throws IOException {
+        long start = System.nanoTime();
+
+        List<TemplateFile> files = scanTemplateFiles();
+        Map<String, TemplateFileManifest> manifests = new HashMap<>();
+        manifestRepository.findAll().forEach(manifest -> manifests.put(manifest.getPath(), manifest));
+        boolean fullLoad = force || templateRepository.count() == 0;
+
+        List<TemplateFile> changed = files.stream()
+                .filter(file -> fullLoad || !manifests.containsKey(file.path())
+                        || !file.contentHash().equals(manifests.get(file.path()).getContentHash()))
+                .toList();
+        Set<String> scannedPaths = new HashSet<>();
+        files.forEach(file -> scannedPaths.add(file.path()));
+        List<String> vanishedPaths = manifests.keySet().stream()
+                .filter(path -> !scannedPaths.contains(path))
+                .toList();
+
+        if (changed.isEmpty() && vanishedPaths.isEmpty()) {
+            LoadResult result = new LoadResult(files.size(), 0, 0, 0, 0, elapsedMillis(start));
+            lastLoad = result;
+            return result;
+        }
+
+        List<ParsedFile> parsed = parseAll(changed);
+
+        // What each file contributes now; failed files keep their previous templates
+        Map<String, ChallengeTemplate> upserts = new LinkedHashMap<>();
+        Set<String> retainedIds = new HashSet<>();
+        Set<String> removedIds = new HashSet<>();
+        int failed = 0;
+        for (ParsedFile file : parsed) {
+            TemplateFileManifest previous = manifests.get(file.file().path());
+            if (file.templates() == null) {
+                failed++;
+                if (previous != null) {
+                    retainedIds.addAll(previous.getTemplateIds());
+                }
+                continue;
+            }
+            file.templates().forEach(template -> upserts.put(template.getId(), template));
+            if (previous != null) {
+                removedIds.addAll(previous.getTemplateIds());
+            }
+        }
+        for (String path : vanishedPaths) {
+            removedIds.addAll(manifests.get(path).getTemplateIds());
+        }
+
+        Map<String, ChallengeTemplate> stored = new HashMap<>();
+        templateRepository.findAll().forEach(template -> stored.put(template.getId(), template));
+        if (force) {
+            // Full sync: anything no unchanged, reparsed or unreadable file accounts for goes
+            Set<String> kept = new HashSet<>(retainedIds);
+            files.stream()
+                    .filter(file -> !changed.contains(file) && manifests.containsKey(file.path()))
+                    .forEach(file -> kept.addAll(manifests.get(file.path()).getTemplateIds()));
+            stored.keySet().stream().filter(id -> !kept.contains(id)).forEach(removedIds::add);
+        }
+        removedIds.removeAll(upserts.keySet());
+        removedIds.removeAll(retainedIds);
+        removedIds.retainAll(stored.keySet());
+
+        // Reject the change set before writing if the result would not compile
+        Map<String, ChallengeTemplate> candidate = new HashMap<>(stored);
+        candidate.keySet().removeAll(removedIds);
+        candidate.putAll(upserts);
+        ChallengeTemplateGraph.compile(candidate.values());
+
+        writeTemplates(upserts.values(), removedIds);
+        saveManifests(parsed, vanishedPaths);
+        templateGraphService.refresh();
+
+        LoadResult result = new LoadResult(files.size(), changed.size(), failed,
+                upserts.size(), removedIds.size(), elapsedMillis(start));
+        lastLoad = result;
+        log.info("Loaded {} templates from {} changed files ({} unchanged, {} failed), removed {}",
+                upserts.size(), changed.size() - failed, files.size() - changed.size(), failed, removedIds.size());
+        return result;
+    }
 
-        // Load from each difficulty folder
-        String[] difficultyFolders = {"beginner", "intermediate", "advanced"};
-        int totalLoaded = 0;
+    private List<TemplateFile> scanTemplateFiles() throws IOException {
+        List<TemplateFile> files = new ArrayList<>();
 
-        for (String folder : difficultyFolders) {
+        for (String folder : DIFFICULTY_FOLDERS) {
             try {
                 String pattern = "classpath:challenge-progressions/" + folder + "/*.yml";
                 Resource[] resources = resourceResolver.getResources(pattern);
 
-                log.info("Found {} YAML files in {} folder", resources.length, folder);
+                log.debug("Found {} YAML files in {} folder", resources.length, folder);
 
                 for (Resource resource : resources) {
-                    try {
-                        int loaded = loadSingleTemplateFile(resource, folder);
-                        totalLoaded += loaded;
-                    } catch (Exception e) {
-                        log.error("Failed to load template file {}: {}", resource.getFilename(), e.getMessage());
-                        // Continue with other files
+                    try (InputStream inputStream = resource.getInputStream()) {
+                        byte[] content = inputStream.readAllBytes();
+                        files.add(new TemplateFile(folder + "/" + resource.getFilename(), folder,
+                                resource, content, sha256(content)));
                     }
                 }
             } catch (IOException e) {
@@ -112,56 +262,105 @@ public class ChallengeTemplateLoader {
             }
         }
 
-        log.info("Loaded {} challenge templates from all difficulty folders", totalLoaded);
+        return files;
     }
 
-    private int loadSingleTemplateFile(Resource resource, String difficultyFolder) throws IOException {
-        log.debug("Loading templates from: {}", resource.getFilename());
+    private List<ParsedFile> parseAll(List<TemplateFile> changed) {
+        if (changed.size() <= 1 || parseParallelism <= 1) {
+            return changed.stream().map(this::parseTemplateFile).toList();
+        }
 
-        try (InputStream inputStream = resource.getInputStream()) {
+        try (ExecutorService parsers = Executors.newFixedThreadPool(Math.min(parseParallelism, changed.size()))) {
+            List<CompletableFuture<ParsedFile>> futures = changed.stream()
+                    .map(file -> CompletableFuture.supplyAsync(() -> parseTemplateFile(file), parsers))
+                    .toList();
+            return futures.stream().map(CompletableFuture::join).toList();
+        }
+    }
 
-            // FIXED: Better error handling for YAML parsing
-            ChallengeTemplateYaml yamlData;
-            try {
-                yamlData = yamlMapper.readValue(inputStream, ChallengeTemplateYaml.class);
-            } catch (Exception e) {
-                log.error("Failed to parse YAML file {}: {}", resource.getFilename(), e.getMessage());
-                return 0;
-            }
+    private ParsedFile parseTemplateFile(TemplateFile file) {
+        log.debug("Parsing templates from: {}", file.path());
 
-            if (yamlData.getTemplates() == null || yamlData.getTemplates().isEmpty()) {
-                log.warn("No templates found in file: {}", resource.getFilename());
-                return 0;
-            }
+        // FIXED: Better error handling for YAML parsing
+        ChallengeTemplateYaml yamlData;
+        try {
+            yamlData = yamlMapper.readValue(file.content(), ChallengeTemplateYaml.class);
+        } catch (Exception e) {
+            log.error("Failed to parse YAML file {}: {}", file.path(), e.getMessage());
+            return new ParsedFile(file, null);
+        }
+
+        if (yamlData.getTemplates() == null || yamlData.getTemplates().isEmpty()) {
+            log.warn("No templates found in file: {}", file.path());
+            return new ParsedFile(file, List.of());
+        }
 
-            int loadedCount = 0;
-            for (Map.Entry<String, ChallengeTemplateYaml.TemplateDefinition> entry :
-                    yamlData.getTemplates().entrySet()) {
+        // One bad template fails the file, so its previously loaded templates are kept
+        List<ChallengeTemplate> templates = new ArrayList<>();
+        for (Map.Entry<String, ChallengeTemplateYaml.TemplateDefinition> entry :
+                yamlData.getTemplates().entrySet()) {
 
-                try {
-                    ChallengeTemplate template = convertToEntity(entry.getValue(), yamlData, difficultyFolder);
+            try {
+                ChallengeTemplate template = convertToEntity(entry.getValue(), yamlData, file.folder());
+                if (template.getId() == null) {
+                    throw new IllegalArgumentException("missing id");
+                }
+                templates.add(template);
+            } catch (Exception e) {
+                log.error("Failed to convert template {} in {}: {}", entry.getKey(), file.path(), e.getMessage());
+                return new ParsedFile(file, null);
+            }
+        }
 
-                    // Check if template already exists
-                    if (templateRepository.existsById(template.getId())) {
-                        log.debug("Template {} already exists, updating", template.getId());
-                        // Update instead of skip
-                    }
+        log.debug("Parsed {} templates from {}", templates.size(), file.path());
+        return new ParsedFile(file, templates);
+    }
 
-                    templateRepository.save(template);
-                    loadedCount++;
+    private void writeTemplates(Collection<ChallengeTemplate> upserts, Set<String> removedIds) {
+        if (upserts.isEmpty() && removedIds.isEmpty()) {
+            return;
+        }
 
-                    log.debug("✅ Loaded template: {} ({})", template.getName(), template.getId());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChallengeTemplate.class);
+        for (ChallengeTemplate template : upserts) {
+            bulk.replaceOne(new Query(Criteria.where("_id").is(template.getId())), template,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        if (!removedIds.isEmpty()) {
+            bulk.remove(new Query(Criteria.where("_id").in(removedIds)));
+        }
+        bulk.execute();
+    }
 
-                } catch (Exception e) {
-                    log.error("Failed to convert template {}: {}", entry.getKey(), e.getMessage());
-                }
-            }
+    private void saveManifests(List<ParsedFile> parsed, List<String> vanishedPaths) {
+        Instant now = Instant.now();
+        List<TemplateFileManifest> manifests = parsed.stream()
+                .filter(file -> file.templates() != null)
+                .map(file -> TemplateFileManifest.builder()
+                        .path(file.file().path())
+                        .contentHash(file.file().contentHash())
+                        .templateIds(file.templates().stream().map(ChallengeTemplate::getId).toList())
+                        .loadedAt(now)
+                        .build())
+                .toList();
+        manifestRepository.saveAll(manifests);
+        if (!vanishedPaths.isEmpty()) {
+            manifestRepository.deleteAllById(vanishedPaths);
+        }
+    }
 
-            log.info("Loaded {} templates from {}", loadedCount, resource.getFilename());
-            return loadedCount;
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("SHA-256 not available", e);
         }
     }
 
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
     private ChallengeTemplate convertToEntity(ChallengeTemplateYaml.TemplateDefinition def,
                                               ChallengeTemplateYaml yamlData,
                                               String difficultyFolder) {
@@ -173,7 +372,7 @@ public class ChallengeTemplateLoader {
                 .type(parseChallengeType(def.getType()))
                 .objective(parseObjectiveType(def.getObjective()))
                 .active(true)
-                .weight(1.0)
+                .weight(def.getWeight() != null && def.getWeight() >= 0 ? def.getWeight() : 1.0)
                 .createdAt(Instant.now());
 
         // Set journey phase from YAML data or default from folder
@@ -324,23 +523,12 @@ public class ChallengeTemplateLoader {
         }
     }
 
-    private boolean shouldReload() {
-        try {
-            return templateRepository.count() == 0;
-        } catch (Exception e) {
-            log.warn("Could not check template count: {}", e.getMessage());
-            return false;
-        }
-    }
-
     /**
      * Manual reload method for development/admin use
      */
-    @Transactional
-    public void reloadTemplates() {
+    public LoadResult reloadTemplates() throws IOException {
         log.info("🔄 Manually reloading challenge templates");
-        templateRepository.deleteAll();
-        loadAllTemplates();
+        return loadAllTemplates(true);
     }
 
     /**
@@ -351,7 +539,10 @@ public class ChallengeTemplateLoader {
 
         try {
             stats.put("totalTemplates", templateRepository.count());
-            stats.put("lastLoadTime", Instant.now());
+            LoadResult load = lastLoad;
+            if (load != null) {
+                stats.put("lastLoad", load.toDetails());
+            }
 
             // Count by journey phase
             Map<String, Long> phaseCount = new HashMap<>();
@@ -5,6 +5,9 @@ import com.muscledia.Gamification_service.model.UserGamificationProfile;
 import com.muscledia.Gamification_service.model.enums.ChampionCriteriaType;
 import com.muscledia.Gamification_service.repository.ChampionRepository;
 import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.repository.projection.ChampionStatisticsFacet;
+import com.muscledia.Gamification_service.repository.projection.GroupCount;
+import com.muscledia.Gamification_service.service.profile.ProfileUpdateExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -21,8 +24,12 @@ import java.util.stream.Collectors;
 @ConditionalOnProperty(value = "gamification.mongodb.enabled", havingValue = "true")
 public class ChampionService {
 
+    private static final String CHAMPIONS_COLLECTION = "champions";
+
     private final ChampionRepository championRepository;
     private final UserGamificationProfileRepository userProfileRepository;
+    private final CatalogStatisticsCache statisticsCache;
+    private final ProfileUpdateExecutor profileUpdates;
 
     /**
      * Create a new champion
@@ -162,14 +169,21 @@ public class ChampionService {
     public UserGamificationProfile awardChampion(Long userId, String championId) {
         log.info("Awarding champion {} to user {}", championId, userId);
 
-        // Get user profile
-        UserGamificationProfile userProfile = userProfileRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId));
-
         // Get champion
         Champion champion = championRepository.findById(championId)
                 .orElseThrow(() -> new IllegalArgumentException("Champion not found: " + championId));
 
+        // Re-applied to a fresh read if another writer saved the profile concurrently
+        return profileUpdates.execute(
+                () -> userProfileRepository.findByUserId(userId)
+                        .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId)),
+                userProfile -> applyChampion(userProfile, champion));
+    }
+
+    private UserGamificationProfile applyChampion(UserGamificationProfile userProfile, Champion champion) {
+        Long userId = userProfile.getUserId();
+        String championId = champion.getId();
+
         // Check if user already has this champion
         boolean alreadyHasChampion = userProfile.getEarnedBadges().stream()
                 .anyMatch(ub -> ub.getBadgeId().equals(championId)); // Note: This should be improved with proper
@@ -202,37 +216,44 @@ public class ChampionService {
     }
 
     /**
-     * Get champion statistics
+     * Get champion statistics - one $facet aggregation, cached until the champion catalog changes
      */
     public Map<String, Object> getChampionStatistics() {
         log.info("Getting champion statistics");
 
-        Map<String, Object> stats = new HashMap<>();
-
-        long totalChampions = championRepository.count();
-        stats.put("totalChampions", totalChampions);
-
-        // Count by difficulty level
-        Map<Integer, Long> difficultyDistribution = new HashMap<>();
-        for (int difficulty = 1; difficulty <= 5; difficulty++) {
-            difficultyDistribution.put(difficulty, (long) championRepository.findByBaseDifficulty(difficulty).size());
-        }
-        stats.put("difficultyDistribution", difficultyDistribution);
-
-        // Count by criteria type
-        Map<ChampionCriteriaType, Long> criteriaTypeCount = new HashMap<>();
-        for (ChampionCriteriaType type : ChampionCriteriaType.values()) {
-            criteriaTypeCount.put(type, (long) championRepository.findByCriteriaType(type).size());
-        }
-        stats.put("championsByCriteriaType", criteriaTypeCount);
-
-        // General vs exercise-specific champions
-        long generalChampions = championRepository.findGeneralChampions().size();
-        long exerciseSpecificChampions = championRepository.findExerciseSpecificChampions().size();
-        stats.put("generalChampions", generalChampions);
-        stats.put("exerciseSpecificChampions", exerciseSpecificChampions);
-
-        return stats;
+        return statisticsCache.get(CHAMPIONS_COLLECTION, () -> {
+            ChampionStatisticsFacet facet = championRepository.aggregateStatistics();
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalChampions", GroupCount.single(facet.total()));
+
+            // Count by difficulty level
+            Map<Integer, Long> difficultyDistribution = new HashMap<>();
+            for (int difficulty = 1; difficulty <= 5; difficulty++) {
+                difficultyDistribution.put(difficulty, 0L);
+            }
+            if (facet.byDifficulty() != null) {
+                for (GroupCount bucket : facet.byDifficulty()) {
+                    try {
+                        int difficulty = Integer.parseInt(bucket.id());
+                        if (difficultyDistribution.containsKey(difficulty)) {
+                            difficultyDistribution.put(difficulty, bucket.count());
+                        }
+                    } catch (NumberFormatException ignored) {
+                        // Champion without a baseDifficulty
+                    }
+                }
+            }
+            stats.put("difficultyDistribution", difficultyDistribution);
+
+            stats.put("championsByCriteriaType", GroupCount.byEnum(ChampionCriteriaType.class, facet.byCriteriaType()));
+
+            // General vs exercise-specific champions
+            stats.put("generalChampions", GroupCount.single(facet.general()));
+            stats.put("exerciseSpecificChampions", GroupCount.single(facet.exerciseSpecific()));
+
+            return CatalogStatisticsCache.Snapshot.untilChanged(stats);
+        });
     }
 
     /**
@@ -4,6 +4,7 @@ import com.muscledia.Gamification_service.event.BaseEvent;
 import com.muscledia.Gamification_service.model.EventOutbox;
 import com.muscledia.Gamification_service.model.EventOutbox.EventStatus;
 import com.muscledia.Gamification_service.repository.EventOutboxRepository;
+import com.muscledia.Gamification_service.service.monitoring.EventPipelineMetrics;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +37,7 @@ public class EventOutboxService {
 
     private final EventOutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
+    private final EventPipelineMetrics pipelineMetrics;
 
     /**
      * Store an event for publishing (within a transaction)
@@ -43,17 +45,40 @@ public class EventOutboxService {
      */
     @Transactional
     public void storeForPublishing(BaseEvent event) {
+        EventOutbox outboxEntry = toOutboxEntry(event);
+
+        pipelineMetrics.time("outbox.enqueue", event.getEventType(), () -> outboxRepository.save(outboxEntry));
+
+        log.debug("Stored event {} for publishing to topic {}",
+                event.getEventId(), outboxEntry.getTopic());
+    }
+
+    /**
+     * Store a batch of events with one insert (e.g. the fan-out of an expiry sweep)
+     */
+    @Transactional
+    public void storeAllForPublishing(List<? extends BaseEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<EventOutbox> outboxEntries = events.stream().map(this::toOutboxEntry).toList();
+
+        pipelineMetrics.time("outbox.enqueue", events.get(0).getEventType(), () -> outboxRepository.saveAll(outboxEntries));
+
+        log.debug("Stored {} {} events for publishing", outboxEntries.size(), events.get(0).getEventType());
+    }
+
+    private EventOutbox toOutboxEntry(BaseEvent event) {
         try {
             String payload = objectMapper.writeValueAsString(event);
-            String topic = determineTopicForEvent(event);
             String messageKey = event.getUserId() != null ?
                     event.getUserId().toString() :
                     event.getEventId(); // Fallback to eventId
 
-            EventOutbox outboxEntry = EventOutbox.builder()
+            return EventOutbox.builder()
                     .eventId(event.getEventId())
                     .eventType(event.getEventType())
-                    .topic(topic)
+                    .topic(determineTopicForEvent(event))
                     .messageKey(messageKey)
                     .payload(payload)
                     .status(EventStatus.PENDING)
@@ -61,11 +86,6 @@ public class EventOutboxService {
                     .createdAt(Instant.now())
                     .build();
 
-            outboxRepository.save(outboxEntry);
-
-            log.debug("Stored event {} for publishing to topic {}",
-                    event.getEventId(), topic);
-
         } catch (JsonProcessingException e) {
             log.error("Failed to serialize event {} for outbox storage",
                     event.getEventId(), e);
@@ -209,7 +229,7 @@ public class EventOutboxService {
         return switch (event.getEventType()) {
             case "BADGE_EARNED" -> "badge-events";
             case "LEVEL_UP" -> "level-up-events";
-            case "QUEST_COMPLETED" -> "quest-events";
+            case "QUEST_COMPLETED", "QUEST_EXPIRED" -> "quest-events";
             case "LEADERBOARD_UPDATED" -> "leaderboard-events";
             case "STREAK_UPDATED" -> "gamification-events";
             default -> "gamification-events";
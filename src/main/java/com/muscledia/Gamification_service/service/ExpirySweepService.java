@@ -0,0 +1,249 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.event.ChallengeExpiredEvent;
+import com.muscledia.Gamification_service.event.QuestExpiredEvent;
+import com.muscledia.Gamification_service.event.publisher.EventPublisher;
+import com.muscledia.Gamification_service.model.Quest;
+import com.muscledia.Gamification_service.model.UserChallenge;
+import com.muscledia.Gamification_service.model.UserQuestProgress;
+import com.muscledia.Gamification_service.model.enums.ChallengeStatus;
+import com.muscledia.Gamification_service.model.enums.QuestStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Set-based expiry of user challenges and quest progress.
+ *
+ * Each sweep flips every expired document with one updateMany that stamps a run id and
+ * marks its expiry event pending, then streams the stamped documents (projected to the
+ * fields events need) and publishes expiry events in batches, clearing the pending mark
+ * of each batch that was published. Documents already flipped by an earlier run are not
+ * matched again, so overlapping or repeated sweeps do not emit duplicate events; a batch
+ * that failed to publish stays pending and is claimed by the next sweep. A retried batch
+ * may be published twice if two sweeps claim it at once.
+ *
+ * Quest expiry only looks up quests that ended since the previous successful sweep on this
+ * instance; the first sweep after startup covers every ended quest. Their ids are streamed
+ * and flipped in batches, so no single $in grows with the quest history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpirySweepService {
+
+    private static final String PENDING = "expiryEventPending";
+    private static final String RUN_ID = "expiryRunId";
+
+    private final MongoTemplate mongoTemplate;
+    private final EventPublisher eventPublisher;
+    private final ChallengeCatalogService challengeCatalog;
+
+    @Value("${gamification.expiry.event-batch-size:500}")
+    private int eventBatchSize;
+
+    // End of the last fully swept quest window; progress of quests that ended before it is settled
+    private volatile Instant questHighWater;
+
+    public record SweepResult(String runId, long expired, long eventsPublished) {
+    }
+
+    // ===========================================
+    // CHALLENGES
+    // ===========================================
+
+    /**
+     * Mark active user challenges past their expiry as EXPIRED
+     */
+    public SweepResult expireChallenges(Instant now) {
+        String runId = UUID.randomUUID().toString();
+        Query expired = new Query(Criteria.where("status").is(ChallengeStatus.ACTIVE).and("expiresAt").lt(now));
+        Update update = new Update()
+                .set("status", ChallengeStatus.EXPIRED)
+                .set("lastUpdatedAt", now)
+                .set(RUN_ID, runId)
+                .set(PENDING, true);
+
+        long modified = mongoTemplate.updateMulti(expired, update, UserChallenge.class).getModifiedCount();
+        if (modified > 0) {
+            challengeCatalog.invalidateAll();
+        }
+        long retried = claimPending(runId, UserChallenge.class);
+        if (modified == 0 && retried == 0) {
+            return new SweepResult(runId, 0, 0);
+        }
+
+        Query stamped = pendingOf(runId);
+        stamped.fields().include("userId", "challengeId", "challengeName", "challengeType",
+                "currentProgress", "targetValue", "lastUpdatedAt");
+        long published = fanOut(stamped, UserChallenge.class, UserChallenge::getId,
+                userChallenge -> ChallengeExpiredEvent.builder()
+                        .userId(userChallenge.getUserId())
+                        .userChallengeId(userChallenge.getId())
+                        .challengeId(userChallenge.getChallengeId())
+                        .challengeName(userChallenge.getChallengeName())
+                        .challengeType(userChallenge.getChallengeType() != null
+                                ? userChallenge.getChallengeType().name() : null)
+                        .finalProgress(userChallenge.getCurrentProgress())
+                        .targetValue(userChallenge.getTargetValue())
+                        .expiredAt(userChallenge.getLastUpdatedAt() != null ? userChallenge.getLastUpdatedAt() : now)
+                        .expiryRunId(runId)
+                        .build(),
+                eventPublisher::publishChallengesExpired);
+
+        log.info("Expiry run {}: {} user challenges expired, {} retried, {} events published",
+                runId, modified, retried, published);
+        return new SweepResult(runId, modified, published);
+    }
+
+    // ===========================================
+    // QUESTS
+    // ===========================================
+
+    /**
+     * Fail in-progress quest progress of quests that have ended
+     */
+    public SweepResult expireQuests(Instant now) {
+        String runId = UUID.randomUUID().toString();
+        Instant since = questHighWater;
+
+        Query endedQuests = new Query(since != null
+                ? Criteria.where("endDate").gte(since).lt(now)
+                : Criteria.where("endDate").lt(now));
+        endedQuests.fields().include("_id");
+        endedQuests.cursorBatchSize(eventBatchSize);
+        Update update = new Update()
+                .set("status", QuestStatus.FAILED)
+                .set("expiredAt", now)
+                .set(RUN_ID, runId)
+                .set(PENDING, true);
+
+        long modified = 0;
+        long endedCount = 0;
+        List<String> questIds = new ArrayList<>(eventBatchSize);
+        try (Stream<Quest> quests = mongoTemplate.stream(endedQuests, Quest.class)) {
+            Iterator<Quest> iterator = quests.iterator();
+            while (iterator.hasNext()) {
+                questIds.add(iterator.next().getId());
+                if (questIds.size() >= eventBatchSize) {
+                    modified += failProgress(questIds, update);
+                    endedCount += questIds.size();
+                    questIds = new ArrayList<>(eventBatchSize);
+                }
+            }
+        }
+        if (!questIds.isEmpty()) {
+            modified += failProgress(questIds, update);
+            endedCount += questIds.size();
+        }
+        // Advanced only once every batch was flipped, so a failed sweep is retried from the same mark
+        if (since == null || now.isAfter(since)) {
+            questHighWater = now;
+        }
+
+        long retried = claimPending(runId, UserQuestProgress.class);
+        if (modified == 0 && retried == 0) {
+            return new SweepResult(runId, 0, 0);
+        }
+
+        Query stamped = pendingOf(runId);
+        stamped.fields().include("userId", "questId", "objectiveProgress", "expiredAt");
+        long published = fanOut(stamped, UserQuestProgress.class, UserQuestProgress::getId,
+                progress -> QuestExpiredEvent.builder()
+                        .userId(progress.getUserId())
+                        .questProgressId(progress.getId())
+                        .questId(progress.getQuestId())
+                        .finalProgress(progress.getObjectiveProgress())
+                        .expiredAt(progress.getExpiredAt() != null ? progress.getExpiredAt() : now)
+                        .expiryRunId(runId)
+                        .build(),
+                eventPublisher::publishQuestsExpired);
+
+        log.info("Expiry run {}: {} quest progresses failed across {} ended quests, {} retried, {} events published",
+                runId, modified, endedCount, retried, published);
+        return new SweepResult(runId, modified, published);
+    }
+
+    // ===========================================
+    // PRIVATE HELPERS
+    // ===========================================
+
+    private long failProgress(List<String> questIds, Update update) {
+        Query expired = new Query(Criteria.where("questId").in(questIds).and("status").is(QuestStatus.IN_PROGRESS));
+        return mongoTemplate.updateMulti(expired, update, UserQuestProgress.class).getModifiedCount();
+    }
+
+    /**
+     * Restamp documents whose expiry event an earlier run failed to publish onto this run
+     */
+    private long claimPending(String runId, Class<?> type) {
+        Query leftover = new Query(Criteria.where(PENDING).is(true).and(RUN_ID).ne(runId));
+        return mongoTemplate.updateMulti(leftover, new Update().set(RUN_ID, runId), type).getModifiedCount();
+    }
+
+    private static Query pendingOf(String runId) {
+        return new Query(Criteria.where(RUN_ID).is(runId).and(PENDING).is(true));
+    }
+
+    /**
+     * Stream the stamped documents with a cursor and publish their events in batches
+     */
+    private <T, E> long fanOut(Query stamped, Class<T> type, Function<T, String> idOf,
+                               Function<T, E> toEvent, Consumer<List<E>> publisher) {
+        stamped.cursorBatchSize(eventBatchSize);
+        long published = 0;
+        List<String> ids = new ArrayList<>(eventBatchSize);
+        List<E> batch = new ArrayList<>(eventBatchSize);
+
+        try (Stream<T> documents = mongoTemplate.stream(stamped, type)) {
+            Iterator<T> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                T document = iterator.next();
+                ids.add(idOf.apply(document));
+                batch.add(toEvent.apply(document));
+                if (batch.size() >= eventBatchSize) {
+                    published += publish(ids, batch, type, publisher);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            published += publish(ids, batch, type, publisher);
+        }
+        return published;
+    }
+
+    private <E> int publish(List<String> ids, List<E> batch, Class<?> type, Consumer<List<E>> publisher) {
+        int size = batch.size();
+        try {
+            publisher.accept(List.copyOf(batch));
+        } catch (Exception e) {
+            // The status flip stands; the batch stays pending for the next sweep
+            log.error("Failed to publish {} expiry events, left pending: {}", size, e.getMessage());
+            size = 0;
+        }
+        if (size > 0) {
+            try {
+                mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids)), new Update().unset(PENDING), type);
+            } catch (Exception e) {
+                log.warn("Published {} expiry events but could not clear their pending mark: {}", size, e.getMessage());
+            }
+        }
+        ids.clear();
+        batch.clear();
+        return size;
+    }
+}
@@ -2,6 +2,8 @@ package com.muscledia.Gamification_service.service;
 
 import com.muscledia.Gamification_service.model.UserGamificationProfile;
 import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.service.profile.ProfileUpdateExecutor;
+import com.muscledia.Gamification_service.service.profile.ProfileCounterBuffer;
 import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +21,8 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class FitnessCoinsService {
     private final UserGamificationProfileRepository profileRepository;
+    private final ProfileUpdateExecutor profileUpdates;
+    private final ProfileCounterBuffer profileCounters;
 
     /**
      * Award coins for workout completion
@@ -32,17 +36,12 @@ public class FitnessCoinsService {
 
         int coins = calculateWorkoutCoins(durationMinutes, personalRecordsAchieved, currentStreak);
 
-        UserGamificationProfile profile = profileRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId));
-
         // Update coins
-        int currentCoins = profile.getFitnessCoins() != null ? profile.getFitnessCoins() : 0;
-        int lifetimeCoins = profile.getLifetimeCoinsEarned() != null ? profile.getLifetimeCoinsEarned() : 0;
-
-        profile.setFitnessCoins(currentCoins + coins);
-        profile.setLifetimeCoinsEarned(lifetimeCoins + coins);
-
-        profileRepository.save(profile);
+        if (profileCounters.isEnabled()) {
+            profileCounters.addCoins(userId, coins);
+        } else {
+            profileUpdates.execute(() -> findProfile(userId), profile -> addCoins(profile, coins));
+        }
 
         log.info("💰 User {} earned {} coins", userId, coins);
 
@@ -70,19 +69,24 @@ public class FitnessCoinsService {
      */
     @Transactional
     public boolean spendCoins(Long userId, int amount, String itemId) {
-        UserGamificationProfile profile = profileRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId));
+        // The balance check is repeated on every attempt, so a conflicting spend cannot overdraw
+        boolean spent = profileUpdates.execute(() -> findProfile(userId), profile -> {
+            int currentCoins = profile.getFitnessCoins() != null ? profile.getFitnessCoins() : 0;
 
-        int currentCoins = profile.getFitnessCoins() != null ? profile.getFitnessCoins() : 0;
+            if (currentCoins < amount) {
+                log.warn("User {} has insufficient coins: {} < {}", userId, currentCoins, amount);
+                return false;
+            }
 
-        if (currentCoins < amount) {
-            log.warn("User {} has insufficient coins: {} < {}", userId, currentCoins, amount);
+            profile.setFitnessCoins(currentCoins - amount);
+            profileRepository.save(profile);
+            return true;
+        });
+
+        if (!spent) {
             return false;
         }
 
-        profile.setFitnessCoins(currentCoins - amount);
-        profileRepository.save(profile);
-
         log.info("💸 User {} spent {} coins on '{}'", userId, amount, itemId);
         return true;
     }
@@ -101,18 +105,24 @@ public class FitnessCoinsService {
      */
     @Transactional
     public void awardChallengeCoins(Long userId, int coins, String challengeId) {
-        UserGamificationProfile profile = profileRepository.findByUserId(userId)
+        profileUpdates.execute(() -> findProfile(userId), profile -> addCoins(profile, coins));
+
+        log.info("🏆 User {} earned {} coins from challenge '{}'", userId, coins, challengeId);
+    }
+
+    private UserGamificationProfile findProfile(Long userId) {
+        return profileRepository.findByUserId(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId));
+    }
 
+    private UserGamificationProfile addCoins(UserGamificationProfile profile, int coins) {
         int currentCoins = profile.getFitnessCoins() != null ? profile.getFitnessCoins() : 0;
         int lifetimeCoins = profile.getLifetimeCoinsEarned() != null ? profile.getLifetimeCoinsEarned() : 0;
 
         profile.setFitnessCoins(currentCoins + coins);
         profile.setLifetimeCoinsEarned(lifetimeCoins + coins);
 
-        profileRepository.save(profile);
-
-        log.info("🏆 User {} earned {} coins from challenge '{}'", userId, coins, challengeId);
+        return profileRepository.save(profile);
     }
 
     private CoinReward buildCoinReward(int total, int duration, int prs, int streak) {
@@ -1,36 +1,54 @@
 package com.muscledia.Gamification_service.service;
 
 
+import com.mongodb.bulk.BulkWriteError;
 import com.muscledia.Gamification_service.model.Challenge;
 import com.muscledia.Gamification_service.model.ChallengeTemplate;
 import com.muscledia.Gamification_service.model.enums.ChallengeType;
 import com.muscledia.Gamification_service.model.enums.DifficultyLevel;
-import com.muscledia.Gamification_service.repository.ChallengeRepository;
-import com.muscledia.Gamification_service.repository.ChallengeTemplateRepository;
+import com.muscledia.Gamification_service.service.progression.WeightedTemplateSelector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.time.ZoneOffset;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 /**
  * PURPOSE: Generate daily/weekly challenges from templates
  * RESPONSIBILITY: Create challenges based on templates and difficulty
  * COUPLING: Low - minimal dependencies
+ *
+ * Templates are drawn by weight from the selector's alias tables with a random seeded from
+ * the period, so every node draws the same challenges for a period. All difficulties are
+ * inserted in one unordered bulk write; the unique (templateId, periodKey) index rejects
+ * slots another node already filled.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GenerationService {
 
-    private final ChallengeRepository challengeRepository;
-    private final ChallengeTemplateRepository templateRepository;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final WeightedTemplateSelector templateSelector;
+    private final CalendarService calendar;
+
+    @Value("${gamification.challenge-generation.seed:0}")
+    private long seed;
 
     /**
      * Generate daily challenges for all difficulty levels
@@ -38,16 +56,10 @@ public class GenerationService {
     public List<Challenge> generateDailyChallenges() {
         log.info("Generating daily challenges");
 
-        List<Challenge> generated = new ArrayList<>();
-        Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
-
-        for (DifficultyLevel difficulty : DifficultyLevel.values()) {
-            Challenge challenge = createDailyChallenge(difficulty, today);
-            if (challenge != null) {
-                Challenge saved = challengeRepository.save(challenge);
-                generated.add(saved);
-            }
-        }
+        ZoneId zone = calendar.defaultZone();
+        long epochDay = calendar.epochDay(Instant.now(), zone);
+        List<Challenge> generated = generate(ChallengeType.DAILY, LocalDate.ofEpochDay(epochDay),
+                calendar.startOfDay(epochDay, zone), Duration.ofDays(1), true);
 
         log.info("Generated {} daily challenges", generated.size());
         return generated;
@@ -59,78 +71,75 @@ public class GenerationService {
     public List<Challenge> generateWeeklyChallenges() {
         log.info("Generating weekly challenges");
 
-        List<Challenge> generated = new ArrayList<>();
-        Instant weekStart = getWeekStart();
-
-        for (DifficultyLevel difficulty : DifficultyLevel.values()) {
-            Challenge challenge = createWeeklyChallenge(difficulty, weekStart);
-            if (challenge != null) {
-                Challenge saved = challengeRepository.save(challenge);
-                generated.add(saved);
-            }
-        }
+        ZoneId zone = calendar.defaultZone();
+        Instant weekStart = calendar.weekStart(calendar.weekOrdinal(Instant.now(), zone), zone);
+        // Weekly challenges are opt-in
+        List<Challenge> generated = generate(ChallengeType.WEEKLY, LocalDate.ofInstant(weekStart, zone),
+                weekStart, Duration.ofDays(7), false);
 
         log.info("Generated {} weekly challenges", generated.size());
         return generated;
     }
 
-    private Challenge createDailyChallenge(DifficultyLevel difficulty, Instant startDate) {
-        List<ChallengeTemplate> templates = templateRepository
-                .findByTypeAndDifficulty(ChallengeType.DAILY, difficulty);
+    private List<Challenge> generate(ChallengeType type, LocalDate period, Instant startDate,
+                                     Duration duration, boolean autoEnroll) {
+        SplittableRandom random = new SplittableRandom(seed ^ Challenge.periodKey(type, period).hashCode());
+        Instant now = Instant.now();
 
-        if (templates.isEmpty()) return null;
+        List<Challenge> drafts = new ArrayList<>();
+        for (DifficultyLevel difficulty : DifficultyLevel.values()) {
+            templateSelector.select(type, difficulty, null, random).ifPresent(template ->
+                    drafts.add(toChallenge(template, type, difficulty, period, startDate, duration, autoEnroll, now)));
+        }
+        if (drafts.isEmpty()) {
+            return List.of();
+        }
 
-        ChallengeTemplate template = selectRandomTemplate(templates);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Challenge.class);
+        bulk.insert(drafts);
+        Set<Integer> rejected = new HashSet<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Unordered: the other slots were inserted; duplicates were generated by another node
+            for (BulkWriteError error : e.getErrors()) {
+                rejected.add(error.getIndex());
+                if (error.getCode() != DUPLICATE_KEY) {
+                    log.warn("Failed to insert {} challenge {}: {}",
+                            type, drafts.get(error.getIndex()).getPeriodKey(), error.getMessage());
+                }
+            }
+        }
 
-        return Challenge.builder()
-                .name(template.getName())
-                .description(template.getDescription())
-                .type(ChallengeType.DAILY)
-                .objectiveType(template.getObjective())
-                .targetValue(template.getTargetValue(difficulty))
-                .rewardPoints(template.getRewardPoints(difficulty))
-                .difficultyLevel(difficulty)
-                .unlockedQuestId(template.getUnlockedQuestId())
-                .autoEnroll(true)
-                .startDate(startDate)
-                .endDate(startDate.plus(Duration.ofDays(1)))
-                .createdAt(Instant.now())
-                .build();
+        List<Challenge> inserted = new ArrayList<>(drafts.size());
+        for (int i = 0; i < drafts.size(); i++) {
+            if (!rejected.contains(i)) {
+                inserted.add(drafts.get(i));
+            }
+        }
+        return inserted;
     }
 
-    private Challenge createWeeklyChallenge(DifficultyLevel difficulty, Instant startDate) {
-        // Similar to daily but with weekly duration
-        List<ChallengeTemplate> templates = templateRepository
-                .findByTypeAndDifficulty(ChallengeType.WEEKLY, difficulty);
-
-        if (templates.isEmpty()) return null;
-
-        ChallengeTemplate template = selectRandomTemplate(templates);
-
+    private Challenge toChallenge(ChallengeTemplate template, ChallengeType type, DifficultyLevel difficulty,
+                                  LocalDate period, Instant startDate, Duration duration, boolean autoEnroll,
+                                  Instant now) {
         return Challenge.builder()
+                // Assigned up front so the returned challenges carry their ids without a re-read
+                .id(new ObjectId().toHexString())
+                .periodKey(Challenge.periodKey(type, period, difficulty))
                 .name(template.getName())
                 .description(template.getDescription())
-                .type(ChallengeType.WEEKLY)
+                .type(type)
                 .objectiveType(template.getObjective())
                 .targetValue(template.getTargetValue(difficulty))
                 .rewardPoints(template.getRewardPoints(difficulty))
                 .difficultyLevel(difficulty)
                 .unlockedQuestId(template.getUnlockedQuestId())
-                .autoEnroll(false) // Weekly challenges are opt-in
+                .autoEnroll(autoEnroll)
                 .startDate(startDate)
-                .endDate(startDate.plus(Duration.ofDays(7)))
-                .createdAt(Instant.now())
+                .endDate(startDate.plus(duration))
+                .createdAt(now)
                 .build();
     }
 
-    private ChallengeTemplate selectRandomTemplate(List<ChallengeTemplate> templates) {
-        return templates.get(new Random().nextInt(templates.size()));
-    }
-
-    private Instant getWeekStart() {
-        return Instant.now()
-                .truncatedTo(ChronoUnit.DAYS)
-                .minus(Duration.ofDays(Instant.now().atZone(ZoneOffset.UTC).getDayOfWeek().getValue() - 1));
-    }
-
 }
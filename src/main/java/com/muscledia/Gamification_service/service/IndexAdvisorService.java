@@ -0,0 +1,124 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.repository.IndexCatalog;
+import com.muscledia.Gamification_service.repository.IndexCatalog.IndexSpec;
+import com.muscledia.Gamification_service.repository.IndexCatalog.QueryProbe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Startup index check: creates the indexes of {@link IndexCatalog} (a no-op when they
+ * exist) and explains every catalog probe. A winning plan containing a COLLSCAN stage
+ * means a repository query has no supporting index; depending on configuration the
+ * application then refuses to start or logs a warning per query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "gamification.indexes.advisor.enabled", havingValue = "true", matchIfMissing = true)
+public class IndexAdvisorService {
+
+    private static final String COLLECTION_SCAN = "COLLSCAN";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${gamification.indexes.advisor.fail-on-collection-scan:false}")
+    private boolean failOnCollectionScan;
+
+    /**
+     * Runs before the application reports ready, so a failure here aborts startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        List<String> problems = new ArrayList<>(ensureIndexes());
+        problems.addAll(findCollectionScans());
+
+        if (problems.isEmpty()) {
+            log.info("Index check passed: {} catalog indexes, {} query shapes use an index",
+                    IndexCatalog.indexes().size(), IndexCatalog.probes().size());
+            return;
+        }
+        if (failOnCollectionScan) {
+            throw new IllegalStateException("Index check failed: " + String.join("; ", problems));
+        }
+        problems.forEach(problem -> log.warn("Index check: {}", problem));
+    }
+
+    /**
+     * Create missing catalog indexes; returns a description of each that could not be created
+     */
+    public List<String> ensureIndexes() {
+        List<String> problems = new ArrayList<>();
+        for (IndexSpec spec : IndexCatalog.indexes()) {
+            try {
+                CompoundIndexDefinition index = new CompoundIndexDefinition(spec.keys());
+                index.named(spec.name());
+                if (spec.unique()) {
+                    index.unique();
+                }
+                if (spec.partialFilter() != null) {
+                    index.partial(PartialIndexFilter.of(spec.partialFilter()));
+                }
+                mongoTemplate.indexOps(spec.collection()).ensureIndex(index);
+            } catch (Exception e) {
+                problems.add("index " + spec.collection() + "." + spec.name() + " not created: " + e.getMessage());
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Explain every catalog probe; returns a description of each whose plan scans the collection
+     */
+    public List<String> findCollectionScans() {
+        List<String> problems = new ArrayList<>();
+        for (QueryProbe probe : IndexCatalog.probes()) {
+            try {
+                Document explain = mongoTemplate.getCollection(probe.collection())
+                        .find(probe.filter())
+                        .sort(probe.sort())
+                        .explain();
+                Object winningPlan = explain.get("queryPlanner", Document.class) != null
+                        ? explain.get("queryPlanner", Document.class).get("winningPlan")
+                        : null;
+                if (hasStage(winningPlan, COLLECTION_SCAN)) {
+                    problems.add("query " + probe.name() + " on " + probe.collection()
+                            + " uses a collection scan (filter " + probe.filter().toJson()
+                            + ", sort " + probe.sort().toJson() + ")");
+                }
+            } catch (Exception e) {
+                problems.add("query " + probe.name() + " could not be explained: " + e.getMessage());
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Whether any stage of a plan tree (including slot-based "queryPlan" nesting) is the given stage
+     */
+    static boolean hasStage(Object plan, String stage) {
+        if (plan instanceof Map<?, ?> node) {
+            if (stage.equals(node.get("stage"))) {
+                return true;
+            }
+            return node.values().stream().anyMatch(child -> hasStage(child, stage));
+        }
+        if (plan instanceof List<?> children) {
+            return children.stream().anyMatch(child -> hasStage(child, stage));
+        }
+        return false;
+    }
+}
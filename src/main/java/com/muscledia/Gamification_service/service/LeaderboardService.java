@@ -26,6 +26,8 @@ public class LeaderboardService {
 
     private final UserGamificationProfileRepository userProfileRepository;
     private final LeaderboardMapper leaderboardMapper;
+    private final StreakLeaderboardService streakLeaderboards;
+    private final UserStreakService userStreaks;
 
     private static final int DEFAULT_NEARBY_RANGE = 5; // 5 users above, 5 below
 
@@ -557,18 +559,45 @@ public class LeaderboardService {
 
     public List<LeaderboardResponse> getStreakLeaderboard(String streakType, int limit) {
         log.debug("Getting {} streak leaderboard with limit {}", streakType, limit);
-        Pageable pageable = PageRequest.of(0, limit);
-        List<UserGamificationProfile> topUsers = userProfileRepository
-                .findTopUsersByStreak(streakType, pageable);
-        return leaderboardMapper.toLeaderboardResponseList(topUsers);
+        streakLeaderboards.requireKnownStreakType(streakType);
+        if (limit <= streakLeaderboards.getTopSize()) {
+            return streakLeaderboards.getTop(streakType, StreakLeaderboardService.Metric.CURRENT, limit).stream()
+                    .map(entry -> leaderboardMapper.toStreakLeaderboardResponse(entry, false))
+                    .collect(Collectors.toList());
+        }
+        List<UserGamificationProfile> topUsers = userStreaks.findTopUsersByStreak(streakType, limit);
+        return mapStreakWithRanks(topUsers, streakType, StreakLeaderboardService.Metric.CURRENT);
     }
 
     public List<LeaderboardResponse> getLongestStreakLeaderboard(String streakType, int limit) {
         log.debug("Getting {} longest streak leaderboard with limit {}", streakType, limit);
-        Pageable pageable = PageRequest.of(0, limit);
-        List<UserGamificationProfile> topUsers = userProfileRepository
-                .findTopUsersByLongestStreak(streakType, pageable);
-        return leaderboardMapper.toLeaderboardResponseList(topUsers);
+        streakLeaderboards.requireKnownStreakType(streakType);
+        if (limit <= streakLeaderboards.getTopSize()) {
+            return streakLeaderboards.getTop(streakType, StreakLeaderboardService.Metric.LONGEST, limit).stream()
+                    .map(entry -> leaderboardMapper.toStreakLeaderboardResponse(entry, true))
+                    .collect(Collectors.toList());
+        }
+        List<UserGamificationProfile> topUsers = userStreaks.findTopUsersByLongestStreak(streakType, limit);
+        return mapStreakWithRanks(topUsers, streakType, StreakLeaderboardService.Metric.LONGEST);
+    }
+
+    /**
+     * Rows beyond the materialized top-N are ranked against its value table, so ties share a rank
+     */
+    private List<LeaderboardResponse> mapStreakWithRanks(
+            List<UserGamificationProfile> profiles, String streakType, StreakLeaderboardService.Metric metric) {
+        boolean longest = metric == StreakLeaderboardService.Metric.LONGEST;
+        return profiles.stream()
+                .map(profile -> {
+                    UserGamificationProfile.StreakData streak = profile.getStreaks() != null
+                            ? profile.getStreaks().get(streakType)
+                            : null;
+                    Integer value = streak == null ? null : longest ? streak.getLongest() : streak.getCurrent();
+                    int streakValue = value != null ? value : 0;
+                    int rank = (int) streakLeaderboards.getRank(streakType, metric, streakValue);
+                    return leaderboardMapper.toStreakLeaderboardResponse(profile, rank, streakValue, longest);
+                })
+                .collect(Collectors.toList());
     }
 
     // ===========================================
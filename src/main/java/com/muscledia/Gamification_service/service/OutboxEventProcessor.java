@@ -1,6 +1,8 @@
 package com.muscledia.Gamification_service.service;
 
 import com.muscledia.Gamification_service.model.EventOutbox;
+import com.muscledia.Gamification_service.service.monitoring.EventPipelineMetrics;
+import com.muscledia.Gamification_service.service.scheduled.SchedulerLock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -33,17 +35,21 @@ public class OutboxEventProcessor {
 
     private final EventOutboxService eventOutboxService;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final EventPipelineMetrics pipelineMetrics;
 
     private static final int BATCH_SIZE = 50;
     private static final int KAFKA_TIMEOUT_SECONDS = 10;
+    private static final String PUBLISH_STAGE = "kafka.publish";
 
     /**
      * Process pending events from the outbox (every 5 seconds)
      */
     @Scheduled(fixedDelay = 5000)
+    @SchedulerLock(name = "outbox-publish", lockAtMostFor = "PT1M")
     public void processPendingEvents() {
         try {
             List<EventOutbox> pendingEvents = eventOutboxService.getPendingEvents();
+            pipelineMetrics.recordOutboxPending(pendingEvents.size());
 
             if (pendingEvents.isEmpty()) {
                 return;
@@ -83,9 +89,11 @@ public class OutboxEventProcessor {
      * Process failed events that are ready for retry (every 2 minutes)
      */
     @Scheduled(fixedDelay = 120000)
+    @SchedulerLock(name = "outbox-retry", lockAtMostFor = "PT5M")
     public void processRetryableFailedEvents() {
         try {
             List<EventOutbox> retryableEvents = eventOutboxService.getRetryableFailedEvents();
+            pipelineMetrics.recordOutboxRetryable(retryableEvents.size());
 
             if (retryableEvents.isEmpty()) {
                 return;
@@ -125,6 +133,7 @@ public class OutboxEventProcessor {
      * Clean up old published events (daily at 2 AM)
      */
     @Scheduled(cron = "0 0 2 * * ?")
+    @SchedulerLock(name = "outbox-cleanup", lockAtLeastFor = "PT5M")
     public void cleanupOldEvents() {
         try {
             eventOutboxService.cleanupOldEvents();
@@ -138,6 +147,7 @@ public class OutboxEventProcessor {
      * Log outbox statistics (every 10 minutes)
      */
     @Scheduled(fixedDelay = 600000)
+    @SchedulerLock(name = "outbox-statistics", lockAtMostFor = "PT5M", lockAtLeastFor = "PT5M")
     public void logStatistics() {
         try {
             EventOutboxService.OutboxStatistics stats = eventOutboxService.getStatistics();
@@ -174,6 +184,7 @@ public class OutboxEventProcessor {
             return false;
         }
 
+        long publishStart = System.nanoTime();
         try {
             // Convert JSON payload back to object for Kafka serialization
             Object eventPayload = parseEventPayload(outboxEvent.getPayload());
@@ -186,9 +197,12 @@ public class OutboxEventProcessor {
 
             // Wait for result with timeout
             SendResult<String, Object> result = future.get(KAFKA_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            pipelineMetrics.recordStage(PUBLISH_STAGE, outboxEvent.getEventType(), "success", System.nanoTime() - publishStart);
 
             // Mark as successfully published
             eventOutboxService.markAsPublished(outboxEvent.getId());
+            pipelineMetrics.recordAge(EventPipelineMetrics.AGE_PUBLISHED, outboxEvent.getEventType(),
+                    outboxEvent.getCreatedAt());
 
             log.debug("Successfully published event {} to topic {} with offset {}",
                     outboxEvent.getEventId(),
@@ -198,6 +212,7 @@ public class OutboxEventProcessor {
             return true;
 
         } catch (Exception e) {
+            pipelineMetrics.recordStage(PUBLISH_STAGE, outboxEvent.getEventType(), "error", System.nanoTime() - publishStart);
             log.error("Failed to publish event {} to topic {}: {}",
                     outboxEvent.getEventId(), outboxEvent.getTopic(), e.getMessage());
 
@@ -0,0 +1,256 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.repository.projection.GroupCount;
+import com.muscledia.Gamification_service.repository.projection.PlatformStatisticsFacet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory platform statistics counters.
+ *
+ * Keeps the level histogram, points-range histogram, hourly level-up ring (last 24h)
+ * and active workout streak count that back the platform statistics endpoint, so a
+ * read is a handful of array lookups instead of ~17 queries.
+ *
+ * Counters are moved by the profile mutation paths (creation, points, streaks, reset)
+ * and periodically replaced by one $facet aggregation, which corrects drift from
+ * writers that bypass these hooks and from mutations made on other replicas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlatformStatisticsService {
+
+    private static final int MAX_TRACKED_LEVEL = 100;
+    private static final int LEVEL_UP_WINDOW_HOURS = 24;
+    private static final String[] POINTS_RANGES = {"0-100", "100-300", "300-600", "600-1000", "1000+"};
+    private static final String WORKOUT_STREAK = "workout";
+
+    private final UserGamificationProfileRepository profileRepository;
+
+    // Guarded by this
+    private long totalUsers;
+    private final long[] levelHistogram = new long[MAX_TRACKED_LEVEL + 1];
+    private final long[] pointsHistogram = new long[POINTS_RANGES.length];
+    private final long[] levelUpHours = new long[LEVEL_UP_WINDOW_HOURS + 1];
+    private final long[] levelUpCounts = new long[LEVEL_UP_WINDOW_HOURS + 1];
+    private long activeWorkoutStreaks;
+    private volatile Instant reconciledAt;
+
+    // ===========================================
+    // MUTATION HOOKS
+    // ===========================================
+
+    /**
+     * A new profile was persisted
+     */
+    public synchronized void recordProfileCreated(UserGamificationProfile profile) {
+        totalUsers++;
+        levelHistogram[levelSlot(profile.getLevel())]++;
+        pointsHistogram[pointsSlot(profile.getPoints())]++;
+    }
+
+    /**
+     * Points/level of a profile changed; old values are taken before the mutation
+     */
+    public synchronized void recordProgressChange(int oldPoints, int oldLevel, Instant oldLastLevelUp,
+                                                  UserGamificationProfile updated) {
+        move(levelHistogram, levelSlot(oldLevel), levelSlot(updated.getLevel()));
+        move(pointsHistogram, pointsSlot(oldPoints), pointsSlot(updated.getPoints()));
+
+        // Window counts users whose latest level-up is recent, so a repeat level-up moves the user's slot
+        Instant newLastLevelUp = updated.getLastLevelUpDate();
+        if (newLastLevelUp != null && !newLastLevelUp.equals(oldLastLevelUp)) {
+            long nowHour = epochHour(Instant.now());
+            if (oldLastLevelUp != null) {
+                addLevelUps(epochHour(oldLastLevelUp), -1, nowHour);
+            }
+            addLevelUps(epochHour(newLastLevelUp), 1, nowHour);
+        }
+    }
+
+    /**
+     * The current value of a streak changed
+     */
+    public synchronized void recordStreakChange(String streakType, int oldCurrent, int newCurrent) {
+        if (!WORKOUT_STREAK.equals(streakType)) {
+            return;
+        }
+        if (oldCurrent <= 0 && newCurrent > 0) {
+            activeWorkoutStreaks++;
+        } else if (oldCurrent > 0 && newCurrent <= 0) {
+            activeWorkoutStreaks = Math.max(0, activeWorkoutStreaks - 1);
+        }
+    }
+
+    // ===========================================
+    // READ SIDE
+    // ===========================================
+
+    /**
+     * Platform statistics in the shape returned by the statistics endpoint
+     */
+    public Map<String, Object> getPlatformStatistics() {
+        if (reconciledAt == null) {
+            reconcile();
+        }
+
+        synchronized (this) {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalUsers", totalUsers);
+
+            Map<String, Long> levelDistribution = new HashMap<>();
+            for (int level = 1; level <= 10; level++) {
+                levelDistribution.put("level" + level, levelHistogram[level]);
+            }
+            stats.put("levelDistribution", levelDistribution);
+
+            Map<String, Long> pointsDistribution = new LinkedHashMap<>();
+            for (int i = 0; i < POINTS_RANGES.length; i++) {
+                pointsDistribution.put(POINTS_RANGES[i], pointsHistogram[i]);
+            }
+            stats.put("pointsDistribution", pointsDistribution);
+
+            stats.put("recentLevelUps", recentLevelUps(epochHour(Instant.now())));
+            stats.put("activeUsers", activeWorkoutStreaks);
+            stats.put("reconciledAt", reconciledAt);
+            return stats;
+        }
+    }
+
+    // ===========================================
+    // RECONCILIATION
+    // ===========================================
+
+    /**
+     * Replace all counters with the result of one aggregation over the profiles
+     */
+    @Scheduled(fixedDelayString = "${gamification.statistics.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        try {
+            Instant now = Instant.now();
+            long nowHour = epochHour(now);
+            Instant windowStart = Instant.ofEpochSecond((nowHour - LEVEL_UP_WINDOW_HOURS) * 3600);
+
+            PlatformStatisticsFacet facet = profileRepository.aggregatePlatformStatistics(windowStart);
+            if (facet == null) {
+                return;
+            }
+
+            synchronized (this) {
+                totalUsers = GroupCount.single(facet.total());
+
+                Arrays.fill(levelHistogram, 0);
+                if (facet.byLevel() != null) {
+                    for (GroupCount bucket : facet.byLevel()) {
+                        Integer level = parseInt(bucket.id());
+                        if (level != null) {
+                            levelHistogram[levelSlot(level)] += bucket.count();
+                        }
+                    }
+                }
+
+                Arrays.fill(pointsHistogram, 0);
+                if (facet.byPointsRange() != null) {
+                    for (GroupCount bucket : facet.byPointsRange()) {
+                        for (int i = 0; i < POINTS_RANGES.length; i++) {
+                            if (POINTS_RANGES[i].equals(bucket.id())) {
+                                pointsHistogram[i] = bucket.count();
+                            }
+                        }
+                    }
+                }
+
+                Arrays.fill(levelUpHours, 0);
+                Arrays.fill(levelUpCounts, 0);
+                if (facet.levelUpsByHour() != null) {
+                    for (GroupCount bucket : facet.levelUpsByHour()) {
+                        try {
+                            addLevelUps(epochHour(Instant.parse(bucket.id())), bucket.count(), nowHour);
+                        } catch (DateTimeParseException | NullPointerException e) {
+                            log.debug("Skipping unparseable level-up hour {}", bucket.id());
+                        }
+                    }
+                }
+
+                activeWorkoutStreaks = GroupCount.single(facet.activeWorkoutStreaks());
+                reconciledAt = now;
+            }
+
+            log.debug("Reconciled platform statistics: {} users", totalUsers);
+
+        } catch (Exception e) {
+            log.error("Error reconciling platform statistics: {}", e.getMessage());
+        }
+    }
+
+    // ===========================================
+    // PRIVATE HELPERS
+    // ===========================================
+
+    private void addLevelUps(long hour, long delta, long nowHour) {
+        if (hour < nowHour - LEVEL_UP_WINDOW_HOURS || hour > nowHour) {
+            return;
+        }
+        int slot = (int) (hour % levelUpHours.length);
+        if (levelUpHours[slot] != hour) {
+            levelUpHours[slot] = hour;
+            levelUpCounts[slot] = 0;
+        }
+        levelUpCounts[slot] = Math.max(0, levelUpCounts[slot] + delta);
+    }
+
+    private long recentLevelUps(long nowHour) {
+        long total = 0;
+        for (int slot = 0; slot < levelUpHours.length; slot++) {
+            if (levelUpHours[slot] >= nowHour - LEVEL_UP_WINDOW_HOURS) {
+                total += levelUpCounts[slot];
+            }
+        }
+        return total;
+    }
+
+    private static void move(long[] histogram, int from, int to) {
+        if (from != to) {
+            histogram[from] = Math.max(0, histogram[from] - 1);
+            histogram[to]++;
+        }
+    }
+
+    private static int levelSlot(Integer level) {
+        int value = level != null ? level : 1;
+        return Math.max(0, Math.min(MAX_TRACKED_LEVEL, value));
+    }
+
+    private static int pointsSlot(Integer points) {
+        int value = points != null ? points : 0;
+        if (value < 100) return 0;
+        if (value < 300) return 1;
+        if (value < 600) return 2;
+        if (value < 1000) return 3;
+        return 4;
+    }
+
+    private static long epochHour(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), 3600);
+    }
+
+    private static Integer parseInt(String value) {
+        try {
+            return value != null ? Integer.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.util.HashMap;
 public class ProfileCreationService {
     private final UserGamificationProfileRepository profileRepository;
     private final NameGeneratorService nameGenerator;
+    private final PlatformStatisticsService platformStatistics;
 
     public UserGamificationProfile createProfile(UserRegisteredEvent event) {
         log.info("Creating gamification profile for user {}", event.getUserId());
@@ -56,7 +57,9 @@ public class ProfileCreationService {
                 .build();
 
         profile.initializeDefaults();
-        return profileRepository.save(profile);
+        UserGamificationProfile saved = profileRepository.save(profile);
+        platformStatistics.recordProfileCreated(saved);
+        return saved;
     }
 
     public UserGamificationProfile createDefaultProfile(Long userId) {
@@ -84,7 +87,9 @@ public class ProfileCreationService {
                 .build();
 
         profile.initializeDefaults();
-        return profileRepository.save(profile);
+        UserGamificationProfile saved = profileRepository.save(profile);
+        platformStatistics.recordProfileCreated(saved);
+        return saved;
     }
 
     private String extractDisplayName(UserRegisteredEvent event) {
@@ -0,0 +1,258 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.model.UserChallenge;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.model.UserInventoryItem;
+import com.muscledia.Gamification_service.model.UserQuestProgress;
+import com.muscledia.Gamification_service.model.enums.QuestStatus;
+import com.muscledia.Gamification_service.repository.UserChallengeRepository;
+import com.muscledia.Gamification_service.repository.UserInventoryRepository;
+import com.muscledia.Gamification_service.repository.UserQuestProgressRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Detail collections split out of the profile document (quest progress, inventory,
+ * challenges). The profile keeps counters and a short recent-items window; the full
+ * lists are loaded on demand through {@link ProfileDetails}.
+ *
+ * Legacy embedded arrays are moved out synchronously once all singletons exist, before
+ * Kafka listeners, schedulers and the web server start: the profile model no longer maps
+ * them, so any full-document save of an unmigrated profile would drop them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProfileDetailsService implements SmartInitializingSingleton {
+
+    public static final int RECENT_WINDOW = 10;
+
+    private static final String PROFILES_COLLECTION = "user_gamification_profiles";
+    private static final String LEGACY_QUESTS = "quests";
+    private static final String LEGACY_INVENTORY = "inventory";
+    private static final String LEGACY_CHALLENGES = "activeChallenges";
+    private static final int MIGRATION_BATCH_SIZE = 500;
+
+    private final UserQuestProgressRepository questProgressRepository;
+    private final UserInventoryRepository inventoryRepository;
+    private final UserChallengeRepository userChallengeRepository;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Lazy view of a user's detail collections; each list is queried on first access only
+     */
+    public ProfileDetails details(Long userId) {
+        return new ProfileDetails(userId);
+    }
+
+    /**
+     * Count a quest completion on the profile and add it to the recent window
+     * (a targeted update, so the profile document does not grow with quest history)
+     */
+    public void recordQuestCompleted(Long userId, String questId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("userId").is(userId)),
+                new Update()
+                        .inc("completedQuestCount", 1)
+                        .push("recentCompletedQuestIds").slice(-RECENT_WINDOW).each(questId)
+                        .set("lastUpdated", Instant.now())
+                        .inc("version", 1),
+                UserGamificationProfile.class);
+    }
+
+    public final class ProfileDetails {
+        private final Long userId;
+        private final Supplier<List<UserQuestProgress>> quests;
+        private final Supplier<List<UserInventoryItem>> inventory;
+        private final Supplier<List<UserChallenge>> challenges;
+
+        private ProfileDetails(Long userId) {
+            this.userId = userId;
+            this.quests = memoize(() -> questProgressRepository.findByUserId(userId));
+            this.inventory = memoize(() -> inventoryRepository.findByUserId(userId));
+            this.challenges = memoize(() -> userChallengeRepository.findByUserId(userId));
+        }
+
+        public Long userId() {
+            return userId;
+        }
+
+        public List<UserQuestProgress> quests() {
+            return quests.get();
+        }
+
+        public List<UserInventoryItem> inventory() {
+            return inventory.get();
+        }
+
+        public List<UserChallenge> challenges() {
+            return challenges.get();
+        }
+    }
+
+    // ===========================================
+    // MIGRATION
+    // ===========================================
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrateEmbeddedDetails();
+    }
+
+    /**
+     * Move embedded quests / inventory out of existing profiles and drop the legacy arrays.
+     * Only unmigrated profiles match the query, so an interrupted run simply resumes.
+     *
+     * @throws IllegalStateException if the migration fails; startup is aborted rather than
+     *                               letting profile writers run against unmigrated documents
+     */
+    public void migrateEmbeddedDetails() {
+        try {
+            Query legacy = new Query(legacyFields())
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .cursorBatchSize(MIGRATION_BATCH_SIZE);
+            legacy.fields().include("userId").include(LEGACY_QUESTS).include(LEGACY_INVENTORY);
+
+            long migrated = 0;
+            List<Document> batch = new ArrayList<>(MIGRATION_BATCH_SIZE);
+            try (Stream<Document> stream = mongoTemplate.stream(legacy, Document.class, PROFILES_COLLECTION)) {
+                Iterator<Document> cursor = stream.iterator();
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == MIGRATION_BATCH_SIZE) {
+                        migrated += migrateBatch(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            migrated += migrateBatch(batch);
+
+            if (migrated > 0) {
+                log.info("Moved embedded quests/inventory of {} profiles into detail collections", migrated);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to migrate embedded profile details", e);
+        }
+    }
+
+    private static Criteria legacyFields() {
+        return new Criteria().orOperator(
+                Criteria.where(LEGACY_QUESTS).exists(true),
+                Criteria.where(LEGACY_INVENTORY).exists(true),
+                Criteria.where(LEGACY_CHALLENGES).exists(true));
+    }
+
+    private int migrateBatch(List<Document> profiles) {
+        if (profiles.isEmpty()) {
+            return 0;
+        }
+
+        List<UserQuestProgress> questRows = new ArrayList<>();
+        List<UserInventoryItem> inventoryRows = new ArrayList<>();
+        BulkOperations profileUpdates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PROFILES_COLLECTION);
+
+        for (Document profile : profiles) {
+            Number rawUserId = profile.get("userId", Number.class);
+            Long userId = rawUserId != null ? rawUserId.longValue() : null;
+            Update cleanup = new Update().unset(LEGACY_QUESTS).unset(LEGACY_INVENTORY).unset(LEGACY_CHALLENGES)
+                    .inc("version", 1);
+
+            if (userId != null) {
+                // Deterministic ids make a repeated batch overwrite instead of duplicate
+                List<UserQuestProgress> quests = readList(profile, LEGACY_QUESTS, UserQuestProgress.class);
+                for (int i = 0; i < quests.size(); i++) {
+                    UserQuestProgress quest = quests.get(i);
+                    quest.setId(userId + ":legacy-quest:" + i);
+                    quest.setUserId(userId);
+                    questRows.add(quest);
+                }
+
+                List<UserInventoryItem> inventory = readList(profile, LEGACY_INVENTORY, UserInventoryItem.class);
+                for (int i = 0; i < inventory.size(); i++) {
+                    UserInventoryItem item = inventory.get(i);
+                    item.setId(userId + ":legacy-item:" + i);
+                    item.setUserId(userId);
+                    inventoryRows.add(item);
+                }
+
+                List<UserQuestProgress> completed = quests.stream()
+                        .filter(quest -> QuestStatus.COMPLETED.equals(quest.getStatus()))
+                        .sorted(Comparator.comparing(UserQuestProgress::getCompletionDate,
+                                Comparator.nullsFirst(Comparator.naturalOrder())))
+                        .toList();
+                if (!completed.isEmpty()) {
+                    // $inc / $push rather than $set, so completions recorded meanwhile are kept
+                    cleanup.inc("completedQuestCount", completed.size())
+                            .push("recentCompletedQuestIds").slice(-RECENT_WINDOW)
+                            .each(completed.stream().map(UserQuestProgress::getQuestId).toArray());
+                }
+            }
+
+            // Only while the arrays are still there, so a replica migrating concurrently cannot count twice
+            profileUpdates.updateOne(Query.query(new Criteria().andOperator(
+                    Criteria.where("_id").is(profile.get("_id")), legacyFields())), cleanup);
+        }
+
+        // Detail rows first: a crash in between leaves the legacy arrays for the next run
+        replaceAll(UserQuestProgress.class, questRows, UserQuestProgress::getId);
+        replaceAll(UserInventoryItem.class, inventoryRows, UserInventoryItem::getId);
+        profileUpdates.execute();
+        return profiles.size();
+    }
+
+    private <T> void replaceAll(Class<T> type, List<T> rows, Function<T, String> id) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        rows.forEach(row -> bulk.replaceOne(Query.query(Criteria.where("_id").is(id.apply(row))), row,
+                FindAndReplaceOptions.options().upsert()));
+        bulk.execute();
+    }
+
+    private <T> List<T> readList(Document profile, String field, Class<T> type) {
+        List<?> raw = profile.get(field, List.class);
+        if (raw == null) {
+            return List.of();
+        }
+        return raw.stream()
+                .filter(Document.class::isInstance)
+                .map(element -> mongoTemplate.getConverter().read(type, (Document) element))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static <T> Supplier<List<T>> memoize(Supplier<List<T>> loader) {
+        return new Supplier<>() {
+            private List<T> value;
+
+            @Override
+            public synchronized List<T> get() {
+                if (value == null) {
+                    value = loader.get();
+                }
+                return value;
+            }
+        };
+    }
+}
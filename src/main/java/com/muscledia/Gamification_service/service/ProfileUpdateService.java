@@ -27,6 +27,9 @@ public class ProfileUpdateService {
     private final UserGamificationProfileRepository profileRepository;
     private final EventPublisher eventPublisher;
     private final LeaderboardChangeDetectionService leaderboardDetection;
+    private final PlatformStatisticsService platformStatistics;
+    private final StreakDeadlineService streakDeadlines;
+    private final UserStreakService userStreaks;
 
     public UserGamificationProfile saveProfile(UserGamificationProfile profile) {
         profile.setLastUpdated(Instant.now());
@@ -37,25 +40,34 @@ public class ProfileUpdateService {
     public UserGamificationProfile updatePoints(UserGamificationProfile profile, int pointsToAdd) {
         int oldPoints = profile.getPoints();
         int oldLevel = profile.getLevel();
+        Instant oldLastLevelUp = profile.getLastLevelUpDate();
 
         profile.addPoints(pointsToAdd);
 
-        boolean leveledUp = profile.getLevel() > oldLevel;
+        // Save first: a version conflict here is retried, and must not leave events behind
+        UserGamificationProfile saved = profileRepository.save(profile);
+        afterPointsChange(saved, oldPoints, oldLevel, oldLastLevelUp);
 
-        if (leveledUp) {
-            publishLevelUpEvent(profile, oldLevel);
+        return saved;
+    }
+
+    /**
+     * Statistics, level-up event and leaderboard checks following a persisted points change
+     * (also used by the write-behind counter buffer after a flush)
+     */
+    public void afterPointsChange(UserGamificationProfile updated, int oldPoints, int oldLevel, Instant oldLastLevelUp) {
+        platformStatistics.recordProgressChange(oldPoints, oldLevel, oldLastLevelUp, updated);
+
+        if (updated.getLevel() > oldLevel) {
+            publishLevelUpEvent(updated, oldLevel);
             // Check level leaderboard change
             leaderboardDetection.checkLevelRankChange(
-                    profile.getUserId(), oldLevel, profile.getLevel());
+                    updated.getUserId(), oldLevel, updated.getLevel());
         }
 
-        UserGamificationProfile saved = profileRepository.save(profile);
-
         // Check points leaderboard change
         leaderboardDetection.checkPointsRankChange(
-                profile.getUserId(), oldPoints, profile.getPoints());
-
-        return saved;
+                updated.getUserId(), oldPoints, updated.getPoints());
     }
 
     /**
@@ -71,6 +83,7 @@ public class ProfileUpdateService {
 
         UserGamificationProfile.StreakData streakData = streaks.computeIfAbsent(streakType,
                 k -> new UserGamificationProfile.StreakData());
+        int oldCurrent = streakData.getCurrent();
 
         Instant now = Instant.now();
 
@@ -80,17 +93,33 @@ public class ProfileUpdateService {
             breakStreak(streakData, now, profile.getUserId(), streakType);
         }
 
-        return saveProfile(profile);
+        UserGamificationProfile saved = saveProfile(profile);
+        platformStatistics.recordStreakChange(streakType, oldCurrent, streakData.getCurrent());
+        streakDeadlines.track(profile.getUserId(), streakType, streakData);
+        userStreaks.sync(profile.getUserId(), streakType, streakData);
+        return saved;
     }
 
     public UserGamificationProfile resetProgress(UserGamificationProfile profile) {
+        int oldPoints = profile.getPoints();
+        int oldLevel = profile.getLevel();
+        Instant oldLastLevelUp = profile.getLastLevelUpDate();
+        Map<String, UserGamificationProfile.StreakData> oldStreaks =
+                profile.getStreaks() != null ? profile.getStreaks() : Map.of();
+
         profile.setPoints(0);
         profile.setLevel(1);
         profile.setLastLevelUpDate(Instant.now());
         profile.setStreaks(new HashMap<>());
         profile.setEarnedBadges(new ArrayList<>());
 
-        return saveProfile(profile);
+        UserGamificationProfile saved = saveProfile(profile);
+        platformStatistics.recordProgressChange(oldPoints, oldLevel, oldLastLevelUp, saved);
+        oldStreaks.forEach((streakType, streakData) ->
+                platformStatistics.recordStreakChange(streakType, streakData.getCurrent(), 0));
+        streakDeadlines.untrackAll(profile.getUserId());
+        userStreaks.removeAll(profile.getUserId());
+        return saved;
     }
 
     private void updateContinuingStreak(UserGamificationProfile.StreakData streakData, Instant now, Long userId, String streakType) {
@@ -0,0 +1,241 @@
+package com.muscledia.Gamification_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muscledia.Gamification_service.model.Quest;
+import com.muscledia.Gamification_service.model.UserQuestProgress;
+import com.muscledia.Gamification_service.model.enums.QuestStatus;
+import com.muscledia.Gamification_service.repository.QuestRepository;
+import com.muscledia.Gamification_service.repository.UserQuestProgressRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of the quests that have not ended, for per-user active quest lookups.
+ *
+ * The start/end boundaries of all quests split time into segments with a fixed active
+ * set; each segment holds its quests sorted by requiredLevel, so a lookup is a binary
+ * search for the segment and one for the level. The index is rebuilt on the next lookup
+ * after a local quest write, and on a fixed delay to pick up other replicas' writes.
+ *
+ * Each user's completed quest ids are kept as a sorted array, loaded from
+ * user_quest_progress and extended on local completion. Entries expire a short time after
+ * they are written, which bounds how long a completion on another replica goes unseen.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "gamification.mongodb.enabled", havingValue = "true")
+public class QuestCatalogIndex {
+
+    private static final String QUESTS_COLLECTION = "quests";
+    private static final String[] NONE = new String[0];
+
+    private final QuestRepository questRepository;
+    private final UserQuestProgressRepository questProgressRepository;
+
+    @Value("${gamification.quest-index.completed-cache-ttl-seconds:60}")
+    private long completedCacheTtlSeconds;
+
+    @Value("${gamification.quest-index.completed-cache-max-size:50000}")
+    private long completedCacheMaxSize;
+
+    private final AtomicLong questWrites = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private Cache<Long, String[]> completedByUser;
+
+    @PostConstruct
+    public void initialize() {
+        completedByUser = Caffeine.newBuilder()
+                .maximumSize(completedCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(completedCacheTtlSeconds))
+                .build();
+    }
+
+    // ===============================
+    // ACTIVE QUESTS
+    // ===============================
+
+    /**
+     * Quests active at the given time (startDate <= at <= endDate) that the level qualifies for
+     */
+    public List<Quest> activeQuests(Instant at, int level) {
+        return current().activeAt(at, level);
+    }
+
+    /**
+     * Reload the quests that have not ended
+     */
+    @Scheduled(fixedDelayString = "${gamification.quest-index.refresh-interval-ms:60000}")
+    public void rebuild() {
+        load();
+    }
+
+    private Snapshot load() {
+        long writesBefore = questWrites.get();
+        Snapshot rebuilt = Snapshot.of(questRepository.findCurrentAndUpcomingQuests(Instant.now()));
+        snapshot = rebuilt;
+        if (questWrites.get() != writesBefore) {
+            // A quest was written while loading; the next lookup loads again
+            snapshot = null;
+        }
+        log.debug("Rebuilt quest index: {} quests in {} segments", rebuilt.quests(), rebuilt.segments());
+        return rebuilt;
+    }
+
+    @EventListener({AfterSaveEvent.class, AfterDeleteEvent.class})
+    public void onQuestChange(MongoMappingEvent<?> event) {
+        if (QUESTS_COLLECTION.equals(event.getCollectionName())) {
+            questWrites.incrementAndGet();
+            snapshot = null;
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                }
+            }
+        }
+        return current;
+    }
+
+    // ===============================
+    // COMPLETED QUESTS
+    // ===============================
+
+    /**
+     * Whether the user has completed the quest
+     */
+    public boolean hasCompleted(Long userId, String questId) {
+        return Arrays.binarySearch(completedQuestIds(userId), questId) >= 0;
+    }
+
+    /**
+     * Add a quest the user just completed to their cached set
+     */
+    public void recordCompleted(Long userId, String questId) {
+        completedByUser.asMap().computeIfPresent(userId, (id, ids) -> {
+            int at = Arrays.binarySearch(ids, questId);
+            if (at >= 0) {
+                return ids;
+            }
+            int insertAt = -at - 1;
+            String[] extended = new String[ids.length + 1];
+            System.arraycopy(ids, 0, extended, 0, insertAt);
+            extended[insertAt] = questId;
+            System.arraycopy(ids, insertAt, extended, insertAt + 1, ids.length - insertAt);
+            return extended;
+        });
+    }
+
+    private String[] completedQuestIds(Long userId) {
+        return completedByUser.get(userId, id -> {
+            String[] ids = questProgressRepository.findQuestIdsByUserIdAndStatus(id, QuestStatus.COMPLETED).stream()
+                    .map(UserQuestProgress::getQuestId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .sorted()
+                    .toArray(String[]::new);
+            return ids.length == 0 ? NONE : ids;
+        });
+    }
+
+    // ===============================
+    // INTERVAL INDEX
+    // ===============================
+
+    /**
+     * Segment i covers [boundaries[i], boundaries[i + 1]); its quests are sorted by level
+     */
+    private record Snapshot(Instant[] boundaries, Quest[][] active, int[][] levels, int quests) {
+
+        static Snapshot of(List<Quest> candidates) {
+            List<Quest> quests = candidates.stream()
+                    .filter(quest -> quest.getStartDate() != null && quest.getEndDate() != null
+                            && !quest.getEndDate().isBefore(quest.getStartDate()))
+                    .sorted(Comparator.comparingInt(Quest::getRequiredLevel))
+                    .toList();
+
+            // endDate is inclusive, so a quest leaves the active set just after it
+            TreeSet<Instant> edges = new TreeSet<>();
+            for (Quest quest : quests) {
+                edges.add(quest.getStartDate());
+                edges.add(quest.getEndDate().plusNanos(1));
+            }
+            Instant[] boundaries = edges.toArray(Instant[]::new);
+
+            // O(segments x quests), at most 2n^2: quests that have not ended number in the
+            // tens (a few generated per day and per week), so a rebuild stays cheap
+            int segments = Math.max(0, boundaries.length - 1);
+            Quest[][] active = new Quest[segments][];
+            int[][] levels = new int[segments][];
+            for (int i = 0; i < segments; i++) {
+                Instant from = boundaries[i];
+                List<Quest> inSegment = new ArrayList<>();
+                for (Quest quest : quests) {
+                    if (!quest.getStartDate().isAfter(from) && !quest.getEndDate().isBefore(from)) {
+                        inSegment.add(quest);
+                    }
+                }
+                active[i] = inSegment.toArray(Quest[]::new);
+                levels[i] = inSegment.stream().mapToInt(Quest::getRequiredLevel).toArray();
+            }
+            return new Snapshot(boundaries, active, levels, quests.size());
+        }
+
+        List<Quest> activeAt(Instant at, int level) {
+            int found = Arrays.binarySearch(boundaries, at);
+            int segment = found >= 0 ? found : -found - 2;
+            if (segment < 0 || segment >= active.length) {
+                return List.of();
+            }
+            int count = upperBound(levels[segment], level);
+            return count == 0 ? List.of() : List.of(Arrays.copyOf(active[segment], count));
+        }
+
+        int segments() {
+            return active.length;
+        }
+
+        /**
+         * Number of entries <= value in an ascending array
+         */
+        private static int upperBound(int[] sorted, int value) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -8,6 +8,9 @@ import com.muscledia.Gamification_service.model.enums.QuestType;
 import com.muscledia.Gamification_service.model.enums.ObjectiveType;
 import com.muscledia.Gamification_service.repository.QuestRepository;
 import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.repository.UserQuestProgressRepository;
+import com.muscledia.Gamification_service.repository.projection.GroupCount;
+import com.muscledia.Gamification_service.repository.projection.QuestStatisticsFacet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -17,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,9 +28,16 @@ import java.util.stream.Collectors;
 @ConditionalOnProperty(value = "gamification.mongodb.enabled", havingValue = "true")
 public class QuestService {
 
+    private static final String QUESTS_COLLECTION = "quests";
+
     private final QuestRepository questRepository;
     private final UserGamificationProfileRepository userProfileRepository;
+    private final UserQuestProgressRepository questProgressRepository;
+    private final ProfileDetailsService profileDetails;
     private final RewardProcessor rewardProcessor;
+    private final CatalogStatisticsCache statisticsCache;
+    private final ExpirySweepService expirySweepService;
+    private final QuestCatalogIndex questIndex;
 
     /**
      * Create a new quest
@@ -57,16 +68,12 @@ public class QuestService {
         UserGamificationProfile userProfile = userProfileRepository.findByUserId(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId));
 
-        Instant now = Instant.now();
-
-        // Get all active quests suitable for user level
-        List<Quest> activeQuests = questRepository.findActiveQuestsForUserLevel(now, userProfile.getLevel());
+        // Active quests suitable for the user level, from the in-memory quest index
+        List<Quest> activeQuests = questIndex.activeQuests(Instant.now(), userProfile.getLevel());
 
         // Filter out already completed non-repeatable quests
-        Set<String> completedQuestIds = getUserCompletedQuestIds(userProfile);
-
         return activeQuests.stream()
-                .filter(quest -> quest.isRepeatable() || !completedQuestIds.contains(quest.getId()))
+                .filter(quest -> quest.isRepeatable() || !questIndex.hasCompleted(userId, quest.getId()))
                 .collect(Collectors.toList());
     }
 
@@ -83,7 +90,7 @@ public class QuestService {
         } else if (objectiveType != null) {
             return questRepository.findByObjectiveType(objectiveType);
         } else if (userLevel != null) {
-            return questRepository.findActiveQuestsForUserLevel(now, userLevel);
+            return questIndex.activeQuests(now, userLevel);
         } else {
             return questRepository.findActiveQuests(now);
         }
@@ -109,31 +116,16 @@ public class QuestService {
                             userProfile.getLevel(), quest.getRequiredLevel(), quest.getName()));
         }
 
-        List<UserQuestProgress> userQuests = userProfile.getQuests();
-        if (userQuests == null) {
-            userQuests = new ArrayList<>();
-            userProfile.setQuests(userQuests);
-        }
-
         // Check if user already has this quest in progress
-        boolean questInProgress = userQuests.stream()
-                .anyMatch(questProgress -> questProgress.getQuestId().equals(questId) &&
-                        QuestStatus.IN_PROGRESS.equals(questProgress.getStatus()));
+        boolean questInProgress = questProgressRepository.existsByUserIdAndQuestIdAndStatus(
+                userId, questId, QuestStatus.IN_PROGRESS);
 
         if (questInProgress) {
             throw new IllegalArgumentException("Quest is already in progress for this user");
         }
 
         // Create new quest progress
-        UserQuestProgress questProgress = new UserQuestProgress();
-        questProgress.setQuestId(questId);
-        questProgress.setObjectiveProgress(0);
-        questProgress.setStatus(QuestStatus.IN_PROGRESS);
-        questProgress.setStartDate(Instant.now());
-        questProgress.setCreatedAt(Instant.now());
-
-        userQuests.add(questProgress);
-        userProfileRepository.save(userProfile);
+        UserQuestProgress questProgress = questProgressRepository.save(newQuestProgress(userId, questId));
 
         log.info("Successfully started quest {} for user {}", questId, userId);
         return questProgress;
@@ -153,37 +145,30 @@ public class QuestService {
         Quest quest = questRepository.findById(questId)
                 .orElseThrow(() -> new IllegalArgumentException("Quest not found: " + questId));
 
-        List<UserQuestProgress> userQuests = userProfile.getQuests();
-        if (userQuests == null) {
-            userQuests = new ArrayList<>();
-            userProfile.setQuests(userQuests);
-        }
-
-        // Find existing quest progress or create new one
-        UserQuestProgress questProgress = userQuests.stream()
-                .filter(q -> questId.equals(q.getQuestId()))
-                .findFirst()
-                .orElse(null);
-
-        if (questProgress == null) {
-            // Create new quest progress
-            questProgress = new UserQuestProgress();
-            questProgress.setQuestId(questId);
-            questProgress.setObjectiveProgress(0);
-            questProgress.setStatus(QuestStatus.IN_PROGRESS);
-            questProgress.setStartDate(Instant.now());
-            questProgress.setCreatedAt(Instant.now());
-            userQuests.add(questProgress);
-        }
+        // Find existing quest progress or create new one (a repeatable quest restarts once completed)
+        UserQuestProgress questProgress = questProgressRepository
+                .findFirstByUserIdAndQuestIdOrderByStartDateDesc(userId, questId)
+                .filter(existing -> !quest.isRepeatable() || !QuestStatus.COMPLETED.equals(existing.getStatus()))
+                .orElseGet(() -> newQuestProgress(userId, questId));
+        boolean wasCompleted = QuestStatus.COMPLETED.equals(questProgress.getStatus());
 
         // Update progress
         int newProgress = questProgress.getObjectiveProgress() + progressIncrement;
         questProgress.setObjectiveProgress(newProgress);
 
         // Check if quest is completed
-        if (newProgress >= quest.getObjectiveTarget()) {
+        boolean completedNow = !wasCompleted && newProgress >= quest.getObjectiveTarget();
+        if (completedNow) {
             questProgress.setStatus(QuestStatus.COMPLETED);
             questProgress.setCompletionDate(Instant.now());
+        }
+
+        // Save the progress document only; the profile is not rewritten
+        UserQuestProgress savedProgress = questProgressRepository.save(questProgress);
+
+        if (completedNow) {
+            profileDetails.recordQuestCompleted(userId, questId);
+            questIndex.recordCompleted(userId, questId);
 
             // REFACTORED: Use RewardProcessor instead of direct manipulation
             awardQuestRewards(userProfile, quest);
@@ -191,10 +176,7 @@ public class QuestService {
             log.info("Quest {} completed by user {}", questId, userId);
         }
 
-        // Save updated profile
-        userProfileRepository.save(userProfile);
-
-        return questProgress;
+        return savedProgress;
     }
 
     /**
@@ -204,27 +186,38 @@ public class QuestService {
     public UserGamificationProfile completeQuest(Long userId, String questId) {
         log.info("Completing quest {} for user {}", questId, userId);
 
-        UserGamificationProfile userProfile = userProfileRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId));
+        if (!userProfileRepository.existsByUserId(userId)) {
+            throw new IllegalArgumentException("User profile not found: " + userId);
+        }
 
         Quest quest = questRepository.findById(questId)
                 .orElseThrow(() -> new IllegalArgumentException("Quest not found: " + questId));
 
-        // REFACTORED: Use RewardProcessor instead of direct point manipulation
-        rewardProcessor.awardPoints(userId, quest.getPointsReward());
-
         // Update quest progress to completed
-        List<UserQuestProgress> userQuests = userProfile.getQuests();
-        if (userQuests != null) {
-            userQuests.stream()
-                    .filter(q -> questId.equals(q.getQuestId()))
-                    .forEach(q -> {
-                        q.setStatus(QuestStatus.COMPLETED);
-                        q.setCompletionDate(Instant.now());
-                    });
+        Instant now = Instant.now();
+        List<UserQuestProgress> open = questProgressRepository.findByUserId(userId).stream()
+                .filter(q -> questId.equals(q.getQuestId()) && !QuestStatus.COMPLETED.equals(q.getStatus()))
+                .toList();
+
+        // Rewards and the completion counter only follow a progress entry that changed to COMPLETED
+        if (open.isEmpty()) {
+            log.info("Quest {} has no open progress for user {}; nothing to complete", questId, userId);
+        } else {
+            open.forEach(q -> {
+                q.setStatus(QuestStatus.COMPLETED);
+                q.setCompletionDate(now);
+            });
+            questProgressRepository.saveAll(open);
+            profileDetails.recordQuestCompleted(userId, questId);
+            questIndex.recordCompleted(userId, questId);
+
+            // REFACTORED: Use RewardProcessor instead of direct point manipulation
+            rewardProcessor.awardPoints(userId, quest.getPointsReward());
         }
 
-        UserGamificationProfile savedProfile = userProfileRepository.save(userProfile);
+        // Re-read so the returned profile includes the awarded points and completion counter
+        UserGamificationProfile savedProfile = userProfileRepository.findByUserId(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId));
         log.info("Quest {} completed for user {}", questId, userId);
         return savedProfile;
     }
@@ -235,24 +228,19 @@ public class QuestService {
     public List<UserQuestProgress> getUserQuestProgress(Long userId, QuestStatus status) {
         log.info("Getting quest progress for user {} with status {}", userId, status);
 
-        UserGamificationProfile userProfile = userProfileRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User profile not found: " + userId));
-
-        List<UserQuestProgress> allQuests = userProfile.getQuests();
-
-        if (allQuests == null || allQuests.isEmpty()) {
-            log.debug("No quest progress found for user {}", userId);
-            return new ArrayList<>();
+        if (!userProfileRepository.existsByUserId(userId)) {
+            throw new IllegalArgumentException("User profile not found: " + userId);
         }
 
         // Filter by status if provided
-        if (status != null) {
-            return allQuests.stream()
-                    .filter(quest -> status.equals(quest.getStatus()))
-                    .toList();
-        }
+        List<UserQuestProgress> quests = status != null
+                ? questProgressRepository.findByUserIdAndStatus(userId, status)
+                : profileDetails.details(userId).quests();
 
-        return new ArrayList<>(allQuests);
+        if (quests.isEmpty()) {
+            log.debug("No quest progress found for user {}", userId);
+        }
+        return new ArrayList<>(quests);
     }
 
     /**
@@ -277,40 +265,31 @@ public class QuestService {
     }
 
     /**
-     * Get quest statistics
+     * Get quest statistics - one $facet aggregation, cached until the quest catalog changes
+     * or the next quest starts/ends (which shifts the active/upcoming/expired split)
      */
     public Map<String, Object> getQuestStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-
-        Instant now = Instant.now();
-
-        long totalQuests = questRepository.count();
-        stats.put("totalQuests", totalQuests);
-
-        long activeQuests = questRepository.findActiveQuests(now).size();
-        stats.put("activeQuests", activeQuests);
-
-        long upcomingQuests = questRepository.findUpcomingQuests(now).size();
-        stats.put("upcomingQuests", upcomingQuests);
-
-        long expiredQuests = questRepository.findExpiredQuests(now).size();
-        stats.put("expiredQuests", expiredQuests);
-
-        // Count by quest type
-        Map<QuestType, Long> questTypeCount = new HashMap<>();
-        for (QuestType type : QuestType.values()) {
-            questTypeCount.put(type, (long) questRepository.findByQuestType(type).size());
-        }
-        stats.put("questsByType", questTypeCount);
-
-        // Count by objective type
-        Map<ObjectiveType, Long> objectiveTypeCount = new HashMap<>();
-        for (ObjectiveType type : ObjectiveType.values()) {
-            objectiveTypeCount.put(type, (long) questRepository.findByObjectiveType(type).size());
-        }
-        stats.put("questsByObjectiveType", objectiveTypeCount);
-
-        return stats;
+        return statisticsCache.get(QUESTS_COLLECTION, () -> {
+            QuestStatisticsFacet facet = questRepository.aggregateStatistics(Instant.now());
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("totalQuests", GroupCount.single(facet.total()));
+            stats.put("activeQuests", GroupCount.single(facet.active()));
+            stats.put("upcomingQuests", GroupCount.single(facet.upcoming()));
+            stats.put("expiredQuests", GroupCount.single(facet.expired()));
+            stats.put("questsByType", GroupCount.byEnum(QuestType.class, facet.byQuestType()));
+            stats.put("questsByObjectiveType", GroupCount.byEnum(ObjectiveType.class, facet.byObjectiveType()));
+
+            Instant validUntil = Stream.of(facet.nextStart(), facet.nextEnd())
+                    .filter(Objects::nonNull)
+                    .flatMap(List::stream)
+                    .map(QuestStatisticsFacet.Boundary::at)
+                    .filter(Objects::nonNull)
+                    .min(Comparator.naturalOrder())
+                    .orElse(null);
+
+            return new CatalogStatisticsCache.Snapshot(stats, validUntil);
+        });
     }
 
     /**
@@ -330,19 +309,14 @@ public class QuestService {
     }
 
     /**
-     * Auto-complete expired quests with progress
+     * Fail in-progress quests that have ended (set-based; not one transaction, so a large
+     * sweep is not bounded by transaction limits)
      */
-    @Transactional
     public void processExpiredQuests() {
         log.info("Processing expired quests");
 
-        List<Quest> expiredQuests = questRepository.findExpiredQuests(Instant.now());
-
-        for (Quest quest : expiredQuests) {
-            // This would iterate through users with active progress on this quest
-            // and mark them as failed or give partial rewards
-            log.info("Processing expired quest: {}", quest.getName());
-        }
+        ExpirySweepService.SweepResult result = expirySweepService.expireQuests(Instant.now());
+        log.info("Failed {} in-progress quests past their end date", result.expired());
     }
 
     /**
@@ -361,15 +335,15 @@ public class QuestService {
     /**
      * Private helper methods
      */
-    private Set<String> getUserCompletedQuestIds(UserGamificationProfile userProfile) {
-        if (userProfile.getQuests() == null) {
-            return new HashSet<>();
-        }
-
-        return userProfile.getQuests().stream()
-                .filter(quest -> QuestStatus.COMPLETED.equals(quest.getStatus()))
-                .map(UserQuestProgress::getQuestId)
-                .collect(Collectors.toSet());
+    private static UserQuestProgress newQuestProgress(Long userId, String questId) {
+        UserQuestProgress questProgress = new UserQuestProgress();
+        questProgress.setUserId(userId);
+        questProgress.setQuestId(questId);
+        questProgress.setObjectiveProgress(0);
+        questProgress.setStatus(QuestStatus.IN_PROGRESS);
+        questProgress.setStartDate(Instant.now());
+        questProgress.setCreatedAt(Instant.now());
+        return questProgress;
     }
 
     private int calculateLevel(int points) {
@@ -0,0 +1,104 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.model.StreakDeadline;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.repository.StreakDeadlineRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Maintains the streak_deadlines index: one entry per active streak, keyed by the
+ * instant the streak breaks (lastUpdate + 1 day) unless it is extended first.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StreakDeadlineService {
+
+    public static final Duration STREAK_WINDOW = Duration.ofDays(1);
+
+    private final StreakDeadlineRepository deadlineRepository;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Record the deadline of a streak after it changed; inactive streaks are removed
+     */
+    public void track(Long userId, String streakType, UserGamificationProfile.StreakData streakData) {
+        try {
+            if (isActive(streakData) && streakData.getLastUpdate() != null) {
+                deadlineRepository.save(StreakDeadline.builder()
+                        .id(deadlineId(userId, streakType))
+                        .userId(userId)
+                        .streakType(streakType)
+                        .deadline(streakData.getLastUpdate().plus(STREAK_WINDOW))
+                        .updatedAt(Instant.now())
+                        .build());
+            } else {
+                deadlineRepository.deleteById(deadlineId(userId, streakType));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to track {} streak deadline for user {}: {}", streakType, userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Record the deadlines of every streak of a profile
+     */
+    public void trackAll(UserGamificationProfile profile) {
+        if (profile.getStreaks() != null) {
+            profile.getStreaks().forEach((streakType, streakData) ->
+                    track(profile.getUserId(), streakType, streakData));
+        }
+    }
+
+    /**
+     * Drop every deadline of a user (e.g. after a progress reset)
+     */
+    public void untrackAll(Long userId) {
+        try {
+            deadlineRepository.deleteByUserId(userId);
+        } catch (Exception e) {
+            log.warn("Failed to remove streak deadlines for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Up to limit streaks whose deadline is at or before now, earliest first
+     */
+    public List<StreakDeadline> findDue(Instant now, int limit) {
+        return deadlineRepository.findByDeadlineLessThanEqualOrderByDeadline(now, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Settle a processed due entry: move it to nextDeadline, or remove it when null.
+     * Skipped when the entry was rewritten meanwhile (the streak was extended concurrently).
+     */
+    public void complete(StreakDeadline due, Instant nextDeadline) {
+        Query unchanged = Query.query(Criteria.where("_id").is(due.getId()).and("deadline").is(due.getDeadline()));
+        if (nextDeadline == null) {
+            mongoTemplate.remove(unchanged, StreakDeadline.class);
+        } else {
+            mongoTemplate.updateFirst(unchanged,
+                    new Update().set("deadline", nextDeadline).set("updatedAt", Instant.now()),
+                    StreakDeadline.class);
+        }
+    }
+
+    public static boolean isActive(UserGamificationProfile.StreakData streakData) {
+        return streakData != null && streakData.getCurrent() != null && streakData.getCurrent() > 0;
+    }
+
+    private static String deadlineId(Long userId, String streakType) {
+        return userId + ":" + streakType;
+    }
+}
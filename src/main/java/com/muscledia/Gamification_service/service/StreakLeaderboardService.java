@@ -0,0 +1,259 @@
+package com.muscledia.Gamification_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muscledia.Gamification_service.exception.ResourceNotFoundException;
+import com.muscledia.Gamification_service.model.StreakLeaderboard;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.model.UserStreak;
+import com.muscledia.Gamification_service.repository.StreakLeaderboardRepository;
+import com.muscledia.Gamification_service.repository.UserStreakRepository;
+import com.muscledia.Gamification_service.repository.projection.StreakLeaderRow;
+import com.muscledia.Gamification_service.repository.projection.StreakValueCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Materialized per-streak-type leaderboards.
+ *
+ * The scheduled job reads user_streaks per streak type and metric (a value histogram and
+ * the top-N rows, both from the type + metric index) and persists the result; the
+ * leaderboard endpoints read that document instead of sorting profiles on a dynamic map
+ * path, and rows past the top-N are ranked against its value table via getRank.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StreakLeaderboardService {
+
+    /**
+     * Streak types with a materialized leaderboard (keys of the profile streaks map)
+     */
+    public static final Set<String> STREAK_TYPES = Set.of("workout", "login");
+
+    private final MongoTemplate mongoTemplate;
+    private final StreakLeaderboardRepository leaderboardRepository;
+    private final UserStreakRepository streakRepository;
+
+    @Value("${gamification.leaderboards.streak-top-size:100}")
+    private int topSize;
+
+    // Materialized documents change only when the job runs; re-read at most once a minute
+    private final Cache<String, Optional<StreakLeaderboard>> leaderboards = Caffeine.newBuilder()
+            .maximumSize(64)
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .build();
+
+    public enum Metric {
+        CURRENT("current"), LONGEST("longest");
+
+        private final String field;
+
+        Metric(String field) {
+            this.field = field;
+        }
+
+        public String field() {
+            return field;
+        }
+    }
+
+    // ===========================================
+    // READ SIDE
+    // ===========================================
+
+    /**
+     * Top entries of a streak leaderboard; materialized on first request if the job has not run yet
+     */
+    public List<StreakLeaderboard.Entry> getTop(String streakType, Metric metric, int limit) {
+        requireKnownStreakType(streakType);
+        StreakLeaderboard leaderboard = getLeaderboard(streakType, metric);
+        List<StreakLeaderboard.Entry> entries = leaderboard.getEntries() != null
+                ? leaderboard.getEntries()
+                : Collections.emptyList();
+        return entries.subList(0, Math.min(Math.max(limit, 0), entries.size()));
+    }
+
+    /**
+     * Rank (1 = best, ties share a rank) of a streak value on the materialized leaderboard
+     */
+    public long getRank(String streakType, Metric metric, int value) {
+        requireKnownStreakType(streakType);
+        StreakLeaderboard leaderboard = getLeaderboard(streakType, metric);
+        List<Integer> values = leaderboard.getRankValues();
+        List<Long> above = leaderboard.getUsersAbove();
+        long unranked = (leaderboard.getTotalUsers() != null ? leaderboard.getTotalUsers() : 0L) + 1;
+        if (values == null || values.isEmpty() || value <= 0) {
+            return unranked;
+        }
+
+        // Values are descending: find the first position whose value is <= the given value
+        int low = 0;
+        int high = values.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values.get(mid) > value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < values.size() ? above.get(low) + 1 : unranked;
+    }
+
+    /**
+     * Largest limit served from the materialized top-N
+     */
+    public int getTopSize() {
+        return topSize;
+    }
+
+    // ===========================================
+    // MATERIALIZATION
+    // ===========================================
+
+    /**
+     * Recompute and persist both leaderboards of a streak type
+     */
+    public void materialize(String streakType) {
+        requireKnownStreakType(streakType);
+        for (Metric metric : Metric.values()) {
+            StreakLeaderboard leaderboard = compute(streakType, metric);
+            leaderboardRepository.save(leaderboard);
+            leaderboards.put(leaderboard.getId(), Optional.of(leaderboard));
+            log.info("Materialized {} {} streak leaderboard: {} ranked users, top {}",
+                    streakType, metric.field(), leaderboard.getTotalUsers(), leaderboard.getEntries().size());
+        }
+    }
+
+    private StreakLeaderboard getLeaderboard(String streakType, Metric metric) {
+        String id = leaderboardId(streakType, metric);
+        Optional<StreakLeaderboard> cached = leaderboards.get(id, leaderboardRepository::findById);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        log.info("No materialized {} streak leaderboard yet, computing on demand", streakType);
+        materialize(streakType);
+        return leaderboards.get(id, leaderboardRepository::findById)
+                .orElseGet(() -> compute(streakType, metric));
+    }
+
+    private StreakLeaderboard compute(String streakType, Metric metric) {
+        String field = metric.field();
+        Criteria ranked = Criteria.where("type").is(streakType).and(field).gt(0);
+
+        // Histogram of values -> rank table (covered by the type + metric index of user_streaks)
+        List<StreakValueCount> histogram = mongoTemplate.aggregate(Aggregation.newAggregation(
+                        Aggregation.match(ranked),
+                        Aggregation.group(field).count().as("count"),
+                        Aggregation.sort(Sort.Direction.DESC, "_id")),
+                UserStreak.class, StreakValueCount.class).getMappedResults();
+
+        List<Integer> rankValues = new ArrayList<>(histogram.size());
+        List<Long> usersAbove = new ArrayList<>(histogram.size());
+        long total = 0;
+        for (StreakValueCount bucket : histogram) {
+            if (bucket.id() == null) {
+                continue;
+            }
+            rankValues.add(bucket.id());
+            usersAbove.add(total);
+            total += bucket.count();
+        }
+
+        // Top-N streaks from the index, then the display fields of just those profiles
+        PageRequest top = PageRequest.of(0, topSize);
+        List<UserStreak> streaks = metric == Metric.CURRENT
+                ? streakRepository.findTopByCurrent(streakType, top)
+                : streakRepository.findTopByLongest(streakType, top);
+        Map<Long, StreakLeaderRow> profiles = loadRows(streaks);
+
+        // Ranked against the table so ties share a rank
+        List<StreakLeaderboard.Entry> entries = new ArrayList<>(streaks.size());
+        int position = 0;
+        for (UserStreak streak : streaks) {
+            StreakLeaderRow row = profiles.get(streak.getUserId());
+            if (row == null) {
+                continue;
+            }
+            Integer streakValue = metric == Metric.CURRENT ? streak.getCurrent() : streak.getLongest();
+            int value = streakValue != null ? streakValue : 0;
+            // Rows follow the histogram order, so advance to this row's value
+            while (position < rankValues.size() - 1 && rankValues.get(position) > value) {
+                position++;
+            }
+            entries.add(StreakLeaderboard.Entry.builder()
+                    .rank((int) (usersAbove.isEmpty() ? entries.size() + 1 : usersAbove.get(position) + 1))
+                    .userId(row.userId())
+                    .username(row.username())
+                    .value(value)
+                    .points(row.points())
+                    .level(row.level())
+                    .totalWorkouts(row.totalWorkoutsCompleted())
+                    .totalBadges(row.badgeCount())
+                    .build());
+        }
+
+        return StreakLeaderboard.builder()
+                .id(leaderboardId(streakType, metric))
+                .streakType(streakType)
+                .metric(metric.field())
+                .entries(entries)
+                .rankValues(rankValues)
+                .usersAbove(usersAbove)
+                .totalUsers(total)
+                .computedAt(Instant.now())
+                .build();
+    }
+
+    private Map<Long, StreakLeaderRow> loadRows(List<UserStreak> streaks) {
+        if (streaks.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> userIds = streaks.stream().map(UserStreak::getUserId).toList();
+        List<StreakLeaderRow> rows = mongoTemplate.aggregate(Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("userId").in(userIds)),
+                        Aggregation.project("userId", "username", "points", "level", "totalWorkoutsCompleted")
+                                .and(ArrayOperators.Size.lengthOfArray(
+                                        ConditionalOperators.ifNull("earnedBadges").then(Collections.emptyList())))
+                                .as("badgeCount")),
+                UserGamificationProfile.class, StreakLeaderRow.class).getMappedResults();
+
+        return rows.stream().collect(Collectors.toMap(StreakLeaderRow::userId, Function.identity(), (a, b) -> a));
+    }
+
+    /**
+     * Only known types are served, so a request cannot trigger materializing an arbitrary type
+     */
+    public void requireKnownStreakType(String streakType) {
+        if (streakType == null || !STREAK_TYPES.contains(streakType)) {
+            throw new ResourceNotFoundException("Streak leaderboard", streakType);
+        }
+    }
+
+    private static String leaderboardId(String streakType, Metric metric) {
+        return streakType + ":" + metric.field();
+    }
+}
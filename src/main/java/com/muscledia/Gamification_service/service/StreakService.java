@@ -4,19 +4,31 @@ import com.muscledia.Gamification_service.event.StreakUpdatedEvent;
 import com.muscledia.Gamification_service.event.publisher.EventPublisher;
 import com.muscledia.Gamification_service.model.UserGamificationProfile;
 import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.service.profile.ProfileUpdateExecutor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
 import java.time.Instant;
-import java.time.YearMonth;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +38,9 @@ public class StreakService {
     private final UserGamificationProfileRepository userProfileRepository;
     private final LeaderboardChangeDetectionService leaderboardDetection;
     private final EventPublisher eventPublisher;
+    private final MongoTemplate mongoTemplate;
+    private final CalendarService calendar;
+    private final ProfileUpdateExecutor profileUpdates;
 
     /**
      * Update both weekly and monthly streaks when a workout is completed
@@ -33,27 +48,24 @@ public class StreakService {
      */
     @Transactional
     public StreakUpdateResult updateStreaks(Long userId, Instant workoutCompletedAt) {
-        log.info("Updating streaks for user {} at {}", userId, workoutCompletedAt);
-
-        UserGamificationProfile profile = userProfileRepository.findByUserId(userId)
-                .orElseGet(() -> createNewProfile(userId));
-
-        // Capture old values for leaderboard change detection
-        int oldWeeklyStreak = profile.getWeeklyStreak() != null ? profile.getWeeklyStreak() : 0;
-        int oldMonthlyStreak = profile.getMonthlyStreak() != null ? profile.getMonthlyStreak() : 0;
-
-        // Update weekly streak
-        updateWeeklyStreak(profile, workoutCompletedAt);
+        return updateStreaks(userId, workoutCompletedAt, null);
+    }
 
-        // Update monthly streak
-        updateMonthlyStreak(profile, workoutCompletedAt);
+    /**
+     * Update streaks in the user's calendar; a valid reported zone id is stored on the profile
+     */
+    @Transactional
+    public StreakUpdateResult updateStreaks(Long userId, Instant workoutCompletedAt, String reportedTimeZone) {
+        log.info("Updating streaks for user {} at {}", userId, workoutCompletedAt);
 
-        // Update rest days
-        profile.setRestDaysSinceLastWorkout(0);
-        profile.setLastWorkoutDate(workoutCompletedAt);
-        profile.setLastUpdated(Instant.now());
+        // Re-applied to a fresh read if another writer saved the profile concurrently
+        AppliedWorkout applied = profileUpdates.execute(
+                () -> userProfileRepository.findByUserId(userId).orElseGet(() -> createNewProfile(userId)),
+                current -> applyWorkout(current, workoutCompletedAt, reportedTimeZone));
 
-        userProfileRepository.save(profile);
+        UserGamificationProfile profile = applied.profile();
+        int oldWeeklyStreak = applied.oldWeeklyStreak();
+        int oldMonthlyStreak = applied.oldMonthlyStreak();
 
         // Get new values
         int newWeeklyStreak = profile.getWeeklyStreak() != null ? profile.getWeeklyStreak() : 0;
@@ -66,12 +78,12 @@ public class StreakService {
         // ⬅️ PUBLISH STREAK EVENTS
         if (oldWeeklyStreak != newWeeklyStreak) {
             publishStreakEvent(userId, "WEEKLY", oldWeeklyStreak, newWeeklyStreak,
-                    profile.getLongestWeeklyStreak());
+                    profile.getLongestWeeklyStreak(), "WORKOUT_COMPLETED");
         }
 
         if (oldMonthlyStreak != newMonthlyStreak) {
             publishStreakEvent(userId, "MONTHLY", oldMonthlyStreak, newMonthlyStreak,
-                    profile.getLongestMonthlyStreak());
+                    profile.getLongestMonthlyStreak(), "WORKOUT_COMPLETED");
         }
 
         log.info("Updated streaks for user {} - Weekly: {}, Monthly: {}",
@@ -89,11 +101,40 @@ public class StreakService {
                 .build();
     }
 
+    private AppliedWorkout applyWorkout(UserGamificationProfile profile, Instant workoutCompletedAt,
+                                        String reportedTimeZone) {
+        ZoneId reportedZone = calendar.parseZone(reportedTimeZone);
+        if (reportedZone != null && !reportedZone.getId().equals(profile.getTimeZone())) {
+            profile.setTimeZone(reportedZone.getId());
+        }
+        ZoneId zone = calendar.resolveZone(profile.getTimeZone());
+
+        // Capture old values for leaderboard change detection
+        int oldWeeklyStreak = profile.getWeeklyStreak() != null ? profile.getWeeklyStreak() : 0;
+        int oldMonthlyStreak = profile.getMonthlyStreak() != null ? profile.getMonthlyStreak() : 0;
+
+        // Update weekly streak
+        updateWeeklyStreak(profile, workoutCompletedAt, zone);
+
+        // Update monthly streak
+        updateMonthlyStreak(profile, workoutCompletedAt, zone);
+
+        // Update rest days
+        profile.setRestDaysSinceLastWorkout(0);
+        profile.setLastWorkoutDate(workoutCompletedAt);
+        profile.setLastUpdated(Instant.now());
+
+        return new AppliedWorkout(userProfileRepository.save(profile), oldWeeklyStreak, oldMonthlyStreak);
+    }
+
+    private record AppliedWorkout(UserGamificationProfile profile, int oldWeeklyStreak, int oldMonthlyStreak) {
+    }
+
     /**
      * Publish streak updated event
      */
     private void publishStreakEvent(Long userId, String streakType, int oldStreak,
-                                    int newStreak, int longestStreak) {
+                                    int newStreak, int longestStreak, String triggeringActivity) {
         try {
             String action = determineStreakAction(oldStreak, newStreak);
 
@@ -104,7 +145,7 @@ public class StreakService {
                     .previousStreak(oldStreak)
                     .longestStreak(longestStreak)
                     .streakAction(action)
-                    .triggeringActivity("WORKOUT_COMPLETED")
+                    .triggeringActivity(triggeringActivity)
                     .timestamp(Instant.now())
                     .build();
 
@@ -119,6 +160,113 @@ public class StreakService {
         }
     }
 
+    // ===== SCHEDULED RESETS =====
+
+    /**
+     * Reset the weekly streak of every user with no workout in the previous week.
+     * Each time zone cohort is processed from its local Monday midnight on; re-running is harmless.
+     * RETURNS: number of streaks reset
+     */
+    public long resetLapsedWeeklyStreaks(Instant now) {
+        return resetLapsedStreaks(ResetPeriod.WEEKLY, now);
+    }
+
+    /**
+     * Reset the monthly streak of every user with no workout in the previous month.
+     * Each time zone cohort is processed from its local midnight on the 1st on.
+     * RETURNS: number of streaks reset
+     */
+    public long resetLapsedMonthlyStreaks(Instant now) {
+        return resetLapsedStreaks(ResetPeriod.MONTHLY, now);
+    }
+
+    /**
+     * One server-side updateMany per due zone cohort zeroes every lapsed streak and stamps the run
+     * (with the replaced value) on the document; the stamped ids are then streamed back to publish
+     * RESET events.
+     *
+     * Every cohort is checked on every run against its own current period: the lapsed criterion
+     * only matches streaks not yet reset, so a run missed at a boundary is caught up by the next.
+     */
+    private long resetLapsedStreaks(ResetPeriod period, Instant now) {
+        Date runAt = Date.from(now.truncatedTo(ChronoUnit.MILLIS));
+
+        // $set evaluates against the pre-update document, so "previous" captures the old streak
+        AggregationUpdate reset = AggregationUpdate.update()
+                .set(period.resetField).toValue(new Document("at", runAt).append("previous", "$" + period.streakField))
+                .set(period.streakField).toValue(0)
+                .set("lastUpdated").toValue(runAt)
+                .set("version").toValue(ArithmeticOperators.valueOf(ConditionalOperators.ifNull("version").then(0L)).add(1));
+
+        long resetCount = 0;
+        for (String zoneId : zoneCohorts(period)) {
+            ZoneId zone = calendar.resolveZone(zoneId);
+            long periodOrdinal = periodOrdinal(period, now, zone);
+            Instant previousPeriodStart = periodStart(period, periodOrdinal - 1, zone);
+            // Stored starts are local midnights in the zone the user had then, which may differ
+            Instant earliestPreviousStart = periodStart(period, periodOrdinal - 1, ZoneOffset.MAX);
+            Criteria cohort = zoneId == null
+                    ? Criteria.where("timeZone").in(null, calendar.defaultZone().getId())
+                    : Criteria.where("timeZone").is(zoneId);
+
+            // Lapsed = active streak whose latest workout period started before the previous period
+            Criteria lapsed = new Criteria().andOperator(
+                    cohort,
+                    Criteria.where(period.streakField).gt(0),
+                    new Criteria().orOperator(
+                            Criteria.where(period.periodStartField).lt(earliestPreviousStart),
+                            new Criteria().andOperator(
+                                    Criteria.where(period.periodStartField).is(null),
+                                    Criteria.where("lastWorkoutDate").lt(previousPeriodStart))));
+
+            long cohortCount = mongoTemplate.updateMulti(Query.query(lapsed), reset, UserGamificationProfile.class)
+                    .getModifiedCount();
+            log.debug("Reset {} lapsed {} streaks in zone {}", cohortCount, period, zone);
+            resetCount += cohortCount;
+        }
+        log.info("Reset {} lapsed {} streaks", resetCount, period);
+
+        if (resetCount > 0) {
+            Query affected = Query.query(Criteria.where(period.resetField + ".at").is(runAt));
+            affected.fields().include("userId").include(period.resetField).include(period.longestField);
+
+            try (Stream<UserGamificationProfile> profiles = mongoTemplate.stream(affected, UserGamificationProfile.class)) {
+                Iterator<UserGamificationProfile> cursor = profiles.iterator();
+                while (cursor.hasNext()) {
+                    UserGamificationProfile profile = cursor.next();
+                    UserGamificationProfile.StreakReset streakReset = period.resetOf.apply(profile);
+                    Integer longest = period.longestOf.apply(profile);
+                    publishStreakEvent(profile.getUserId(), period.name(),
+                            streakReset != null && streakReset.getPrevious() != null ? streakReset.getPrevious() : 0,
+                            0, longest != null ? longest : 0, "SCHEDULED_RESET");
+                }
+            }
+        }
+
+        return resetCount;
+    }
+
+    /**
+     * Reported zones of users holding an active streak of this period; null = default-zone cohort
+     */
+    private List<String> zoneCohorts(ResetPeriod period) {
+        List<String> cohorts = new ArrayList<>();
+        cohorts.add(null);
+        mongoTemplate.findDistinct(Query.query(Criteria.where(period.streakField).gt(0)), "timeZone",
+                        UserGamificationProfile.class, String.class).stream()
+                .filter(zoneId -> zoneId != null && !zoneId.equals(calendar.defaultZone().getId()))
+                .forEach(cohorts::add);
+        return cohorts;
+    }
+
+    private long periodOrdinal(ResetPeriod period, Instant at, ZoneId zone) {
+        return period == ResetPeriod.WEEKLY ? calendar.weekOrdinal(at, zone) : calendar.monthOrdinal(at, zone);
+    }
+
+    private Instant periodStart(ResetPeriod period, long ordinal, ZoneId zone) {
+        return period == ResetPeriod.WEEKLY ? calendar.weekStart(ordinal, zone) : calendar.monthStart(ordinal, zone);
+    }
+
     /**
      * Determine what action occurred with the streak
      */
@@ -141,8 +289,8 @@ public class StreakService {
     /**
      * Update weekly streak (at least 1 workout per week)
      */
-    private void updateWeeklyStreak(UserGamificationProfile profile, Instant workoutDate) {
-        Instant currentWeekStart = getWeekStart(workoutDate);
+    private void updateWeeklyStreak(UserGamificationProfile profile, Instant workoutDate, ZoneId zone) {
+        long currentWeek = calendar.weekOrdinal(workoutDate, zone);
         Instant previousWeekStart = profile.getCurrentWeekStartDate();
         Instant lastWorkout = profile.getLastWorkoutDate();
 
@@ -150,32 +298,35 @@ public class StreakService {
         if (lastWorkout == null) {
             profile.setWeeklyStreak(1);
             profile.setLongestWeeklyStreak(1);
-            profile.setCurrentWeekStartDate(currentWeekStart);
+            profile.setCurrentWeekStartDate(calendar.weekStart(currentWeek, zone));
             log.info("Initialized weekly streak for user {}", profile.getUserId());
             return;
         }
 
-        // Same week - no change needed
-        if (currentWeekStart.equals(previousWeekStart)) {
+        // The stored start may be from a zone the user has since left
+        Long previousWeek = previousWeekStart != null ? calendar.weekOrdinalOfStart(previousWeekStart) : null;
+
+        // Same (or an earlier, late-delivered) week - no change needed
+        if (previousWeek != null && currentWeek <= previousWeek) {
             log.debug("Same week workout for user {}", profile.getUserId());
             return;
         }
 
         // Different week - check if consecutive
-        if (isConsecutiveWeek(previousWeekStart, currentWeekStart)) {
+        if (previousWeek != null && currentWeek == previousWeek + 1) {
             incrementWeeklyStreak(profile);
         } else {
             resetWeeklyStreak(profile);
         }
 
-        profile.setCurrentWeekStartDate(currentWeekStart);
+        profile.setCurrentWeekStartDate(calendar.weekStart(currentWeek, zone));
     }
 
     /**
      * Update monthly streak (at least 1 workout per month)
      */
-    private void updateMonthlyStreak(UserGamificationProfile profile, Instant workoutDate) {
-        Instant currentMonthStart = getMonthStart(workoutDate);
+    private void updateMonthlyStreak(UserGamificationProfile profile, Instant workoutDate, ZoneId zone) {
+        long currentMonth = calendar.monthOrdinal(workoutDate, zone);
         Instant previousMonthStart = profile.getCurrentMonthStartDate();
         Instant lastWorkout = profile.getLastWorkoutDate();
 
@@ -183,25 +334,27 @@ public class StreakService {
         if (lastWorkout == null) {
             profile.setMonthlyStreak(1);
             profile.setLongestMonthlyStreak(1);
-            profile.setCurrentMonthStartDate(currentMonthStart);
+            profile.setCurrentMonthStartDate(calendar.monthStart(currentMonth, zone));
             log.info("Initialized monthly streak for user {}", profile.getUserId());
             return;
         }
 
-        // Same month - no change needed
-        if (currentMonthStart.equals(previousMonthStart)) {
+        Long previousMonth = previousMonthStart != null ? calendar.monthOrdinalOfStart(previousMonthStart) : null;
+
+        // Same (or an earlier, late-delivered) month - no change needed
+        if (previousMonth != null && currentMonth <= previousMonth) {
             log.debug("Same month workout for user {}", profile.getUserId());
             return;
         }
 
         // Different month - check if consecutive
-        if (isConsecutiveMonth(previousMonthStart, currentMonthStart)) {
+        if (previousMonth != null && currentMonth == previousMonth + 1) {
             incrementMonthlyStreak(profile);
         } else {
             resetMonthlyStreak(profile);
         }
 
-        profile.setCurrentMonthStartDate(currentMonthStart);
+        profile.setCurrentMonthStartDate(calendar.monthStart(currentMonth, zone));
     }
 
     /**
@@ -209,69 +362,23 @@ public class StreakService {
      */
     @Transactional
     public void updateRestDays(Long userId) {
-        userProfileRepository.findByUserId(userId).ifPresent(profile -> {
-            if (profile.getLastWorkoutDate() != null) {
-                long daysSinceLastWorkout = ChronoUnit.DAYS.between(
-                        profile.getLastWorkoutDate().truncatedTo(ChronoUnit.DAYS),
-                        Instant.now().truncatedTo(ChronoUnit.DAYS)
-                );
-
-                profile.setRestDaysSinceLastWorkout((int) daysSinceLastWorkout);
-                profile.setLastUpdated(Instant.now());
-                userProfileRepository.save(profile);
-
-                log.debug("Updated rest days for user {}: {} days", userId, daysSinceLastWorkout);
+        // Re-applied to a fresh read if another writer saved the profile concurrently
+        profileUpdates.execute(() -> userProfileRepository.findByUserId(userId).orElse(null), profile -> {
+            if (profile == null || profile.getLastWorkoutDate() == null) {
+                return null;
             }
-        });
-    }
+            long daysSinceLastWorkout = ChronoUnit.DAYS.between(
+                    profile.getLastWorkoutDate().truncatedTo(ChronoUnit.DAYS),
+                    Instant.now().truncatedTo(ChronoUnit.DAYS)
+            );
 
-    /**
-     * Get week start date (Monday at 00:00)
-     */
-    private Instant getWeekStart(Instant date) {
-        ZonedDateTime zdt = date.atZone(ZoneId.systemDefault());
-        ZonedDateTime weekStart = zdt.with(DayOfWeek.MONDAY)
-                .truncatedTo(ChronoUnit.DAYS);
-        return weekStart.toInstant();
-    }
-
-    /**
-     * Get month start date (1st day at 00:00)
-     */
-    private Instant getMonthStart(Instant date) {
-        ZonedDateTime zdt = date.atZone(ZoneId.systemDefault());
-        ZonedDateTime monthStart = zdt.withDayOfMonth(1)
-                .truncatedTo(ChronoUnit.DAYS);
-        return monthStart.toInstant();
-    }
-
-    /**
-     * Check if two week start dates are consecutive
-     */
-    private boolean isConsecutiveWeek(Instant previousWeekStart, Instant currentWeekStart) {
-        if (previousWeekStart == null) {
-            return false;
-        }
-        Instant nextExpectedWeek = previousWeekStart.plus(7, ChronoUnit.DAYS);
-        return currentWeekStart.equals(nextExpectedWeek);
-    }
-
-    /**
-     * Check if two month start dates are consecutive
-     */
-    private boolean isConsecutiveMonth(Instant previousMonthStart, Instant currentMonthStart) {
-        if (previousMonthStart == null) {
-            return false;
-        }
+            profile.setRestDaysSinceLastWorkout((int) daysSinceLastWorkout);
+            profile.setLastUpdated(Instant.now());
+            UserGamificationProfile saved = userProfileRepository.save(profile);
 
-        ZonedDateTime previous = previousMonthStart.atZone(ZoneId.systemDefault());
-        ZonedDateTime current = currentMonthStart.atZone(ZoneId.systemDefault());
-
-        YearMonth previousYearMonth = YearMonth.from(previous);
-        YearMonth currentYearMonth = YearMonth.from(current);
-        YearMonth nextExpectedMonth = previousYearMonth.plusMonths(1);
-
-        return currentYearMonth.equals(nextExpectedMonth);
+            log.debug("Updated rest days for user {}: {} days", userId, daysSinceLastWorkout);
+            return saved;
+        });
     }
 
     /**
@@ -340,6 +447,34 @@ public class StreakService {
         return profile;
     }
 
+    /**
+     * Profile fields involved in resetting one streak period
+     */
+    private enum ResetPeriod {
+        WEEKLY("weeklyStreak", "longestWeeklyStreak", "currentWeekStartDate", "lastWeeklyStreakReset",
+                UserGamificationProfile::getLastWeeklyStreakReset, UserGamificationProfile::getLongestWeeklyStreak),
+        MONTHLY("monthlyStreak", "longestMonthlyStreak", "currentMonthStartDate", "lastMonthlyStreakReset",
+                UserGamificationProfile::getLastMonthlyStreakReset, UserGamificationProfile::getLongestMonthlyStreak);
+
+        private final String streakField;
+        private final String longestField;
+        private final String periodStartField;
+        private final String resetField;
+        private final Function<UserGamificationProfile, UserGamificationProfile.StreakReset> resetOf;
+        private final Function<UserGamificationProfile, Integer> longestOf;
+
+        ResetPeriod(String streakField, String longestField, String periodStartField, String resetField,
+                    Function<UserGamificationProfile, UserGamificationProfile.StreakReset> resetOf,
+                    Function<UserGamificationProfile, Integer> longestOf) {
+            this.streakField = streakField;
+            this.longestField = longestField;
+            this.periodStartField = periodStartField;
+            this.resetField = resetField;
+            this.resetOf = resetOf;
+            this.longestOf = longestOf;
+        }
+    }
+
     // ==================== RESULT CLASS ====================
 
     /**
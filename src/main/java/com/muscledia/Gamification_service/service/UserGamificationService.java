@@ -7,6 +7,7 @@ import com.muscledia.Gamification_service.exception.UserProfileException;
 import com.muscledia.Gamification_service.model.UserGamificationProfile;
 import com.muscledia.Gamification_service.model.enums.StreakType;
 import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.service.profile.ProfileUpdateExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ public class UserGamificationService {
     private final UserGamificationProfileRepository userProfileRepository;
     private final ProfileCreationService profileCreationService;
     private final ProfileUpdateService profileUpdateService;
+    private final ProfileUpdateExecutor profileUpdates;
     private final WelcomeAchievementService welcomeAchievementService;
     private final LeaderboardService leaderboardService;
     private final AnalyticsService analyticsService;
@@ -97,16 +99,16 @@ public class UserGamificationService {
     public UserGamificationProfile updateUserPoints(Long userId, int pointsToAdd) {
         log.info("Adding {} points to user {}", pointsToAdd, userId);
 
-        UserGamificationProfile profile = createOrGetUserProfile(userId);
-        return profileUpdateService.updatePoints(profile, pointsToAdd);
+        return profileUpdates.execute(() -> createOrGetUserProfile(userId),
+                profile -> profileUpdateService.updatePoints(profile, pointsToAdd));
     }
 
     @Transactional
     public UserGamificationProfile updateUserStreak(Long userId, String streakType, boolean streakContinues) {
         log.info("Updating {} streak for user {}: continues={}", streakType, userId, streakContinues);
 
-        UserGamificationProfile profile = getUserProfile(userId);
-        return profileUpdateService.updateStreak(profile, streakType, streakContinues);
+        return profileUpdates.execute(() -> getUserProfile(userId),
+                profile -> profileUpdateService.updateStreak(profile, streakType, streakContinues));
     }
 
     // ===========================================
@@ -13,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Service
@@ -30,19 +31,32 @@ public class UserJourneyProfileService {
 
     @Transactional
     public void recordChallengeCompletion(Long userId, Challenge challenge) {
-        UserJourneyProfile journey = getUserJourney(userId);
+        recordChallengeCompletions(userId, List.of(challenge));
+    }
 
-        // Update completion tracking
-        if (challenge.getTemplateId() != null) {
-            journey.getCompletedChallengeTemplates().add(challenge.getTemplateId());
-            journey.incrementChallengeCount(challenge.getTemplateId());
+    /**
+     * Several completions from one workout, applied with a single journey load and save
+     */
+    @Transactional
+    public void recordChallengeCompletions(Long userId, List<Challenge> challenges) {
+        if (challenges.isEmpty()) {
+            return;
         }
+        UserJourneyProfile journey = getUserJourney(userId);
+
+        for (Challenge challenge : challenges) {
+            // Update completion tracking
+            if (challenge.getTemplateId() != null) {
+                journey.getCompletedChallengeTemplates().add(challenge.getTemplateId());
+                journey.incrementChallengeCount(challenge.getTemplateId());
+            }
 
-        journey.updateCompletionRate(challenge.getDifficultyLevel());
+            journey.updateCompletionRate(challenge.getDifficultyLevel());
 
-        // Update preferences based on completed challenge
-        journey.addPreferredObjective(challenge.getObjectiveType());
-        journey.addJourneyTag(challenge.getUserJourneyTags());
+            // Update preferences based on completed challenge
+            journey.addPreferredObjective(challenge.getObjectiveType());
+            journey.addJourneyTag(challenge.getUserJourneyTags());
+        }
 
         // Update last completion time
         journey.setLastChallengeCompletedAt(Instant.now());
@@ -1,47 +1,169 @@
 package com.muscledia.Gamification_service.service;
 
-import com.muscledia.Gamification_service.model.UserChallenge;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muscledia.Gamification_service.model.BatchJobCheckpoint;
 import com.muscledia.Gamification_service.model.Challenge;
+import com.muscledia.Gamification_service.model.UserChallenge;
 import com.muscledia.Gamification_service.model.UserGamificationProfile;
 import com.muscledia.Gamification_service.model.UserPerformanceMetrics;
 import com.muscledia.Gamification_service.model.enums.ChallengeStatus;
 import com.muscledia.Gamification_service.model.enums.ChallengeType;
 import com.muscledia.Gamification_service.model.enums.ObjectiveType;
+import com.muscledia.Gamification_service.repository.BatchJobCheckpointRepository;
 import com.muscledia.Gamification_service.repository.ChallengeRepository;
 import com.muscledia.Gamification_service.repository.UserChallengeRepository;
+import com.muscledia.Gamification_service.repository.projection.GroupCount;
+import com.muscledia.Gamification_service.repository.projection.UserChallengePerformanceFacet;
+import com.muscledia.Gamification_service.service.scheduled.SchedulerLock;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+/**
+ * Recent challenge performance of a user, used to personalize generated challenges.
+ *
+ * Metrics come from one aggregation over the user's last 30 days of challenges, relying on
+ * the objective and type denormalized onto each user challenge at start time, and are
+ * cached per user. Starting or completing a challenge invalidates the entry; level and
+ * points are refreshed when the entry expires.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class UserPerformanceAnalyzer {
+
+    private static final Duration WINDOW = Duration.ofDays(30);
+    private static final String BACKFILL_JOB = "challenge-attributes-backfill";
+    private static final String BACKFILL_RUN = "initial";
+
     private final UserChallengeRepository userChallengeRepository;
     private final UserGamificationService gamificationService;
-    private final ChallengeRepository challengeRepository; // ADD THIS
+    private final ChallengeRepository challengeRepository;
+    private final MongoTemplate mongoTemplate;
+    private final BatchJobCheckpointRepository checkpointRepository;
+
+    @Value("${gamification.performance-metrics.cache-ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Value("${gamification.performance-metrics.cache-max-size:10000}")
+    private long cacheMaxSize;
+
+    private Cache<Long, UserPerformanceMetrics> metricsCache;
+
+    @PostConstruct
+    public void initialize() {
+        metricsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build();
+    }
 
     public UserPerformanceMetrics analyzeUser(Long userId) {
-        // Get recent challenge history (last 30 days)
-        Instant thirtyDaysAgo = Instant.now().minus(Duration.ofDays(30));
-        List<UserChallenge> recentChallenges = userChallengeRepository
-                .findByUserIdAndStartedAtAfter(userId, thirtyDaysAgo);
+        return metricsCache.get(userId, this::computeMetrics);
+    }
 
-        if (recentChallenges.isEmpty()) {
-            return createDefaultMetrics(userId);
+    /**
+     * Drop the cached metrics of a user whose challenge history changed
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            metricsCache.invalidate(userId);
         }
+    }
+
+    /**
+     * Copy objective and type onto user challenges started before they were denormalized
+     * (once, on one replica; a checkpoint marks the run done, a failed run retries next boot)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @SchedulerLock(name = BACKFILL_JOB)
+    public void backfillChallengeAttributes() {
+        String markerId = BACKFILL_JOB + ":" + BACKFILL_RUN + ":0";
+        try {
+            if (checkpointRepository.existsById(markerId)) {
+                return;
+            }
 
-        double completionRate = calculateCompletionRate(recentChallenges);
-        Map<ObjectiveType, Double> objectivePerformance = analyzeObjectivePerformance(recentChallenges);
-        int averageCompletionTime = calculateAverageCompletionTime(recentChallenges);
+            Query missing = new Query(Criteria.where("objectiveType").exists(false));
+            List<String> challengeIds = mongoTemplate.findDistinct(
+                    missing, "challengeId", UserChallenge.class, String.class);
+            if (challengeIds.isEmpty()) {
+                markBackfillCompleted(markerId, 0, 0);
+                return;
+            }
 
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserChallenge.class);
+            int updates = 0;
+            for (Challenge challenge : challengeRepository.findAllById(challengeIds)) {
+                if (challenge.getObjectiveType() == null) {
+                    continue;
+                }
+                Update update = new Update().set("objectiveType", challenge.getObjectiveType());
+                if (challenge.getType() != null) {
+                    update.set("challengeType", challenge.getType());
+                }
+                bulk.updateMulti(new Query(Criteria.where("challengeId").is(challenge.getId())
+                        .and("objectiveType").exists(false)), update);
+                updates++;
+            }
+            int modified = 0;
+            if (updates > 0) {
+                modified = bulk.execute().getModifiedCount();
+                log.info("Backfilled objective/type on {} user challenges ({} challenges)", modified, updates);
+            }
+            markBackfillCompleted(markerId, challengeIds.size(), modified);
+        } catch (Exception e) {
+            log.warn("Failed to backfill user challenge attributes: {}", e.getMessage());
+        }
+    }
+
+    private void markBackfillCompleted(String markerId, long processed, long updated) {
+        Instant now = Instant.now();
+        // No expiresAt: the checkpoint stays as the marker that the run is done
+        checkpointRepository.save(BatchJobCheckpoint.builder()
+                .id(markerId)
+                .jobName(BACKFILL_JOB)
+                .runKey(BACKFILL_RUN)
+                .rangeIndex(0)
+                .processed(processed)
+                .updated(updated)
+                .completed(true)
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private UserPerformanceMetrics computeMetrics(Long userId) {
+        Instant windowStart = Instant.now().minus(WINDOW);
+        UserChallengePerformanceFacet facet = userChallengeRepository.aggregatePerformance(userId, windowStart);
+
+        UserChallengePerformanceFacet.Totals totals = facet == null || facet.totals() == null || facet.totals().isEmpty()
+                ? null
+                : facet.totals().get(0);
+        if (totals == null || totals.attempted() == 0) {
+            return createDefaultMetrics(userId);
+        }
+
+        double completionRate = (double) totals.completed() / totals.attempted();
+        int consecutive = calculateConsecutiveCompletions(statuses(facet));
         UserGamificationProfile profile = gamificationService.getUserProfile(userId);
 
         return UserPerformanceMetrics.builder()
@@ -49,19 +171,16 @@ public class UserPerformanceAnalyzer {
                 .recentCompletionRate(completionRate)
                 .currentLevel(profile.getLevel())
                 .totalPoints(profile.getPoints())
-                .objectivePerformance(objectivePerformance)
-                .averageCompletionTimeHours(averageCompletionTime)
-                .consecutiveCompletions(calculateConsecutiveCompletions(recentChallenges))
-                .preferredChallengeTypes(analyzePreferredTypes(recentChallenges))
-                .totalChallengesAttempted(recentChallenges.size())
-                .totalChallengesCompleted((int) recentChallenges.stream()
-                        .filter(c -> c.getStatus() == ChallengeStatus.COMPLETED)
-                        .count())
-                .consistencyScore(calculateConsistencyScore(recentChallenges))
+                .objectivePerformance(objectivePerformance(facet.byObjective()))
+                .averageCompletionTimeHours((int) (totals.completionHours() / Math.max(1, totals.attempted())))
+                .consecutiveCompletions(consecutive)
+                .preferredChallengeTypes(preferredTypes(facet.completedByType()))
+                .totalChallengesAttempted((int) totals.attempted())
+                .totalChallengesCompleted((int) totals.completed())
+                .consistencyScore(calculateConsistencyScore(completionRate, consecutive))
                 .build();
     }
 
-    // ADD MISSING METHODS
     private UserPerformanceMetrics createDefaultMetrics(Long userId) {
         UserGamificationProfile profile = gamificationService.getUserProfile(userId);
 
@@ -80,45 +199,60 @@ public class UserPerformanceAnalyzer {
                 .build();
     }
 
-    private double calculateCompletionRate(List<UserChallenge> challenges) {
-        if (challenges.isEmpty()) return 0.0;
-
-        long completed = challenges.stream()
-                .filter(c -> c.getStatus() == ChallengeStatus.COMPLETED)
-                .count();
-        return (double) completed / challenges.size();
-    }
-
-    private Map<ObjectiveType, Double> analyzeObjectivePerformance(List<UserChallenge> challenges) {
-        return challenges.stream()
-                .filter(c -> c.getStatus() == ChallengeStatus.COMPLETED)
-                .collect(Collectors.groupingBy(
-                        this::getChallengeObjectiveType,
-                        Collectors.averagingDouble(c ->
-                                (double) c.getCurrentProgress() / c.getTargetValue())));
+    /**
+     * Challenges whose challenge document is gone (never backfilled) count as EXERCISES
+     */
+    private Map<ObjectiveType, Double> objectivePerformance(List<UserChallengePerformanceFacet.ObjectiveRatio> buckets) {
+        Map<ObjectiveType, Double> performance = new EnumMap<>(ObjectiveType.class);
+        if (buckets == null) {
+            return performance;
+        }
+        Double unknown = null;
+        for (UserChallengePerformanceFacet.ObjectiveRatio bucket : buckets) {
+            if (bucket.averageProgressRatio() == null) {
+                continue;
+            }
+            if (bucket.id() == null) {
+                unknown = bucket.averageProgressRatio();
+                continue;
+            }
+            try {
+                performance.put(ObjectiveType.valueOf(bucket.id()), bucket.averageProgressRatio());
+            } catch (IllegalArgumentException ignored) {
+                // Stale value no longer present in the enum
+            }
+        }
+        if (unknown != null) {
+            performance.putIfAbsent(ObjectiveType.EXERCISES, unknown);
+        }
+        return performance;
     }
 
-    private ObjectiveType getChallengeObjectiveType(UserChallenge userChallenge) {
-        // Get the challenge and return its objective type
-        return challengeRepository.findById(userChallenge.getChallengeId())
-                .map(Challenge::getObjectiveType)
-                .orElse(ObjectiveType.EXERCISES); // Default fallback
+    /**
+     * Types completed at least twice
+     */
+    private Set<ChallengeType> preferredTypes(List<GroupCount> completedByType) {
+        Set<ChallengeType> preferred = EnumSet.noneOf(ChallengeType.class);
+        GroupCount.byEnum(ChallengeType.class, completedByType).forEach((type, count) -> {
+            if (count > 1) {
+                preferred.add(type);
+            }
+        });
+        return preferred;
     }
 
-    private int calculateAverageCompletionTime(List<UserChallenge> challenges) {
-        return challenges.stream()
-                .filter(c -> c.getStatus() == ChallengeStatus.COMPLETED)
-                .filter(c -> c.getCompletedAt() != null && c.getStartedAt() != null)
-                .mapToInt(c -> (int) Duration.between(c.getStartedAt(), c.getCompletedAt()).toHours())
-                .reduce(0, Integer::sum) / Math.max(1, challenges.size());
+    private static List<String> statuses(UserChallengePerformanceFacet facet) {
+        return facet.outcomes() == null || facet.outcomes().isEmpty() || facet.outcomes().get(0).statuses() == null
+                ? List.of()
+                : facet.outcomes().get(0).statuses();
     }
 
-    private int calculateConsecutiveCompletions(List<UserChallenge> challenges) {
+    private int calculateConsecutiveCompletions(List<String> statuses) {
         int consecutive = 0;
         int current = 0;
 
-        for (UserChallenge challenge : challenges) {
-            if (challenge.getStatus() == ChallengeStatus.COMPLETED) {
+        for (String status : statuses) {
+            if (ChallengeStatus.COMPLETED.name().equals(status)) {
                 current++;
                 consecutive = Math.max(consecutive, current);
             } else {
@@ -129,32 +263,8 @@ public class UserPerformanceAnalyzer {
         return consecutive;
     }
 
-    private Set<ChallengeType> analyzePreferredTypes(List<UserChallenge> challenges) {
-        Map<ChallengeType, Long> typeFrequency = challenges.stream()
-                .filter(c -> c.getStatus() == ChallengeStatus.COMPLETED)
-                .collect(Collectors.groupingBy(
-                        this::getChallengeType,
-                        Collectors.counting()));
-
-        return typeFrequency.entrySet().stream()
-                .filter(entry -> entry.getValue() > 1) // At least 2 completions
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
-    }
-
-    private ChallengeType getChallengeType(UserChallenge userChallenge) {
-        return challengeRepository.findById(userChallenge.getChallengeId())
-                .map(Challenge::getType)
-                .orElse(ChallengeType.DAILY); // Default fallback
-    }
-
-    private double calculateConsistencyScore(List<UserChallenge> challenges) {
-        if (challenges.isEmpty()) return 0.0;
-
+    private double calculateConsistencyScore(double completionRate, int consecutive) {
         // Simple consistency score based on completion rate and consecutive completions
-        double completionRate = calculateCompletionRate(challenges);
-        int consecutive = calculateConsecutiveCompletions(challenges);
-
         return (completionRate * 0.7) + (Math.min(consecutive / 10.0, 1.0) * 0.3);
     }
 }
@@ -0,0 +1,146 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.model.UserStreak;
+import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.repository.UserStreakRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the normalized user_streaks collection next to the embedded streaks map
+ * and answers per-type streak queries from it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserStreakService {
+
+    private final UserStreakRepository streakRepository;
+    private final UserGamificationProfileRepository profileRepository;
+    private final MongoTemplate mongoTemplate;
+
+    // ===========================================
+    // DUAL WRITE
+    // ===========================================
+
+    /**
+     * Mirror one streak of a profile after it changed
+     */
+    public void sync(Long userId, String streakType, UserGamificationProfile.StreakData streakData) {
+        try {
+            Update update = new Update();
+            fields(userId, streakType, streakData).forEach(update::set);
+            mongoTemplate.upsert(byId(userId, streakType), update, UserStreak.class);
+        } catch (Exception e) {
+            log.warn("Failed to sync {} streak for user {}: {}", streakType, userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Copy every streak of a profile in one bulk write; rows that already exist are left
+     * alone, since a concurrent sync() is newer than the snapshot being migrated
+     */
+    public void seedAll(UserGamificationProfile profile) {
+        if (profile.getStreaks() == null || profile.getStreaks().isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserStreak.class);
+        profile.getStreaks().forEach((streakType, streakData) -> {
+            Update seed = new Update();
+            fields(profile.getUserId(), streakType, streakData).forEach(seed::setOnInsert);
+            bulk.upsert(byId(profile.getUserId(), streakType), seed);
+        });
+        bulk.execute();
+    }
+
+    /**
+     * Drop every streak of a user (e.g. after a progress reset)
+     */
+    public void removeAll(Long userId) {
+        try {
+            streakRepository.deleteByUserId(userId);
+        } catch (Exception e) {
+            log.warn("Failed to remove streaks for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    // ===========================================
+    // QUERIES
+    // ===========================================
+
+    /**
+     * Profiles whose streak of the given type is at least minLength
+     */
+    public List<UserGamificationProfile> findUsersWithStreakLength(String streakType, int minLength) {
+        return loadProfiles(streakRepository.findUserIdsWithCurrentAtLeast(streakType, Math.max(minLength, 1)));
+    }
+
+    public List<UserGamificationProfile> findUsersWithActiveStreak(String streakType) {
+        return findUsersWithStreakLength(streakType, 1);
+    }
+
+    /**
+     * Top profiles by current streak of the given type
+     */
+    public List<UserGamificationProfile> findTopUsersByStreak(String streakType, int limit) {
+        return loadProfiles(streakRepository.findTopByCurrent(streakType, PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Top profiles by longest streak of the given type
+     */
+    public List<UserGamificationProfile> findTopUsersByLongestStreak(String streakType, int limit) {
+        return loadProfiles(streakRepository.findTopByLongest(streakType, PageRequest.of(0, limit)));
+    }
+
+    // ===========================================
+    // PRIVATE HELPERS
+    // ===========================================
+
+    /**
+     * Fetch the profiles of index-ordered streak rows in one query, keeping the row order
+     */
+    private List<UserGamificationProfile> loadProfiles(List<UserStreak> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> order = new HashMap<>(rows.size() * 2);
+        for (UserStreak row : rows) {
+            order.putIfAbsent(row.getUserId(), order.size());
+        }
+
+        return profileRepository.findByUserIdIn(order.keySet()).stream()
+                .sorted(Comparator.comparingInt(profile -> order.getOrDefault(profile.getUserId(), Integer.MAX_VALUE)))
+                .toList();
+    }
+
+    private static Query byId(Long userId, String streakType) {
+        return Query.query(Criteria.where("_id").is(userId + ":" + streakType));
+    }
+
+    private static Map<String, Object> fields(Long userId, String streakType, UserGamificationProfile.StreakData streakData) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("userId", userId);
+        fields.put("type", streakType);
+        fields.put("current", streakData.getCurrent() != null ? streakData.getCurrent() : 0);
+        fields.put("longest", streakData.getLongest() != null ? streakData.getLongest() : 0);
+        fields.put("lastUpdate", streakData.getLastUpdate());
+        return fields;
+    }
+}
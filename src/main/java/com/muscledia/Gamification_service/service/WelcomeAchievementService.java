@@ -5,6 +5,10 @@ import com.muscledia.Gamification_service.model.UserGamificationProfile;
 import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +23,7 @@ import java.time.Instant;
 public class WelcomeAchievementService {
 
     private final UserGamificationProfileRepository profileRepository;
+    private final MongoTemplate mongoTemplate;
 
     @Transactional
     public void awardWelcomeAchievement(UserGamificationProfile profile) {
@@ -35,14 +40,13 @@ public class WelcomeAchievementService {
                     .earnedAt(Instant.now())
                     .build();
 
-            // Add badge to profile
+            // Add badge and welcome points to the stored profile
+            if (!grantBadge(profile.getUserId(), welcomeBadge)) {
+                log.debug("User {} already has the welcome achievement", profile.getUserId());
+                return;
+            }
             profile.addBadge(welcomeBadge);
-
-            // Award welcome points
-            profile.setPoints(profile.getPoints() + 10);
-
-            // Save the updated profile
-            profileRepository.save(profile);
+            profile.setPoints(profile.getPoints() + welcomeBadge.getPointsAwarded());
 
             log.info("Welcome achievement awarded to user {}", profile.getUserId());
 
@@ -72,9 +76,9 @@ public class WelcomeAchievementService {
                         .earnedAt(Instant.now())
                         .build();
 
-                profile.addBadge(firstLoginBadge);
-                profile.setPoints(profile.getPoints() + 5);
-                profileRepository.save(profile);
+                if (!grantBadge(userId, firstLoginBadge)) {
+                    return;
+                }
 
                 log.info("First login achievement awarded to user {}", userId);
             }
@@ -83,4 +87,19 @@ public class WelcomeAchievementService {
                     userId, e.getMessage(), e);
         }
     }
+
+    /**
+     * Add the badge and its points in one targeted update, unless the stored profile already
+     * holds it; concurrent profile writers are not overwritten
+     */
+    private boolean grantBadge(Long userId, UserBadge badge) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("userId").is(userId).and("earnedBadges.badgeId").ne(badge.getBadgeId())),
+                new Update()
+                        .push("earnedBadges", badge)
+                        .inc("points", badge.getPointsAwarded())
+                        .set("lastUpdated", Instant.now())
+                        .inc("version", 1),
+                UserGamificationProfile.class).getModifiedCount() > 0;
+    }
 }
@@ -0,0 +1,41 @@
+package com.muscledia.Gamification_service.service.monitoring;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Readiness gate for the asynchronous challenge template load.
+ *
+ * Part of the readiness group: the instance reports OUT_OF_SERVICE while templates are
+ * loading and DOWN if the load was rejected (e.g. a prerequisite cycle). UP when no load
+ * was started, so disabling the loader does not block readiness.
+ */
+@Component
+public class ChallengeTemplatesHealthIndicator implements HealthIndicator {
+
+    private volatile Health health = Health.up().withDetail("state", "idle").build();
+
+    public void loading() {
+        health = Health.outOfService()
+                .withDetail("state", "loading")
+                .withDetail("since", Instant.now().toString())
+                .build();
+    }
+
+    public void ready(Map<String, ?> details) {
+        health = Health.up().withDetail("state", "ready").withDetails(details).build();
+    }
+
+    public void failed(String reason) {
+        health = Health.down().withDetail("state", "failed").withDetail("reason", reason).build();
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+}
@@ -0,0 +1,216 @@
+package com.muscledia.Gamification_service.service.monitoring;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.muscledia.Gamification_service.event.BaseEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Latency of the event pipeline: consume -> handler steps -> outbox enqueue -> Kafka publish.
+ *
+ * Stage timers measure the work of each step; event-age timers measure how old an event
+ * is (from its own timestamp) when it is consumed, when its effects are applied and
+ * acknowledged, and when an outbox event reaches Kafka. "applied" is the
+ * workout-to-XP-visible SLO. Consumer lag comes from the Kafka client metrics bound to
+ * the consumer factory.
+ *
+ * Event types reach the tags from payloads and stored outbox rows, so any name that is
+ * not a registered {@link BaseEvent} subtype is tagged "other".
+ */
+@Component
+@RequiredArgsConstructor
+public class EventPipelineMetrics {
+
+    public static final String STAGE_METRIC = "gamification.events.stage";
+    public static final String AGE_METRIC = "gamification.events.age";
+    public static final String OUTBOX_DEPTH_METRIC = "gamification.events.outbox.depth";
+    public static final String CONSUMER_LAG_METRIC = "kafka.consumer.fetch.manager.records.lag";
+
+    public static final String AGE_CONSUMED = "consumed";
+    public static final String AGE_APPLIED = "applied";
+    public static final String AGE_PUBLISHED = "published";
+
+    static final String OTHER_EVENT_TYPE = "other";
+    private static final Set<String> EVENT_TYPES = Arrays.stream(BaseEvent.class.getAnnotation(JsonSubTypes.class).value())
+            .map(JsonSubTypes.Type::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong outboxPending = new AtomicLong();
+    private final AtomicLong outboxRetryable = new AtomicLong();
+
+    @PostConstruct
+    public void initialize() {
+        Gauge.builder(OUTBOX_DEPTH_METRIC, outboxPending, AtomicLong::get)
+                .description("Outbox events waiting to be published, as of the last poll")
+                .tag("queue", "pending")
+                .register(meterRegistry);
+        Gauge.builder(OUTBOX_DEPTH_METRIC, outboxRetryable, AtomicLong::get)
+                .description("Failed outbox events due for retry, as of the last retry poll")
+                .tag("queue", "retry")
+                .register(meterRegistry);
+    }
+
+    // ===========================================
+    // RECORDING
+    // ===========================================
+
+    public <T> T time(String stage, String eventType, Supplier<T> step) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = step.get();
+            outcome = "success";
+            return result;
+        } finally {
+            recordStage(stage, eventType, outcome, System.nanoTime() - start);
+        }
+    }
+
+    public void time(String stage, String eventType, Runnable step) {
+        time(stage, eventType, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /**
+     * Duration of a step timed by the caller (e.g. one that throws checked exceptions)
+     */
+    public void recordStage(String stage, String eventType, String outcome, long elapsedNanos) {
+        stageTimer(stage, eventType, outcome).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Age of an event at a pipeline milestone; skewed clocks (future timestamps) count as zero
+     */
+    public void recordAge(String milestone, String eventType, Instant eventTimestamp) {
+        if (eventTimestamp == null) {
+            return;
+        }
+        Duration age = Duration.between(eventTimestamp, Instant.now());
+        ageTimer(milestone, eventType).record(age.isNegative() ? Duration.ZERO : age);
+    }
+
+    /**
+     * Size of the pending queue seen by the latest outbox poll
+     */
+    public void recordOutboxPending(long depth) {
+        outboxPending.set(depth);
+    }
+
+    /**
+     * Size of the retry queue seen by the latest retry poll
+     */
+    public void recordOutboxRetryable(long depth) {
+        outboxRetryable.set(depth);
+    }
+
+    // ===========================================
+    // READ SIDE
+    // ===========================================
+
+    /**
+     * Per-stage and per-milestone latency plus outbox depth and consumer lag, for the dashboard
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("stages", summarize(STAGE_METRIC, "stage"));
+        snapshot.put("eventAge", summarize(AGE_METRIC, "milestone"));
+        snapshot.put("outboxDepth", Map.of("pending", outboxPending.get(), "retry", outboxRetryable.get()));
+        snapshot.put("consumerLag", consumerLag());
+        return snapshot;
+    }
+
+    /**
+     * Records behind the log end per topic-partition (max over consumers of the partition)
+     */
+    public Map<String, Long> consumerLag() {
+        Map<String, Long> lag = new TreeMap<>();
+        meterRegistry.find(CONSUMER_LAG_METRIC).gauges().forEach(gauge -> {
+            String topic = gauge.getId().getTag("topic");
+            String partition = gauge.getId().getTag("partition");
+            double value = gauge.value();
+            if (topic != null && partition != null && !Double.isNaN(value)) {
+                lag.merge(topic + "-" + partition, (long) value, Math::max);
+            }
+        });
+        return lag;
+    }
+
+    public long getOutboxPending() {
+        return outboxPending.get();
+    }
+
+    // ===========================================
+    // PRIVATE HELPERS
+    // ===========================================
+
+    private Timer stageTimer(String stage, String eventType, String outcome) {
+        return Timer.builder(STAGE_METRIC)
+                .description("Time spent in one step of event processing")
+                .tag("stage", stage)
+                .tag("eventType", eventTypeTag(eventType))
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private Timer ageTimer(String milestone, String eventType) {
+        return Timer.builder(AGE_METRIC)
+                .description("Age of an event (now - event timestamp) at a pipeline milestone")
+                .tag("milestone", milestone)
+                .tag("eventType", eventTypeTag(eventType))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    static String eventTypeTag(String eventType) {
+        return eventType != null && EVENT_TYPES.contains(eventType) ? eventType : OTHER_EVENT_TYPE;
+    }
+
+    /**
+     * One row per tag value (summed over the other tags; percentiles of the busiest series)
+     */
+    private Map<String, Map<String, Object>> summarize(String metric, String key) {
+        Map<String, Map<String, Object>> rows = new TreeMap<>();
+        Map<String, Long> busiest = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(metric).timers()) {
+            String name = timer.getId().getTag(key) + "/" + timer.getId().getTag("eventType");
+            HistogramSnapshot histogram = timer.takeSnapshot();
+            Map<String, Object> row = rows.computeIfAbsent(name, ignored -> new LinkedHashMap<>());
+            long count = (long) row.getOrDefault("count", 0L) + histogram.count();
+            row.put("count", count);
+            row.put("totalMs", (double) row.getOrDefault("totalMs", 0.0) + histogram.total(TimeUnit.MILLISECONDS));
+            row.put("meanMs", count > 0 ? (double) row.get("totalMs") / count : 0.0);
+            row.put("maxMs", Math.max((double) row.getOrDefault("maxMs", 0.0), histogram.max(TimeUnit.MILLISECONDS)));
+
+            if (histogram.count() >= busiest.getOrDefault(name, -1L)) {
+                busiest.put(name, histogram.count());
+                for (ValueAtPercentile percentile : histogram.percentileValues()) {
+                    row.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+        return rows;
+    }
+}
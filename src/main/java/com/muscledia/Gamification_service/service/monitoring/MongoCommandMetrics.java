@@ -0,0 +1,332 @@
+package com.muscledia.Gamification_service.service.monitoring;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.ByteBuf;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.OutputBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver command listener recording per-command latency, returned document count and
+ * (when enabled) response size, tagged with collection, operation and the repository method
+ * that issued the command ("none" for direct MongoTemplate access).
+ *
+ * Commands slower than the sampler threshold are handed to {@link SlowQuerySampler} with
+ * their query shape. The command document cannot be retained past the callback, so only its
+ * filter / pipeline / sort bytes are copied when it starts; the redacted JSON shape is built
+ * from that copy once the command turns out to be slow.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MongoCommandMetrics implements CommandListener {
+
+    public static final String COMMAND_METRIC = "gamification.mongo.commands";
+    public static final String DOCUMENTS_METRIC = "gamification.mongo.command.documents";
+    public static final String RESPONSE_BYTES_METRIC = "gamification.mongo.command.response.bytes";
+
+    private static final Set<String> IGNORED_COMMANDS = Set.of(
+            "hello", "isMaster", "ismaster", "ping", "saslStart", "saslContinue", "buildInfo", "endSessions");
+    private static final int MAX_SHAPE_DEPTH = 6;
+    private static final int MAX_SHAPE_LENGTH = 1000;
+
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+    private final MeterRegistry meterRegistry;
+    private final SlowQuerySampler slowQuerySampler;
+
+    // Encoding every reply costs as much as the reply; off unless sizes are being investigated
+    @Value("${gamification.mongo-metrics.response-size.enabled:false}")
+    private boolean measureResponseSize;
+
+    private final Map<Integer, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private record InFlight(String collection, String operation, String repositoryMethod, BsonDocument shapeSource) {
+    }
+
+    // ===========================================
+    // LISTENER
+    // ===========================================
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String operation = event.getCommandName();
+        if (IGNORED_COMMANDS.contains(operation)) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        inFlight.put(event.getRequestId(), new InFlight(
+                collectionOf(operation, command), operation, RepositoryMethodTracker.current(), shapeSource(operation, command)));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        InFlight command = inFlight.remove(event.getRequestId());
+        if (command == null) {
+            return;
+        }
+        BsonDocument response = event.getResponse();
+        long elapsedNanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        record(command, "success", elapsedNanos);
+
+        Tags tags = tags(command);
+        DistributionSummary.builder(DOCUMENTS_METRIC)
+                .description("Documents returned or written per Mongo command")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(documentCount(response));
+        if (!measureResponseSize) {
+            return;
+        }
+        DistributionSummary.builder(RESPONSE_BYTES_METRIC)
+                .description("Encoded size of Mongo command replies")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(encodedSize(response));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        InFlight command = inFlight.remove(event.getRequestId());
+        if (command != null) {
+            record(command, "error", event.getElapsedTime(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    // ===========================================
+    // READ SIDE
+    // ===========================================
+
+    /**
+     * Database time per repository method (all collections and operations), largest first
+     */
+    public List<Map<String, Object>> topRepositoryMethods(int limit) {
+        Map<String, double[]> totals = new HashMap<>();
+        for (Timer timer : meterRegistry.find(COMMAND_METRIC).timers()) {
+            String method = timer.getId().getTag("repositoryMethod");
+            double[] total = totals.computeIfAbsent(method != null ? method : RepositoryMethodTracker.NONE,
+                    key -> new double[3]);
+            total[0] += timer.count();
+            total[1] += timer.totalTime(TimeUnit.MILLISECONDS);
+            total[2] = Math.max(total[2], timer.max(TimeUnit.MILLISECONDS));
+        }
+
+        return totals.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<String, double[]> entry) -> entry.getValue()[1]).reversed())
+                .limit(limit)
+                .map(entry -> {
+                    double[] total = entry.getValue();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("repositoryMethod", entry.getKey());
+                    row.put("commands", (long) total[0]);
+                    row.put("totalTimeMs", Math.round(total[1]));
+                    row.put("meanTimeMs", total[0] > 0 ? total[1] / total[0] : 0.0);
+                    row.put("maxTimeMs", total[2]);
+                    return row;
+                })
+                .toList();
+    }
+
+    // ===========================================
+    // PRIVATE HELPERS
+    // ===========================================
+
+    private void record(InFlight command, String status, long elapsedNanos) {
+        Timer.builder(COMMAND_METRIC)
+                .description("Mongo command latency as measured by the driver")
+                .tags(tags(command))
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (slowQuerySampler.isSlow(elapsedMs)) {
+            slowQuerySampler.record(command.collection(), command.operation(), command.repositoryMethod(),
+                    elapsedMs, describe(command.operation(), command.shapeSource()));
+        }
+    }
+
+    private static Tags tags(InFlight command) {
+        return Tags.of("collection", command.collection(),
+                "operation", command.operation(),
+                "repositoryMethod", command.repositoryMethod());
+    }
+
+    static String collectionOf(String operation, BsonDocument command) {
+        BsonValue target = "getMore".equals(operation) ? command.get("collection") : command.get(operation);
+        return target instanceof BsonString name ? name.getValue() : "none";
+    }
+
+    /**
+     * Filter / pipeline / sort of the command with every value replaced by "?"
+     */
+    static String shapeOf(String operation, BsonDocument command) {
+        return describe(operation, shapeSource(operation, command));
+    }
+
+    /**
+     * The fields a shape is built from, copied out of the driver's buffer; null when the
+     * operation has no query to shape
+     */
+    static BsonDocument shapeSource(String operation, BsonDocument command) {
+        BsonDocument source = new BsonDocument();
+        switch (operation) {
+            case "find" -> {
+                copy(command, "filter", source);
+                copy(command, "sort", source);
+            }
+            case "aggregate" -> copy(command, "pipeline", source);
+            case "count", "distinct", "findAndModify" -> copy(command, "query", source);
+            case "update", "delete" -> {
+                BsonValue statements = command.get(operation.equals("update") ? "updates" : "deletes");
+                if (statements instanceof BsonArray array && !array.isEmpty() && array.get(0).isDocument()) {
+                    copy(array.get(0).asDocument(), "q", source);
+                    source.put("statements", new BsonString(String.valueOf(array.size())));
+                }
+            }
+            default -> {
+                return null;
+            }
+        }
+        return new RawBsonDocument(source, CODEC);
+    }
+
+    private static String describe(String operation, BsonDocument source) {
+        if (source == null) {
+            return operation;
+        }
+        BsonDocument shape = new BsonDocument();
+        source.forEach((field, value) -> shape.put(field, "statements".equals(field) ? value : redact(value, 0)));
+        String json = shape.toJson();
+        return json.length() > MAX_SHAPE_LENGTH ? json.substring(0, MAX_SHAPE_LENGTH) + "..." : json;
+    }
+
+    private static void copy(BsonDocument source, String field, BsonDocument target) {
+        BsonValue value = source.get(field);
+        if (value != null) {
+            target.put(field, value);
+        }
+    }
+
+    private static BsonValue redact(BsonValue value, int depth) {
+        if (depth >= MAX_SHAPE_DEPTH) {
+            return new BsonString("...");
+        }
+        if (value.isDocument()) {
+            BsonDocument redacted = new BsonDocument();
+            value.asDocument().forEach((key, child) -> redacted.put(key, redact(child, depth + 1)));
+            return redacted;
+        }
+        if (value.isArray()) {
+            // Operator lists ($and, $or, pipeline stages) keep their structure; value lists collapse
+            List<BsonValue> elements = new ArrayList<>();
+            for (BsonValue element : value.asArray()) {
+                if (element.isDocument()) {
+                    elements.add(redact(element, depth + 1));
+                } else {
+                    return new BsonString("[?]");
+                }
+            }
+            return new BsonArray(elements);
+        }
+        return new BsonString("?");
+    }
+
+    private static int documentCount(BsonDocument response) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().containsKey("firstBatch")
+                    ? cursor.asDocument().get("firstBatch")
+                    : cursor.asDocument().get("nextBatch");
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().intValue() : 0;
+    }
+
+    /**
+     * Size of the reply as BSON, measured by encoding into a counter instead of a buffer
+     */
+    private static int encodedSize(BsonDocument response) {
+        try (CountingOutput output = new CountingOutput(); BsonBinaryWriter writer = new BsonBinaryWriter(output)) {
+            CODEC.encode(writer, response, EncoderContext.builder().build());
+            return output.getSize();
+        } catch (RuntimeException e) {
+            log.debug("Could not measure Mongo reply size: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private static final class CountingOutput extends OutputBuffer {
+        private int size;
+
+        @Override
+        public void writeBytes(byte[] bytes, int offset, int length) {
+            size += length;
+        }
+
+        @Override
+        public void writeByte(int value) {
+            size++;
+        }
+
+        @Override
+        protected void write(int position, int value) {
+            // Length back-patching does not change the size
+        }
+
+        @Override
+        public int getPosition() {
+            return size;
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public void truncateToPosition(int newPosition) {
+            size = newPosition;
+        }
+
+        @Override
+        public int pipe(OutputStream out) {
+            throw new UnsupportedOperationException("Counting output holds no bytes");
+        }
+
+        @Override
+        public List<ByteBuf> getByteBuffers() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.muscledia.Gamification_service.service.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advice added to every repository proxy (see MongoMetricsConfig): times each repository
+ * method and exposes it to the Mongo command listener, which runs on the calling thread
+ * (sync driver) and tags the commands issued by the method with it.
+ */
+@Component
+@RequiredArgsConstructor
+public class RepositoryMethodTracker {
+
+    public static final String NONE = "none";
+
+    private static final String METRIC_NAME = "gamification.repository.invocations";
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Repository method executing on this thread, or "none" for direct template access
+     */
+    public static String current() {
+        String method = CURRENT.get();
+        return method != null ? method : NONE;
+    }
+
+    /**
+     * Intercept a call on the proxy of the given repository interface (named by the
+     * interface, not the declaring type, so inherited CRUD methods stay distinguishable)
+     */
+    public Object invoke(String repository, MethodInvocation invocation) throws Throwable {
+        String method = repository + "." + invocation.getMethod().getName();
+        String outer = CURRENT.get();
+        CURRENT.set(method);
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            Timer.builder(METRIC_NAME)
+                    .description("Repository method latency, including result mapping")
+                    .tag("repositoryMethod", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
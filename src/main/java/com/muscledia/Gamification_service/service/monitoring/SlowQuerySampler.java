@@ -0,0 +1,80 @@
+package com.muscledia.Gamification_service.service.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent Mongo commands slower than the threshold, with their query shape
+ * (field names and operators, values redacted), for the database dashboard.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlowQuerySampler {
+
+    private static final String METRIC_NAME = "gamification.mongo.slow.commands";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gamification.mongo-metrics.slow-threshold-ms:100}")
+    private long thresholdMs;
+
+    @Value("${gamification.mongo-metrics.slow-sample-size:50}")
+    private int sampleSize;
+
+    // Guarded by itself
+    private final Deque<SlowCommand> samples = new ArrayDeque<>();
+    private Counter slowCommands;
+
+    public record SlowCommand(Instant at, String collection, String operation, String repositoryMethod,
+                              long elapsedMs, String shape) {
+    }
+
+    @PostConstruct
+    public void initialize() {
+        slowCommands = Counter.builder(METRIC_NAME)
+                .description("Mongo commands slower than the slow-query threshold")
+                .register(meterRegistry);
+    }
+
+    public boolean isSlow(long elapsedMs) {
+        return elapsedMs >= thresholdMs;
+    }
+
+    public void record(String collection, String operation, String repositoryMethod, long elapsedMs, String shape) {
+        slowCommands.increment();
+        log.debug("Slow Mongo {} on {} ({} ms, {}): {}", operation, collection, elapsedMs, repositoryMethod, shape);
+
+        SlowCommand sample = new SlowCommand(Instant.now(), collection, operation, repositoryMethod, elapsedMs, shape);
+        synchronized (samples) {
+            samples.addFirst(sample);
+            while (samples.size() > sampleSize) {
+                samples.removeLast();
+            }
+        }
+    }
+
+    /**
+     * Captured samples, newest first
+     */
+    public List<SlowCommand> recent() {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+}
@@ -0,0 +1,313 @@
+package com.muscledia.Gamification_service.service.profile;
+
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.service.ProfileUpdateService;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind buffer for high-frequency profile counters (points, coins, workout
+ * minutes and count).
+ *
+ * Deltas are coalesced per user in a concurrent map (lock-striped per bin) and written
+ * as one bulk of $inc updates every flush interval, or as soon as the number of pending
+ * users reaches the threshold. Level-ups are detected after the write from the stored
+ * totals and go through the regular points hooks, so the level-up event still lands in
+ * the outbox. With durable mode on, event consumers flush once per polled batch, before
+ * committing its offsets, so deltas of a whole poll still coalesce.
+ *
+ * Disabled by default; callers check {@link #isEnabled()} and otherwise write through.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProfileCounterBuffer {
+
+    private static final String FLUSHED_METRIC = "gamification.profile.counters.flushed";
+    private static final String PENDING_METRIC = "gamification.profile.counters.pending";
+
+    private final MongoTemplate mongoTemplate;
+    private final ProfileUpdateService profileUpdateService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gamification.profile-counters.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${gamification.profile-counters.write-behind.flush-threshold:256}")
+    private int flushThreshold;
+
+    @Value("${gamification.profile-counters.write-behind.durable:true}")
+    private boolean durable;
+
+    private final Map<Long, Delta> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Counter flushedUsers;
+
+    @PostConstruct
+    public void initialize() {
+        flushedUsers = Counter.builder(FLUSHED_METRIC)
+                .description("Per-user counter deltas written by the write-behind buffer")
+                .register(meterRegistry);
+        Gauge.builder(PENDING_METRIC, pending, Map::size)
+                .description("Users with counter deltas not yet written")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ===========================================
+    // RECORDING
+    // ===========================================
+
+    public void addPoints(Long userId, int points) {
+        record(userId, delta -> delta.points += points);
+    }
+
+    public void addCoins(Long userId, int coins) {
+        record(userId, delta -> delta.coins += coins);
+    }
+
+    /**
+     * One completed workout of the given length; completedAt (when known) becomes the
+     * profile's lastWorkoutDate unless a later workout is already stored
+     */
+    public void addWorkout(Long userId, int minutes, Instant completedAt) {
+        record(userId, delta -> {
+            delta.workouts++;
+            delta.minutes += minutes;
+            delta.lastWorkout = latest(delta.lastWorkout, completedAt);
+        });
+    }
+
+    // ===========================================
+    // FLUSHING
+    // ===========================================
+
+    /**
+     * Called by consumers once per polled batch, right before acknowledging it. In durable
+     * mode every pending delta is written first, so a committed offset never covers
+     * buffered work; false when a write failed and its deltas were put back, and the batch
+     * must not be acknowledged.
+     */
+    public boolean flushBeforeCommit() {
+        if (enabled && durable && !pending.isEmpty()) {
+            flushLock.lock();
+            try {
+                return drainAndWrite();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${gamification.profile-counters.write-behind.flush-interval-ms:500}")
+    public void flush() {
+        if (!pending.isEmpty() && flushLock.tryLock()) {
+            try {
+                drainAndWrite();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            drainAndWrite();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // ===========================================
+    // PRIVATE HELPERS
+    // ===========================================
+
+    private void record(Long userId, Consumer<Delta> change) {
+        if (userId == null) {
+            return;
+        }
+        pending.compute(userId, (id, delta) -> {
+            Delta updated = delta != null ? delta : new Delta();
+            change.accept(updated);
+            return updated;
+        });
+        if (pending.size() >= flushThreshold) {
+            flush();
+        }
+    }
+
+    /**
+     * Caller holds flushLock. Each entry is removed atomically, so a delta recorded
+     * meanwhile starts a fresh entry for the next flush instead of being lost.
+     * RETURNS: false when any delta failed to write and was put back
+     */
+    private boolean drainAndWrite() {
+        Map<Long, Delta> drained = new LinkedHashMap<>();
+        for (Long userId : pending.keySet()) {
+            Delta delta = pending.remove(userId);
+            if (delta != null && !delta.isEmpty()) {
+                drained.put(userId, delta);
+            }
+        }
+        if (drained.isEmpty()) {
+            return true;
+        }
+
+        List<Long> userIds = new ArrayList<>(drained.keySet());
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserGamificationProfile.class);
+        userIds.forEach(userId ->
+                bulk.updateOne(Query.query(Criteria.where("userId").is(userId)), drained.get(userId).toUpdate(now)));
+
+        Set<Long> failed = new HashSet<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Unordered: the other operations were applied, only the failed ones are retried
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(userIds.get(error.getIndex()));
+            }
+            log.warn("Counter flush failed for {} of {} users, retrying on next flush", failed.size(), userIds.size());
+        } catch (Exception e) {
+            failed.addAll(userIds);
+            log.warn("Counter flush of {} users failed, retrying on next flush: {}", userIds.size(), e.getMessage());
+        }
+
+        failed.forEach(userId -> pending.merge(userId, drained.get(userId), Delta::plus));
+        List<Long> written = userIds.stream().filter(userId -> !failed.contains(userId)).toList();
+        flushedUsers.increment(written.size());
+        detectLevelUps(written, drained);
+        return failed.isEmpty();
+    }
+
+    /**
+     * Bring the level in line with the flushed points and run the usual points hooks
+     * (statistics, outbox level-up event, leaderboard checks)
+     */
+    private void detectLevelUps(List<Long> userIds, Map<Long, Delta> deltas) {
+        List<Long> withPoints = userIds.stream().filter(userId -> deltas.get(userId).points != 0).toList();
+        if (withPoints.isEmpty()) {
+            return;
+        }
+
+        Query query = Query.query(Criteria.where("userId").in(withPoints));
+        query.fields().include("userId").include("points").include("level").include("lastLevelUpDate");
+        Map<Long, UserGamificationProfile> profiles = mongoTemplate.find(query, UserGamificationProfile.class).stream()
+                .collect(Collectors.toMap(UserGamificationProfile::getUserId, Function.identity(), (a, b) -> a));
+
+        for (Long userId : withPoints) {
+            UserGamificationProfile profile = profiles.get(userId);
+            if (profile == null || profile.getPoints() == null || profile.getLevel() == null) {
+                continue;
+            }
+            try {
+                int oldPoints = profile.getPoints() - deltas.get(userId).points;
+                int oldLevel = profile.getLevel();
+                Instant oldLastLevelUp = profile.getLastLevelUpDate();
+
+                int newLevel = UserGamificationProfile.levelForPoints(profile.getPoints());
+                if (newLevel > oldLevel && raiseLevel(userId, oldLevel, newLevel)) {
+                    profile.setLevel(newLevel);
+                    profile.setLastLevelUpDate(Instant.now());
+                }
+                profileUpdateService.afterPointsChange(profile, oldPoints, oldLevel, oldLastLevelUp);
+            } catch (Exception e) {
+                log.warn("Failed to process flushed points of user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Conditional on the level read, so a concurrent writer that already levelled the
+     * user up does not produce a second event
+     */
+    private boolean raiseLevel(Long userId, int oldLevel, int newLevel) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("userId").is(userId).and("level").is(oldLevel)),
+                new Update().set("level", newLevel).set("lastLevelUpDate", Instant.now()).inc("version", 1),
+                UserGamificationProfile.class).getModifiedCount() > 0;
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        return a == null || (b != null && b.isAfter(a)) ? b : a;
+    }
+
+    /**
+     * Mutated only inside the map's compute for its key, and read after removal
+     */
+    private static final class Delta {
+        private int points;
+        private int coins;
+        private int minutes;
+        private int workouts;
+        private Instant lastWorkout;
+
+        boolean isEmpty() {
+            return points == 0 && coins == 0 && minutes == 0 && workouts == 0;
+        }
+
+        Delta plus(Delta other) {
+            points += other.points;
+            coins += other.coins;
+            minutes += other.minutes;
+            workouts += other.workouts;
+            lastWorkout = latest(lastWorkout, other.lastWorkout);
+            return this;
+        }
+
+        Update toUpdate(Instant now) {
+            Update update = new Update().set("lastUpdated", now).inc("version", 1);
+            if (points != 0) {
+                update.inc("points", points);
+            }
+            if (coins != 0) {
+                update.inc("fitnessCoins", coins).inc("lifetimeCoinsEarned", coins);
+            }
+            if (workouts != 0) {
+                update.inc("totalWorkoutsCompleted", workouts);
+            }
+            if (lastWorkout != null) {
+                // $max, so a buffered older workout never moves the stored date back
+                update.max("lastWorkoutDate", lastWorkout);
+            }
+            if (minutes != 0) {
+                update.inc("totalWorkoutMinutes", minutes);
+            }
+            return update;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.muscledia.Gamification_service.service.profile;
+
+import com.muscledia.Gamification_service.exception.UserProfileException;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-modify-write of a profile under optimistic locking.
+ *
+ * The mutation is applied to a freshly loaded profile and is expected to save it; when the
+ * save loses a race (the stored version moved on), the profile is reloaded and the mutation
+ * re-applied after a short jittered backoff. Side effects of a mutation should therefore
+ * run after its save, so a retried attempt does not repeat them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProfileUpdateExecutor {
+
+    private static final String CONFLICTS_METRIC = "gamification.profile.update.conflicts";
+    private static final String EXHAUSTED_METRIC = "gamification.profile.update.exhausted";
+
+    private final UserGamificationProfileRepository profileRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gamification.profile-updates.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${gamification.profile-updates.backoff-ms:10}")
+    private long backoffMs;
+
+    @Value("${gamification.profile-updates.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    private Counter conflicts;
+    private Counter exhausted;
+
+    @PostConstruct
+    public void initialize() {
+        conflicts = Counter.builder(CONFLICTS_METRIC)
+                .description("Profile saves rejected because the document changed since it was read")
+                .register(meterRegistry);
+        exhausted = Counter.builder(EXHAUSTED_METRIC)
+                .description("Profile updates that still conflicted after the last retry")
+                .register(meterRegistry);
+
+        // Profiles written before versioning have no version; without one a save() would insert
+        long backfilled = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L),
+                UserGamificationProfile.class).getModifiedCount();
+        if (backfilled > 0) {
+            log.info("Initialized version on {} existing profiles", backfilled);
+        }
+    }
+
+    /**
+     * Apply a mutation to the user's profile, retrying on concurrent modification
+     */
+    public <T> T execute(Long userId, Function<UserGamificationProfile, T> mutation) {
+        return execute(() -> profileRepository.findByUserId(userId)
+                        .orElseThrow(() -> new UserProfileException("User profile not found: " + userId)),
+                mutation);
+    }
+
+    /**
+     * Apply a mutation to the profile returned by loader, retrying on concurrent modification
+     */
+    public <T> T execute(Supplier<UserGamificationProfile> loader, Function<UserGamificationProfile, T> mutation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return mutation.apply(loader.get());
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.warn("Profile update still conflicting after {} attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                log.debug("Profile update conflict (attempt {}), retrying", attempt);
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    public long getConflictCount() {
+        return (long) conflicts.count();
+    }
+
+    /**
+     * Sleep a random time in [cap / 2, cap], with cap doubling per attempt up to maxBackoffMs
+     */
+    private void backoff(int attempt, OptimisticLockingFailureException cause) {
+        long cap = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 16));
+        if (cap <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap / 2, cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
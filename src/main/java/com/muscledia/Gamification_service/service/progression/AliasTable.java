@@ -0,0 +1,94 @@
+package com.muscledia.Gamification_service.service.progression;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable weighted sampler using Vose's alias method: O(n) to build, O(1) per draw
+ * (one bounded int and one double from the random source).
+ *
+ * Items with a zero, negative or non-finite weight are never drawn; if no item has a
+ * positive weight every item is drawn uniformly.
+ */
+public final class AliasTable<T> {
+
+    private final List<T> items;
+    private final double[] probability;
+    private final int[] alias;
+
+    private AliasTable(List<T> items, double[] probability, int[] alias) {
+        this.items = items;
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    public static <T> AliasTable<T> of(List<T> candidates, ToDoubleFunction<T> weight) {
+        List<T> items = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (T candidate : candidates) {
+            double w = weight.applyAsDouble(candidate);
+            if (w > 0 && Double.isFinite(w)) {
+                items.add(candidate);
+                weights.add(w);
+            }
+        }
+        if (items.isEmpty()) {
+            items.addAll(candidates);
+            candidates.forEach(ignored -> weights.add(1.0));
+        }
+
+        int n = items.size();
+        double total = weights.stream().mapToDouble(Double::doubleValue).sum();
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights.get(i) * n / total;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            (scaled[more] < 1.0 ? small : large).push(more);
+        }
+        // Leftovers are 1.0 up to rounding error
+        while (!large.isEmpty()) {
+            probability[large.pop()] = 1.0;
+        }
+        while (!small.isEmpty()) {
+            probability[small.pop()] = 1.0;
+        }
+
+        return new AliasTable<>(List.copyOf(items), probability, alias);
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * One weighted draw
+     *
+     * @throws IllegalStateException if the table is empty
+     */
+    public T sample(SplittableRandom random) {
+        if (items.isEmpty()) {
+            throw new IllegalStateException("Cannot sample from an empty table");
+        }
+        int column = random.nextInt(items.size());
+        return random.nextDouble() < probability[column] ? items.get(column) : items.get(alias[column]);
+    }
+}
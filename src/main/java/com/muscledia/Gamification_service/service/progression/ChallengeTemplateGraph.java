@@ -0,0 +1,318 @@
+package com.muscledia.Gamification_service.service.progression;
+
+import com.muscledia.Gamification_service.model.ChallengeTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable prerequisite / unlock graph of challenge templates with integer node ids.
+ *
+ * Edges run from a prerequisite to the template that requires it and from a template to
+ * the templates it unlocks; the union must be acyclic or compilation fails. Template ids
+ * that are referenced but not defined become placeholder nodes, so a user can still
+ * satisfy them by having them in their completed set. Per-node prerequisite sets (direct
+ * and transitive) and unlock sets are bitsets stored as {@code long[]} words, and a user's
+ * completed templates are turned into the same representation once per request; checks
+ * are then a few word-wise AND-NOTs.
+ */
+public final class ChallengeTemplateGraph {
+
+    private static final ChallengeTemplateGraph EMPTY = new ChallengeTemplateGraph(
+            Map.of(), new String[0], new ChallengeTemplate[0], new long[0][], new long[0][], new long[0][]);
+
+    private final Map<String, Integer> nodeIds;
+    private final String[] templateIds;
+    private final ChallengeTemplate[] templates;       // null for placeholder nodes
+    private final long[][] prerequisites;             // direct
+    private final long[][] transitivePrerequisites;
+    private final long[][] unlocks;
+    private final int words;
+
+    private ChallengeTemplateGraph(Map<String, Integer> nodeIds, String[] templateIds, ChallengeTemplate[] templates,
+                                   long[][] prerequisites, long[][] transitivePrerequisites, long[][] unlocks) {
+        this.nodeIds = nodeIds;
+        this.templateIds = templateIds;
+        this.templates = templates;
+        this.prerequisites = prerequisites;
+        this.transitivePrerequisites = transitivePrerequisites;
+        this.unlocks = unlocks;
+        this.words = wordsFor(templateIds.length);
+    }
+
+    public static ChallengeTemplateGraph empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compile the graph of the given templates
+     *
+     * @throws IllegalStateException if prerequisites and unlocks form a cycle
+     */
+    public static ChallengeTemplateGraph compile(Collection<ChallengeTemplate> source) {
+        // Sorted ids keep node numbering stable across reloads of the same templates
+        Map<String, ChallengeTemplate> byId = new HashMap<>();
+        Set<String> ids = new TreeSet<>();
+        for (ChallengeTemplate template : source) {
+            if (template.getId() == null) {
+                continue;
+            }
+            byId.put(template.getId(), template);
+            ids.add(template.getId());
+            ids.addAll(template.getPrerequisiteTemplates());
+            ids.addAll(template.getUnlocksTemplates());
+        }
+
+        int size = ids.size();
+        int words = wordsFor(size);
+        Map<String, Integer> nodeIds = new HashMap<>();
+        String[] templateIds = ids.toArray(new String[0]);
+        ChallengeTemplate[] templates = new ChallengeTemplate[size];
+        for (int node = 0; node < size; node++) {
+            nodeIds.put(templateIds[node], node);
+            templates[node] = byId.get(templateIds[node]);
+        }
+
+        long[][] prerequisites = new long[size][words];
+        long[][] unlocks = new long[size][words];
+        List<List<Integer>> successors = new ArrayList<>(size);
+        int[] inDegree = new int[size];
+        for (int node = 0; node < size; node++) {
+            successors.add(new ArrayList<>());
+        }
+        for (ChallengeTemplate template : byId.values()) {
+            int node = nodeIds.get(template.getId());
+            for (String prerequisite : template.getPrerequisiteTemplates()) {
+                int before = nodeIds.get(prerequisite);
+                set(prerequisites[node], before);
+                addEdge(successors, inDegree, before, node);
+            }
+            for (String unlocked : template.getUnlocksTemplates()) {
+                int after = nodeIds.get(unlocked);
+                set(unlocks[node], after);
+                addEdge(successors, inDegree, node, after);
+            }
+        }
+
+        // Kahn's algorithm: the topological order drives the transitive closure, and any
+        // node never reaching in-degree zero sits on a cycle
+        int[] order = new int[size];
+        int ordered = 0;
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int node = 0; node < size; node++) {
+            if (inDegree[node] == 0) {
+                ready.add(node);
+            }
+        }
+        while (!ready.isEmpty()) {
+            int node = ready.poll();
+            order[ordered++] = node;
+            for (int next : successors.get(node)) {
+                if (--inDegree[next] == 0) {
+                    ready.add(next);
+                }
+            }
+        }
+        if (ordered < size) {
+            List<String> cyclic = new ArrayList<>();
+            for (int node = 0; node < size; node++) {
+                if (inDegree[node] > 0) {
+                    cyclic.add(templateIds[node]);
+                }
+            }
+            throw new IllegalStateException("Challenge template graph has a cycle through " + cyclic);
+        }
+
+        long[][] transitive = new long[size][];
+        for (int i = 0; i < size; i++) {
+            int node = order[i];
+            long[] closure = prerequisites[node].clone();
+            for (int prerequisite = nextSet(prerequisites[node], 0); prerequisite >= 0;
+                 prerequisite = nextSet(prerequisites[node], prerequisite + 1)) {
+                or(closure, transitive[prerequisite]);
+            }
+            transitive[node] = closure;
+        }
+
+        return new ChallengeTemplateGraph(Map.copyOf(nodeIds), templateIds, templates, prerequisites, transitive, unlocks);
+    }
+
+    // ===========================================
+    // QUERIES
+    // ===========================================
+
+    public int size() {
+        return templateIds.length;
+    }
+
+    /**
+     * Whether the id is a defined template (placeholders excluded)
+     */
+    public boolean contains(String templateId) {
+        Integer node = nodeIds.get(templateId);
+        return node != null && templates[node] != null;
+    }
+
+    /**
+     * Every defined template, in id order
+     */
+    public List<ChallengeTemplate> templates() {
+        List<ChallengeTemplate> defined = new ArrayList<>();
+        for (ChallengeTemplate template : templates) {
+            if (template != null) {
+                defined.add(template);
+            }
+        }
+        return defined;
+    }
+
+    public ChallengeTemplate template(String templateId) {
+        Integer node = nodeIds.get(templateId);
+        return node != null ? templates[node] : null;
+    }
+
+    /**
+     * Bitset of the completed template ids; ids outside the graph are ignored
+     */
+    public long[] completionBits(Collection<String> completedTemplateIds) {
+        long[] completed = new long[words];
+        if (completedTemplateIds != null) {
+            for (String templateId : completedTemplateIds) {
+                Integer node = nodeIds.get(templateId);
+                if (node != null) {
+                    set(completed, node);
+                }
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * All direct prerequisites of the template are in the completed set
+     */
+    public boolean prerequisitesMet(String templateId, long[] completed) {
+        Integer node = nodeIds.get(templateId);
+        return node != null && isSubset(prerequisites[node], completed);
+    }
+
+    /**
+     * Whether the template is in the completed set
+     */
+    public boolean isCompleted(String templateId, long[] completed) {
+        Integer node = nodeIds.get(templateId);
+        return node != null && isSet(completed, node);
+    }
+
+    /**
+     * Templates unlocked by the given one whose prerequisites are met and which are not completed yet
+     */
+    public List<ChallengeTemplate> unlockedBy(String templateId, long[] completed) {
+        Integer node = nodeIds.get(templateId);
+        if (node == null) {
+            return List.of();
+        }
+        List<ChallengeTemplate> unlocked = new ArrayList<>();
+        for (int next = nextSet(unlocks[node], 0); next >= 0; next = nextSet(unlocks[node], next + 1)) {
+            if (templates[next] != null && !isSet(completed, next) && isSubset(prerequisites[next], completed)) {
+                unlocked.add(templates[next]);
+            }
+        }
+        return unlocked;
+    }
+
+    /**
+     * Every defined template not completed yet whose prerequisites are all met
+     */
+    public List<ChallengeTemplate> availableNow(long[] completed) {
+        List<ChallengeTemplate> available = new ArrayList<>();
+        for (int node = 0; node < templates.length; node++) {
+            if (templates[node] != null && !isSet(completed, node) && isSubset(prerequisites[node], completed)) {
+                available.add(templates[node]);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Transitive prerequisites of the template that are still outstanding, in id order
+     */
+    public List<String> missingPrerequisites(String templateId, long[] completed) {
+        Integer node = nodeIds.get(templateId);
+        if (node == null) {
+            return List.of();
+        }
+        List<String> missing = new ArrayList<>();
+        long[] closure = transitivePrerequisites[node];
+        for (int prerequisite = nextSet(closure, 0); prerequisite >= 0; prerequisite = nextSet(closure, prerequisite + 1)) {
+            if (!isSet(completed, prerequisite)) {
+                missing.add(templateIds[prerequisite]);
+            }
+        }
+        return missing;
+    }
+
+    // ===========================================
+    // BITSET HELPERS
+    // ===========================================
+
+    private static int wordsFor(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static void addEdge(List<List<Integer>> successors, int[] inDegree, int from, int to) {
+        successors.get(from).add(to);
+        inDegree[to]++;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    private static void or(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] |= source[i];
+        }
+    }
+
+    /**
+     * Every bit of {@code required} is also set in {@code available}
+     */
+    private static boolean isSubset(long[] required, long[] available) {
+        for (int i = 0; i < required.length; i++) {
+            long have = i < available.length ? available[i] : 0L;
+            if ((required[i] & ~have) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int nextSet(long[] bits, int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long remaining = bits[word] & (-1L << from);
+        while (true) {
+            if (remaining != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(remaining);
+            }
+            if (++word == bits.length) {
+                return -1;
+            }
+            remaining = bits[word];
+        }
+    }
+}
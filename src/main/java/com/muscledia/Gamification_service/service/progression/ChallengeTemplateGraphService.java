@@ -0,0 +1,50 @@
+package com.muscledia.Gamification_service.service.progression;
+
+import com.muscledia.Gamification_service.model.ChallengeTemplate;
+import com.muscledia.Gamification_service.repository.ChallengeTemplateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Holds the compiled template graph used for prerequisite and unlock checks.
+ *
+ * The graph is compiled once templates are loaded and swapped atomically on refresh. A
+ * cycle fails startup; on a later refresh it is rejected and the previous graph stays.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChallengeTemplateGraphService {
+
+    private final ChallengeTemplateRepository templateRepository;
+
+    private volatile ChallengeTemplateGraph graph = ChallengeTemplateGraph.empty();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    /**
+     * Recompile from the stored templates
+     *
+     * @throws IllegalStateException if the templates form a cycle
+     */
+    public ChallengeTemplateGraph refresh() {
+        List<ChallengeTemplate> templates = templateRepository.findAll();
+        ChallengeTemplateGraph compiled = ChallengeTemplateGraph.compile(templates);
+        graph = compiled;
+        log.info("Compiled challenge template graph: {} templates, {} nodes",
+                templates.size(), compiled.size());
+        return compiled;
+    }
+
+    public ChallengeTemplateGraph current() {
+        return graph;
+    }
+}
@@ -0,0 +1,82 @@
+package com.muscledia.Gamification_service.service.progression;
+
+import com.muscledia.Gamification_service.model.ChallengeTemplate;
+import com.muscledia.Gamification_service.model.enums.ChallengeType;
+import com.muscledia.Gamification_service.model.enums.DifficultyLevel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted template draws for scheduled challenge generation.
+ *
+ * Alias tables are built per (type, difficulty, phase) from the active templates of the
+ * compiled template graph and rebuilt when the graph is replaced. A template belongs to a
+ * difficulty when it defines a target for it; a (type, difficulty, phase) with no such
+ * template falls back to every template of that type and phase. A null phase means any
+ * phase.
+ */
+@Service
+@RequiredArgsConstructor
+public class WeightedTemplateSelector {
+
+    private final ChallengeTemplateGraphService templateGraphService;
+
+    private volatile Tables tables = new Tables(null, Map.of());
+
+    private record TableKey(ChallengeType type, DifficultyLevel difficulty, String phase) {
+    }
+
+    private record Tables(ChallengeTemplateGraph graph, Map<TableKey, AliasTable<ChallengeTemplate>> byKey) {
+    }
+
+    public Optional<ChallengeTemplate> select(ChallengeType type, DifficultyLevel difficulty, String phase,
+                                              SplittableRandom random) {
+        AliasTable<ChallengeTemplate> table = currentTables().byKey().get(new TableKey(type, difficulty, phase));
+        return table == null || table.isEmpty() ? Optional.empty() : Optional.of(table.sample(random));
+    }
+
+    private Tables currentTables() {
+        ChallengeTemplateGraph graph = templateGraphService.current();
+        Tables current = tables;
+        if (current.graph() != graph) {
+            current = new Tables(graph, build(graph.templates()));
+            tables = current;
+        }
+        return current;
+    }
+
+    private static Map<TableKey, AliasTable<ChallengeTemplate>> build(List<ChallengeTemplate> templates) {
+        Map<TableKey, List<ChallengeTemplate>> byTypeAndPhase = new HashMap<>();
+        for (ChallengeTemplate template : templates) {
+            if (!template.isActive() || template.getType() == null) {
+                continue;
+            }
+            byTypeAndPhase.computeIfAbsent(new TableKey(template.getType(), null, null), ignored -> new ArrayList<>())
+                    .add(template);
+            if (template.getJourneyPhase() != null) {
+                byTypeAndPhase.computeIfAbsent(new TableKey(template.getType(), null, template.getJourneyPhase()),
+                        ignored -> new ArrayList<>()).add(template);
+            }
+        }
+
+        Map<TableKey, AliasTable<ChallengeTemplate>> tables = new HashMap<>();
+        byTypeAndPhase.forEach((group, candidates) -> {
+            for (DifficultyLevel difficulty : DifficultyLevel.values()) {
+                List<ChallengeTemplate> scaled = candidates.stream()
+                        .filter(template -> template.getTargetValues() != null
+                                && template.getTargetValues().containsKey(difficulty))
+                        .toList();
+                tables.put(new TableKey(group.type(), difficulty, group.phase()),
+                        AliasTable.of(scaled.isEmpty() ? candidates : scaled, ChallengeTemplate::getWeight));
+            }
+        });
+        return tables;
+    }
+}
@@ -2,14 +2,14 @@ package com.muscledia.Gamification_service.service.scheduled;
 
 
 import com.muscledia.Gamification_service.model.Challenge;
-import com.muscledia.Gamification_service.model.UserChallenge;
-import com.muscledia.Gamification_service.model.enums.ChallengeStatus;
-import com.muscledia.Gamification_service.repository.ChallengeRepository;
-import com.muscledia.Gamification_service.repository.UserChallengeRepository;
+import com.muscledia.Gamification_service.service.ExpirySweepService;
 import com.muscledia.Gamification_service.service.GenerationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -29,13 +29,14 @@ import java.util.List;
 public class ChallengeScheduler {
 
     private final GenerationService generationService;
-    private final ChallengeRepository challengeRepository;
-    private final UserChallengeRepository userChallengeRepository;
+    private final ExpirySweepService expirySweepService;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Generate daily challenges at 2 AM
      */
     @Scheduled(cron = "0 0 2 * * ?")
+    @SchedulerLock(name = "challenge-daily-generation", lockAtLeastFor = "PT5M")
     public void generateDailyChallenges() {
         log.info("Starting daily challenge generation");
         try {
@@ -50,6 +51,7 @@ public class ChallengeScheduler {
      * Generate weekly challenges every Monday at 2:30 AM
      */
     @Scheduled(cron = "0 30 2 ? * MON")
+    @SchedulerLock(name = "challenge-weekly-generation", lockAtLeastFor = "PT5M")
     public void generateWeeklyChallenges() {
         log.info("Starting weekly challenge generation");
         try {
@@ -64,6 +66,7 @@ public class ChallengeScheduler {
      * Clean up expired challenges at 3 AM
      */
     @Scheduled(cron = "0 0 3 * * ?")
+    @SchedulerLock(name = "challenge-expiry-cleanup", lockAtLeastFor = "PT5M")
     public void cleanupExpired() {
         log.info("Starting expired challenge cleanup");
         try {
@@ -75,18 +78,14 @@ public class ChallengeScheduler {
     }
 
     private void cleanupExpiredUserChallenges() {
-        List<UserChallenge> expired = userChallengeRepository.findExpiredActive();
-        for (UserChallenge userChallenge : expired) {
-            userChallenge.setStatus(ChallengeStatus.EXPIRED);
-            userChallengeRepository.save(userChallenge);
-        }
-        log.info("Marked {} user challenges as expired", expired.size());
+        ExpirySweepService.SweepResult result = expirySweepService.expireChallenges(Instant.now());
+        log.info("Marked {} user challenges as expired", result.expired());
     }
 
     private void cleanupOldChallenges() {
         Instant cutoff = Instant.now().minus(Duration.ofDays(30));
-        List<Challenge> oldChallenges = challengeRepository.findByEndDateBefore(cutoff);
-        challengeRepository.deleteAll(oldChallenges);
-        log.info("Deleted {} old challenges", oldChallenges.size());
+        long deleted = mongoTemplate.remove(new Query(Criteria.where("endDate").lt(cutoff)), Challenge.class)
+                .getDeletedCount();
+        log.info("Deleted {} old challenges", deleted);
     }
 }
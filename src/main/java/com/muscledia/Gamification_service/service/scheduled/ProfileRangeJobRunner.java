@@ -0,0 +1,368 @@
+package com.muscledia.Gamification_service.service.scheduled;
+
+import com.muscledia.Gamification_service.model.BatchJobCheckpoint;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.repository.BatchJobCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Runs a scan over all user profiles as a streaming, range-partitioned, checkpointed job.
+ *
+ * The userId space is split into contiguous keyset ranges that are processed in parallel.
+ * Each range streams a cursor of only the requested fields, collects the changes returned
+ * by the mapper into unordered bulk updates of just those fields, and records the last
+ * userId written after every batch so a crashed run resumes where it stopped.
+ *
+ * Ranges are leased through {@link SchedulerLockService}: with distribute-ranges every
+ * replica runs the job and works on the ranges it can lease, otherwise one replica leases
+ * the whole run. The lease is extended before each batch write, so a replica that lost
+ * its lease stops instead of overwriting the new holder's checkpoint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProfileRangeJobRunner {
+
+    private static final Duration CHECKPOINT_RETENTION = Duration.ofDays(14);
+
+    private final MongoTemplate mongoTemplate;
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final SchedulerLockService schedulerLock;
+
+    @Value("${gamification.scheduling.profile-jobs.parallelism:4}")
+    private int parallelism;
+
+    @Value("${gamification.scheduling.profile-jobs.batch-size:500}")
+    private int batchSize;
+
+    @Value("${gamification.scheduling.profile-jobs.distribute-ranges:true}")
+    private boolean distributeRanges;
+
+    @Value("${gamification.scheduling.profile-jobs.lease-seconds:600}")
+    private long leaseSeconds;
+
+    /**
+     * Field updates for one profile (null = none), and work to run once they are written
+     */
+    public record ProfileChange(Long userId, Update update, Runnable afterWrite) {
+    }
+
+    public record JobResult(long processed, long updated, int ranges, boolean resumed) {
+    }
+
+    /**
+     * Run (or resume) the job identified by jobName + runKey; a completed run is not repeated
+     *
+     * @param mapper returns the change for a profile, or null when it needs none
+     */
+    public JobResult run(String jobName, String runKey, Function<UserGamificationProfile, ProfileChange> mapper,
+                         String... fields) {
+
+        List<BatchJobCheckpoint> checkpoints = checkpointRepository.findByJobNameAndRunKeyOrderByRangeIndex(jobName, runKey);
+        boolean resumed = !checkpoints.isEmpty();
+        if (!resumed) {
+            checkpoints = planOrJoin(jobName, runKey);
+        }
+
+        List<BatchJobCheckpoint> pending = checkpoints.stream()
+                .filter(checkpoint -> !Boolean.TRUE.equals(checkpoint.getCompleted()))
+                .toList();
+
+        // Without distribution one lease covers the run; otherwise each range takes its own
+        SchedulerLockService.Lease runLease = null;
+        if (!pending.isEmpty() && !distributeRanges) {
+            runLease = schedulerLock.tryAcquire(jobName + ":" + runKey, leaseDuration(), Duration.ZERO).orElse(null);
+            if (runLease == null) {
+                log.info("{} run {} is running on another instance", jobName, runKey);
+                pending = List.of();
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            if (resumed) {
+                log.info("Resuming {} run {}: {} of {} ranges incomplete",
+                        jobName, runKey, pending.size(), checkpoints.size());
+            }
+
+            SchedulerLockService.Lease shared = runLease;
+            ExecutorService workers = Executors.newFixedThreadPool(pending.size(), rangeThreadFactory(jobName));
+            try {
+                CompletableFuture.allOf(pending.stream()
+                        .map(checkpoint -> CompletableFuture.runAsync(
+                                () -> leaseAndProcessRange(checkpoint, shared, mapper, fields), workers))
+                        .toArray(CompletableFuture[]::new))
+                        .join();
+            } catch (Exception e) {
+                log.error("{} run {} finished with failed ranges; they resume on the next run: {}",
+                        jobName, runKey, e.getMessage());
+            } finally {
+                workers.shutdown();
+                if (runLease != null) {
+                    schedulerLock.release(runLease);
+                }
+            }
+        }
+
+        List<BatchJobCheckpoint> finished = checkpointRepository.findByJobNameAndRunKeyOrderByRangeIndex(jobName, runKey);
+        return new JobResult(
+                finished.stream().mapToLong(BatchJobCheckpoint::getProcessed).sum(),
+                finished.stream().mapToLong(BatchJobCheckpoint::getUpdated).sum(),
+                finished.size(),
+                resumed);
+    }
+
+    /**
+     * Whether a run was planned and all of its ranges were processed
+     */
+    public boolean isCompleted(String jobName, String runKey) {
+        List<BatchJobCheckpoint> checkpoints = checkpointRepository.findByJobNameAndRunKeyOrderByRangeIndex(jobName, runKey);
+        return !checkpoints.isEmpty()
+                && checkpoints.stream().allMatch(checkpoint -> Boolean.TRUE.equals(checkpoint.getCompleted()));
+    }
+
+    /**
+     * Keep the checkpoints of a completed one-off run past the retention period, so they
+     * stay a persistent marker that the run is done; false while the run is incomplete
+     */
+    public boolean retainIfCompleted(String jobName, String runKey) {
+        if (!isCompleted(jobName, runKey)) {
+            return false;
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("jobName").is(jobName).and("runKey").is(runKey)),
+                new Update().unset("expiresAt"), BatchJobCheckpoint.class);
+        return true;
+    }
+
+    // ===============================
+    // RANGE PROCESSING
+    // ===============================
+
+    /**
+     * Process a range under the run lease, or under a lease of its own; a range leased by
+     * another replica is left to it
+     */
+    private void leaseAndProcessRange(BatchJobCheckpoint planned, SchedulerLockService.Lease runLease,
+                                      Function<UserGamificationProfile, ProfileChange> mapper, String... fields) {
+        SchedulerLockService.Lease lease = runLease != null ? runLease
+                : schedulerLock.tryAcquire(planned.getId(), leaseDuration(), Duration.ZERO).orElse(null);
+        if (lease == null) {
+            log.debug("Range {} is being processed by another instance", planned.getId());
+            return;
+        }
+
+        try {
+            // A replica that held the range before may have moved the checkpoint on
+            BatchJobCheckpoint checkpoint = checkpointRepository.findById(planned.getId()).orElse(planned);
+            if (!Boolean.TRUE.equals(checkpoint.getCompleted())) {
+                processRange(checkpoint, lease, mapper, fields);
+            }
+        } finally {
+            if (runLease == null) {
+                schedulerLock.release(lease);
+            }
+        }
+    }
+
+    private void processRange(BatchJobCheckpoint checkpoint, SchedulerLockService.Lease lease,
+                              Function<UserGamificationProfile, ProfileChange> mapper, String... fields) {
+
+        Criteria range = checkpoint.getLastUserId() != null
+                ? Criteria.where("userId").gt(checkpoint.getLastUserId()).lt(checkpoint.getUpperBound())
+                : Criteria.where("userId").gte(checkpoint.getLowerBound()).lt(checkpoint.getUpperBound());
+
+        Query query = new Query(range)
+                .with(Sort.by(Sort.Direction.ASC, "userId"))
+                .cursorBatchSize(batchSize);
+        query.fields().include("userId").include(fields);
+
+        List<ProfileChange> changes = new ArrayList<>();
+        int scanned = 0;
+        Long lastUserId = checkpoint.getLastUserId();
+
+        try (Stream<UserGamificationProfile> stream = mongoTemplate.stream(query, UserGamificationProfile.class)) {
+            Iterator<UserGamificationProfile> cursor = stream.iterator();
+            while (cursor.hasNext()) {
+                UserGamificationProfile profile = cursor.next();
+                lastUserId = profile.getUserId();
+                scanned++;
+
+                try {
+                    ProfileChange change = mapper.apply(profile);
+                    if (change != null) {
+                        changes.add(change);
+                    }
+                } catch (Exception e) {
+                    log.error("Error evaluating user {} in {}: {}", profile.getUserId(), checkpoint.getId(), e.getMessage());
+                }
+
+                if (scanned == batchSize) {
+                    writeBatch(checkpoint, lease, changes, scanned, lastUserId, false);
+                    changes.clear();
+                    scanned = 0;
+                }
+            }
+        }
+
+        writeBatch(checkpoint, lease, changes, scanned, lastUserId, true);
+        log.debug("Completed {}: {} users, {} updated", checkpoint.getId(), checkpoint.getProcessed(), checkpoint.getUpdated());
+    }
+
+    private void writeBatch(BatchJobCheckpoint checkpoint, SchedulerLockService.Lease lease,
+                            List<ProfileChange> changes, int scanned, Long lastUserId, boolean completed) {
+        if (!schedulerLock.extend(lease, leaseDuration())) {
+            throw new IllegalStateException("Lease " + lease.name() + " was lost; " + checkpoint.getId()
+                    + " stops at user " + checkpoint.getLastUserId());
+        }
+        writeChanges(changes);
+
+        checkpoint.setLastUserId(lastUserId);
+        checkpoint.setProcessed(checkpoint.getProcessed() + scanned);
+        checkpoint.setUpdated(checkpoint.getUpdated() + changes.size());
+        checkpoint.setCompleted(completed);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    // ===============================
+    // PROFILE BATCH ACCESS
+    // ===============================
+
+    /**
+     * Load the given fields of a set of profiles in one query
+     */
+    public List<UserGamificationProfile> findProfiles(Collection<Long> userIds, String... fields) {
+        Query query = Query.query(Criteria.where("userId").in(userIds));
+        query.fields().include("userId").include(fields);
+        return mongoTemplate.find(query, UserGamificationProfile.class);
+    }
+
+    /**
+     * Apply changes as one unordered bulk update, then run their post-write actions
+     */
+    public void writeChanges(List<ProfileChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = null;
+        for (ProfileChange change : changes) {
+            if (change.update() != null) {
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserGamificationProfile.class);
+                }
+                // Bump the version so a concurrent read-modify-write of the profile sees the change
+                bulk.updateOne(Query.query(Criteria.where("userId").is(change.userId())),
+                        change.update().inc("version", 1));
+            }
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+
+        for (ProfileChange change : changes) {
+            if (change.afterWrite() != null) {
+                try {
+                    change.afterWrite().run();
+                } catch (Exception e) {
+                    log.error("Post-write action failed for user {}: {}", change.userId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    // ===============================
+    // RANGE PLANNING
+    // ===============================
+
+    /**
+     * Store the range plan of a new run; a replica that planned it first wins
+     */
+    private List<BatchJobCheckpoint> planOrJoin(String jobName, String runKey) {
+        try {
+            return checkpointRepository.insert(planRanges(jobName, runKey));
+        } catch (DuplicateKeyException e) {
+            return checkpointRepository.findByJobNameAndRunKeyOrderByRangeIndex(jobName, runKey);
+        }
+    }
+
+    private Duration leaseDuration() {
+        return Duration.ofSeconds(leaseSeconds);
+    }
+
+    private List<BatchJobCheckpoint> planRanges(String jobName, String runKey) {
+        Long minUserId = boundaryUserId(Sort.Direction.ASC);
+        Long maxUserId = boundaryUserId(Sort.Direction.DESC);
+        if (minUserId == null || maxUserId == null) {
+            return List.of(checkpoint(jobName, runKey, 0, 0L, 0L).completed(true).build());
+        }
+
+        long span = maxUserId - minUserId + 1;
+        int rangeCount = (int) Math.max(1, Math.min(parallelism, span));
+        long rangeSize = (span + rangeCount - 1) / rangeCount;
+
+        List<BatchJobCheckpoint> ranges = new ArrayList<>(rangeCount);
+        for (int i = 0; i < rangeCount; i++) {
+            long lower = minUserId + i * rangeSize;
+            long upper = i == rangeCount - 1 ? maxUserId + 1 : Math.min(maxUserId + 1, lower + rangeSize);
+            ranges.add(checkpoint(jobName, runKey, i, lower, upper).build());
+        }
+        return ranges;
+    }
+
+    private BatchJobCheckpoint.BatchJobCheckpointBuilder checkpoint(String jobName, String runKey, int index,
+                                                                    long lower, long upper) {
+        Instant now = Instant.now();
+        return BatchJobCheckpoint.builder()
+                .id(jobName + ":" + runKey + ":" + index)
+                .jobName(jobName)
+                .runKey(runKey)
+                .rangeIndex(index)
+                .lowerBound(lower)
+                .upperBound(upper)
+                .startedAt(now)
+                .updatedAt(now)
+                .expiresAt(now.plus(CHECKPOINT_RETENTION));
+    }
+
+    private Long boundaryUserId(Sort.Direction direction) {
+        Query query = new Query(Criteria.where("userId").ne(null))
+                .with(Sort.by(direction, "userId"))
+                .limit(1);
+        query.fields().include("userId");
+        UserGamificationProfile profile = mongoTemplate.findOne(query, UserGamificationProfile.class);
+        return profile != null ? profile.getUserId() : null;
+    }
+
+    private static ThreadFactory rangeThreadFactory(String jobName) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, jobName + "-range-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -4,9 +4,13 @@ import com.muscledia.Gamification_service.model.Quest;
 import com.muscledia.Gamification_service.model.enums.ObjectiveType;
 import com.muscledia.Gamification_service.model.enums.QuestType;
 import com.muscledia.Gamification_service.repository.QuestRepository;
+import com.muscledia.Gamification_service.service.ExpirySweepService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,11 +35,14 @@ import java.util.*;
 public class QuestSchedulingService {
 
     private final QuestRepository questRepository;
+    private final ExpirySweepService expirySweepService;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Generate daily quests every day at 2 AM
      */
     @Scheduled(cron = "${gamification.scheduling.quest-generation.cron:0 0 2 * * ?}")
+    @SchedulerLock(name = "quest-daily-generation", lockAtLeastFor = "PT5M")
     @Transactional
     public void generateDailyQuests() {
         log.info("Starting daily quest generation");
@@ -65,6 +72,7 @@ public class QuestSchedulingService {
      * Generate weekly quests every Monday at 2:30 AM
      */
     @Scheduled(cron = "0 30 2 ? * MON")
+    @SchedulerLock(name = "quest-weekly-generation", lockAtLeastFor = "PT5M")
     @Transactional
     public void generateWeeklyQuests() {
         log.info("Starting weekly quest generation");
@@ -94,37 +102,20 @@ public class QuestSchedulingService {
      * Clean up expired quests every day at 3 AM
      */
     @Scheduled(cron = "${gamification.scheduling.expired-quest-cleanup.cron:0 0 3 * * ?}")
-    @Transactional
+    @SchedulerLock(name = "quest-expiry-cleanup", lockAtLeastFor = "PT5M")
     public void cleanupExpiredQuests() {
         log.info("Starting expired quest cleanup");
 
         try {
             Instant now = Instant.now();
-            List<Quest> expiredQuests = questRepository.findExpiredQuests(now);
-
-            int processed = 0;
-            int deleted = 0;
-
-            for (Quest quest : expiredQuests) {
-                try {
-                    // Process any final quest state before deletion
-                    processExpiredQuest(quest);
-
-                    // Delete old quests (older than 30 days)
-                    if (quest.getEndDate().isBefore(now.minus(30, ChronoUnit.DAYS))) {
-                        questRepository.delete(quest);
-                        deleted++;
-                        log.debug("Deleted expired quest: {}", quest.getName());
-                    }
-
-                    processed++;
+            ExpirySweepService.SweepResult result = expirySweepService.expireQuests(now);
 
-                } catch (Exception e) {
-                    log.error("Failed to process expired quest {}: {}", quest.getId(), e.getMessage());
-                }
-            }
+            // Delete old quests (older than 30 days)
+            long deleted = mongoTemplate.remove(
+                    new Query(Criteria.where("endDate").lt(now.minus(30, ChronoUnit.DAYS))), Quest.class)
+                    .getDeletedCount();
 
-            log.info("Expired quest cleanup completed. Processed: {}, Deleted: {}", processed, deleted);
+            log.info("Expired quest cleanup completed. Failed progress: {}, Deleted: {}", result.expired(), deleted);
 
         } catch (Exception e) {
             log.error("Error during expired quest cleanup: {}", e.getMessage(), e);
@@ -135,6 +126,7 @@ public class QuestSchedulingService {
      * Refresh quest difficulty based on user completion rates (weekly)
      */
     @Scheduled(cron = "0 0 4 ? * SUN")
+    @SchedulerLock(name = "quest-difficulty-refresh", lockAtLeastFor = "PT5M")
     @Transactional
     public void refreshQuestDifficulty() {
         log.info("Starting quest difficulty refresh");
@@ -274,14 +266,6 @@ public class QuestSchedulingService {
     // QUEST PROCESSING METHODS
     // ===============================
 
-    private void processExpiredQuest(Quest quest) {
-        // Process expired quest logic here
-        // Note: Quest model doesn't have isActive/setActive methods
-        // This is just cleanup logic for expired quests
-
-        log.debug("Processed expired quest: {}", quest.getName());
-    }
-
     private void analyzeQuestPerformance() {
         try {
             // Get quest completion statistics
@@ -0,0 +1,35 @@
+package com.muscledia.Gamification_service.service.scheduled;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Run a scheduled method on one replica at a time under a Mongo lease.
+ *
+ * A replica that cannot take the lease skips the run. Durations are ISO-8601 (PT30M) and
+ * may be property placeholders; empty uses gamification.scheduling.lock defaults. Only
+ * for void methods.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SchedulerLock {
+
+    /**
+     * Lease name, shared by every replica running this job
+     */
+    String name();
+
+    /**
+     * Lease expiry if the holder dies mid-run; longer than the job ever takes
+     */
+    String lockAtMostFor() default "";
+
+    /**
+     * Minimum hold after the run, so a replica whose clock is slightly behind does not run it again
+     */
+    String lockAtLeastFor() default "";
+}
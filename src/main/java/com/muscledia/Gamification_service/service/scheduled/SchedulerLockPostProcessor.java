@@ -0,0 +1,114 @@
+package com.muscledia.Gamification_service.service.scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps {@link SchedulerLock} methods in a lease from {@link SchedulerLockService}.
+ *
+ * Runs before the scheduling post-processor so the registered tasks call the proxy. The
+ * @Async advisor is added in front of this one, so an async job takes its lease on the
+ * executor thread that does the work.
+ */
+@Slf4j
+public class SchedulerLockPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    public SchedulerLockPostProcessor() {
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(SchedulerLock.class),
+                new LeaseInterceptor((ConfigurableBeanFactory) beanFactory));
+    }
+
+    private record LockSpec(String name, Duration lockAtMostFor, Duration lockAtLeastFor) {
+    }
+
+    private static final class LeaseInterceptor implements MethodInterceptor {
+
+        private final ConfigurableBeanFactory beanFactory;
+        private final Map<Method, LockSpec> specs = new ConcurrentHashMap<>();
+        private volatile SchedulerLockService lockService;
+
+        private LeaseInterceptor(ConfigurableBeanFactory beanFactory) {
+            this.beanFactory = beanFactory;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (!Boolean.parseBoolean(resolve("${gamification.scheduling.lock.enabled:true}"))) {
+                return invocation.proceed();
+            }
+
+            Method method = invocation.getThis() != null
+                    ? AopUtils.getMostSpecificMethod(invocation.getMethod(), invocation.getThis().getClass())
+                    : invocation.getMethod();
+            LockSpec spec = specs.computeIfAbsent(method, this::specOf);
+
+            Optional<SchedulerLockService.Lease> lease;
+            try {
+                lease = lockService().tryAcquire(spec.name(), spec.lockAtMostFor(), spec.lockAtLeastFor());
+            } catch (Exception e) {
+                log.warn("Skipping {}: lease could not be acquired: {}", spec.name(), e.getMessage());
+                return null;
+            }
+            if (lease.isEmpty()) {
+                log.debug("Skipping {}: running on another instance", spec.name());
+                return null;
+            }
+
+            try {
+                return invocation.proceed();
+            } finally {
+                lockService().release(lease.get());
+            }
+        }
+
+        private LockSpec specOf(Method method) {
+            SchedulerLock lock = AnnotatedElementUtils.findMergedAnnotation(method, SchedulerLock.class);
+            if (lock == null) {
+                throw new IllegalStateException("No @SchedulerLock on " + method);
+            }
+            return new LockSpec(lock.name(),
+                    duration(lock.lockAtMostFor(), "${gamification.scheduling.lock.default-lock-at-most-for:PT30M}"),
+                    duration(lock.lockAtLeastFor(), "${gamification.scheduling.lock.default-lock-at-least-for:PT0S}"));
+        }
+
+        private Duration duration(String value, String fallback) {
+            return Duration.parse(resolve(value.isEmpty() ? fallback : value));
+        }
+
+        private String resolve(String value) {
+            return beanFactory.resolveEmbeddedValue(value);
+        }
+
+        private SchedulerLockService lockService() {
+            SchedulerLockService service = lockService;
+            if (service == null) {
+                // Looked up on first use; a post-processor must not pull in Mongo beans while they are created
+                service = beanFactory.getBean(SchedulerLockService.class);
+                lockService = service;
+            }
+            return service;
+        }
+    }
+}
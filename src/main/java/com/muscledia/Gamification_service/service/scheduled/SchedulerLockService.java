@@ -0,0 +1,102 @@
+package com.muscledia.Gamification_service.service.scheduled;
+
+import com.muscledia.Gamification_service.model.SchedulerLease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Mongo-backed leases that keep scheduled jobs to one replica at a time.
+ *
+ * Acquiring is a single findAndModify upsert that only matches an expired lease; a held
+ * lease makes the upsert collide on _id and the caller skips its run. Each acquisition
+ * bumps a fencing token, and extend/release only apply while the token is still current,
+ * so a holder that stalled past lockAtMostFor cannot extend or release its successor's
+ * lease. The token does not fence the job's own writes: a stalled holder can still be
+ * writing while its successor runs, so jobs stay idempotent and lockAtMostFor is set
+ * well above their expected run time.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulerLockService {
+
+    private static final String INSTANCE_ID = ManagementFactory.getRuntimeMXBean().getName()
+            + "/" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * A held lease; token is the fencing token of this acquisition
+     */
+    public record Lease(String name, String owner, long token, Instant lockedAt, Duration lockAtLeastFor) {
+    }
+
+    /**
+     * Take the lease if it is free, or empty when another holder's lease has not expired
+     */
+    public Optional<Lease> tryAcquire(String name, Duration lockAtMostFor, Duration lockAtLeastFor) {
+        Instant now = Instant.now();
+        Query free = Query.query(Criteria.where("_id").is(name).and("lockedUntil").lte(now));
+        Update take = new Update()
+                .set("owner", INSTANCE_ID)
+                .set("lockedAt", now)
+                .set("lockedUntil", now.plus(lockAtMostFor))
+                .inc("token", 1);
+        try {
+            SchedulerLease lease = mongoTemplate.findAndModify(free, take,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), SchedulerLease.class);
+            if (lease == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new Lease(name, INSTANCE_ID, lease.getToken(), now, lockAtLeastFor));
+        } catch (DuplicateKeyException e) {
+            // The lease exists and is held, so the upsert tried to insert a second one
+            log.debug("Lease {} is held by another instance", name);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Push the lease expiry out while a long job is still working; false when the lease was lost
+     */
+    public boolean extend(Lease lease, Duration lockAtMostFor) {
+        Instant now = Instant.now();
+        return mongoTemplate.updateFirst(held(lease).addCriteria(Criteria.where("lockedUntil").gt(now)),
+                Update.update("lockedUntil", now.plus(lockAtMostFor)), SchedulerLease.class)
+                .getModifiedCount() == 1;
+    }
+
+    /**
+     * Free the lease, keeping it until lockAtLeastFor after it was taken
+     */
+    public void release(Lease lease) {
+        Instant now = Instant.now();
+        Instant earliest = lease.lockedAt().plus(lease.lockAtLeastFor());
+        try {
+            mongoTemplate.updateFirst(held(lease),
+                    Update.update("lockedUntil", earliest.isAfter(now) ? earliest : now), SchedulerLease.class);
+        } catch (Exception e) {
+            // The lease still expires after lockAtMostFor
+            log.warn("Failed to release lease {}: {}", lease.name(), e.getMessage());
+        }
+    }
+
+    private static Query held(Lease lease) {
+        return Query.query(Criteria.where("_id").is(lease.name())
+                .and("owner").is(lease.owner())
+                .and("token").is(lease.token()));
+    }
+}
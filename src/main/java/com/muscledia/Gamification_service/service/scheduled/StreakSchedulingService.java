@@ -1,22 +1,32 @@
 package com.muscledia.Gamification_service.service.scheduled;
 
+import com.muscledia.Gamification_service.model.StreakDeadline;
 import com.muscledia.Gamification_service.model.UserGamificationProfile;
-import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
 import com.muscledia.Gamification_service.event.StreakUpdatedEvent;
 import com.muscledia.Gamification_service.event.publisher.GamificationEventPublisher;
+import com.muscledia.Gamification_service.service.PlatformStatisticsService;
+import com.muscledia.Gamification_service.service.StreakDeadlineService;
+import com.muscledia.Gamification_service.service.StreakLeaderboardService;
+import com.muscledia.Gamification_service.service.StreakService;
+import com.muscledia.Gamification_service.service.UserStreakService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for automated streak calculations and leaderboard maintenance.
@@ -33,42 +43,49 @@ import java.util.Map;
 @ConditionalOnProperty(value = "gamification.scheduling.enabled", havingValue = "true") // This controls scheduling
 public class StreakSchedulingService {
 
-    private final UserGamificationProfileRepository userProfileRepository;
-    private final GamificationEventPublisher eventPublisher;
+    private static final String DEADLINE_BACKFILL_JOB = "streak-deadline-backfill";
+    private static final String DEADLINE_BACKFILL_RUN = "initial";
+    private static final String USER_STREAKS_MIGRATION_JOB = "user-streaks-migration";
+    private static final String USER_STREAKS_MIGRATION_RUN = "initial";
+    private static final String STREAKS_FIELD = "streaks";
+    private static final int DEADLINE_BATCH_SIZE = 500;
 
-    private static final int BATCH_SIZE = 100; // Process users in batches
+    private final GamificationEventPublisher eventPublisher;
+    private final ProfileRangeJobRunner jobRunner;
+    private final PlatformStatisticsService platformStatistics;
+    private final StreakService streakService;
+    private final StreakDeadlineService streakDeadlines;
+    private final StreakLeaderboardService streakLeaderboards;
+    private final UserStreakService userStreaks;
 
     /**
-     * Calculate and update streaks for all users daily at 1:30 AM
+     * Expire streaks whose deadline has passed, daily at 1:30 AM.
+     * Reads only the due entries of the streak deadline index, not every profile.
      */
     @Scheduled(cron = "${gamification.scheduling.streak-calculation.cron:0 30 1 * * ?}")
+    @SchedulerLock(name = "streak-daily-expiry", lockAtLeastFor = "PT5M")
     public void calculateDailyStreaks() {
-        log.info("Starting daily streak calculation for all users");
+        log.info("Starting daily streak calculation for due streak deadlines");
 
         try {
-            long totalUsers = userProfileRepository.count();
-            int processed = 0;
-            int streaksUpdated = 0;
+            Instant now = Instant.now();
+            long dueStreaks = 0;
+            long usersUpdated = 0;
 
-            // Process users in batches
-            for (int page = 0; page * BATCH_SIZE < totalUsers; page++) {
+            // Every processed entry is removed or moved past now, so this drains the due set
+            List<StreakDeadline> batch;
+            while (!(batch = streakDeadlines.findDue(now, DEADLINE_BATCH_SIZE)).isEmpty()) {
                 try {
-                    List<UserGamificationProfile> userBatch = getUserBatch(page);
-                    int batchUpdates = processStreakBatch(userBatch);
-
-                    processed += userBatch.size();
-                    streaksUpdated += batchUpdates;
-
-                    log.debug("Processed streak batch {}: {} users, {} updates",
-                            page + 1, userBatch.size(), batchUpdates);
-
+                    usersUpdated += expireDueStreaks(batch, now);
+                    dueStreaks += batch.size();
                 } catch (Exception e) {
-                    log.error("Error processing streak batch {}: {}", page + 1, e.getMessage());
+                    log.error("Error expiring streak deadline batch: {}", e.getMessage());
+                    break;
                 }
             }
 
-            log.info("Daily streak calculation completed. Processed: {} users, Updated: {} streaks",
-                    processed, streaksUpdated);
+            log.info("Daily streak calculation completed. Due: {} streaks, Updated: {} users",
+                    dueStreaks, usersUpdated);
 
         } catch (Exception e) {
             log.error("Error during daily streak calculation: {}", e.getMessage(), e);
@@ -76,36 +93,84 @@ public class StreakSchedulingService {
     }
 
     /**
-     * Reset weekly streaks every Sunday at midnight
+     * Reset lapsed weekly streaks; runs hourly so each time zone cohort is reset on its local Monday
      */
-    @Scheduled(cron = "0 0 0 ? * SUN")
-    @Transactional
+    @Scheduled(cron = "${gamification.scheduling.weekly-streak-reset.cron:0 5 * * * ?}")
+    @SchedulerLock(name = "streak-weekly-reset", lockAtLeastFor = "PT1M")
     public void resetWeeklyStreaks() {
         log.info("Starting weekly streak reset");
 
         try {
-            int resetCount = 0;
-            long totalUsers = userProfileRepository.count();
+            long resetCount = streakService.resetLapsedWeeklyStreaks(Instant.now());
+            log.info("Weekly streak reset completed. Reset {} user weekly streaks", resetCount);
 
-            for (int page = 0; page * BATCH_SIZE < totalUsers; page++) {
-                try {
-                    List<UserGamificationProfile> userBatch = getUserBatch(page);
+        } catch (Exception e) {
+            log.error("Error during weekly streak reset: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reset lapsed monthly streaks; runs hourly so each time zone cohort is reset on its local 1st
+     */
+    @Scheduled(cron = "${gamification.scheduling.monthly-streak-reset.cron:0 10 * * * ?}")
+    @SchedulerLock(name = "streak-monthly-reset", lockAtLeastFor = "PT1M")
+    public void resetMonthlyStreaks() {
+        log.info("Starting monthly streak reset");
 
-                    for (UserGamificationProfile user : userBatch) {
-                        if (resetWeeklyStreaksForUser(user)) {
-                            resetCount++;
-                        }
-                    }
+        try {
+            long resetCount = streakService.resetLapsedMonthlyStreaks(Instant.now());
+            log.info("Monthly streak reset completed. Reset {} user monthly streaks", resetCount);
 
-                } catch (Exception e) {
-                    log.error("Error resetting weekly streaks for batch {}: {}", page + 1, e.getMessage());
-                }
+        } catch (Exception e) {
+            log.error("Error during monthly streak reset: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Seed the streak deadline index from existing profiles (once; resumes if interrupted)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Async("backgroundProcessingExecutor")
+    public void backfillStreakDeadlines() {
+        try {
+            // The completed run is the marker; live tracking may already have filled the collection
+            if (jobRunner.isCompleted(DEADLINE_BACKFILL_JOB, DEADLINE_BACKFILL_RUN)) {
+                return;
             }
 
-            log.info("Weekly streak reset completed. Reset {} user weekly streaks", resetCount);
+            ProfileRangeJobRunner.JobResult result = jobRunner.run(DEADLINE_BACKFILL_JOB, DEADLINE_BACKFILL_RUN,
+                    this::deadlineBackfill, STREAKS_FIELD);
+            jobRunner.retainIfCompleted(DEADLINE_BACKFILL_JOB, DEADLINE_BACKFILL_RUN);
+
+            log.info("Streak deadline backfill: {} users scanned, {} with active streaks",
+                    result.processed(), result.updated());
 
         } catch (Exception e) {
-            log.error("Error during weekly streak reset: {}", e.getMessage(), e);
+            log.error("Error backfilling streak deadlines: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copy the embedded streaks of existing profiles into user_streaks (once; resumes if interrupted)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Async("backgroundProcessingExecutor")
+    public void migrateUserStreaks() {
+        try {
+            // The completed run is the marker; live syncs may already have written user_streaks
+            if (jobRunner.isCompleted(USER_STREAKS_MIGRATION_JOB, USER_STREAKS_MIGRATION_RUN)) {
+                return;
+            }
+
+            ProfileRangeJobRunner.JobResult result = jobRunner.run(USER_STREAKS_MIGRATION_JOB, USER_STREAKS_MIGRATION_RUN,
+                    this::userStreaksMigration, STREAKS_FIELD);
+            jobRunner.retainIfCompleted(USER_STREAKS_MIGRATION_JOB, USER_STREAKS_MIGRATION_RUN);
+
+            log.info("User streaks migration: {} users scanned, {} with streaks copied",
+                    result.processed(), result.updated());
+
+        } catch (Exception e) {
+            log.error("Error migrating user streaks: {}", e.getMessage(), e);
         }
     }
 
@@ -113,6 +178,7 @@ public class StreakSchedulingService {
      * Check for streak milestones and send notifications (hourly)
      */
     @Scheduled(cron = "0 0 * * * ?")
+    @SchedulerLock(name = "streak-milestone-check", lockAtLeastFor = "PT1M")
     public void checkStreakMilestones() {
         log.debug("Checking for streak milestones");
 
@@ -131,19 +197,16 @@ public class StreakSchedulingService {
     }
 
     /**
-     * Streak leaderboard recalculation (daily at 5 AM)
+     * Streak leaderboard materialization (every 15 minutes)
      */
-    @Scheduled(cron = "0 0 5 * * ?")
+    @Scheduled(cron = "${gamification.scheduling.streak-leaderboards.cron:0 */15 * * * ?}")
+    @SchedulerLock(name = "streak-leaderboards", lockAtMostFor = "PT10M", lockAtLeastFor = "PT1M")
     @Async("backgroundProcessingExecutor")
     public void recalculateStreakLeaderboards() {
         log.info("Starting streak leaderboard recalculation");
 
         try {
-            // Recalculate workout streak leaderboard
-            recalculateStreakLeaderboard("workout");
-
-            // Recalculate login streak leaderboard
-            recalculateStreakLeaderboard("login");
+            StreakLeaderboardService.STREAK_TYPES.forEach(this::recalculateStreakLeaderboard);
 
             log.info("Streak leaderboard recalculation completed");
 
@@ -156,87 +219,128 @@ public class StreakSchedulingService {
     // BATCH PROCESSING METHODS
     // ===============================
 
-    private List<UserGamificationProfile> getUserBatch(int page) {
-        PageRequest pageRequest = PageRequest.of(page, BATCH_SIZE);
-        return userProfileRepository.findAllByOrderByUserId(pageRequest);
+    /**
+     * Index the active streaks of one user (no profile update)
+     */
+    private ProfileRangeJobRunner.ProfileChange deadlineBackfill(UserGamificationProfile user) {
+        if (user.getStreaks() == null || user.getStreaks().values().stream().noneMatch(StreakDeadlineService::isActive)) {
+            return null;
+        }
+        return new ProfileRangeJobRunner.ProfileChange(user.getUserId(), null, () -> streakDeadlines.trackAll(user));
     }
 
-    @Transactional
-    public int processStreakBatch(List<UserGamificationProfile> users) {
-        int updatedCount = 0;
+    /**
+     * Copy the streaks of one user into user_streaks (no profile update)
+     */
+    private ProfileRangeJobRunner.ProfileChange userStreaksMigration(UserGamificationProfile user) {
+        if (user.getStreaks() == null || user.getStreaks().isEmpty()) {
+            return null;
+        }
+        return new ProfileRangeJobRunner.ProfileChange(user.getUserId(), null, () -> userStreaks.seedAll(user));
+    }
 
-        for (UserGamificationProfile user : users) {
-            try {
-                if (updateUserStreaks(user)) {
-                    updatedCount++;
-                }
-            } catch (Exception e) {
-                log.error("Error updating streaks for user {}: {}", user.getUserId(), e.getMessage());
+    /**
+     * Reset the lapsed streaks of one batch of due deadlines, then settle the entries
+     * RETURNS: number of users whose streaks were reset
+     */
+    private int expireDueStreaks(List<StreakDeadline> batch, Instant now) {
+        Set<Long> userIds = batch.stream().map(StreakDeadline::getUserId).collect(Collectors.toSet());
+        Map<Long, UserGamificationProfile> profiles = jobRunner.findProfiles(userIds, STREAKS_FIELD).stream()
+                .collect(Collectors.toMap(UserGamificationProfile::getUserId, Function.identity(), (a, b) -> a));
+
+        List<ProfileRangeJobRunner.ProfileChange> changes = new ArrayList<>();
+        for (UserGamificationProfile profile : profiles.values()) {
+            ProfileRangeJobRunner.ProfileChange change = dailyStreakChange(profile, now);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        jobRunner.writeChanges(changes);
+
+        // Reset streaks leave the index; maintained or refreshed ones move to their next deadline
+        for (StreakDeadline due : batch) {
+            UserGamificationProfile profile = profiles.get(due.getUserId());
+            UserGamificationProfile.StreakData streakData = profile != null && profile.getStreaks() != null
+                    ? profile.getStreaks().get(due.getStreakType())
+                    : null;
+
+            if (!StreakDeadlineService.isActive(streakData)) {
+                streakDeadlines.complete(due, null);
+            } else {
+                Instant next = streakData.getLastUpdate() != null
+                        ? streakData.getLastUpdate().plus(StreakDeadlineService.STREAK_WINDOW)
+                        : now;
+                Instant earliest = now.plus(StreakDeadlineService.STREAK_WINDOW);
+                streakDeadlines.complete(due, next.isAfter(earliest) ? next : earliest);
             }
         }
 
-        return updatedCount;
+        return changes.size();
     }
 
     // ===============================
     // STREAK CALCULATION METHODS
     // ===============================
 
-    private boolean updateUserStreaks(UserGamificationProfile user) {
-        boolean updated = false;
+    /**
+     * Streaks of one user that lapsed yesterday, as field updates (null = nothing to change)
+     */
+    private ProfileRangeJobRunner.ProfileChange dailyStreakChange(UserGamificationProfile user, Instant now) {
         Map<String, UserGamificationProfile.StreakData> streaks = user.getStreaks();
 
         if (streaks == null || streaks.isEmpty()) {
-            return false;
+            return null;
         }
 
-        Instant now = Instant.now();
         Instant yesterday = now.minus(1, ChronoUnit.DAYS);
+        Update update = new Update();
+        List<Runnable> events = new ArrayList<>();
 
         for (Map.Entry<String, UserGamificationProfile.StreakData> entry : streaks.entrySet()) {
             String streakType = entry.getKey();
             UserGamificationProfile.StreakData streakData = entry.getValue();
 
-            if (shouldCheckStreak(streakData, yesterday)) {
-                if (updateIndividualStreak(user, streakType, streakData, now)) {
-                    updated = true;
-                }
+            if (StreakDeadlineService.isActive(streakData) && shouldCheckStreak(streakData, yesterday)
+                    // Check if user maintained their streak yesterday
+                    && !checkStreakMaintenance(user.getUserId(), streakType, yesterday)) {
+                events.add(resetStreak(user, streakType, streakData, now, update));
+                log.debug("Reset {} streak for user {}", streakType, user.getUserId());
             }
         }
 
-        if (updated) {
-            userProfileRepository.save(user);
-        }
-
-        return updated;
-    }
-
-    private boolean shouldCheckStreak(UserGamificationProfile.StreakData streakData, Instant yesterday) {
-        return streakData.getLastUpdate() == null ||
-                streakData.getLastUpdate().isBefore(yesterday);
+        return toChange(user, update, events);
     }
 
-    private boolean updateIndividualStreak(UserGamificationProfile user, String streakType,
-            UserGamificationProfile.StreakData streakData, Instant now) {
-
+    /**
+     * Add the reset of one streak to the update; returns the event publication to run after the write
+     */
+    private Runnable resetStreak(UserGamificationProfile user, String streakType,
+            UserGamificationProfile.StreakData streakData, Instant now, Update update) {
         int previousStreak = streakData.getCurrent();
 
-        // Check if user maintained their streak yesterday
-        boolean maintainedStreak = checkStreakMaintenance(user.getUserId(), streakType, now.minus(1, ChronoUnit.DAYS));
+        streakData.setCurrent(0);
+        streakData.setLastUpdate(now);
+        update.set(STREAKS_FIELD + "." + streakType + ".current", 0)
+                .set(STREAKS_FIELD + "." + streakType + ".lastUpdate", now);
 
-        if (!maintainedStreak && streakData.getCurrent() > 0) {
-            // Streak broken
-            streakData.setCurrent(0);
-            streakData.setLastUpdate(now);
-
-            // Publish streak broken event
+        return () -> {
+            userStreaks.sync(user.getUserId(), streakType, streakData);
+            platformStatistics.recordStreakChange(streakType, previousStreak, 0);
             publishStreakEvent(user, streakType, streakData, previousStreak, "RESET");
+        };
+    }
 
-            log.debug("Reset {} streak for user {}: was {}", streakType, user.getUserId(), previousStreak);
-            return true;
+    private ProfileRangeJobRunner.ProfileChange toChange(UserGamificationProfile user, Update update,
+            List<Runnable> events) {
+        if (events.isEmpty()) {
+            return null;
         }
+        return new ProfileRangeJobRunner.ProfileChange(user.getUserId(), update, () -> events.forEach(Runnable::run));
+    }
 
-        return false;
+    private boolean shouldCheckStreak(UserGamificationProfile.StreakData streakData, Instant yesterday) {
+        return streakData.getLastUpdate() == null ||
+                streakData.getLastUpdate().isBefore(yesterday);
     }
 
     private boolean checkStreakMaintenance(Long userId, String streakType, Instant date) {
@@ -264,59 +368,13 @@ public class StreakSchedulingService {
         return false; // Assume no activity to demonstrate streak reset
     }
 
-    private boolean resetWeeklyStreaksForUser(UserGamificationProfile user) {
-        Map<String, UserGamificationProfile.StreakData> streaks = user.getStreaks();
-
-        if (streaks == null || streaks.isEmpty()) {
-            return false;
-        }
-
-        boolean updated = false;
-
-        // Reset weekly streaks (if you have any)
-        for (Map.Entry<String, UserGamificationProfile.StreakData> entry : streaks.entrySet()) {
-            String streakType = entry.getKey();
-
-            // Only reset weekly streak types
-            if (isWeeklyStreakType(streakType)) {
-                UserGamificationProfile.StreakData streakData = entry.getValue();
-                int previousStreak = streakData.getCurrent();
-
-                streakData.setCurrent(0);
-                streakData.setLastUpdate(Instant.now());
-
-                publishStreakEvent(user, streakType, streakData, previousStreak, "RESET");
-                updated = true;
-            }
-        }
-
-        if (updated) {
-            userProfileRepository.save(user);
-        }
-
-        return updated;
-    }
-
-    private boolean isWeeklyStreakType(String streakType) {
-        // Define which streak types reset weekly
-        return streakType.toLowerCase().contains("weekly") ||
-                streakType.toLowerCase().contains("week");
-    }
-
     // ===============================
     // LEADERBOARD METHODS
     // ===============================
 
     private void recalculateStreakLeaderboard(String streakType) {
         try {
-            PageRequest topStreaks = PageRequest.of(0, 100);
-            List<UserGamificationProfile> topUsers = userProfileRepository.findTopUsersByStreak(streakType, topStreaks);
-
-            log.info("Recalculated {} streak leaderboard: {} users", streakType, topUsers.size());
-
-            // In a real implementation, you'd update cached leaderboard data
-            // and possibly publish leaderboard update events
-
+            streakLeaderboards.materialize(streakType);
         } catch (Exception e) {
             log.error("Error recalculating {} streak leaderboard: {}", streakType, e.getMessage());
         }
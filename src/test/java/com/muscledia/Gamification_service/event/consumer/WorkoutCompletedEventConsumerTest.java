@@ -0,0 +1,133 @@
+package com.muscledia.Gamification_service.event.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.Gamification_service.event.WorkoutCompletedEvent;
+import com.muscledia.Gamification_service.event.handler.WorkoutEventHandler;
+import com.muscledia.Gamification_service.service.ActiveUserEstimationService;
+import com.muscledia.Gamification_service.service.monitoring.EventPipelineMetrics;
+import com.muscledia.Gamification_service.service.profile.ProfileCounterBuffer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkoutCompletedEventConsumerTest {
+
+    @Mock
+    private WorkoutEventHandler workoutEventHandler;
+
+    @Mock
+    private ActiveUserEstimationService activeUserEstimation;
+
+    @Mock
+    private ProfileCounterBuffer profileCounters;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WorkoutCompletedEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        EventPipelineMetrics pipelineMetrics = new EventPipelineMetrics(meterRegistry);
+        pipelineMetrics.initialize();
+        consumer = new WorkoutCompletedEventConsumer(workoutEventHandler, new ObjectMapper(), activeUserEstimation,
+                profileCounters, pipelineMetrics);
+    }
+
+    @Test
+    void shouldAcknowledgeAfterCountersAreWritten() {
+        // Given
+        when(profileCounters.flushBeforeCommit()).thenReturn(true);
+
+        // When
+        consumer.handleWorkoutsCompleted(List.of(record(workout())), acknowledgment);
+
+        // Then
+        verify(workoutEventHandler).handleWorkoutCompleted(any(WorkoutCompletedEvent.class));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void shouldNotAcknowledgeWhenBufferedCountersFailToWrite() {
+        // Given
+        when(profileCounters.flushBeforeCommit()).thenReturn(false);
+
+        // When
+        consumer.handleWorkoutsCompleted(List.of(record(workout())), acknowledgment);
+
+        // Then: the offset stays uncommitted until a later flush succeeds
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void shouldFlushOncePerPolledBatch() {
+        // Given
+        when(profileCounters.flushBeforeCommit()).thenReturn(true);
+
+        // When
+        consumer.handleWorkoutsCompleted(List.of(record(workout()), record("not json"), record(workout())),
+                acknowledgment);
+
+        // Then: both workouts are handled, and their counters are written with one flush
+        verify(workoutEventHandler, times(2)).handleWorkoutCompleted(any(WorkoutCompletedEvent.class));
+        verify(profileCounters, times(1)).flushBeforeCommit();
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    void shouldTimeHandlerAndRecordConsumedAndAppliedAge() {
+        // Given
+        when(profileCounters.flushBeforeCommit()).thenReturn(true);
+
+        // When
+        consumer.handleWorkoutsCompleted(List.of(record(workout())), acknowledgment);
+
+        // Then
+        Timer handler = meterRegistry.find(EventPipelineMetrics.STAGE_METRIC)
+                .tags("stage", "handler", "eventType", "WORKOUT_COMPLETED", "outcome", "success").timer();
+        assertThat(handler).isNotNull();
+        assertThat(handler.count()).isEqualTo(1);
+        for (String milestone : new String[]{EventPipelineMetrics.AGE_CONSUMED, EventPipelineMetrics.AGE_APPLIED}) {
+            Timer age = meterRegistry.find(EventPipelineMetrics.AGE_METRIC).tag("milestone", milestone).timer();
+            assertThat(age).as(milestone).isNotNull();
+            assertThat(age.count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldAcknowledgeInvalidEventWithoutHandling() {
+        when(profileCounters.flushBeforeCommit()).thenReturn(true);
+
+        consumer.handleWorkoutsCompleted(List.of(record("not json")), acknowledgment);
+
+        verifyNoInteractions(workoutEventHandler);
+        verify(acknowledgment).acknowledge();
+    }
+
+    static WorkoutCompletedEvent workout() {
+        return WorkoutCompletedEvent.builder()
+                .userId(7L)
+                .workoutId("w-1")
+                .workoutType("STRENGTH")
+                .timestamp(Instant.now().minusSeconds(5))
+                .build();
+    }
+
+    static ConsumerRecord<String, Object> record(Object value) {
+        return new ConsumerRecord<>("workout-events", 0, 0L, "7", value);
+    }
+}
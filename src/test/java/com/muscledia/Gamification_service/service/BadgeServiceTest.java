@@ -6,18 +6,24 @@ import com.muscledia.Gamification_service.model.enums.BadgeCriteriaType;
 import com.muscledia.Gamification_service.model.enums.BadgeType;
 import com.muscledia.Gamification_service.repository.BadgeRepository;
 import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.repository.projection.BadgeStatisticsFacet;
+import com.muscledia.Gamification_service.repository.projection.GroupCount;
+import com.muscledia.Gamification_service.service.profile.ProfileUpdateExecutor;
 import com.muscledia.Gamification_service.testdata.TestDataBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -35,6 +41,12 @@ class BadgeServiceTest {
     @Mock
     private UserGamificationProfileRepository userProfileRepository;
 
+    @Spy
+    private CatalogStatisticsCache statisticsCache = new CatalogStatisticsCache();
+
+    @Mock
+    private ProfileUpdateExecutor profileUpdates;
+
     @InjectMocks
     private BadgeService badgeService;
 
@@ -45,6 +57,11 @@ class BadgeServiceTest {
     void setUp() {
         testBadge = TestDataBuilder.createStreakBadge();
         testUser = TestDataBuilder.createActiveUser();
+
+        // Single attempt: load, then apply the mutation
+        lenient().when(profileUpdates.execute(any(Supplier.class), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<UserGamificationProfile, ?>>getArgument(1)
+                        .apply(invocation.<Supplier<UserGamificationProfile>>getArgument(0).get()));
     }
 
     @Test
@@ -250,12 +267,10 @@ class BadgeServiceTest {
     @Test
     void shouldGetBadgeStatistics() {
         // Given
-        when(badgeRepository.count()).thenReturn(50L);
-        when(badgeRepository.findByBadgeType(BadgeType.STREAK)).thenReturn(List.of(testBadge));
-        when(badgeRepository.findByBadgeType(BadgeType.EXERCISE)).thenReturn(List.of());
-        when(badgeRepository.findByBadgeType(BadgeType.PR)).thenReturn(List.of());
-        when(badgeRepository.findByBadgeType(BadgeType.SEASONAL)).thenReturn(List.of());
-        when(badgeRepository.findByBadgeType(BadgeType.CHAMPION)).thenReturn(List.of());
+        when(badgeRepository.aggregateStatistics()).thenReturn(new BadgeStatisticsFacet(
+                List.of(new GroupCount(null, 50L)),
+                List.of(new GroupCount("STREAK", 1L)),
+                List.of(new GroupCount("WORKOUT_STREAK", 1L))));
 
         // When
         Map<String, Object> result = badgeService.getBadgeStatistics();
@@ -271,6 +286,22 @@ class BadgeServiceTest {
         assertThat(badgesByType.get(BadgeType.EXERCISE)).isEqualTo(0L);
     }
 
+    @Test
+    void shouldServeBadgeStatisticsFromCacheUntilCatalogChanges() {
+        // Given
+        when(badgeRepository.aggregateStatistics()).thenReturn(new BadgeStatisticsFacet(
+                List.of(new GroupCount(null, 3L)), List.of(), List.of()));
+
+        // When
+        badgeService.getBadgeStatistics();
+        badgeService.getBadgeStatistics();
+        statisticsCache.invalidate("badges");
+        badgeService.getBadgeStatistics();
+
+        // Then
+        verify(badgeRepository, times(2)).aggregateStatistics();
+    }
+
     @Test
     void shouldDeleteBadge() {
         // Given
@@ -0,0 +1,53 @@
+package com.muscledia.Gamification_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalendarServiceTest {
+
+    private final CalendarService calendar = new CalendarService("UTC");
+
+    @Test
+    void shouldBucketByLocalDayAcrossZonesAndDst() {
+        ZoneId auckland = ZoneId.of("Pacific/Auckland");
+        ZoneId losAngeles = ZoneId.of("America/Los_Angeles");
+        Instant at = Instant.parse("2025-03-09T11:30:00Z"); // DST switch day in Los Angeles
+
+        for (ZoneId zone : new ZoneId[]{auckland, losAngeles, ZoneId.of("UTC")}) {
+            assertThat(calendar.epochDay(at, zone)).isEqualTo(LocalDate.ofInstant(at, zone).toEpochDay());
+        }
+    }
+
+    @Test
+    void shouldComputeWeekAndMonthBoundariesInUserZone() {
+        ZoneId auckland = ZoneId.of("Pacific/Auckland");
+        // Sunday 2025-06-01 12:30 UTC is already Monday 00:30 in Auckland
+        Instant at = Instant.parse("2025-06-01T12:30:00Z");
+
+        long week = calendar.weekOrdinal(at, auckland);
+        assertThat(calendar.weekStart(week, auckland)).isEqualTo(Instant.parse("2025-06-01T12:00:00Z"));
+        assertThat(calendar.isFirstDayOfWeek(at, auckland)).isTrue();
+        assertThat(calendar.weekOrdinal(at, ZoneId.of("UTC"))).isEqualTo(week - 1);
+
+        long month = calendar.monthOrdinal(at, auckland);
+        assertThat(month).isEqualTo(2025 * 12L + 5);
+        assertThat(calendar.monthStart(month, auckland)).isEqualTo(Instant.parse("2025-05-31T12:00:00Z"));
+    }
+
+    @Test
+    void shouldReadStoredWeekStartsFromAnyZone() {
+        // Monday 2025-06-02 midnight in Auckland and in Los Angeles are a day apart in UTC
+        long week = calendar.weekOrdinal(Instant.parse("2025-06-04T00:00:00Z"), ZoneId.of("UTC"));
+        for (String zone : new String[]{"Pacific/Auckland", "America/Los_Angeles", "Pacific/Kiritimati", "Etc/GMT+12"}) {
+            Instant storedStart = calendar.weekStart(week, ZoneId.of(zone));
+            assertThat(calendar.weekOrdinalOfStart(storedStart)).as(zone).isEqualTo(week);
+            assertThat(calendar.monthOrdinalOfStart(calendar.monthStart(2025 * 12L + 5, ZoneId.of(zone))))
+                    .as(zone).isEqualTo(2025 * 12L + 5);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.dto.response.ChallengeCatalogResponse;
+import com.muscledia.Gamification_service.dto.response.ChallengeResponse;
+import com.muscledia.Gamification_service.dto.response.ChallengeTemplateResponse;
+import com.muscledia.Gamification_service.mapper.ChallengeMapper;
+import com.muscledia.Gamification_service.model.Challenge;
+import com.muscledia.Gamification_service.model.ChallengeTemplate;
+import com.muscledia.Gamification_service.model.UserChallenge;
+import com.muscledia.Gamification_service.model.UserJourneyProfile;
+import com.muscledia.Gamification_service.model.enums.ChallengeType;
+import com.muscledia.Gamification_service.model.enums.DifficultyLevel;
+import com.muscledia.Gamification_service.repository.UserChallengeRepository;
+import com.muscledia.Gamification_service.repository.projection.UserChallengeCatalogFacet;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraph;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraphService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeCatalogServiceTest {
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private UserJourneyProfileService userJourneyService;
+
+    @Mock
+    private ChallengeTemplateGraphService templateGraphService;
+
+    @Mock
+    private ChallengeMapper challengeMapper;
+
+    @InjectMocks
+    private ChallengeCatalogService catalogService;
+
+    private final ChallengeTemplate running = template("running", "foundation", Set.of(), 1.0);
+    private final ChallengeTemplate tagged = template("tagged", "foundation", Set.of("strength"), 1.0);
+    private final ChallengeTemplate heavy = template("heavy", "foundation", Set.of(), 3.0);
+    private final ChallengeTemplate later = template("later", "building", Set.of("strength"), 5.0);
+    private final ChallengeTemplateGraph graph = ChallengeTemplateGraph.compile(List.of(running, tagged, heavy, later));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogService, "cacheTtlSeconds", 300L);
+        ReflectionTestUtils.setField(catalogService, "cacheMaxSize", 100L);
+        catalogService.initialize();
+
+        lenient().when(templateGraphService.current()).thenReturn(graph);
+        lenient().when(userJourneyService.getUserJourney(7L)).thenReturn(UserJourneyProfile.builder()
+                .userId(7L)
+                .currentPhase("foundation")
+                .preferredDifficulty(DifficultyLevel.BEGINNER)
+                .activeJourneyTags(Set.of("strength"))
+                .completedChallengeTemplates(Set.of())
+                .build());
+        lenient().when(userChallengeRepository.aggregateCatalog(7L)).thenReturn(new UserChallengeCatalogFacet(
+                List.of(new UserChallengeCatalogFacet.Entry(
+                        UserChallenge.builder().id("uc1").challengeId("c1").build(),
+                        Challenge.builder().id("c1").templateId("running").build())),
+                List.of(),
+                List.of(new UserChallengeCatalogFacet.Totals(3, 2))));
+        lenient().when(challengeMapper.toTemplateResponse(any(), any(), any(), any())).thenAnswer(invocation ->
+                ChallengeTemplateResponse.builder().id(invocation.<ChallengeTemplate>getArgument(0).getId()).build());
+        lenient().when(challengeMapper.toResponse(any(), any(), any(), any())).thenAnswer(invocation ->
+                ChallengeResponse.builder().id(invocation.<Challenge>getArgument(0).getId()).build());
+    }
+
+    @Test
+    void shouldBuildCatalogFromOneAggregation() {
+        // When
+        ChallengeCatalogResponse catalog = catalogService.getCatalog(7L);
+
+        // Then: the running template is not offered again; recommendations stay in the user's phase
+        assertThat(catalog.getActiveChallenges()).extracting(ChallengeResponse::getId).containsExactly("c1");
+        assertThat(catalog.getAvailableChallenges()).containsOnlyKeys("building", "foundation");
+        assertThat(catalog.getAvailableChallenges().get("foundation"))
+                .extracting(ChallengeTemplateResponse::getId).containsExactlyInAnyOrder("tagged", "heavy");
+        assertThat(catalog.getRecommendedChallenges())
+                .extracting(ChallengeTemplateResponse::getId).containsExactly("tagged", "heavy");
+        assertThat(catalog.getJourneyInfo().getTotalChallenges()).isEqualTo(3);
+        assertThat(catalog.getJourneyInfo().getCompletedChallenges()).isEqualTo(2);
+        verify(userChallengeRepository, times(1)).aggregateCatalog(7L);
+    }
+
+    @Test
+    void shouldServeCachedCatalogUntilInvalidated() {
+        // When
+        ChallengeCatalogResponse first = catalogService.getCatalog(7L);
+        ChallengeCatalogResponse cached = catalogService.getCatalog(7L);
+        catalogService.invalidate(7L);
+        ChallengeCatalogResponse rebuilt = catalogService.getCatalog(7L);
+
+        // Then
+        assertThat(cached).isSameAs(first);
+        assertThat(rebuilt).isNotSameAs(first);
+        verify(userChallengeRepository, times(2)).aggregateCatalog(7L);
+    }
+
+    @Test
+    void shouldRebuildCatalogWhenTemplatesAreReloaded() {
+        // Given
+        ChallengeCatalogResponse first = catalogService.getCatalog(7L);
+        when(templateGraphService.current()).thenReturn(ChallengeTemplateGraph.compile(List.of(tagged)));
+
+        // When
+        ChallengeCatalogResponse reloaded = catalogService.getCatalog(7L);
+
+        // Then
+        assertThat(reloaded).isNotSameAs(first);
+        assertThat(reloaded.getAvailableChallenges().get("foundation"))
+                .extracting(ChallengeTemplateResponse::getId).containsExactly("tagged");
+        verify(userChallengeRepository, times(2)).aggregateCatalog(7L);
+    }
+
+    private static ChallengeTemplate template(String id, String phase, Set<String> tags, double weight) {
+        ChallengeTemplate template = ChallengeTemplate.builder()
+                .id(id).name(id).type(ChallengeType.DAILY).journeyPhase(phase).userJourneyTags(tags)
+                .build();
+        template.setActive(true);
+        template.setWeight(weight);
+        return template;
+    }
+}
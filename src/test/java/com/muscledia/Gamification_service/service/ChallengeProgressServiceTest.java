@@ -0,0 +1,161 @@
+package com.muscledia.Gamification_service.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.muscledia.Gamification_service.event.ChallengeCompletedEvent;
+import com.muscledia.Gamification_service.event.WorkoutCompletedEvent;
+import com.muscledia.Gamification_service.event.publisher.EventPublisher;
+import com.muscledia.Gamification_service.model.Challenge;
+import com.muscledia.Gamification_service.model.UserChallenge;
+import com.muscledia.Gamification_service.model.enums.ChallengeStatus;
+import com.muscledia.Gamification_service.model.enums.ChallengeType;
+import com.muscledia.Gamification_service.model.enums.ObjectiveType;
+import com.muscledia.Gamification_service.repository.UserChallengeRepository;
+import com.muscledia.Gamification_service.service.profile.ProfileCounterBuffer;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeProgressServiceTest {
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private ChallengeDefinitionCache challengeDefinitions;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ProfileCounterBuffer profileCounters;
+
+    @Mock
+    private ExpirySweepService expirySweepService;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    @Mock
+    private UserGamificationService gamificationService;
+
+    @Mock
+    private UserJourneyProfileService journeyService;
+
+    @Mock
+    private UserPerformanceAnalyzer performanceAnalyzer;
+
+    @Mock
+    private ChallengeProgressionService progressionService;
+
+    @Mock
+    private ChallengeCatalogService challengeCatalog;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private ChallengeProgressService progressService;
+
+    private final Challenge challenge = Challenge.builder()
+            .id("c1").name("100 reps").type(ChallengeType.DAILY).objectiveType(ObjectiveType.REPS).rewardPoints(40)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(userChallengeRepository.findActiveByUserId(7L)).thenReturn(List.of(active(80)));
+        lenient().when(challengeDefinitions.getAll(Set.of("c1"))).thenReturn(Map.of("c1", challenge));
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserChallenge.class)).thenReturn(bulkOperations);
+    }
+
+    @Test
+    void shouldCompleteAndRewardChallengeOnce() {
+        // Given: 80 + 30 reps crosses the target of 100
+        UserChallenge completed = active(110);
+        completed.setStatus(ChallengeStatus.COMPLETED);
+        completed.setCompletedAt(Instant.now());
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(UserChallenge.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.find(any(Query.class), eq(UserChallenge.class))).thenReturn(List.of(completed));
+
+        // When
+        progressService.updateChallengeProgress(7L, workout(30));
+
+        // Then: the flip only matches challenges still ACTIVE, and stamps a token to read them back
+        ArgumentCaptor<Query> crossed = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> flip = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(crossed.capture(), flip.capture(), eq(UserChallenge.class));
+        assertThat(crossed.getValue().getQueryObject().get("status")).isEqualTo(ChallengeStatus.ACTIVE);
+        assertThat(flip.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("status", ChallengeStatus.COMPLETED)
+                .containsKey("completionToken");
+
+        verify(gamificationService, times(1)).updateUserPoints(7L, 40);
+        verify(journeyService).recordChallengeCompletions(7L, List.of(challenge));
+        verify(eventPublisher, times(1)).publishChallengeCompleted(any(ChallengeCompletedEvent.class));
+        verify(eventPublisher, never()).publishChallengeProgress(any());
+    }
+
+    @Test
+    void shouldNotRewardWhenAConcurrentWorkoutAlreadyCompletedIt() {
+        // Given: both workouts read the challenge as ACTIVE; the other one flipped it first
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(UserChallenge.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // When
+        progressService.updateChallengeProgress(7L, workout(30));
+
+        // Then
+        verify(mongoTemplate, never()).find(any(Query.class), eq(UserChallenge.class));
+        verify(gamificationService, never()).updateUserPoints(any(), anyInt());
+        verify(profileCounters, never()).addPoints(any(), anyInt());
+        verify(journeyService, never()).recordChallengeCompletions(any(), anyList());
+        verify(eventPublisher, never()).publishChallengeCompleted(any());
+    }
+
+    @Test
+    void shouldLeaveAlreadyCompletedChallengesUntouched() {
+        // Given: the challenge is completed, so it is no longer among the active ones
+        when(userChallengeRepository.findActiveByUserId(7L)).thenReturn(List.of());
+
+        // When
+        progressService.updateChallengeProgress(7L, workout(30));
+
+        // Then
+        verifyNoInteractions(mongoTemplate, gamificationService, journeyService, eventPublisher);
+    }
+
+    private static UserChallenge active(int progress) {
+        return UserChallenge.builder()
+                .id("uc1").userId(7L).challengeId("c1")
+                .status(ChallengeStatus.ACTIVE)
+                .currentProgress(progress).targetValue(100)
+                .startedAt(Instant.now().minusSeconds(3_600))
+                .build();
+    }
+
+    private static WorkoutCompletedEvent workout(int reps) {
+        return WorkoutCompletedEvent.builder().userId(7L).workoutId("w1").workoutType("STRENGTH").totalReps(reps).build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.model.Challenge;
+import com.muscledia.Gamification_service.model.ChallengeTemplate;
+import com.muscledia.Gamification_service.model.UserJourneyProfile;
+import com.muscledia.Gamification_service.model.UserPerformanceMetrics;
+import com.muscledia.Gamification_service.model.enums.ChallengeType;
+import com.muscledia.Gamification_service.model.enums.DifficultyLevel;
+import com.muscledia.Gamification_service.model.enums.ObjectiveType;
+import com.muscledia.Gamification_service.repository.ChallengeRepository;
+import com.muscledia.Gamification_service.repository.ChallengeTemplateRepository;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraph;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraphService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeProgressionServiceTest {
+
+    @Mock
+    private ChallengeTemplateRepository templateRepository;
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private UserPerformanceAnalyzer performanceAnalyzer;
+
+    @Mock
+    private UserJourneyProfileService userJourneyProfileService;
+
+    @Mock
+    private ChallengeTemplateGraphService templateGraphService;
+
+    @InjectMocks
+    private ChallengeProgressionService progressionService;
+
+    private final ChallengeTemplate template = ChallengeTemplate.builder()
+            .id("t1").name("Daily reps").type(ChallengeType.DAILY).objective(ObjectiveType.REPS)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(progressionService, "cacheTtlSeconds", 600L);
+        ReflectionTestUtils.setField(progressionService, "cacheMaxSize", 100L);
+        progressionService.initialize();
+
+        lenient().when(templateRepository.findByTypeAndPhase(ChallengeType.DAILY, "foundation"))
+                .thenReturn(List.of(template));
+        lenient().when(templateGraphService.current()).thenReturn(ChallengeTemplateGraph.empty());
+        lenient().when(challengeRepository.findByTemplateIdInAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+        lenient().when(challengeRepository.findByTemplateIdAndDateRange(eq("t1"), any(), any()))
+                .thenReturn(Optional.empty());
+        lenient().when(performanceAnalyzer.analyzeUser(any())).thenReturn(
+                UserPerformanceMetrics.builder().recentCompletionRate(0.5).build());
+        lenient().when(challengeRepository.save(any(Challenge.class)))
+                .thenAnswer(invocation -> saved(invocation.getArgument(0)));
+    }
+
+    @Test
+    void shouldMemoizeGeneratedChallengesUntilInvalidated() {
+        // When
+        List<Challenge> first = progressionService.generatePersonalizedChallenges(7L, ChallengeType.DAILY, journey(7L));
+        List<Challenge> cached = progressionService.generatePersonalizedChallenges(7L, ChallengeType.DAILY, journey(7L));
+        progressionService.invalidate(7L);
+        List<Challenge> regenerated = progressionService.generatePersonalizedChallenges(7L, ChallengeType.DAILY, journey(7L));
+
+        // Then: the period's challenge is created once and reused after invalidation
+        assertThat(cached).isSameAs(first);
+        assertThat(regenerated).isNotSameAs(first).containsExactlyElementsOf(first);
+        verify(templateRepository, times(2)).findByTypeAndPhase(ChallengeType.DAILY, "foundation");
+        verify(challengeRepository, times(1)).save(any(Challenge.class));
+    }
+
+    @Test
+    void shouldGenerateOnceForConcurrentRequests() throws Exception {
+        // Given: the first generation blocks until released
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(templateRepository.findByTypeAndPhase(ChallengeType.DAILY, "foundation")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(template);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<List<Challenge>> first = executor.submit(() ->
+                    progressionService.generatePersonalizedChallenges(7L, ChallengeType.DAILY, journey(7L)));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<List<Challenge>> second = executor.submit(() ->
+                    progressionService.generatePersonalizedChallenges(7L, ChallengeType.DAILY, journey(7L)));
+            release.countDown();
+
+            // Then
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+            verify(templateRepository, times(1)).findByTypeAndPhase(ChallengeType.DAILY, "foundation");
+            verify(challengeRepository, times(1)).save(any(Challenge.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldShareThePeriodChallengeAcrossUsers() {
+        // When
+        Challenge forFirst = progressionService.generatePersonalizedChallenges(7L, ChallengeType.DAILY, journey(7L)).get(0);
+        Challenge forSecond = progressionService.generatePersonalizedChallenges(8L, ChallengeType.DAILY, journey(8L)).get(0);
+
+        // Then
+        assertThat(forSecond).isSameAs(forFirst);
+        verify(challengeRepository, times(1)).save(any(Challenge.class));
+    }
+
+    @Test
+    void shouldReuseChallengeCreatedByAnotherNode() {
+        // Given: the save loses a race on the period key
+        Challenge other = saved(Challenge.builder().templateId("t1").name("Daily reps").build());
+        when(challengeRepository.save(any(Challenge.class))).thenThrow(new DuplicateKeyException("periodKey"));
+        when(challengeRepository.findByTemplateIdAndDateRange(eq("t1"), any(Instant.class), any(Instant.class)))
+                .thenReturn(Optional.empty(), Optional.of(other));
+
+        // When
+        List<Challenge> generated = progressionService.generatePersonalizedChallenges(7L, ChallengeType.DAILY, journey(7L));
+
+        // Then
+        assertThat(generated).containsExactly(other);
+    }
+
+    private static UserJourneyProfile journey(Long userId) {
+        return UserJourneyProfile.builder()
+                .userId(userId)
+                .currentPhase("foundation")
+                .preferredDifficulty(DifficultyLevel.BEGINNER)
+                .completedChallengeTemplates(Set.of())
+                .build();
+    }
+
+    private static Challenge saved(Challenge challenge) {
+        challenge.setId("c-" + challenge.getTemplateId());
+        return challenge;
+    }
+}
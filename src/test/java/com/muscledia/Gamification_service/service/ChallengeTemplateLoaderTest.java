@@ -0,0 +1,266 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.model.ChallengeTemplate;
+import com.muscledia.Gamification_service.model.TemplateFileManifest;
+import com.muscledia.Gamification_service.repository.ChallengeTemplateRepository;
+import com.muscledia.Gamification_service.repository.TemplateFileManifestRepository;
+import com.muscledia.Gamification_service.service.monitoring.ChallengeTemplatesHealthIndicator;
+import com.muscledia.Gamification_service.service.progression.ChallengeTemplateGraphService;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChallengeTemplateLoaderTest {
+
+    private static final String TWO_TEMPLATES = """
+            templates:
+              first:
+                id: "first"
+                name: "First"
+              second:
+                id: "second"
+                name: "Second"
+            """;
+
+    private static final String ONE_TEMPLATE = """
+            templates:
+              first:
+                id: "first"
+                name: "First"
+            """;
+
+    // The null scaling entry fails conversion of "second"
+    private static final String BROKEN_TEMPLATE = """
+            templates:
+              first:
+                id: "first"
+                name: "First"
+              second:
+                id: "second"
+                difficulty_scaling:
+                  BEGINNER:
+            """;
+
+    @Mock
+    private ChallengeTemplateRepository templateRepository;
+
+    @Mock
+    private TemplateFileManifestRepository manifestRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ChallengeTemplateGraphService templateGraphService;
+
+    @Mock
+    private ChallengeTemplatesHealthIndicator templatesReadiness;
+
+    @Mock
+    private ResourcePatternResolver resourceResolver;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private ChallengeTemplateLoader loader;
+
+    private final List<Resource> beginnerFiles = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(loader, "resourceResolver", resourceResolver);
+        ReflectionTestUtils.setField(loader, "parseParallelism", 1);
+        lenient().when(resourceResolver.getResources(anyString())).thenAnswer(invocation ->
+                invocation.<String>getArgument(0).contains("/beginner/")
+                        ? beginnerFiles.toArray(Resource[]::new)
+                        : new Resource[0]);
+        lenient().when(templateRepository.count()).thenReturn(2L);
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChallengeTemplate.class))
+                .thenReturn(bulkOperations);
+    }
+
+    @Test
+    void shouldSkipFilesWhoseHashMatchesTheManifest() throws Exception {
+        // Given
+        beginnerFiles.add(file("strength.yml", TWO_TEMPLATES));
+        when(manifestRepository.findAll()).thenReturn(List.of(
+                manifest("beginner/strength.yml", TWO_TEMPLATES, "first", "second")));
+
+        // When
+        ChallengeTemplateLoader.LoadResult result = loader.loadAllTemplates(false);
+
+        // Then
+        assertThat(result.filesScanned()).isEqualTo(1);
+        assertThat(result.filesChanged()).isZero();
+        verifyNoInteractions(mongoTemplate, templateGraphService);
+        verify(manifestRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    void shouldUpsertChangedFileAndRemoveTemplatesItNoLongerDefines() throws Exception {
+        // Given: the file used to define first and second
+        beginnerFiles.add(file("strength.yml", ONE_TEMPLATE));
+        when(manifestRepository.findAll()).thenReturn(List.of(
+                manifest("beginner/strength.yml", TWO_TEMPLATES, "first", "second")));
+        when(templateRepository.findAll()).thenReturn(List.of(stored("first"), stored("second")));
+
+        // When
+        ChallengeTemplateLoader.LoadResult result = loader.loadAllTemplates(false);
+
+        // Then
+        assertThat(result.filesChanged()).isEqualTo(1);
+        assertThat(result.templatesUpserted()).isEqualTo(1);
+        assertThat(result.templatesRemoved()).isEqualTo(1);
+        verify(bulkOperations).replaceOne(any(Query.class), any(ChallengeTemplate.class), any(FindAndReplaceOptions.class));
+        assertThat(removedIds()).contains("second").doesNotContain("first");
+        assertThat(savedManifests()).singleElement().satisfies(manifest -> {
+            assertThat(manifest.getTemplateIds()).containsExactly("first");
+            assertThat(manifest.getContentHash()).isEqualTo(sha256(ONE_TEMPLATE));
+        });
+        verify(templateGraphService).refresh();
+    }
+
+    @Test
+    void shouldKeepPreviousTemplatesWhenAConversionFails() throws Exception {
+        // Given
+        beginnerFiles.add(file("strength.yml", BROKEN_TEMPLATE));
+        when(manifestRepository.findAll()).thenReturn(List.of(
+                manifest("beginner/strength.yml", TWO_TEMPLATES, "first", "second")));
+        when(templateRepository.findAll()).thenReturn(List.of(stored("first"), stored("second")));
+
+        // When
+        ChallengeTemplateLoader.LoadResult result = loader.loadAllTemplates(false);
+
+        // Then: nothing written, and the manifest keeps the old hash so the file is retried
+        assertThat(result.filesFailed()).isEqualTo(1);
+        assertThat(result.templatesUpserted()).isZero();
+        assertThat(result.templatesRemoved()).isZero();
+        verifyNoInteractions(bulkOperations);
+        assertThat(savedManifests()).isEmpty();
+    }
+
+    @Test
+    void shouldRemoveOrphanedTemplatesOnForcedResync() throws Exception {
+        // Given: an unchanged file, and a stored template no file accounts for
+        beginnerFiles.add(file("strength.yml", TWO_TEMPLATES));
+        when(manifestRepository.findAll()).thenReturn(List.of(
+                manifest("beginner/strength.yml", TWO_TEMPLATES, "first", "second")));
+        when(templateRepository.findAll()).thenReturn(List.of(stored("first"), stored("second"), stored("orphan")));
+
+        // When
+        ChallengeTemplateLoader.LoadResult result = loader.loadAllTemplates(true);
+
+        // Then: the file is reparsed and only the orphan goes
+        assertThat(result.filesChanged()).isEqualTo(1);
+        assertThat(result.templatesUpserted()).isEqualTo(2);
+        assertThat(result.templatesRemoved()).isEqualTo(1);
+        assertThat(removedIds()).containsExactly("orphan");
+    }
+
+    @Test
+    void shouldKeepTemplatesOfAFailedFileOnForcedResync() throws Exception {
+        // Given
+        beginnerFiles.add(file("strength.yml", BROKEN_TEMPLATE));
+        when(manifestRepository.findAll()).thenReturn(List.of(
+                manifest("beginner/strength.yml", TWO_TEMPLATES, "first", "second")));
+        when(templateRepository.findAll()).thenReturn(List.of(stored("first"), stored("second"), stored("orphan")));
+
+        // When
+        ChallengeTemplateLoader.LoadResult result = loader.loadAllTemplates(true);
+
+        // Then
+        assertThat(result.filesFailed()).isEqualTo(1);
+        assertThat(removedIds()).containsExactly("orphan");
+    }
+
+    @Test
+    void shouldRemoveTemplatesOfVanishedFiles() throws Exception {
+        // Given: the manifest knows a file that is no longer on the classpath
+        when(manifestRepository.findAll()).thenReturn(List.of(
+                manifest("beginner/retired.yml", ONE_TEMPLATE, "first")));
+        when(templateRepository.findAll()).thenReturn(List.of(stored("first")));
+
+        // When
+        ChallengeTemplateLoader.LoadResult result = loader.loadAllTemplates(false);
+
+        // Then
+        assertThat(result.templatesRemoved()).isEqualTo(1);
+        assertThat(removedIds()).containsExactly("first");
+        verify(manifestRepository).deleteAllById(List.of("beginner/retired.yml"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> removedIds() {
+        ArgumentCaptor<Query> removal = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations).remove(removal.capture());
+        Document in = removal.getValue().getQueryObject().get("_id", Document.class);
+        return new ArrayList<>((Collection<String>) in.get("$in"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TemplateFileManifest> savedManifests() {
+        ArgumentCaptor<Iterable<TemplateFileManifest>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(manifestRepository, atMostOnce()).saveAll(saved.capture());
+        List<TemplateFileManifest> manifests = new ArrayList<>();
+        saved.getAllValues().forEach(batch -> batch.forEach(manifests::add));
+        return manifests;
+    }
+
+    private static Resource file(String name, String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return name;
+            }
+        };
+    }
+
+    private static TemplateFileManifest manifest(String path, String content, String... templateIds) {
+        return TemplateFileManifest.builder()
+                .path(path)
+                .contentHash(sha256(content))
+                .templateIds(List.of(templateIds))
+                .build();
+    }
+
+    private static ChallengeTemplate stored(String id) {
+        return ChallengeTemplate.builder().id(id).name(id).build();
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
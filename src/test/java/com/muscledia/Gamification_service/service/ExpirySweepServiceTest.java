@@ -0,0 +1,182 @@
+package com.muscledia.Gamification_service.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.muscledia.Gamification_service.event.ChallengeExpiredEvent;
+import com.muscledia.Gamification_service.event.publisher.EventPublisher;
+import com.muscledia.Gamification_service.model.Quest;
+import com.muscledia.Gamification_service.model.UserChallenge;
+import com.muscledia.Gamification_service.model.UserQuestProgress;
+import com.muscledia.Gamification_service.model.enums.ChallengeStatus;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpirySweepServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T00:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    @Mock
+    private ChallengeCatalogService challengeCatalog;
+
+    @InjectMocks
+    private ExpirySweepService sweepService;
+
+    private final List<Update> cleared = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sweepService, "eventBatchSize", 2);
+    }
+
+    @Test
+    void shouldPublishInBatchesAndClearThePendingMark() {
+        // Given: three challenges expire, published in batches of two
+        stubUpdates(3, 0);
+        when(mongoTemplate.stream(any(Query.class), eq(UserChallenge.class)))
+                .thenReturn(Stream.of(expired("uc1"), expired("uc2"), expired("uc3")));
+
+        // When
+        ExpirySweepService.SweepResult result = sweepService.expireChallenges(NOW);
+
+        // Then
+        assertThat(result.expired()).isEqualTo(3);
+        assertThat(result.eventsPublished()).isEqualTo(3);
+        verify(eventPublisher, times(2)).publishChallengesExpired(anyList());
+        assertThat(cleared).hasSize(2);
+        verify(challengeCatalog).invalidateAll();
+    }
+
+    @Test
+    void shouldLeaveAFailedBatchPending() {
+        // Given: the first batch fails to publish
+        stubUpdates(3, 0);
+        when(mongoTemplate.stream(any(Query.class), eq(UserChallenge.class)))
+                .thenReturn(Stream.of(expired("uc1"), expired("uc2"), expired("uc3")));
+        doThrow(new IllegalStateException("outbox unavailable"))
+                .doNothing()
+                .when(eventPublisher).publishChallengesExpired(anyList());
+
+        // When
+        ExpirySweepService.SweepResult result = sweepService.expireChallenges(NOW);
+
+        // Then: only the published batch loses its pending mark
+        assertThat(result.eventsPublished()).isEqualTo(1);
+        assertThat(cleared).hasSize(1);
+    }
+
+    @Test
+    void shouldRetryEventsLeftPendingByAnEarlierRun() {
+        // Given: nothing new expired, but an earlier run left one challenge pending
+        stubUpdates(0, 1);
+        when(mongoTemplate.stream(any(Query.class), eq(UserChallenge.class)))
+                .thenReturn(Stream.of(expired("uc1")));
+
+        // When
+        ExpirySweepService.SweepResult result = sweepService.expireChallenges(NOW);
+
+        // Then
+        ArgumentCaptor<List<ChallengeExpiredEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishChallengesExpired(events.capture());
+        assertThat(events.getValue()).extracting(ChallengeExpiredEvent::getUserChallengeId).containsExactly("uc1");
+        assertThat(events.getValue().get(0).getExpiryRunId()).isEqualTo(result.runId());
+        assertThat(result.expired()).isZero();
+        assertThat(result.eventsPublished()).isEqualTo(1);
+        verify(challengeCatalog, never()).invalidateAll();
+    }
+
+    @Test
+    void shouldFailQuestProgressInIdBatchesAndStartTheNextSweepAtTheMark() {
+        // Given: three ended quests, two ids per batch
+        when(mongoTemplate.stream(any(Query.class), eq(Quest.class)))
+                .thenReturn(Stream.of(quest("q1"), quest("q2"), quest("q3")), Stream.empty());
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(UserQuestProgress.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // When
+        sweepService.expireQuests(NOW);
+        sweepService.expireQuests(NOW.plusSeconds(3600));
+
+        // Then: the first sweep flips [q1, q2] and [q3]; the second only looks past the first
+        ArgumentCaptor<Query> flips = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(4)).updateMulti(flips.capture(), any(Update.class), eq(UserQuestProgress.class));
+        assertThat(flips.getAllValues().get(0).getQueryObject().toString()).contains("q1", "q2").doesNotContain("q3");
+        assertThat(flips.getAllValues().get(1).getQueryObject().toString()).contains("q3");
+
+        ArgumentCaptor<Query> ended = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).stream(ended.capture(), eq(Quest.class));
+        Document secondWindow = (Document) ended.getAllValues().get(1).getQueryObject().get("endDate");
+        assertThat(secondWindow.get("$gte")).isEqualTo(NOW);
+        assertThat(secondWindow.get("$lt")).isEqualTo(NOW.plusSeconds(3600));
+    }
+
+    @Test
+    void shouldSkipFanOutWhenNothingExpiredOrPending() {
+        stubUpdates(0, 0);
+
+        ExpirySweepService.SweepResult result = sweepService.expireChallenges(NOW);
+
+        assertThat(result.eventsPublished()).isZero();
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(UserChallenge.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    /**
+     * Route updateMulti calls by shape: the status flip, the claim of pending leftovers and
+     * the per-batch clearing of the pending mark
+     */
+    private void stubUpdates(long expired, long pending) {
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(UserChallenge.class)))
+                .thenAnswer(invocation -> {
+                    Update update = invocation.getArgument(1);
+                    Document set = update.getUpdateObject().get("$set", Document.class);
+                    if (set == null) {
+                        cleared.add(update);
+                        return UpdateResult.acknowledged(1, 1L, null);
+                    }
+                    long modified = set.containsKey("status") ? expired : pending;
+                    return UpdateResult.acknowledged(modified, modified, null);
+                });
+    }
+
+    private static UserChallenge expired(String id) {
+        return UserChallenge.builder()
+                .id(id).userId(7L).challengeId("c-" + id)
+                .status(ChallengeStatus.EXPIRED)
+                .currentProgress(3).targetValue(10)
+                .lastUpdatedAt(NOW)
+                .build();
+    }
+
+    private static Quest quest(String id) {
+        Quest quest = new Quest();
+        quest.setId(id);
+        return quest;
+    }
+}
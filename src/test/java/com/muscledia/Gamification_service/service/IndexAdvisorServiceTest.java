@@ -0,0 +1,32 @@
+package com.muscledia.Gamification_service.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexAdvisorServiceTest {
+
+    @Test
+    void shouldFindCollectionScanNestedInPlan() {
+        // Given: a $or plan where one branch has no index
+        Document plan = Document.parse("{ stage: 'SUBPLAN', inputStage: { stage: 'OR', inputStages: ["
+                + "{ stage: 'IXSCAN', indexName: 'status_retry_idx' },"
+                + "{ stage: 'COLLSCAN' } ] } }");
+
+        // Then
+        assertThat(IndexAdvisorService.hasStage(plan, "COLLSCAN")).isTrue();
+    }
+
+    @Test
+    void shouldAcceptIndexedAndEmptyPlans() {
+        Document indexed = Document.parse("{ stage: 'FETCH', inputStage: { stage: 'IXSCAN', indexName: 'points_idx' } }");
+        Document missingCollection = Document.parse("{ stage: 'EOF' }");
+
+        assertThat(IndexAdvisorService.hasStage(indexed, "COLLSCAN")).isFalse();
+        assertThat(IndexAdvisorService.hasStage(missingCollection, "COLLSCAN")).isFalse();
+        assertThat(IndexAdvisorService.hasStage(List.of(), "COLLSCAN")).isFalse();
+    }
+}
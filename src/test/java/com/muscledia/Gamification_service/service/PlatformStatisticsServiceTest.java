@@ -0,0 +1,92 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.repository.projection.GroupCount;
+import com.muscledia.Gamification_service.repository.projection.PlatformStatisticsFacet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+class PlatformStatisticsServiceTest {
+
+    @Mock
+    private UserGamificationProfileRepository repository;
+
+    @InjectMocks
+    private PlatformStatisticsService platformStatistics;
+
+    @BeforeEach
+    void setUp() {
+        String hour = Instant.now().truncatedTo(ChronoUnit.HOURS).toString();
+        when(repository.aggregatePlatformStatistics(any(Instant.class))).thenReturn(new PlatformStatisticsFacet(
+                List.of(new GroupCount(null, 10L)),
+                List.of(new GroupCount("1", 7L), new GroupCount("2", 3L)),
+                List.of(new GroupCount("0-100", 7L), new GroupCount("100-300", 3L)),
+                List.of(new GroupCount(hour, 2L)),
+                List.of(new GroupCount(null, 4L))));
+    }
+
+    @Test
+    void shouldReconcileFromSingleAggregation() {
+        // When
+        Map<String, Object> result = platformStatistics.getPlatformStatistics();
+        platformStatistics.getPlatformStatistics();
+
+        // Then
+        assertThat(result.get("totalUsers")).isEqualTo(10L);
+        assertThat(result.get("recentLevelUps")).isEqualTo(2L);
+        assertThat(result.get("activeUsers")).isEqualTo(4L);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> levelDistribution = (Map<String, Long>) result.get("levelDistribution");
+        assertThat(levelDistribution.get("level1")).isEqualTo(7L);
+        assertThat(levelDistribution.get("level2")).isEqualTo(3L);
+
+        verify(repository, times(1)).aggregatePlatformStatistics(any(Instant.class));
+    }
+
+    @Test
+    void shouldApplyMutationsIncrementally() {
+        // Given
+        platformStatistics.reconcile();
+        UserGamificationProfile profile = UserGamificationProfile.builder()
+                .userId(1L)
+                .points(0)
+                .level(1)
+                .build();
+
+        // When
+        platformStatistics.recordProfileCreated(profile);
+        Instant oldLastLevelUp = profile.getLastLevelUpDate();
+        profile.addPoints(150);
+        platformStatistics.recordProgressChange(0, 1, oldLastLevelUp, profile);
+        platformStatistics.recordStreakChange("workout", 0, 1);
+        Map<String, Object> result = platformStatistics.getPlatformStatistics();
+
+        // Then
+        assertThat(result.get("totalUsers")).isEqualTo(11L);
+        assertThat(result.get("recentLevelUps")).isEqualTo(3L);
+        assertThat(result.get("activeUsers")).isEqualTo(5L);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> pointsDistribution = (Map<String, Long>) result.get("pointsDistribution");
+        assertThat(pointsDistribution.get("0-100")).isEqualTo(7L);
+        assertThat(pointsDistribution.get("100-300")).isEqualTo(4L);
+    }
+}
@@ -0,0 +1,96 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.model.Quest;
+import com.muscledia.Gamification_service.model.UserQuestProgress;
+import com.muscledia.Gamification_service.model.enums.QuestStatus;
+import com.muscledia.Gamification_service.repository.QuestRepository;
+import com.muscledia.Gamification_service.repository.UserQuestProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuestCatalogIndexTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-31T00:00:00Z");
+
+    @Mock
+    private QuestRepository questRepository;
+
+    @Mock
+    private UserQuestProgressRepository questProgressRepository;
+
+    @InjectMocks
+    private QuestCatalogIndex questIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(questIndex, "completedCacheTtlSeconds", 60L);
+        ReflectionTestUtils.setField(questIndex, "completedCacheMaxSize", 100L);
+        questIndex.initialize();
+    }
+
+    @Test
+    void shouldFindQuestsActiveAtTimeUpToLevel() {
+        // Given: a day-long level 1 quest, a week-long level 5 quest and a quest starting tomorrow
+        Quest daily = quest("daily", 1, T0, T0.plusSeconds(86_399));
+        Quest weekly = quest("weekly", 5, T0, T0.plusSeconds(7 * 86_400));
+        Quest tomorrow = quest("tomorrow", 1, T0.plusSeconds(86_400), T0.plusSeconds(2 * 86_400));
+        when(questRepository.findCurrentAndUpcomingQuests(any(Instant.class)))
+                .thenReturn(List.of(weekly, tomorrow, daily));
+
+        // Then
+        assertThat(questIndex.activeQuests(T0.plusSeconds(3_600), 10)).containsExactly(daily, weekly);
+        assertThat(questIndex.activeQuests(T0.plusSeconds(3_600), 4)).containsExactly(daily);
+        assertThat(questIndex.activeQuests(T0.plusSeconds(86_399), 1)).containsExactly(daily);
+        assertThat(questIndex.activeQuests(T0.plusSeconds(86_400), 10)).containsExactly(tomorrow, weekly);
+        assertThat(questIndex.activeQuests(T0.minusSeconds(1), 10)).isEmpty();
+        assertThat(questIndex.activeQuests(T0.plusSeconds(8 * 86_400), 10)).isEmpty();
+        verify(questRepository, times(1)).findCurrentAndUpcomingQuests(any(Instant.class));
+    }
+
+    @Test
+    void shouldLoadCompletedQuestsOnceAndRecordNewCompletions() {
+        // Given
+        when(questProgressRepository.findQuestIdsByUserIdAndStatus(7L, QuestStatus.COMPLETED))
+                .thenReturn(List.of(progress("q3"), progress("q1"), progress("q3")));
+
+        // When
+        boolean before = questIndex.hasCompleted(7L, "q2");
+        questIndex.recordCompleted(7L, "q2");
+
+        // Then
+        assertThat(before).isFalse();
+        assertThat(questIndex.hasCompleted(7L, "q1")).isTrue();
+        assertThat(questIndex.hasCompleted(7L, "q2")).isTrue();
+        assertThat(questIndex.hasCompleted(7L, "q3")).isTrue();
+        assertThat(questIndex.hasCompleted(7L, "q4")).isFalse();
+        verify(questProgressRepository, times(1)).findQuestIdsByUserIdAndStatus(7L, QuestStatus.COMPLETED);
+    }
+
+    private static Quest quest(String id, int requiredLevel, Instant start, Instant end) {
+        Quest quest = new Quest();
+        quest.setId(id);
+        quest.setRequiredLevel(requiredLevel);
+        quest.setStartDate(start);
+        quest.setEndDate(end);
+        return quest;
+    }
+
+    private static UserQuestProgress progress(String questId) {
+        UserQuestProgress progress = new UserQuestProgress();
+        progress.setQuestId(questId);
+        return progress;
+    }
+}
@@ -0,0 +1,100 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.model.Quest;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.model.UserQuestProgress;
+import com.muscledia.Gamification_service.model.enums.QuestStatus;
+import com.muscledia.Gamification_service.repository.QuestRepository;
+import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.repository.UserQuestProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuestServiceTest {
+
+    @Mock
+    private QuestRepository questRepository;
+
+    @Mock
+    private UserGamificationProfileRepository userProfileRepository;
+
+    @Mock
+    private UserQuestProgressRepository questProgressRepository;
+
+    @Mock
+    private ProfileDetailsService profileDetails;
+
+    @Mock
+    private RewardProcessor rewardProcessor;
+
+    @Mock
+    private CatalogStatisticsCache statisticsCache;
+
+    @Mock
+    private ExpirySweepService expirySweepService;
+
+    @Mock
+    private QuestCatalogIndex questIndex;
+
+    @InjectMocks
+    private QuestService questService;
+
+    @BeforeEach
+    void setUp() {
+        Quest quest = new Quest();
+        quest.setId("q1");
+        quest.setPointsReward(50);
+        when(userProfileRepository.existsByUserId(7L)).thenReturn(true);
+        when(userProfileRepository.findByUserId(7L)).thenReturn(Optional.of(new UserGamificationProfile()));
+        when(questRepository.findById("q1")).thenReturn(Optional.of(quest));
+    }
+
+    @Test
+    void shouldAwardAndRecordWhenProgressChangesToCompleted() {
+        // Given
+        when(questProgressRepository.findByUserId(7L)).thenReturn(List.of(progress(QuestStatus.IN_PROGRESS)));
+
+        // When
+        questService.completeQuest(7L, "q1");
+
+        // Then
+        verify(questProgressRepository).saveAll(argThat(saved ->
+                saved.iterator().next().getStatus() == QuestStatus.COMPLETED));
+        verify(profileDetails).recordQuestCompleted(7L, "q1");
+        verify(questIndex).recordCompleted(7L, "q1");
+        verify(rewardProcessor).awardPoints(7L, 50);
+    }
+
+    @Test
+    void shouldNotAwardAgainWhenQuestIsAlreadyCompleted() {
+        // Given
+        when(questProgressRepository.findByUserId(7L)).thenReturn(List.of(progress(QuestStatus.COMPLETED)));
+
+        // When
+        UserGamificationProfile profile = questService.completeQuest(7L, "q1");
+
+        // Then
+        assertThat(profile).isNotNull();
+        verify(questProgressRepository, never()).saveAll(anyIterable());
+        verifyNoInteractions(profileDetails, questIndex, rewardProcessor);
+    }
+
+    private static UserQuestProgress progress(QuestStatus status) {
+        UserQuestProgress progress = new UserQuestProgress();
+        progress.setQuestId("q1");
+        progress.setStatus(status);
+        return progress;
+    }
+}
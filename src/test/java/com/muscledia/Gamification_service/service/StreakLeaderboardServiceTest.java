@@ -0,0 +1,117 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.exception.ResourceNotFoundException;
+import com.muscledia.Gamification_service.model.StreakLeaderboard;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.model.UserStreak;
+import com.muscledia.Gamification_service.repository.StreakLeaderboardRepository;
+import com.muscledia.Gamification_service.repository.UserStreakRepository;
+import com.muscledia.Gamification_service.repository.projection.StreakLeaderRow;
+import com.muscledia.Gamification_service.repository.projection.StreakValueCount;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreakLeaderboardServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private StreakLeaderboardRepository leaderboardRepository;
+
+    @Mock
+    private UserStreakRepository streakRepository;
+
+    @InjectMocks
+    private StreakLeaderboardService streakLeaderboards;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(streakLeaderboards, "topSize", 100);
+    }
+
+    @Test
+    void shouldMaterializeRanksWithSharedTies() {
+        // Given: streaks 10, 7, 7, 3
+        givenStreaks();
+
+        // When
+        streakLeaderboards.materialize("workout");
+
+        // Then
+        List<StreakLeaderboard.Entry> top = streakLeaderboards.getTop("workout", StreakLeaderboardService.Metric.CURRENT, 10);
+        assertThat(top).extracting(StreakLeaderboard.Entry::getRank).containsExactly(1, 2, 2, 4);
+        assertThat(top).extracting(StreakLeaderboard.Entry::getUsername).containsExactly("u1", "u2", "u3", "u4");
+        assertThat(streakLeaderboards.getRank("workout", StreakLeaderboardService.Metric.CURRENT, 11)).isEqualTo(1);
+        assertThat(streakLeaderboards.getRank("workout", StreakLeaderboardService.Metric.CURRENT, 8)).isEqualTo(2);
+        assertThat(streakLeaderboards.getRank("workout", StreakLeaderboardService.Metric.CURRENT, 7)).isEqualTo(2);
+        assertThat(streakLeaderboards.getRank("workout", StreakLeaderboardService.Metric.CURRENT, 1)).isEqualTo(5);
+        verify(leaderboardRepository, times(2)).save(any(StreakLeaderboard.class));
+        verify(leaderboardRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldMaterializeKnownTypeOnceOnCacheMiss() {
+        // Given: the job has not run yet
+        givenStreaks();
+        when(leaderboardRepository.findById("login:current")).thenReturn(Optional.empty());
+
+        // When
+        streakLeaderboards.getTop("login", StreakLeaderboardService.Metric.CURRENT, 2);
+        List<StreakLeaderboard.Entry> again = streakLeaderboards.getTop("login", StreakLeaderboardService.Metric.CURRENT, 2);
+
+        // Then: computed once, then served from the cache
+        assertThat(again).extracting(StreakLeaderboard.Entry::getUserId).containsExactly(1L, 2L);
+        verify(leaderboardRepository, times(1)).findById("login:current");
+        verify(leaderboardRepository, times(2)).save(any(StreakLeaderboard.class));
+    }
+
+    @Test
+    void shouldRejectUnknownStreakTypeWithoutMaterializing() {
+        assertThatThrownBy(() -> streakLeaderboards.getTop("swimming", StreakLeaderboardService.Metric.CURRENT, 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> streakLeaderboards.getTop("WORKOUT", StreakLeaderboardService.Metric.LONGEST, 10))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        verifyNoInteractions(mongoTemplate, leaderboardRepository, streakRepository);
+    }
+
+    private void givenStreaks() {
+        List<UserStreak> streaks = List.of(streak(1L, 10), streak(2L, 7), streak(3L, 7), streak(4L, 3));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(UserStreak.class), eq(StreakValueCount.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new StreakValueCount(10, 1), new StreakValueCount(7, 2), new StreakValueCount(3, 1)), new Document()));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(UserGamificationProfile.class), eq(StreakLeaderRow.class)))
+                .thenReturn(new AggregationResults<>(List.of(row(1L), row(2L), row(3L), row(4L)), new Document()));
+        when(streakRepository.findTopByCurrent(any(), any(Pageable.class))).thenReturn(streaks);
+        when(streakRepository.findTopByLongest(any(), any(Pageable.class))).thenReturn(streaks);
+    }
+
+    private static UserStreak streak(Long userId, int value) {
+        return UserStreak.builder().userId(userId).type("workout").current(value).longest(value).build();
+    }
+
+    private static StreakLeaderRow row(Long userId) {
+        return new StreakLeaderRow(userId, "u" + userId, 100, 2, 5, 1);
+    }
+}
@@ -0,0 +1,123 @@
+package com.muscledia.Gamification_service.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.muscledia.Gamification_service.event.publisher.EventPublisher;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.muscledia.Gamification_service.service.profile.ProfileUpdateExecutor;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreakServiceTest {
+
+    @Mock
+    private UserGamificationProfileRepository userProfileRepository;
+
+    @Mock
+    private LeaderboardChangeDetectionService leaderboardDetection;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ProfileUpdateExecutor profileUpdates;
+
+    private StreakService streakService;
+
+    @BeforeEach
+    void setUp() {
+        streakService = new StreakService(userProfileRepository, leaderboardDetection, eventPublisher,
+                mongoTemplate, new CalendarService("UTC"), profileUpdates);
+    }
+
+    @Test
+    void shouldResetEveryCohortAgainstItsOwnWeek() {
+        // Given: Sunday 11:30 UTC is Monday 00:30 in Auckland, still Sunday in UTC and New York
+        Instant now = Instant.parse("2025-01-05T11:30:00Z");
+        when(mongoTemplate.findDistinct(any(Query.class), eq("timeZone"), eq(UserGamificationProfile.class), eq(String.class)))
+                .thenReturn(List.of("Pacific/Auckland", "America/New_York"));
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(UserGamificationProfile.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // When
+        streakService.resetLapsedWeeklyStreaks(now);
+
+        // Then: Auckland is compared with the week before its new one, the others with the week before theirs
+        ArgumentCaptor<Query> cohort = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).updateMulti(cohort.capture(), any(UpdateDefinition.class), eq(UserGamificationProfile.class));
+        assertThat(cohort.getAllValues()).extracting(query -> query.getQueryObject().toString())
+                .anySatisfy(query -> assertThat(query).contains("Pacific/Auckland"))
+                .anySatisfy(query -> assertThat(query).contains("America/New_York"));
+        assertThat(lapsedCutoff(cohort.getAllValues().get(1).getQueryObject()))
+                .isEqualTo(Instant.parse("2024-12-29T06:00:00Z"));
+        assertThat(lapsedCutoff(cohort.getAllValues().get(2).getQueryObject()))
+                .isEqualTo(Instant.parse("2024-12-22T06:00:00Z"));
+    }
+
+    @Test
+    void shouldCatchUpACohortWhoseBoundaryRunWasMissed() {
+        // Given: Wednesday; no run happened in the hour after Monday midnight
+        Instant now = Instant.parse("2025-01-08T12:00:00Z");
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(UserGamificationProfile.class)))
+                .thenReturn(UpdateResult.acknowledged(4, 4L, null));
+
+        // When
+        long reset = streakService.resetLapsedWeeklyStreaks(now);
+
+        // Then: the default cohort is still reset against the week before this one
+        ArgumentCaptor<Query> cohort = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(cohort.capture(), any(UpdateDefinition.class), eq(UserGamificationProfile.class));
+        assertThat(reset).isEqualTo(4);
+        assertThat(lapsedCutoff(cohort.getValue().getQueryObject())).isEqualTo(Instant.parse("2024-12-29T06:00:00Z"));
+    }
+
+    @Test
+    void shouldCompareStoredWeekStartsIndependentOfTheirZone() {
+        // Given: Auckland UTC+13 cohort on Monday 2025-01-06; a member who moved there from
+        // Los Angeles stored the previous week's start (Monday 2024-12-30) as LA midnight
+        Instant now = Instant.parse("2025-01-05T11:30:00Z");
+        when(mongoTemplate.findDistinct(any(Query.class), eq("timeZone"), eq(UserGamificationProfile.class), eq(String.class)))
+                .thenReturn(List.of("Pacific/Auckland"));
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(UserGamificationProfile.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        // When
+        streakService.resetLapsedWeeklyStreaks(now);
+
+        // Then: the cutoff is the earliest start of that week in any zone, before both midnights
+        ArgumentCaptor<Query> cohort = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).updateMulti(cohort.capture(), any(UpdateDefinition.class), eq(UserGamificationProfile.class));
+        Document lapsed = cohort.getAllValues().get(1).getQueryObject();
+        Instant cutoff = (Instant) lapsedCutoff(lapsed);
+        assertThat(cutoff).isEqualTo(Instant.parse("2024-12-29T06:00:00Z"))
+                .isBefore(Instant.parse("2024-12-29T11:00:00Z"))   // Auckland midnight
+                .isBefore(Instant.parse("2024-12-30T08:00:00Z"));  // Los Angeles midnight
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object lapsedCutoff(Document query) {
+        List<Document> and = (List<Document>) query.get("$and");
+        List<Document> or = (List<Document>) and.get(2).get("$or");
+        return ((Document) or.get(0).get("currentWeekStartDate")).get("$lt");
+    }
+}
@@ -403,7 +403,6 @@ class UserGamificationServiceTest {
                 .restDaysSinceLastWorkout(0)
                 .totalWorkoutsCompleted(0)
                 .earnedBadges(new ArrayList<>())
-                .quests(new ArrayList<>())
                 .streaks(new HashMap<>())
                 .profileCreatedAt(Instant.now())
                 .lastUpdated(Instant.now())
@@ -0,0 +1,150 @@
+package com.muscledia.Gamification_service.service;
+
+import com.muscledia.Gamification_service.model.BatchJobCheckpoint;
+import com.muscledia.Gamification_service.model.UserChallenge;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.model.UserPerformanceMetrics;
+import com.muscledia.Gamification_service.model.enums.ChallengeType;
+import com.muscledia.Gamification_service.model.enums.ObjectiveType;
+import com.muscledia.Gamification_service.repository.BatchJobCheckpointRepository;
+import com.muscledia.Gamification_service.repository.ChallengeRepository;
+import com.muscledia.Gamification_service.repository.UserChallengeRepository;
+import com.muscledia.Gamification_service.repository.projection.GroupCount;
+import com.muscledia.Gamification_service.repository.projection.UserChallengePerformanceFacet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPerformanceAnalyzerTest {
+
+    @Mock
+    private UserChallengeRepository userChallengeRepository;
+
+    @Mock
+    private UserGamificationService gamificationService;
+
+    @Mock
+    private ChallengeRepository challengeRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BatchJobCheckpointRepository checkpointRepository;
+
+    @InjectMocks
+    private UserPerformanceAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(analyzer, "cacheTtlSeconds", 300L);
+        ReflectionTestUtils.setField(analyzer, "cacheMaxSize", 100L);
+        analyzer.initialize();
+        lenient().when(gamificationService.getUserProfile(7L))
+                .thenReturn(UserGamificationProfile.builder().userId(7L).level(4).points(900).build());
+    }
+
+    @Test
+    void shouldBuildMetricsFromTheFacetResult() {
+        // Given: 4 attempted, 3 completed, statuses in start order C C F C
+        when(userChallengeRepository.aggregatePerformance(eq(7L), any(Instant.class))).thenReturn(
+                new UserChallengePerformanceFacet(
+                        List.of(new UserChallengePerformanceFacet.Totals(4, 3, 40)),
+                        List.of(new UserChallengePerformanceFacet.ObjectiveRatio("REPS", 1.2),
+                                new UserChallengePerformanceFacet.ObjectiveRatio(null, 0.9),
+                                new UserChallengePerformanceFacet.ObjectiveRatio("RETIRED", 2.0)),
+                        List.of(new GroupCount("DAILY", 2), new GroupCount("WEEKLY", 1)),
+                        List.of(new UserChallengePerformanceFacet.Outcomes(
+                                List.of("COMPLETED", "COMPLETED", "FAILED", "COMPLETED")))));
+
+        // When
+        UserPerformanceMetrics metrics = analyzer.analyzeUser(7L);
+
+        // Then
+        assertThat(metrics.getRecentCompletionRate()).isEqualTo(0.75);
+        assertThat(metrics.getTotalChallengesAttempted()).isEqualTo(4);
+        assertThat(metrics.getTotalChallengesCompleted()).isEqualTo(3);
+        assertThat(metrics.getAverageCompletionTimeHours()).isEqualTo(10);
+        assertThat(metrics.getConsecutiveCompletions()).isEqualTo(2);
+        assertThat(metrics.getObjectivePerformance())
+                .containsEntry(ObjectiveType.REPS, 1.2)
+                .containsEntry(ObjectiveType.EXERCISES, 0.9)
+                .hasSize(2);
+        assertThat(metrics.getPreferredChallengeTypes()).containsExactly(ChallengeType.DAILY);
+        assertThat(metrics.getCurrentLevel()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldFallBackToDefaultsWithoutRecentChallenges() {
+        when(userChallengeRepository.aggregatePerformance(eq(7L), any(Instant.class)))
+                .thenReturn(new UserChallengePerformanceFacet(List.of(), List.of(), List.of(), List.of()));
+
+        UserPerformanceMetrics metrics = analyzer.analyzeUser(7L);
+
+        assertThat(metrics.getRecentCompletionRate()).isEqualTo(0.5);
+        assertThat(metrics.getTotalChallengesAttempted()).isZero();
+        assertThat(metrics.getObjectivePerformance()).isEmpty();
+    }
+
+    @Test
+    void shouldCacheMetricsUntilInvalidated() {
+        // Given
+        when(userChallengeRepository.aggregatePerformance(eq(7L), any(Instant.class)))
+                .thenReturn(new UserChallengePerformanceFacet(List.of(), List.of(), List.of(), List.of()));
+
+        // When
+        UserPerformanceMetrics first = analyzer.analyzeUser(7L);
+        UserPerformanceMetrics cached = analyzer.analyzeUser(7L);
+        analyzer.invalidate(7L);
+        analyzer.analyzeUser(7L);
+
+        // Then
+        assertThat(cached).isSameAs(first);
+        verify(userChallengeRepository, times(2)).aggregatePerformance(eq(7L), any(Instant.class));
+    }
+
+    @Test
+    void shouldSkipTheBackfillOnceItsMarkerExists() {
+        // Given
+        when(checkpointRepository.existsById("challenge-attributes-backfill:initial:0")).thenReturn(true);
+
+        // When
+        analyzer.backfillChallengeAttributes();
+
+        // Then
+        verifyNoInteractions(mongoTemplate, challengeRepository);
+    }
+
+    @Test
+    void shouldPersistTheMarkerAfterABackfillRun() {
+        // Given: nothing left without denormalized attributes
+        when(mongoTemplate.findDistinct(any(Query.class), eq("challengeId"), eq(UserChallenge.class), eq(String.class)))
+                .thenReturn(List.of());
+
+        // When
+        analyzer.backfillChallengeAttributes();
+
+        // Then
+        ArgumentCaptor<BatchJobCheckpoint> marker = ArgumentCaptor.forClass(BatchJobCheckpoint.class);
+        verify(checkpointRepository).save(marker.capture());
+        assertThat(marker.getValue().getId()).isEqualTo("challenge-attributes-backfill:initial:0");
+        assertThat(marker.getValue().getCompleted()).isTrue();
+        assertThat(marker.getValue().getExpiresAt()).isNull();
+    }
+}
@@ -0,0 +1,42 @@
+package com.muscledia.Gamification_service.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void shouldEstimateDistinctUsersWithinErrorBound() {
+        // Given
+        HyperLogLog sketch = new HyperLogLog();
+
+        // When
+        for (long userId = 1; userId <= 100_000; userId++) {
+            sketch.add(userId);
+            sketch.add(userId);
+        }
+
+        // Then
+        assertThat(sketch.estimate()).isCloseTo(100_000L, within(4_000L));
+    }
+
+    @Test
+    void shouldMergeSketchesFromDifferentNodes() {
+        // Given
+        HyperLogLog nodeA = new HyperLogLog();
+        HyperLogLog nodeB = new HyperLogLog();
+        for (long userId = 1; userId <= 1_000; userId++) {
+            nodeA.add(userId);
+            nodeB.add(userId + 500);
+        }
+
+        // When
+        HyperLogLog merged = HyperLogLog.fromBytes(nodeA.toBytes());
+        merged.merge(nodeB);
+
+        // Then
+        assertThat(merged.estimate()).isCloseTo(1_500L, within(60L));
+    }
+}
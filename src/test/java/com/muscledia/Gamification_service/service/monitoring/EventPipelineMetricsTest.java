@@ -0,0 +1,73 @@
+package com.muscledia.Gamification_service.service.monitoring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventPipelineMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EventPipelineMetrics pipelineMetrics;
+
+    @BeforeEach
+    void setUp() {
+        pipelineMetrics = new EventPipelineMetrics(meterRegistry);
+        pipelineMetrics.initialize();
+    }
+
+    @Test
+    void shouldTagUnknownEventTypesAsOther() {
+        // When: payload-supplied types, one registered and several arbitrary ones
+        pipelineMetrics.recordAge(EventPipelineMetrics.AGE_CONSUMED, "WORKOUT_COMPLETED", Instant.now());
+        pipelineMetrics.recordAge(EventPipelineMetrics.AGE_CONSUMED, "workout-" + 1, Instant.now());
+        pipelineMetrics.recordAge(EventPipelineMetrics.AGE_CONSUMED, "workout-" + 2, Instant.now());
+        pipelineMetrics.recordAge(EventPipelineMetrics.AGE_CONSUMED, null, Instant.now());
+
+        // Then
+        assertThat(meterRegistry.find(EventPipelineMetrics.AGE_METRIC).timers())
+                .extracting(timer -> timer.getId().getTag("eventType"))
+                .containsExactlyInAnyOrder("WORKOUT_COMPLETED", "other");
+        assertThat(meterRegistry.find(EventPipelineMetrics.AGE_METRIC).tag("eventType", "other").timer().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void shouldRecordStageOutcomeAndRethrow() {
+        // When
+        pipelineMetrics.time("handler", "WORKOUT_COMPLETED", () -> { });
+        assertThatThrownBy(() -> pipelineMetrics.time("handler", "WORKOUT_COMPLETED", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        for (String outcome : new String[]{"success", "error"}) {
+            Timer timer = meterRegistry.find(EventPipelineMetrics.STAGE_METRIC)
+                    .tags("stage", "handler", "outcome", outcome).timer();
+            assertThat(timer).as(outcome).isNotNull();
+            assertThat(timer.count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCountFutureTimestampsAsZeroAgeInSnapshot() {
+        // Given: a producer clock ahead of ours
+        pipelineMetrics.recordAge(EventPipelineMetrics.AGE_APPLIED, "WORKOUT_COMPLETED", Instant.now().plusSeconds(60));
+        pipelineMetrics.recordOutboxPending(4);
+
+        // When
+        Map<String, Object> snapshot = pipelineMetrics.snapshot();
+
+        // Then
+        Map<String, Map<String, Object>> ages = (Map<String, Map<String, Object>>) snapshot.get("eventAge");
+        assertThat(ages.get("applied/WORKOUT_COMPLETED")).containsEntry("count", 1L).containsEntry("maxMs", 0.0);
+        assertThat((Map<String, Long>) snapshot.get("outboxDepth")).containsEntry("pending", 4L);
+    }
+}
@@ -0,0 +1,71 @@
+package com.muscledia.Gamification_service.service.monitoring;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MongoCommandMetricsTest {
+
+    @Test
+    void shouldRedactValuesButKeepFieldsAndOperators() {
+        // Given
+        BsonDocument find = BsonDocument.parse("{ find: 'user_challenges', "
+                + "filter: { userId: 42, status: { $in: ['ACTIVE', 'COMPLETED'] } }, sort: { startedAt: -1 } }");
+
+        // When
+        String shape = MongoCommandMetrics.shapeOf("find", find);
+
+        // Then
+        assertThat(shape).contains("\"userId\": \"?\"", "\"$in\": \"[?]\"", "\"startedAt\": \"?\"");
+        assertThat(shape).doesNotContain("42", "ACTIVE");
+        assertThat(MongoCommandMetrics.collectionOf("find", find)).isEqualTo("user_challenges");
+    }
+
+    @Test
+    void shouldResolveCollectionOfGetMoreAndUpdates() {
+        BsonDocument getMore = BsonDocument.parse("{ getMore: { $numberLong: '7' }, collection: 'user_streaks' }");
+        BsonDocument update = BsonDocument.parse("{ update: 'user_gamification_profiles', "
+                + "updates: [ { q: { userId: 1 }, u: { $inc: { points: 10 } } } ] }");
+
+        assertThat(MongoCommandMetrics.collectionOf("getMore", getMore)).isEqualTo("user_streaks");
+        assertThat(MongoCommandMetrics.collectionOf("update", update)).isEqualTo("user_gamification_profiles");
+        assertThat(MongoCommandMetrics.shapeOf("update", update)).contains("\"userId\": \"?\"").doesNotContain("points");
+    }
+
+    @Test
+    void shouldBuildTheShapeOnlyForSlowCommandsAndSkipReplySizeByDefault() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SlowQuerySampler sampler = mock(SlowQuerySampler.class);
+        when(sampler.isSlow(anyLong())).thenReturn(false, true);
+        MongoCommandMetrics metrics = new MongoCommandMetrics(registry, sampler);
+        ConnectionDescription connection = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+        BsonDocument find = BsonDocument.parse("{ find: 'quests', filter: { endDate: { $lt: 5 } } }");
+        BsonDocument reply = BsonDocument.parse("{ cursor: { firstBatch: [ {}, {} ] }, ok: 1 }");
+
+        // When: a fast and then a slow run of the same query
+        for (int requestId = 1; requestId <= 2; requestId++) {
+            metrics.commandStarted(new CommandStartedEvent(null, 1L, requestId, connection, "db", "find", find));
+            metrics.commandSucceeded(new CommandSucceededEvent(null, 1L, requestId, connection, "db", "find", reply,
+                    TimeUnit.MILLISECONDS.toNanos(5)));
+        }
+
+        // Then
+        verify(sampler, times(1)).record(eq("quests"), eq("find"), any(), anyLong(),
+                argThat(shape -> shape.contains("\"$lt\": \"?\"") && !shape.contains("5")));
+        assertThat(registry.find(MongoCommandMetrics.DOCUMENTS_METRIC).summary().totalAmount()).isEqualTo(4);
+        assertThat(registry.find(MongoCommandMetrics.RESPONSE_BYTES_METRIC).summary()).isNull();
+    }
+}
@@ -0,0 +1,147 @@
+package com.muscledia.Gamification_service.service.profile;
+
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.service.ProfileUpdateService;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileCounterBufferTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ProfileUpdateService profileUpdateService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private ProfileCounterBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new ProfileCounterBuffer(mongoTemplate, profileUpdateService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "flushThreshold", 1000);
+        ReflectionTestUtils.setField(buffer, "durable", true);
+        buffer.initialize();
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserGamificationProfile.class))
+                .thenReturn(bulkOperations);
+    }
+
+    @Test
+    void shouldCoalesceDeltasIntoOneIncrementPerUser() {
+        // Given
+        buffer.addPoints(1L, 10);
+        buffer.addPoints(1L, 25);
+        buffer.addWorkout(1L, 40, Instant.parse("2025-01-01T10:00:00Z"));
+        buffer.addCoins(1L, 5);
+        when(mongoTemplate.find(any(Query.class), eq(UserGamificationProfile.class))).thenReturn(List.of());
+
+        // When
+        boolean written = buffer.flushBeforeCommit();
+
+        // Then
+        assertThat(written).isTrue();
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(1)).updateOne(any(Query.class), update.capture());
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertThat(inc.get("points")).isEqualTo(35);
+        assertThat(inc.get("fitnessCoins")).isEqualTo(5);
+        assertThat(inc.get("totalWorkoutsCompleted")).isEqualTo(1);
+        assertThat(inc.get("totalWorkoutMinutes")).isEqualTo(40);
+        verify(bulkOperations).execute();
+    }
+
+    @Test
+    void shouldRaiseLevelAndRunPointsHooksAfterFlush() {
+        // Given: 350 stored + 100 flushed = 450 points, which is level 3
+        UserGamificationProfile stored = UserGamificationProfile.builder()
+                .userId(1L).points(450).level(2).build();
+        buffer.addPoints(1L, 100);
+        when(mongoTemplate.find(any(Query.class), eq(UserGamificationProfile.class))).thenReturn(List.of(stored));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(UserGamificationProfile.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // When
+        buffer.flush();
+
+        // Then
+        assertThat(stored.getLevel()).isEqualTo(3);
+        verify(profileUpdateService).afterPointsChange(eq(stored), eq(350), eq(2), any());
+    }
+
+    @Test
+    void shouldKeepDeltasWhenWriteFails() {
+        // Given
+        buffer.addPoints(1L, 10);
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("unavailable")).thenReturn(null);
+        buffer.flush();
+        buffer.addPoints(1L, 5);
+        when(mongoTemplate.find(any(Query.class), eq(UserGamificationProfile.class))).thenReturn(List.of());
+
+        // When
+        buffer.flush();
+
+        // Then
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(2)).updateOne(any(Query.class), update.capture());
+        Document inc = (Document) update.getAllValues().get(1).getUpdateObject().get("$inc");
+        assertThat(inc.get("points")).isEqualTo(15);
+        verify(profileUpdateService, never()).afterPointsChange(any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void shouldReportFailedDurableFlush() {
+        // Given
+        buffer.addPoints(1L, 10);
+        when(bulkOperations.execute()).thenThrow(new IllegalStateException("unavailable"));
+
+        // When
+        boolean written = buffer.flushBeforeCommit();
+
+        // Then: the record must not be acknowledged; the delta waits for the next flush
+        assertThat(written).isFalse();
+        verify(profileUpdateService, never()).afterPointsChange(any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void shouldKeepLatestWorkoutTimeAsMaxUpdate() {
+        // Given: workouts delivered out of order
+        Instant earlier = Instant.parse("2025-01-01T08:00:00Z");
+        Instant later = Instant.parse("2025-01-01T18:00:00Z");
+        buffer.addWorkout(1L, 30, later);
+        buffer.addWorkout(1L, 20, earlier);
+
+        // When
+        buffer.flushBeforeCommit();
+
+        // Then: $max of the workout time, never the flush time
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).updateOne(any(Query.class), update.capture());
+        Document updateObject = update.getValue().getUpdateObject();
+        assertThat(((Document) updateObject.get("$max")).get("lastWorkoutDate")).isEqualTo(later);
+        assertThat(((Document) updateObject.get("$set")).containsKey("lastWorkoutDate")).isFalse();
+    }
+}
@@ -0,0 +1,91 @@
+package com.muscledia.Gamification_service.service.profile;
+
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.repository.UserGamificationProfileRepository;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileUpdateExecutorTest {
+
+    @Mock
+    private UserGamificationProfileRepository profileRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProfileUpdateExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ProfileUpdateExecutor(profileRepository, mongoTemplate, meterRegistry);
+        ReflectionTestUtils.setField(executor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(executor, "backoffMs", 1L);
+        ReflectionTestUtils.setField(executor, "maxBackoffMs", 2L);
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(UserGamificationProfile.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        executor.initialize();
+    }
+
+    @Test
+    void shouldReapplyMutationToFreshReadAfterConflict() {
+        // Given
+        when(profileRepository.findByUserId(1L))
+                .thenReturn(Optional.of(profile(10)))
+                .thenReturn(Optional.of(profile(15)));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        int points = executor.execute(1L, profile -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new OptimisticLockingFailureException("version changed");
+            }
+            return profile.getPoints() + 5;
+        });
+
+        // Then
+        assertThat(points).isEqualTo(20);
+        assertThat(attempts).hasValue(2);
+        assertThat(executor.getConflictCount()).isEqualTo(1);
+        verify(profileRepository, times(2)).findByUserId(1L);
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        // Given
+        when(profileRepository.findByUserId(1L)).thenReturn(Optional.of(profile(10)));
+
+        // When & Then
+        assertThatThrownBy(() -> executor.execute(1L, profile -> {
+            throw new OptimisticLockingFailureException("version changed");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(executor.getConflictCount()).isEqualTo(3);
+        assertThat(meterRegistry.counter("gamification.profile.update.exhausted").count()).isEqualTo(1.0);
+    }
+
+    private static UserGamificationProfile profile(int points) {
+        return UserGamificationProfile.builder().userId(1L).points(points).version(1L).build();
+    }
+}
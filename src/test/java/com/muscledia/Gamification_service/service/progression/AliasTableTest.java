@@ -0,0 +1,56 @@
+package com.muscledia.Gamification_service.service.progression;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AliasTableTest {
+
+    @Test
+    void shouldSampleInProportionToWeights() {
+        // Given: weights 1:3:6, with a zero weight that must never be drawn
+        Map<String, Double> weights = Map.of("light", 1.0, "medium", 3.0, "heavy", 6.0, "retired", 0.0);
+        AliasTable<String> table = AliasTable.of(List.of("light", "medium", "heavy", "retired"), weights::get);
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) {
+            counts.merge(table.sample(random), 1, Integer::sum);
+        }
+
+        // Then
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(counts).doesNotContainKey("retired");
+        assertThat(counts.get("light") / (double) draws).isCloseTo(0.1, within(0.01));
+        assertThat(counts.get("medium") / (double) draws).isCloseTo(0.3, within(0.01));
+        assertThat(counts.get("heavy") / (double) draws).isCloseTo(0.6, within(0.01));
+    }
+
+    @Test
+    void shouldDrawTheSameSequenceForTheSameSeed() {
+        AliasTable<Integer> table = AliasTable.of(List.of(1, 2, 3, 4, 5), value -> value);
+
+        SplittableRandom first = new SplittableRandom(2025);
+        SplittableRandom second = new SplittableRandom(2025);
+        for (int i = 0; i < 100; i++) {
+            assertThat(table.sample(first)).isEqualTo(table.sample(second));
+        }
+    }
+
+    @Test
+    void shouldFallBackToUniformWhenNoCandidateHasWeight() {
+        AliasTable<String> table = AliasTable.of(List.of("a", "b"), value -> 0.0);
+
+        assertThat(table.isEmpty()).isFalse();
+        assertThat(table.sample(new SplittableRandom(1))).isIn("a", "b");
+        assertThat(AliasTable.of(List.<String>of(), value -> 1.0).isEmpty()).isTrue();
+    }
+}
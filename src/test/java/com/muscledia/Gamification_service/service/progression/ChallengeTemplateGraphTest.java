@@ -0,0 +1,79 @@
+package com.muscledia.Gamification_service.service.progression;
+
+import com.muscledia.Gamification_service.model.ChallengeTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChallengeTemplateGraphTest {
+
+    @Test
+    void shouldCheckPrerequisitesAndUnlocksAgainstCompletedTemplates() {
+        // Given: first_steps -> consistency -> strength_path, with strength_path also needing a placeholder id
+        ChallengeTemplateGraph graph = ChallengeTemplateGraph.compile(List.of(
+                template("first_steps", List.of(), List.of("consistency")),
+                template("consistency", List.of("first_steps"), List.of("strength_path")),
+                template("strength_path", List.of("consistency", "legacy_badge"), List.of())));
+
+        long[] afterFirstSteps = graph.completionBits(Set.of("first_steps"));
+
+        // Then
+        assertThat(graph.size()).isEqualTo(4);
+        assertThat(graph.contains("legacy_badge")).isFalse();
+        assertThat(graph.prerequisitesMet("consistency", afterFirstSteps)).isTrue();
+        assertThat(graph.prerequisitesMet("strength_path", afterFirstSteps)).isFalse();
+        assertThat(graph.unlockedBy("first_steps", afterFirstSteps))
+                .extracting(ChallengeTemplate::getId).containsExactly("consistency");
+        assertThat(graph.availableNow(afterFirstSteps))
+                .extracting(ChallengeTemplate::getId).containsExactly("consistency");
+        assertThat(graph.missingPrerequisites("strength_path", afterFirstSteps))
+                .containsExactly("consistency", "legacy_badge");
+
+        long[] allDone = graph.completionBits(Set.of("first_steps", "consistency", "legacy_badge", "not_a_template"));
+        assertThat(graph.prerequisitesMet("strength_path", allDone)).isTrue();
+        assertThat(graph.missingPrerequisites("strength_path", allDone)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectCycles() {
+        List<ChallengeTemplate> cyclic = List.of(
+                template("a", List.of(), List.of("b")),
+                template("b", List.of(), List.of("c")),
+                template("c", List.of(), List.of()),
+                template("d", List.of("c"), List.of("a")));
+
+        assertThatThrownBy(() -> ChallengeTemplateGraph.compile(cyclic))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cycle");
+    }
+
+    @Test
+    void shouldSpanMultipleBitsetWords() {
+        // Given: a chain longer than one 64-bit word
+        List<ChallengeTemplate> chain = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            chain.add(template(id(i), i == 0 ? List.of() : List.of(id(i - 1)), List.of()));
+        }
+        ChallengeTemplateGraph graph = ChallengeTemplateGraph.compile(chain);
+
+        assertThat(graph.missingPrerequisites(id(99), graph.completionBits(Set.of()))).hasSize(99);
+        assertThat(graph.prerequisitesMet(id(99), graph.completionBits(Set.of(id(98))))).isTrue();
+    }
+
+    private static String id(int i) {
+        return String.format("step_%03d", i);
+    }
+
+    private static ChallengeTemplate template(String id, List<String> prerequisites, List<String> unlocks) {
+        return ChallengeTemplate.builder()
+                .id(id)
+                .prerequisiteTemplates(prerequisites)
+                .unlocksTemplates(unlocks)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.muscledia.Gamification_service.service.scheduled;
+
+import com.muscledia.Gamification_service.model.BatchJobCheckpoint;
+import com.muscledia.Gamification_service.model.UserGamificationProfile;
+import com.muscledia.Gamification_service.repository.BatchJobCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileRangeJobRunnerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BatchJobCheckpointRepository checkpointRepository;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private SchedulerLockService schedulerLock;
+
+    @InjectMocks
+    private ProfileRangeJobRunner jobRunner;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jobRunner, "parallelism", 4);
+        ReflectionTestUtils.setField(jobRunner, "batchSize", 2);
+        ReflectionTestUtils.setField(jobRunner, "distributeRanges", true);
+        ReflectionTestUtils.setField(jobRunner, "leaseSeconds", 600L);
+    }
+
+    @Test
+    void shouldResumeIncompleteRangeAfterCheckpointAndBulkWriteOnlyChanges() {
+        // Given
+        BatchJobCheckpoint done = BatchJobCheckpoint.builder()
+                .id("job:run:0").rangeIndex(0).lowerBound(1L).upperBound(100L).completed(true).processed(99L).build();
+        BatchJobCheckpoint interrupted = BatchJobCheckpoint.builder()
+                .id("job:run:1").rangeIndex(1).lowerBound(100L).upperBound(200L).lastUserId(150L).processed(50L).build();
+        when(checkpointRepository.findByJobNameAndRunKeyOrderByRangeIndex("job", "run"))
+                .thenReturn(List.of(done, interrupted));
+        when(mongoTemplate.stream(any(Query.class), eq(UserGamificationProfile.class)))
+                .thenReturn(Stream.of(profile(151L), profile(152L), profile(153L)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserGamificationProfile.class))
+                .thenReturn(bulkOperations);
+        SchedulerLockService.Lease lease = new SchedulerLockService.Lease(
+                "job:run:1", "test", 7L, Instant.now(), Duration.ZERO);
+        when(schedulerLock.tryAcquire(eq("job:run:1"), any(Duration.class), any(Duration.class)))
+                .thenReturn(Optional.of(lease));
+        when(schedulerLock.extend(eq(lease), any(Duration.class))).thenReturn(true);
+        AtomicInteger afterWrites = new AtomicInteger();
+
+        // When
+        ProfileRangeJobRunner.JobResult result = jobRunner.run("job", "run",
+                user -> user.getUserId() == 152L
+                        ? new ProfileRangeJobRunner.ProfileChange(user.getUserId(), new Update().set("streaks", null), afterWrites::incrementAndGet)
+                        : null,
+                "streaks");
+
+        // Then
+        assertThat(result.resumed()).isTrue();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(UserGamificationProfile.class));
+        assertThat(query.getValue().getQueryObject().toJson()).contains("\"$gt\": 150");
+
+        verify(bulkOperations, times(1)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+        assertThat(afterWrites.get()).isEqualTo(1);
+
+        assertThat(interrupted.getCompleted()).isTrue();
+        assertThat(interrupted.getLastUserId()).isEqualTo(153L);
+        assertThat(interrupted.getProcessed()).isEqualTo(53L);
+        assertThat(interrupted.getUpdated()).isEqualTo(1L);
+        verify(checkpointRepository, times(2)).save(interrupted);
+        verify(checkpointRepository, never()).saveAll(any());
+        verify(schedulerLock, never()).tryAcquire(eq("job:run:0"), any(Duration.class), any(Duration.class));
+        verify(schedulerLock).release(lease);
+    }
+
+    @Test
+    void shouldLeaveRangesLeasedByAnotherInstance() {
+        // Given
+        BatchJobCheckpoint elsewhere = BatchJobCheckpoint.builder()
+                .id("job:run:0").rangeIndex(0).lowerBound(1L).upperBound(100L).lastUserId(40L).processed(40L).build();
+        when(checkpointRepository.findByJobNameAndRunKeyOrderByRangeIndex("job", "run"))
+                .thenReturn(List.of(elsewhere));
+        when(schedulerLock.tryAcquire(eq("job:run:0"), any(Duration.class), any(Duration.class)))
+                .thenReturn(Optional.empty());
+
+        // When
+        ProfileRangeJobRunner.JobResult result = jobRunner.run("job", "run", user -> null, "streaks");
+
+        // Then
+        assertThat(result.processed()).isEqualTo(40L);
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(UserGamificationProfile.class));
+        verify(checkpointRepository, never()).save(any());
+    }
+
+    private static UserGamificationProfile profile(long userId) {
+        return UserGamificationProfile.builder().userId(userId).build();
+    }
+}
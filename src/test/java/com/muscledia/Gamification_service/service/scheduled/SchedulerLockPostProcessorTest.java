@@ -0,0 +1,73 @@
+package com.muscledia.Gamification_service.service.scheduled;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SchedulerLockPostProcessorTest {
+
+    private final SchedulerLockService lockService = mock(SchedulerLockService.class);
+    private NightlyJob job;
+
+    static class NightlyJob {
+        private final AtomicInteger runs = new AtomicInteger();
+
+        @SchedulerLock(name = "nightly", lockAtMostFor = "PT10M", lockAtLeastFor = "PT1M")
+        public void run() {
+            runs.incrementAndGet();
+        }
+
+        public int runs() {
+            return runs.get();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.addEmbeddedValueResolver(new StandardEnvironment()::resolvePlaceholders);
+        beanFactory.registerSingleton("schedulerLockService", lockService);
+
+        SchedulerLockPostProcessor postProcessor = new SchedulerLockPostProcessor();
+        postProcessor.setBeanFactory(beanFactory);
+        job = (NightlyJob) postProcessor.postProcessAfterInitialization(new NightlyJob(), "nightlyJob");
+    }
+
+    @Test
+    void shouldRunUnderLeaseAndReleaseIt() {
+        // Given
+        SchedulerLockService.Lease lease = new SchedulerLockService.Lease(
+                "nightly", "test", 1L, Instant.now(), Duration.ofMinutes(1));
+        when(lockService.tryAcquire("nightly", Duration.ofMinutes(10), Duration.ofMinutes(1)))
+                .thenReturn(Optional.of(lease));
+
+        // When
+        job.run();
+
+        // Then
+        assertThat(job.runs()).isEqualTo(1);
+        verify(lockService).release(lease);
+    }
+
+    @Test
+    void shouldSkipRunWhenAnotherInstanceHoldsTheLease() {
+        when(lockService.tryAcquire(eq("nightly"), any(Duration.class), any(Duration.class)))
+                .thenReturn(Optional.empty());
+
+        job.run();
+
+        assertThat(job.runs()).isZero();
+        verify(lockService, never()).release(any());
+    }
+}
@@ -0,0 +1,85 @@
+package com.muscledia.Gamification_service.service.scheduled;
+
+import com.muscledia.Gamification_service.event.publisher.GamificationEventPublisher;
+import com.muscledia.Gamification_service.service.PlatformStatisticsService;
+import com.muscledia.Gamification_service.service.StreakDeadlineService;
+import com.muscledia.Gamification_service.service.StreakLeaderboardService;
+import com.muscledia.Gamification_service.service.StreakService;
+import com.muscledia.Gamification_service.service.UserStreakService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreakSchedulingServiceTest {
+
+    @Mock
+    private GamificationEventPublisher eventPublisher;
+
+    @Mock
+    private ProfileRangeJobRunner jobRunner;
+
+    @Mock
+    private PlatformStatisticsService platformStatistics;
+
+    @Mock
+    private StreakService streakService;
+
+    @Mock
+    private StreakDeadlineService streakDeadlines;
+
+    @Mock
+    private StreakLeaderboardService streakLeaderboards;
+
+    @Mock
+    private UserStreakService userStreaks;
+
+    @InjectMocks
+    private StreakSchedulingService schedulingService;
+
+    @Test
+    void shouldBackfillDeadlinesUntilTheRunIsCompleted() {
+        // Given: live tracking may have written deadlines, but the backfill run never completed
+        when(jobRunner.isCompleted("streak-deadline-backfill", "initial")).thenReturn(false);
+        when(jobRunner.run(eq("streak-deadline-backfill"), eq("initial"), any(), anyString()))
+                .thenReturn(new ProfileRangeJobRunner.JobResult(10, 4, 1, false));
+
+        // When
+        schedulingService.backfillStreakDeadlines();
+
+        // Then
+        verify(jobRunner).run(eq("streak-deadline-backfill"), eq("initial"), any(), anyString());
+        verify(jobRunner).retainIfCompleted("streak-deadline-backfill", "initial");
+    }
+
+    @Test
+    void shouldSkipBackfillOnceTheRunIsCompleted() {
+        when(jobRunner.isCompleted("streak-deadline-backfill", "initial")).thenReturn(true);
+
+        schedulingService.backfillStreakDeadlines();
+
+        verify(jobRunner, never()).run(anyString(), anyString(), any(), any(String[].class));
+    }
+
+    @Test
+    void shouldMigrateUserStreaksUntilTheRunIsCompleted() {
+        // Given: live syncs may have written user_streaks, but the migration run never completed
+        when(jobRunner.isCompleted("user-streaks-migration", "initial")).thenReturn(false);
+        when(jobRunner.run(eq("user-streaks-migration"), eq("initial"), any(), anyString()))
+                .thenReturn(new ProfileRangeJobRunner.JobResult(10, 4, 1, false));
+
+        // When
+        schedulingService.migrateUserStreaks();
+
+        // Then
+        verify(jobRunner).run(eq("user-streaks-migration"), eq("initial"), any(), anyString());
+        verify(jobRunner).retainIfCompleted("user-streaks-migration", "initial");
+    }
+}
@@ -293,7 +293,6 @@ public class TestDataBuilder {
         private Instant lastLevelUpDate = Instant.now().minus(2, ChronoUnit.DAYS);
         private Map<String, UserGamificationProfile.StreakData> streaks = new HashMap<>();
         private List<UserBadge> earnedBadges = new ArrayList<>();
-        private List<UserQuestProgress> quests = new ArrayList<>();
         private Integer weeklyStreak = 0;
         private Integer longestWeeklyStreak = 0;
         private Integer monthlyStreak = 0;
@@ -340,11 +339,6 @@ public class TestDataBuilder {
             return this;
         }
 
-        public UserProfileBuilder withQuests(List<UserQuestProgress> quests) {
-            this.quests = quests;
-            return this;
-        }
-
         public UserProfileBuilder withWeeklyStreak(Integer weeklyStreak) {
             this.weeklyStreak = weeklyStreak;
             return this;
@@ -380,11 +374,6 @@ public class TestDataBuilder {
             return this;
         }
 
-        public UserProfileBuilder addQuest(UserQuestProgress quest) {
-            this.quests.add(quest);
-            return this;
-        }
-
         public UserGamificationProfile build() {
             return UserGamificationProfile.builder()
                     .userId(userId)
@@ -393,7 +382,6 @@ public class TestDataBuilder {
                     .lastLevelUpDate(lastLevelUpDate)
                     .streaks(streaks)
                     .earnedBadges(earnedBadges)
-                    .quests(quests)
                     .weeklyStreak(weeklyStreak)
                     .longestWeeklyStreak(longestWeeklyStreak)
                     .monthlyStreak(monthlyStreak)
@@ -539,7 +527,6 @@ public class TestDataBuilder {
                 .withPoints(1500)
                 .withLevel(5)
                 .addBadge(userBadge().withBadgeId("first-workout").build())
-                .addQuest(userQuestProgress().withStatus(QuestStatus.IN_PROGRESS).withObjectiveProgress(2).build())
                 .build();
     }
 }
\ No newline at end of file